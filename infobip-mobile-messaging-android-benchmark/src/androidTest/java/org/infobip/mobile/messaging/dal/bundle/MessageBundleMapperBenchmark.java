@@ -0,0 +1,127 @@
+package org.infobip.mobile.messaging.dal.bundle;
+
+import android.os.Bundle;
+import android.os.Parcel;
+import android.util.Log;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.infobip.mobile.messaging.Message;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares message bundles with JSON contents to bundles with parceled message,
+ * by time to write and read them and by size of the bundle when it is sent via intent.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MessageBundleMapperBenchmark {
+
+    private static final String TAG = "MessageBundleBenchmark";
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Message message;
+    private Bundle jsonBundle;
+    private Bundle parcelBundle;
+
+    @Before
+    public void setUp() throws Exception {
+        message = new Message("someMessageId", "someTitle", "someBody", "someSound", true, "someIcon", true, "someCategory",
+                "someFrom", 1L, 2L, 3L, new JSONObject().put("key", "value").put("number", 1).put("nested", new JSONObject().put("key", "value")),
+                "{\"internal\":\"data\"}", "someDestination", Message.Status.SUCCESS, "someStatusMessage", "http://www.example.com/image.png",
+                Message.InAppStyle.BANNER, 4L, "http://www.example.com/webView", "http://www.example.com/browser", Message.MESSAGE_TYPE_CHAT,
+                "app://deeplink", "someOpenTitle", "someDismissTitle");
+        jsonBundle = MessageBundleMapper.messageToBundle(message);
+        parcelBundle = MessageBundleMapper.messageToInternalBundle(message);
+    }
+
+    @Test
+    public void toBundle_json() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            MessageBundleMapper.messageToBundle(message);
+        }
+    }
+
+    @Test
+    public void toBundle_parcel() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            MessageBundleMapper.messageToInternalBundle(message);
+        }
+    }
+
+    @Test
+    public void fromBundle_json() {
+        BenchmarkState state = benchmarkRule.getState();
+        Message actual = null;
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            Bundle bundle = marshalled(jsonBundle);
+            state.resumeTiming();
+
+            actual = MessageBundleMapper.messageFromBundle(bundle);
+        }
+        assertEquals(message.getMessageId(), actual.getMessageId());
+    }
+
+    @Test
+    public void fromBundle_parcel() {
+        BenchmarkState state = benchmarkRule.getState();
+        Message actual = null;
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            Bundle bundle = marshalled(parcelBundle);
+            state.resumeTiming();
+
+            actual = MessageBundleMapper.messageFromBundle(bundle);
+        }
+        assertEquals(message.getMessageId(), actual.getMessageId());
+    }
+
+    @Test
+    public void bundleSize() {
+        int jsonSize = sizeOf(jsonBundle);
+        int parcelSize = sizeOf(parcelBundle);
+
+        Log.i(TAG, String.format("Size of message bundle in parcel: JSON %d bytes, parcel %d bytes", jsonSize, parcelSize));
+        assertTrue(jsonSize > 0);
+        assertTrue(parcelSize > 0);
+    }
+
+    /**
+     * @return copy of the bundle after it is written to parcel and read back, like when it's delivered via intent
+     */
+    private static Bundle marshalled(Bundle bundle) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeBundle(bundle);
+            parcel.setDataPosition(0);
+            Bundle copy = parcel.readBundle(MessageBundleMapperBenchmark.class.getClassLoader());
+            copy.size();
+            return copy;
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    private static int sizeOf(Bundle bundle) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeBundle(bundle);
+            return parcel.dataSize();
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
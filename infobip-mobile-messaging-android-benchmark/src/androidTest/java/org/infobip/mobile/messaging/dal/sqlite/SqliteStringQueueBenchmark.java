@@ -0,0 +1,112 @@
+package org.infobip.mobile.messaging.dal.sqlite;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.infobip.mobile.messaging.MobileMessagingCore;
+import org.infobip.mobile.messaging.MobileMessagingProperty;
+import org.infobip.mobile.messaging.util.PreferenceHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures operations on a message id queue which already holds {@link #NUMBER_OF_IDS} ids,
+ * compared to the same string set kept in shared preferences.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SqliteStringQueueBenchmark {
+
+    private static final int NUMBER_OF_IDS = 10000;
+    private static final int DRAIN_BATCH_SIZE = 100;
+    private static final String PREFS_STRING_SET_KEY = "org.infobip.mobile.messaging.benchmark.STRING_SET";
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Context context;
+    private SqliteStringQueue queue;
+    private String[] ids;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        queue = new SqliteStringQueue(MobileMessagingCore.getDatabaseProvider(context), MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS.getKey());
+        ids = new String[NUMBER_OF_IDS];
+        for (int i = 0; i < NUMBER_OF_IDS; i++) {
+            ids[i] = "messageId" + i;
+        }
+        queue.replaceAll(ids);
+    }
+
+    @After
+    public void tearDown() {
+        queue.clear();
+        PreferenceHelper.remove(context, PREFS_STRING_SET_KEY);
+    }
+
+    @Test
+    public void append() {
+        BenchmarkState state = benchmarkRule.getState();
+        int i = 0;
+        while (state.keepRunning()) {
+            String id = "newMessageId" + i++;
+            queue.append(id);
+
+            state.pauseTiming();
+            queue.remove(id);
+            state.resumeTiming();
+        }
+        assertEquals(NUMBER_OF_IDS, queue.count());
+    }
+
+    @Test
+    public void drainBatch() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            List<String> batch = queue.drain(DRAIN_BATCH_SIZE);
+
+            state.pauseTiming();
+            queue.append(batch.toArray(new String[0]));
+            state.resumeTiming();
+        }
+        assertEquals(NUMBER_OF_IDS, queue.count());
+    }
+
+    @Test
+    public void count() {
+        BenchmarkState state = benchmarkRule.getState();
+        long count = 0;
+        while (state.keepRunning()) {
+            count = queue.count();
+        }
+        assertEquals(NUMBER_OF_IDS, count);
+    }
+
+    @Test
+    public void append_sharedPreferences() {
+        PreferenceHelper.saveStringArray(context, PREFS_STRING_SET_KEY, ids);
+
+        BenchmarkState state = benchmarkRule.getState();
+        int i = 0;
+        while (state.keepRunning()) {
+            String id = "newMessageId" + i++;
+            PreferenceHelper.appendToStringArray(context, PREFS_STRING_SET_KEY, id);
+
+            state.pauseTiming();
+            PreferenceHelper.deleteFromStringArray(context, PREFS_STRING_SET_KEY, id);
+            state.resumeTiming();
+        }
+        assertEquals(NUMBER_OF_IDS, PreferenceHelper.findStringArray(context, PREFS_STRING_SET_KEY, new String[0]).length);
+    }
+}
@@ -0,0 +1,126 @@
+package org.infobip.mobile.messaging.mobileapi;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.infobip.mobile.messaging.MobileMessagingCore;
+import org.infobip.mobile.messaging.MobileMessagingProperty;
+import org.infobip.mobile.messaging.api.support.CustomApiHeaders;
+import org.infobip.mobile.messaging.api.support.http.client.HttpMethod;
+import org.infobip.mobile.messaging.api.support.http.client.Request;
+import org.infobip.mobile.messaging.util.PreferenceHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Measures building of SDK request headers with the in-memory property cache in use
+ * and with the cache dropped before every call, which matches reading all properties from preferences.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaseUrlManagerBenchmark {
+
+    private static final MobileMessagingProperty[] PROPERTIES = {
+            MobileMessagingProperty.APPLICATION_CODE,
+            MobileMessagingProperty.INFOBIP_REGISTRATION_ID,
+            MobileMessagingProperty.UNIVERSAL_INSTALLATION_ID,
+            MobileMessagingProperty.ACTIVE_SESSION_START_TIME_MILLIS
+    };
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Context context;
+    private MobileMessagingCore mobileMessagingCore;
+    private MobileApiResourceProvider.BaseUrlManager baseUrlManager;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        PreferenceHelper.saveString(context, MobileMessagingProperty.APPLICATION_CODE, "TestApplicationCode");
+        PreferenceHelper.saveString(context, MobileMessagingProperty.INFOBIP_REGISTRATION_ID, "TestDeviceRegId");
+        PreferenceHelper.saveString(context, MobileMessagingProperty.UNIVERSAL_INSTALLATION_ID, "UniversalInstallationId");
+        PreferenceHelper.saveLong(context, MobileMessagingProperty.ACTIVE_SESSION_START_TIME_MILLIS, System.currentTimeMillis());
+
+        mobileMessagingCore = MobileMessagingCore.getInstance(context);
+        baseUrlManager = new MobileApiResourceProvider().new BaseUrlManager(context);
+    }
+
+    @After
+    public void tearDown() {
+        for (MobileMessagingProperty property : PROPERTIES) {
+            PreferenceHelper.remove(context, property);
+        }
+    }
+
+    @Test
+    public void intercept_cached() {
+        BenchmarkState state = benchmarkRule.getState();
+        Request request = null;
+        while (state.keepRunning()) {
+            request = baseUrlManager.intercept(newRequest());
+        }
+        assertHeaders(request);
+    }
+
+    @Test
+    public void intercept_uncached() {
+        BenchmarkState state = benchmarkRule.getState();
+        Request request = null;
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            PreferenceHelper.resetCache();
+            state.resumeTiming();
+
+            request = baseUrlManager.intercept(newRequest());
+        }
+        assertHeaders(request);
+    }
+
+    @Test
+    public void getSessionIdHeader_cached() {
+        BenchmarkState state = benchmarkRule.getState();
+        String header = null;
+        while (state.keepRunning()) {
+            header = mobileMessagingCore.getSessionIdHeader();
+        }
+        assertNotNull(header);
+    }
+
+    @Test
+    public void getSessionIdHeader_uncached() {
+        BenchmarkState state = benchmarkRule.getState();
+        String header = null;
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            PreferenceHelper.resetCache();
+            state.resumeTiming();
+
+            header = mobileMessagingCore.getSessionIdHeader();
+        }
+        assertNotNull(header);
+    }
+
+    private static Request newRequest() {
+        return new Request(HttpMethod.POST, "https://localhost/mobile/1/data/user", null, null,
+                new HashMap<String, Collection<Object>>(), new HashMap<String, Collection<Object>>(), null);
+    }
+
+    private static void assertHeaders(Request request) {
+        assertNotNull(request);
+        assertEquals("UniversalInstallationId", request.getHeaders().get(CustomApiHeaders.INSTALLATION_ID.getValue()).iterator().next());
+        assertEquals("TestDeviceRegId", request.getHeaders().get(CustomApiHeaders.PUSH_REGISTRATION_ID.getValue()).iterator().next());
+    }
+}
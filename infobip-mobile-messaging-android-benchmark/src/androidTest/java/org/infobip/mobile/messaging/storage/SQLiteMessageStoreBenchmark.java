@@ -0,0 +1,86 @@
+package org.infobip.mobile.messaging.storage;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.infobip.mobile.messaging.Message;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures loading of all messages from the message store with all columns filled in, including internal data.
+ */
+@RunWith(Parameterized.class)
+public class SQLiteMessageStoreBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Parameterized.Parameters(name = "rows={0}")
+    public static Collection<Object[]> rows() {
+        return Arrays.asList(new Object[][]{{1000}, {10000}, {50000}});
+    }
+
+    private final int rows;
+    private Context context;
+    private SQLiteMessageStore messageStore;
+
+    public SQLiteMessageStoreBenchmark(int rows) {
+        this.rows = rows;
+    }
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        messageStore = new SQLiteMessageStore();
+        messageStore.deleteAll(context);
+        messageStore.save(context, messages(rows));
+    }
+
+    @After
+    public void tearDown() {
+        messageStore.deleteAll(context);
+    }
+
+    @Test
+    public void findAll() {
+        BenchmarkState state = benchmarkRule.getState();
+        List<Message> messages = null;
+        while (state.keepRunning()) {
+            messages = messageStore.findAll(context);
+        }
+        assertEquals(rows, messages.size());
+    }
+
+    private static Message[] messages(int count) {
+        Message[] messages = new Message[count];
+        for (int i = 0; i < count; i++) {
+            Message message = new Message();
+            message.setMessageId("message" + i);
+            message.setTitle("Order update");
+            message.setBody("Your order has been shipped and will arrive tomorrow");
+            message.setReceivedTimestamp(1000L + i);
+            message.setSeenTimestamp(i % 2 == 0 ? 2000L + i : 0);
+            message.setSentTimestamp(1000L + i);
+            message.setContentUrl("https://www.example.com/image.png");
+            message.setInAppStyle(Message.InAppStyle.BANNER);
+            message.setWebViewUrl("https://www.example.com/webview");
+            message.setDeeplink("app://orders/" + i);
+            messages[i] = message;
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,124 @@
+package org.infobip.mobile.messaging.chat.attachments;
+
+import android.util.Base64;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static org.infobip.mobile.messaging.chat.attachments.InAppChatBufferPool.BUFFER_SIZE;
+
+public class InAppChatAttachmentReaderTest {
+
+    private final List<Long> progress = new ArrayList<>();
+
+    @Test
+    public void test_shouldNotReadAnyChunkOfEmptyContent() throws Exception {
+        List<String> chunks = readAll(content(0));
+
+        assertEquals(0, chunks.size());
+        assertEquals(0, progress.size());
+    }
+
+    @Test
+    public void test_shouldReadContentSmallerThanChunkAsSingleChunk() throws Exception {
+        byte[] content = content(BUFFER_SIZE - 1);
+
+        List<String> chunks = readAll(content);
+
+        assertEquals(1, chunks.size());
+        assertEquals(BUFFER_SIZE - 1, Base64.decode(chunks.get(0), Base64.NO_WRAP).length);
+        assertEquals(base64(content), join(chunks));
+        assertEquals((long) BUFFER_SIZE - 1, (long) progress.get(0));
+    }
+
+    @Test
+    public void test_shouldReadContentOfChunkSizeAsSingleChunk() throws Exception {
+        byte[] content = content(BUFFER_SIZE);
+
+        List<String> chunks = readAll(content);
+
+        assertEquals(1, chunks.size());
+        assertEquals(base64(content), join(chunks));
+        assertEquals((long) BUFFER_SIZE, (long) progress.get(0));
+    }
+
+    @Test
+    public void test_shouldReadLastPartialChunkAndConcatenateChunksToBase64OfContent() throws Exception {
+        byte[] content = content(BUFFER_SIZE + 1);
+
+        List<String> chunks = readAll(content);
+
+        assertEquals(2, chunks.size());
+        assertEquals(BUFFER_SIZE, Base64.decode(chunks.get(0), Base64.NO_WRAP).length);
+        assertEquals(1, Base64.decode(chunks.get(1), Base64.NO_WRAP).length);
+        // only the last chunk may have padding
+        assertEquals(-1, chunks.get(0).indexOf('='));
+        assertEquals(base64(content), join(chunks));
+        assertEquals(2, progress.size());
+        assertEquals((long) BUFFER_SIZE, (long) progress.get(0));
+        assertEquals((long) BUFFER_SIZE + 1, (long) progress.get(1));
+    }
+
+    @Test
+    public void test_shouldStreamChunksAndReleaseAttachmentWhenAllContentIsRead() {
+        byte[] content = content(BUFFER_SIZE + 1);
+        String attachmentId = InAppChatAttachmentStreams.register(attachment(content));
+
+        String first = InAppChatAttachmentStreams.readChunk(attachmentId);
+        String second = InAppChatAttachmentStreams.readChunk(attachmentId);
+        String end = InAppChatAttachmentStreams.readChunk(attachmentId);
+
+        assertEquals(base64(content), first + second);
+        assertEquals("", end);
+        assertNull(InAppChatAttachmentStreams.readChunk(attachmentId));
+    }
+
+    private List<String> readAll(byte[] content) throws IOException {
+        List<String> chunks = new ArrayList<>();
+        InAppChatAttachmentReader reader = new InAppChatAttachmentReader(attachment(content));
+        try {
+            String chunk;
+            while ((chunk = reader.readChunk()) != null) {
+                chunks.add(chunk);
+            }
+        } finally {
+            reader.close();
+        }
+        return chunks;
+    }
+
+    private InAppChatMobileAttachment attachment(byte[] content) {
+        InAppChatMobileAttachment attachment = new InAppChatMobileAttachment("application/octet-stream", base64(content), "attachment");
+        attachment.setProgressListener(new InAppChatMobileAttachment.ProgressListener() {
+            @Override
+            public void onProgress(InAppChatMobileAttachment attachment, long bytesRead, long totalBytes) {
+                progress.add(bytesRead);
+            }
+        });
+        return attachment;
+    }
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+
+    private static String base64(byte[] content) {
+        return Base64.encodeToString(content, Base64.NO_WRAP);
+    }
+
+    private static String join(List<String> chunks) {
+        StringBuilder builder = new StringBuilder();
+        for (String chunk : chunks) {
+            builder.append(chunk);
+        }
+        return builder.toString();
+    }
+}
@@ -30,7 +30,6 @@ import org.infobip.mobile.messaging.chat.properties.PropertyHelper;
 import org.infobip.mobile.messaging.chat.view.InAppChatActivity;
 import org.infobip.mobile.messaging.chat.view.InAppChatFragment;
 import org.infobip.mobile.messaging.chat.view.InAppChatWebView;
-import org.infobip.mobile.messaging.dal.bundle.MessageBundleMapper;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.mobileapi.MobileApiResourceProvider;
 import org.infobip.mobile.messaging.mobileapi.MobileMessagingError;
@@ -253,7 +252,7 @@ public class InAppChatImpl extends InAppChat implements MessageHandlerModule {
     @NonNull
     private TaskStackBuilder stackBuilderForNotificationTap(Message message) {
         TaskStackBuilder stackBuilder = TaskStackBuilder.create(context);
-        Bundle messageBundle = MessageBundleMapper.messageToBundle(message);
+        Bundle messageBundle = message.toBundle();
         Class[] classes = propertyHelper().findClasses(MobileMessagingChatProperty.ON_MESSAGE_TAP_ACTIVITY_CLASSES);
         if (classes != null) {
             for (Class cls : classes) {
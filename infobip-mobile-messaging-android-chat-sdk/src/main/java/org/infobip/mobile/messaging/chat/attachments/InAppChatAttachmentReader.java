@@ -0,0 +1,62 @@
+package org.infobip.mobile.messaging.chat.attachments;
+
+import android.util.Base64;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads attachment content and encodes it to Base64 one chunk at a time,
+ * only a single pooled buffer of the content is held in memory.
+ */
+class InAppChatAttachmentReader implements Closeable {
+
+    private final InAppChatMobileAttachment attachment;
+    private final InputStream stream;
+    private byte[] buffer;
+    private long bytesRead;
+
+    InAppChatAttachmentReader(InAppChatMobileAttachment attachment) throws IOException {
+        this.attachment = attachment;
+        this.stream = attachment.openStream();
+        this.buffer = InAppChatBufferPool.acquire();
+    }
+
+    /**
+     * @return Base64 (without line wraps) of the next chunk of content, null when all content is read.
+     * Chunks can be concatenated into Base64 of the whole content.
+     */
+    @Nullable
+    String readChunk() throws IOException {
+        if (buffer == null) {
+            throw new IOException("Reader is closed");
+        }
+
+        int length = 0;
+        int read;
+        // fill the whole buffer so that only the last chunk has Base64 padding
+        while (length < buffer.length && (read = stream.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+        }
+        if (length == 0) {
+            return null;
+        }
+
+        bytesRead += length;
+        attachment.notifyProgress(bytesRead);
+        return Base64.encodeToString(buffer, 0, length, Base64.NO_WRAP);
+    }
+
+    @Override
+    public void close() {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+        }
+        InAppChatBufferPool.release(buffer);
+        buffer = null;
+        attachment.release();
+    }
+}
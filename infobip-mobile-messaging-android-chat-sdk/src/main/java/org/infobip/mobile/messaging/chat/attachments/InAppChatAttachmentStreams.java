@@ -0,0 +1,97 @@
+package org.infobip.mobile.messaging.chat.attachments;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Attachments which are being sent to the chat widget.
+ * <br>
+ * Widget pulls content of registered attachment chunk by chunk through JS interface,
+ * so neither the whole content nor its Base64 is ever held on the mobile side.
+ */
+public class InAppChatAttachmentStreams {
+
+    private static final Map<String, InAppChatMobileAttachment> pending = new HashMap<>();
+    private static final Map<String, InAppChatAttachmentReader> readers = new HashMap<>();
+
+    private InAppChatAttachmentStreams() {
+    }
+
+    /**
+     * Registers attachment for sending
+     *
+     * @param attachment attachment to send
+     * @return id of the attachment to read chunks with
+     */
+    @NonNull
+    public static synchronized String register(@NonNull InAppChatMobileAttachment attachment) {
+        String attachmentId = UUID.randomUUID().toString();
+        pending.put(attachmentId, attachment);
+        return attachmentId;
+    }
+
+    /**
+     * Reads next chunk of the attachment content, attachment is released when all content is read
+     *
+     * @param attachmentId id of registered attachment
+     * @return Base64 of the next chunk, empty string when all content is read, null if attachment can't be read
+     */
+    @Nullable
+    public static synchronized String readChunk(String attachmentId) {
+        try {
+            InAppChatAttachmentReader reader = readers.get(attachmentId);
+            if (reader == null) {
+                InAppChatMobileAttachment attachment = pending.remove(attachmentId);
+                if (attachment == null) {
+                    MobileMessagingLogger.e("[InAppChat] Unknown attachment " + attachmentId);
+                    return null;
+                }
+                reader = new InAppChatAttachmentReader(attachment);
+                readers.put(attachmentId, reader);
+            }
+
+            String chunk = reader.readChunk();
+            if (chunk == null) {
+                release(attachmentId);
+                return "";
+            }
+            return chunk;
+        } catch (IOException e) {
+            MobileMessagingLogger.e("[InAppChat] Can't read attachment", e);
+            release(attachmentId);
+            return null;
+        }
+    }
+
+    public static synchronized void release(String attachmentId) {
+        InAppChatMobileAttachment attachment = pending.remove(attachmentId);
+        if (attachment != null) {
+            attachment.release();
+        }
+        InAppChatAttachmentReader reader = readers.remove(attachmentId);
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    /**
+     * Releases all attachments which were not sent completely, i.e. when the widget is destroyed
+     */
+    public static synchronized void releaseAll() {
+        for (InAppChatMobileAttachment attachment : pending.values()) {
+            attachment.release();
+        }
+        pending.clear();
+        for (InAppChatAttachmentReader reader : readers.values()) {
+            reader.close();
+        }
+        readers.clear();
+    }
+}
@@ -0,0 +1,44 @@
+package org.infobip.mobile.messaging.chat.attachments;
+
+import java.util.ArrayDeque;
+
+/**
+ * Bounded pool of fixed-size buffers used to read, decode and encode attachments.
+ * <br>
+ * At most {@link #MAX_POOLED_BUFFERS} buffers are kept between attachments, so memory used for transfers
+ * stays constant regardless of attachment size.
+ */
+class InAppChatBufferPool {
+
+    /**
+     * Multiple of 3 so that Base64 of consecutive chunks can be concatenated without padding in between
+     */
+    static final int BUFFER_SIZE = 3 * 64 * 1024;
+    static final int MAX_POOLED_BUFFERS = 4;
+
+    private static final ArrayDeque<byte[]> buffers = new ArrayDeque<>(MAX_POOLED_BUFFERS);
+
+    private InAppChatBufferPool() {
+    }
+
+    static byte[] acquire() {
+        synchronized (buffers) {
+            byte[] buffer = buffers.poll();
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+        return new byte[BUFFER_SIZE];
+    }
+
+    static void release(byte[] buffer) {
+        if (buffer == null || buffer.length != BUFFER_SIZE) {
+            return;
+        }
+        synchronized (buffers) {
+            if (buffers.size() < MAX_POOLED_BUFFERS) {
+                buffers.push(buffer);
+            }
+        }
+    }
+}
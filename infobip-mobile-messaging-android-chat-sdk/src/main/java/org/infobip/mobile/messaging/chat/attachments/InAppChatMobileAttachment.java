@@ -5,10 +5,10 @@ import android.content.Intent;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Matrix;
-import android.graphics.Rect;
 import android.net.Uri;
 import android.os.Build;
 import android.os.ParcelFileDescriptor;
+import androidx.annotation.Nullable;
 import androidx.exifinterface.media.ExifInterface;
 import android.util.Base64;
 import android.webkit.MimeTypeMap;
@@ -19,61 +19,189 @@ import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.mobileapi.InternalSdkError;
 import org.infobip.mobile.messaging.util.PreferenceHelper;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.UUID;
 
 public class InAppChatMobileAttachment {
     public static final long DEFAULT_MAX_UPLOAD_CONTENT_SIZE = 10_485_760; //10 MiB
+    /**
+     * Larger images are downscaled before sending, full resolution photos of modern cameras don't fit into memory
+     */
+    private static final int MAX_IMAGE_DIMENSION = 4096;
+    private static final String TEMP_DIRECTORY = "inappchat-attachments";
 
     String base64;
     String mimeType;
     String fileName;
 
+    private Context context;
+    private Uri uri;
+    private File file;
+    private long size = -1;
+    private volatile ProgressListener progressListener;
+
+    /**
+     * Listener of attachment transfer to the chat widget
+     */
+    public interface ProgressListener {
+        /**
+         * Called on a background thread each time a chunk of the attachment is handed to the widget
+         *
+         * @param attachment attachment being sent
+         * @param bytesRead  number of bytes of the attachment handed to the widget so far
+         * @param totalBytes size of the attachment
+         */
+        void onProgress(InAppChatMobileAttachment attachment, long bytesRead, long totalBytes);
+    }
+
     public InAppChatMobileAttachment(String mimeType, String base64, String filename) {
         this.base64 = base64;
         this.mimeType = mimeType;
         this.fileName = filename;
     }
 
+    private InAppChatMobileAttachment(Context context, String mimeType, String fileName, Uri uri, File file, long size) {
+        this.context = context.getApplicationContext();
+        this.mimeType = mimeType;
+        this.fileName = fileName;
+        this.uri = uri;
+        this.file = file;
+        this.size = size;
+    }
+
+    /**
+     * Prepares attachment for sending without loading its content into memory.
+     * Images captured by camera are downscaled if needed and re-encoded to a temporary file.
+     * Should not be called on the main thread.
+     */
     public static InAppChatMobileAttachment makeAttachment(Context context, Intent data, Uri capturedMediaStoreUri, Uri capturedMediaRealUri, ParcelFileDescriptor fileDescriptor) throws InternalSdkError.InternalSdkException {
         String mimeType = getMimeType(context, data, capturedMediaRealUri);
-        byte[] bytesArray = getBytes(context, data, capturedMediaStoreUri, capturedMediaRealUri, fileDescriptor, mimeType);
-
-        if (bytesArray == null) {
+        if (mimeType == null) {
             return null;
         }
 
-        if (bytesArray.length > getAttachmentMaxSize(context)) {
-            throw InternalSdkError.ERROR_ATTACHMENT_MAX_SIZE_EXCEEDED.getException();
-        }
-
-        String encodedString = Base64.encodeToString(bytesArray, Base64.DEFAULT);
-        Uri uri = (data != null && data.getData() != null) ? data.getData() : capturedMediaRealUri;
+        //data.getData() will be null for images captured by camera
+        Uri uriFromIntent = (data != null && data.getData() != null) ? data.getData() : null;
+        Uri uri = uriFromIntent != null ? uriFromIntent : capturedMediaRealUri;
         String fileName = (uri != null) ? uri.getLastPathSegment() : UUID.randomUUID().toString();
-
         MimeTypeMap mime = MimeTypeMap.getSingleton();
         String extension = mime.getExtensionFromMimeType(mimeType);
         if (extension != null) {
             fileName += "." + extension;
         }
 
-        if (encodedString != null && mimeType != null) {
-            return new InAppChatMobileAttachment(mimeType, encodedString, fileName);
+        InAppChatMobileAttachment attachment;
+        //Ony images captured by camera are scaled for now
+        if (mimeType.equals("image/jpeg") && uriFromIntent == null) {
+            File scaledImage = writeScaledImage(context, capturedMediaStoreUri, capturedMediaRealUri, fileDescriptor);
+            if (scaledImage == null) {
+                return null;
+            }
+            attachment = new InAppChatMobileAttachment(context, mimeType, fileName, null, scaledImage, scaledImage.length());
+        } else {
+            if (uri == null) {
+                return null;
+            }
+            long size = getSize(context, uri);
+            if (size < 0) {
+                return null;
+            }
+            attachment = new InAppChatMobileAttachment(context, mimeType, fileName, uri, null, size);
+        }
+
+        if (attachment.getSize() > getAttachmentMaxSize(context)) {
+            attachment.release();
+            throw InternalSdkError.ERROR_ATTACHMENT_MAX_SIZE_EXCEEDED.getException();
         }
-        return null;
+        return attachment;
     }
 
+    /**
+     * Builds whole data URL of the attachment in memory, prefer {@link InAppChatAttachmentStreams} for sending.
+     */
+    @Deprecated
     public String base64UrlString() {
-        return "data:" + mimeType + ";base64," + CommonUtils.escapeJsonString(base64);
+        if (base64 != null) {
+            return "data:" + mimeType + ";base64," + CommonUtils.escapeJsonString(base64);
+        }
+
+        StringBuilder builder = new StringBuilder("data:" + mimeType + ";base64,");
+        InAppChatAttachmentReader reader = null;
+        try {
+            reader = new InAppChatAttachmentReader(this);
+            String chunk;
+            while ((chunk = reader.readChunk()) != null) {
+                builder.append(chunk);
+            }
+        } catch (IOException e) {
+            MobileMessagingLogger.e("[InAppChat] Can't get base64 from attachment", e);
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+        return builder.toString();
     }
 
     public String getFileName() {
         return fileName;
     }
 
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * @return size of attachment content in bytes, -1 if not known
+     */
+    public long getSize() {
+        if (size < 0 && base64 != null) {
+            size = Base64.decode(base64, Base64.DEFAULT).length;
+        }
+        return size;
+    }
+
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    void notifyProgress(long bytesRead) {
+        ProgressListener listener = progressListener;
+        if (listener != null) {
+            listener.onProgress(this, bytesRead, getSize());
+        }
+    }
+
+    InputStream openStream() throws IOException {
+        if (file != null) {
+            return new FileInputStream(file);
+        }
+        if (base64 != null) {
+            return new ByteArrayInputStream(Base64.decode(base64, Base64.DEFAULT));
+        }
+        InputStream stream = uri != null ? openStream(context, uri) : null;
+        if (stream == null) {
+            throw new IOException("Can't open attachment " + fileName);
+        }
+        return stream;
+    }
+
+    /**
+     * Removes temporary file of the attachment, if any
+     */
+    void release() {
+        if (file != null && file.exists() && !file.delete()) {
+            MobileMessagingLogger.w("[InAppChat] Can't delete temporary attachment file " + file.getName());
+        }
+    }
+
     public static String getMimeType(Context context, Intent data, Uri capturedMediaUri) {
         String mimeType = "application/octet-stream";
         if (data != null && data.getData() != null) {
@@ -87,26 +215,52 @@ public class InAppChatMobileAttachment {
         return mimeType;
     }
 
-    private static byte[] getBytes(Context context, Intent data, Uri capturedMediaStoreUri, Uri capturedMediaRealUri, ParcelFileDescriptor fileDescriptor, String mimeType) {
-        Uri uriFromIntent = null;
-
-        //data.getData() will be null for images captured by camera
-        if (data != null && data.getData() != null) {
-            uriFromIntent = data.getData();
+    /**
+     * Loads whole scaled image into memory, {@link #makeAttachment(Context, Intent, Uri, Uri, ParcelFileDescriptor)} streams it from a temporary file instead.
+     */
+    @Deprecated
+    public static byte[] getBytesWithBitmapScaling(Context context, Uri mediaStoreUri, Uri imageUri, ParcelFileDescriptor fileDescriptor) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        if (!writeScaledImage(context, mediaStoreUri, imageUri, fileDescriptor, outputStream)) {
+            return null;
         }
-        //Ony images captured by camera are scaled for now
-        if (mimeType.equals("image/jpeg") && uriFromIntent == null) {
-            return getBytesWithBitmapScaling(context, capturedMediaStoreUri, capturedMediaRealUri, fileDescriptor);
-        } else if (uriFromIntent != null) {
-            return getBytes(context, uriFromIntent);
-        } else {
-            return getBytes(context, capturedMediaRealUri);
+        return outputStream.toByteArray();
+    }
+
+    @Nullable
+    private static File writeScaledImage(Context context, Uri mediaStoreUri, Uri imageUri, ParcelFileDescriptor fileDescriptor) {
+        File file = null;
+        OutputStream outputStream = null;
+        boolean written = false;
+        try {
+            File directory = new File(context.getCacheDir(), TEMP_DIRECTORY);
+            if (!directory.exists() && !directory.mkdirs()) {
+                MobileMessagingLogger.e("[InAppChat] Can't create directory for temporary saving attachment");
+                return null;
+            }
+            file = File.createTempFile("IMG_", ".jpg", directory);
+            outputStream = new FileOutputStream(file);
+            written = writeScaledImage(context, mediaStoreUri, imageUri, fileDescriptor, outputStream);
+        } catch (IOException exception) {
+            MobileMessagingLogger.e("[InAppChat] can't save image to send attachment", exception);
+        } finally {
+            if (outputStream != null) {
+                try {
+                    outputStream.close();
+                } catch (IOException exception) {
+                    written = false;
+                }
+            }
+            if (!written && file != null && !file.delete()) {
+                MobileMessagingLogger.w("[InAppChat] Can't delete temporary attachment file " + file.getName());
+            }
         }
+        return written ? file : null;
     }
 
-    public static byte[] getBytesWithBitmapScaling(Context context, Uri mediaStoreUri, Uri imageUri, ParcelFileDescriptor fileDescriptor) {
-        if (imageUri == null) {
-            return null;
+    private static boolean writeScaledImage(Context context, Uri mediaStoreUri, Uri imageUri, ParcelFileDescriptor fileDescriptor, OutputStream outputStream) {
+        if (imageUri == null || fileDescriptor == null) {
+            return false;
         }
 
         long fileSize = fileDescriptor.getStatSize();
@@ -115,43 +269,65 @@ public class InAppChatMobileAttachment {
             filePath = imageUri.getPath();
         } catch (Exception exception) {
             MobileMessagingLogger.e("[InAppChat] can't load image to send attachment", exception);
-            return null;
+            return false;
         }
 
         boolean shouldScaleImage = fileSize > getAttachmentMaxSize(context);
         int imageQuality = fileSize > DEFAULT_MAX_UPLOAD_CONTENT_SIZE / 2 ? 80 : 100;
 
         BitmapFactory.Options options = new BitmapFactory.Options();
+        // decode only dimensions first, descriptor position is not changed by decoding
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFileDescriptor(fileDescriptor.getFileDescriptor(), null, options);
         //  setting inSampleSize value allows to load a scaled down version of the original image
-        options.inSampleSize = shouldScaleImage ? 2 : 1;
+        options.inSampleSize = getSampleSize(options.outWidth, options.outHeight, shouldScaleImage);
         // set to false to load the actual bitmap
         options.inJustDecodeBounds = false;
         //  this options allow android to claim the bitmap memory if it runs low on memory
         options.inPurgeable = true;
         options.inInputShareable = true;
-        options.inTempStorage = new byte[16 * 1024];
+        byte[] tempStorage = InAppChatBufferPool.acquire();
+        options.inTempStorage = tempStorage;
 
         Bitmap bitmap;
         try {
-//            bitmap = BitmapFactory.decodeFile(filePath, options);
-//            if (bitmap == null) {
-                bitmap = BitmapFactory.decodeFileDescriptor(fileDescriptor.getFileDescriptor(), new Rect(-1, -1, -1, -1), options);
-//            }
+            bitmap = BitmapFactory.decodeFileDescriptor(fileDescriptor.getFileDescriptor(), null, options);
         } catch (Exception exception) {
             MobileMessagingLogger.e("[InAppChat] can't load image to send attachment", exception);
-            return null;
+            return false;
+        } finally {
+            InAppChatBufferPool.release(tempStorage);
+        }
+        if (bitmap == null) {
+            MobileMessagingLogger.e("[InAppChat] can't decode image to send attachment");
+            return false;
         }
 
         //  check the rotation of the image and display it properly
         int orientationDegree = getExifOrientationDegree(context, filePath, mediaStoreUri);
-        Matrix rotationMatrix = new Matrix();
-        rotationMatrix.postRotate(orientationDegree);
-        bitmap = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), rotationMatrix, true);
+        if (orientationDegree != 0) {
+            Matrix rotationMatrix = new Matrix();
+            rotationMatrix.postRotate(orientationDegree);
+            Bitmap rotated = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), rotationMatrix, true);
+            if (rotated != bitmap) {
+                bitmap.recycle();
+                bitmap = rotated;
+            }
+        }
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.JPEG, imageQuality, outputStream);
-        bitmap.recycle();
-        return outputStream.toByteArray();
+        try {
+            return bitmap.compress(Bitmap.CompressFormat.JPEG, imageQuality, outputStream);
+        } finally {
+            bitmap.recycle();
+        }
+    }
+
+    static int getSampleSize(int width, int height, boolean shouldScaleImage) {
+        int sampleSize = shouldScaleImage ? 2 : 1;
+        while (Math.max(width, height) / sampleSize > MAX_IMAGE_DIMENSION) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
     }
 
     private static int getExifOrientationDegree(Context context, String filepath, Uri mediaStoreUri) {
@@ -196,41 +372,60 @@ public class InAppChatMobileAttachment {
         return degree;
     }
 
-    private static byte[] getBytes(Context context, Uri uri) {
-        if (uri == null) {
-            return null;
+    @Nullable
+    private static InputStream openStream(Context context, Uri uri) throws IOException {
+        if (Build.VERSION.SDK_INT >= 24) {
+            ParcelFileDescriptor fileDescriptor = context.getContentResolver().openFileDescriptor(uri, "r", null);
+            return fileDescriptor != null ? new ParcelFileDescriptor.AutoCloseInputStream(fileDescriptor) : null;
         }
+        return context.getContentResolver().openInputStream(uri);
+    }
+
+    /**
+     * @return size of the content behind the uri, counted by reading it through if provider doesn't report it, -1 on error
+     */
+    private static long getSize(Context context, Uri uri) {
+        ParcelFileDescriptor fileDescriptor = null;
         try {
-            InputStream stream = null;
-            if (Build.VERSION.SDK_INT >= 24) {
-                ParcelFileDescriptor fileDescriptor = context.getContentResolver().openFileDescriptor(uri, "r", null);
-                stream = new FileInputStream(fileDescriptor.getFileDescriptor());
-            } else {
-                stream = context.getContentResolver().openInputStream(uri);
-            }
-            if (stream == null) {
-                MobileMessagingLogger.e("[InAppChat] Can't get base64 from Uri");
-                return null;
+            fileDescriptor = context.getContentResolver().openFileDescriptor(uri, "r");
+            if (fileDescriptor != null && fileDescriptor.getStatSize() >= 0) {
+                return fileDescriptor.getStatSize();
             }
-            byte[] bytes = getBytes(stream);
-            stream.close();
-            return bytes;
         } catch (Exception e) {
-            MobileMessagingLogger.e("[InAppChat] Can't get base64 from Uri", e);
-            return null;
+            MobileMessagingLogger.d("[InAppChat] Can't get attachment size from file descriptor", e);
+        } finally {
+            if (fileDescriptor != null) {
+                try {
+                    fileDescriptor.close();
+                } catch (IOException ignored) {}
+            }
         }
-    }
-
-    private static byte[] getBytes(InputStream inputStream) throws IOException {
-        ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
-        int bufferSize = 1024;
-        byte[] buffer = new byte[bufferSize];
 
-        int len = 0;
-        while ((len = inputStream.read(buffer)) != -1) {
-            byteBuffer.write(buffer, 0, len);
+        InputStream stream = null;
+        byte[] buffer = InAppChatBufferPool.acquire();
+        try {
+            stream = openStream(context, uri);
+            if (stream == null) {
+                MobileMessagingLogger.e("[InAppChat] Can't read attachment from Uri");
+                return -1;
+            }
+            long size = 0;
+            int len;
+            while ((len = stream.read(buffer)) != -1) {
+                size += len;
+            }
+            return size;
+        } catch (Exception e) {
+            MobileMessagingLogger.e("[InAppChat] Can't read attachment from Uri", e);
+            return -1;
+        } finally {
+            InAppChatBufferPool.release(buffer);
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException ignored) {}
+            }
         }
-        return byteBuffer.toByteArray();
     }
 
     private static Long getAttachmentMaxSize(Context context) {
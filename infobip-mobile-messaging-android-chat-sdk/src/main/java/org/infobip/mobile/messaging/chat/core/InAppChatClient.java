@@ -21,6 +21,13 @@ public interface InAppChatClient {
      */
     void sendChatMessage(String message, InAppChatMobileAttachment attachment);
 
+    /**
+     * Send chunk of attachment content requested by the widget
+     * @param attachmentId id of the attachment
+     * @param chunk Base64 of the chunk, empty when all content is sent, null if attachment can't be read
+     */
+    void sendAttachmentChunk(String attachmentId, String chunk);
+
     /**
      * Send intermediate state of message input component
      * @param draft user message draft
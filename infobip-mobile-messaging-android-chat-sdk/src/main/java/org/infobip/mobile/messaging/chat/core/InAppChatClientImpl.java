@@ -1,13 +1,16 @@
 package org.infobip.mobile.messaging.chat.core;
 
+import org.infobip.mobile.messaging.chat.attachments.InAppChatAttachmentStreams;
 import org.infobip.mobile.messaging.chat.attachments.InAppChatMobileAttachment;
 import org.infobip.mobile.messaging.chat.view.InAppChatWebView;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.util.StringUtils;
 
+import static org.infobip.mobile.messaging.chat.core.InAppChatWidgetMethods.handleAttachmentChunk;
+import static org.infobip.mobile.messaging.chat.core.InAppChatWidgetMethods.handleAttachmentChunkError;
 import static org.infobip.mobile.messaging.chat.core.InAppChatWidgetMethods.handleMessageDraftSend;
 import static org.infobip.mobile.messaging.chat.core.InAppChatWidgetMethods.handleMessageSend;
-import static org.infobip.mobile.messaging.chat.core.InAppChatWidgetMethods.handleMessageWithAttachmentSend;
+import static org.infobip.mobile.messaging.chat.core.InAppChatWidgetMethods.handleMessageWithAttachmentStreamSend;
 import static org.infobip.mobile.messaging.chat.utils.CommonUtils.isOSOlderThanKitkat;
 import static org.infobip.mobile.messaging.util.StringUtils.isNotBlank;
 
@@ -29,16 +32,29 @@ public class InAppChatClientImpl implements InAppChatClient {
 
     @Override
     public void sendChatMessage(String message, InAppChatMobileAttachment attachment) {
-        String base64UrlString = attachment.base64UrlString();
-        String fileName = attachment.getFileName();
+        if (webView == null || attachment == null) {
+            MobileMessagingLogger.e("[InAppChat] can't send attachment, attachment or web view is missing");
+            return;
+        }
 
         // message can be null - its OK
-        if (canSendMessage(base64UrlString)) {
-            String script = buildWidgetMethodInvocation(handleMessageWithAttachmentSend.name(), isOSOlderThanKitkat(), message, base64UrlString, fileName);
-            webView.evaluateJavascriptMethod(script, null);
-        } else {
-            MobileMessagingLogger.e("[InAppChat] can't send attachment, base64 is empty");
+        // content is not passed in the script, widget pulls it chunk by chunk from InAppChatAttachmentStreams
+        String attachmentId = InAppChatAttachmentStreams.register(attachment);
+        String script = buildWidgetMethodInvocation(handleMessageWithAttachmentStreamSend.name(), isOSOlderThanKitkat(), message, attachmentId, attachment.getMimeType(), attachment.getFileName());
+        webView.evaluateJavascriptMethod(script, null);
+    }
+
+    @Override
+    public void sendAttachmentChunk(String attachmentId, String chunk) {
+        if (webView == null) {
+            InAppChatAttachmentStreams.release(attachmentId);
+            return;
         }
+
+        String script = chunk != null ?
+                buildWidgetMethodInvocation(handleAttachmentChunk.name(), isOSOlderThanKitkat(), attachmentId, chunk) :
+                buildWidgetMethodInvocation(handleAttachmentChunkError.name(), isOSOlderThanKitkat(), attachmentId);
+        webView.evaluateJavascriptMethod(script, null);
     }
 
     @Override
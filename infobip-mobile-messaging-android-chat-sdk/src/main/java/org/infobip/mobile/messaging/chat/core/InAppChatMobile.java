@@ -35,4 +35,12 @@ interface InAppChatMobile {
      * @param caption name of preview file
      */
     void openAttachmentPreview(String url, String type, String caption);
+
+    /**
+     * Requests next chunk of attachment which is being sent, widget keeps requesting until all chunks are read.
+     * Chunk is read in background and delivered to the widget with {@link InAppChatWidgetMethods#handleAttachmentChunk}
+     * or {@link InAppChatWidgetMethods#handleAttachmentChunkError} if attachment can't be read.
+     * @param attachmentId id of the attachment
+     */
+    void requestAttachmentChunk(String attachmentId);
 }
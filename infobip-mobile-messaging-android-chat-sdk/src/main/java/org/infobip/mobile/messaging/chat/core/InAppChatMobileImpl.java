@@ -6,7 +6,10 @@ import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentActivity;
 import android.webkit.JavascriptInterface;
 
+import org.infobip.mobile.messaging.chat.attachments.InAppChatAttachmentStreams;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
+import org.infobip.mobile.messaging.platform.MobileMessagingExecutors;
+import org.infobip.mobile.messaging.platform.Platform;
 
 public class InAppChatMobileImpl implements InAppChatMobile {
 
@@ -79,4 +82,24 @@ public class InAppChatMobileImpl implements InAppChatMobile {
         };
         handler.post(myRunnable);
     }
+
+    @Override
+    @JavascriptInterface
+    public void requestAttachmentChunk(final String attachmentId) {
+        // JS bridge thread must not be blocked with reading, chunks are read one by one on the attachments queue
+        Platform.executors().queue(MobileMessagingExecutors.QUEUE_ATTACHMENTS).execute(new Runnable() {
+            @Override
+            public void run() {
+                final String chunk = InAppChatAttachmentStreams.readChunk(attachmentId);
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (inAppChatWebViewManager != null) {
+                            inAppChatWebViewManager.onAttachmentChunk(attachmentId, chunk);
+                        }
+                    }
+                });
+            }
+        });
+    }
 }
@@ -11,4 +11,5 @@ public interface InAppChatWebViewManager {
     void onJSError();
     void setControlsVisibility(boolean isVisible);
     void openAttachmentPreview(String url, String type, String caption);
+    void onAttachmentChunk(String attachmentId, String chunk);
 }
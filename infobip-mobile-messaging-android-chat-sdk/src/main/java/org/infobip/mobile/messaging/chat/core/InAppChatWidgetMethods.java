@@ -4,5 +4,8 @@ public enum InAppChatWidgetMethods {
 
     handleMessageSend,
     handleMessageWithAttachmentSend,
+    handleMessageWithAttachmentStreamSend,
+    handleAttachmentChunk,
+    handleAttachmentChunkError,
     handleMessageDraftSend
 }
@@ -58,7 +58,7 @@ public class InAppChatSynchronizer {
             return;
         }
 
-        new MRetryableTask<Void, WidgetInfo>() {
+        new MRetryableTask<Void, WidgetInfo>(mobileMessagingCore.getExecutors()) {
 
             @Override
             public WidgetInfo run(Void[] voids) {
@@ -64,6 +64,7 @@ import org.infobip.mobile.messaging.chat.InAppChatErrors;
 import org.infobip.mobile.messaging.chat.InAppChatImpl;
 import org.infobip.mobile.messaging.chat.R;
 import org.infobip.mobile.messaging.chat.attachments.InAppChatAttachmentHelper;
+import org.infobip.mobile.messaging.chat.attachments.InAppChatAttachmentStreams;
 import org.infobip.mobile.messaging.chat.attachments.InAppChatMobileAttachment;
 import org.infobip.mobile.messaging.chat.attachments.PermissionsRequestManager;
 import org.infobip.mobile.messaging.chat.core.InAppChatClient;
@@ -190,6 +191,7 @@ public class InAppChatFragment extends Fragment implements InAppChatWebViewManag
     @Override
     public void onDestroy() {
         unregisterReceivers();
+        InAppChatAttachmentStreams.releaseAll();
         mainWindow.removeView(webView);
         webView.removeAllViews();
         webView.destroy();
@@ -574,6 +576,13 @@ public class InAppChatFragment extends Fragment implements InAppChatWebViewManag
         startActivity(intent);
     }
 
+    @Override
+    public void onAttachmentChunk(String attachmentId, String chunk) {
+        if (inAppChatClient != null) {
+            inAppChatClient.sendAttachmentChunk(attachmentId, chunk);
+        }
+    }
+
         /*
     Errors handling
      */
@@ -722,6 +731,12 @@ public class InAppChatFragment extends Fragment implements InAppChatWebViewManag
                             public void onAttachmentCreated(final InAppChatMobileAttachment attachment) {
                                 if (attachment != null) {
                                     MobileMessagingLogger.w("[InAppChat] Attachment created, will send Attachment");
+                                    attachment.setProgressListener(new InAppChatMobileAttachment.ProgressListener() {
+                                        @Override
+                                        public void onProgress(InAppChatMobileAttachment attachment, long bytesRead, long totalBytes) {
+                                            MobileMessagingLogger.d("[InAppChat] Attachment " + attachment.getFileName() + " sent " + bytesRead + "/" + totalBytes + " bytes");
+                                        }
+                                    });
                                     inAppChatClient.sendChatMessage(null, attachment);
                                 } else {
                                     MobileMessagingLogger.e("[InAppChat] Can't create attachment");
@@ -0,0 +1,123 @@
+package org.infobip.mobile.messaging.geo;
+
+import org.infobip.mobile.messaging.Message;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract;
+import org.infobip.mobile.messaging.geo.storage.GeoSQLiteMessageStore;
+import org.infobip.mobile.messaging.geo.storage.SQLiteGeoMessage;
+import org.infobip.mobile.messaging.geo.tools.MobileMessagingTestCase;
+import org.infobip.mobile.messaging.platform.Time;
+import org.infobip.mobile.messaging.util.DateTimeUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+public class GeoAreaIndexTest extends MobileMessagingTestCase {
+
+    private GeoSQLiteMessageStore store;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        store = (GeoSQLiteMessageStore) geoStore;
+    }
+
+    @Test
+    public void test_shouldFindOnlyMessagesWithTriggeredAreas() {
+        createMessage(context, "messageId1", "campaignId1", true, createArea("areaId1"), createArea("areaId2"));
+        createMessage(context, "messageId2", "campaignId2", true, createArea("areaId2"));
+        createMessage(context, "messageId3", "campaignId3", true, createArea("areaId3"));
+
+        assertEquals(new HashSet<>(Arrays.asList("messageId1", "messageId2")), messageIds(store.findByAreaIds(context, Collections.singleton("AREAID2"))));
+        assertEquals(Collections.singleton("messageId3"), messageIds(store.findByAreaIds(context, Collections.singleton("areaId3"))));
+        assertTrue(store.findByAreaIds(context, Collections.singleton("areaId4")).isEmpty());
+    }
+
+    @Test
+    public void test_shouldUpdateIndexWhenMessagesAreSavedAndDeleted() {
+        createMessage(context, "messageId1", "campaignId1", true, createArea("areaId1"));
+        createMessage(context, "messageId2", "campaignId2", true, createArea("areaId1"));
+
+        createMessage(context, "messageId1", "campaignId1", true, createArea("areaId2"));
+        store.deleteById(context, "messageId2");
+
+        assertTrue(store.findByAreaIds(context, Collections.singleton("areaId1")).isEmpty());
+        assertEquals(Collections.singleton("messageId1"), messageIds(store.findByAreaIds(context, Collections.singleton("areaId2"))));
+
+        store.deleteAll(context);
+
+        assertTrue(store.findByAreaIds(context, Collections.singleton("areaId2")).isEmpty());
+    }
+
+    @Test
+    public void test_shouldFindExpiredMessages() {
+        String expired = DateTimeUtil.ISO8601DateToString(new Date(Time.now() - TimeUnit.MINUTES.toMillis(30)));
+        String active = DateTimeUtil.ISO8601DateToString(new Date(Time.now() + TimeUnit.MINUTES.toMillis(30)));
+        createMessage(context, "messageId1", true, createGeo(0.0, 0.0, expired, null, "campaignId1", null, createArea("areaId1")));
+        createMessage(context, "messageId2", true, createGeo(0.0, 0.0, active, null, "campaignId2", null, createArea("areaId2")));
+        createMessage(context, "messageId3", "campaignId3", true, createArea("areaId3"));
+
+        assertEquals(Collections.singleton("messageId1"), store.findExpiredMessageIds(context, Time.now()));
+    }
+
+    @Test
+    public void test_shouldIndexMessagesStoredBeforeIndexExisted() {
+        Message message = createMessage(context, "messageId1", "campaignId1", false, createArea("areaId1"));
+        databaseHelper.save(new SQLiteGeoMessage(message));
+
+        assertEquals(Collections.singleton("messageId1"), messageIds(store.findByAreaIds(context, Collections.singleton("areaId1"))));
+    }
+
+    @Test
+    public void test_shouldRebuildIndexFromDatabaseWhenAreaTableIsEmpty() {
+        createMessage(context, "messageId1", "campaignId1", true, createArea("areaId1"));
+        store.findByAreaIds(context, Collections.singleton("areaId1"));
+        databaseProvider.getDatabase().delete(DatabaseContract.Tables.GEO_AREAS, null, null);
+
+        assertEquals(Collections.singleton("messageId1"), messageIds(store.findByAreaIds(context, Collections.singleton("areaId1"))));
+    }
+
+    @Test
+    public void test_shouldNotRebuildIndexWhenIndexedMessagesHaveNoAreas() {
+        createMessage(context, "messageId1", "campaignId1", true);
+        Message message = createMessage(context, "messageId2", "campaignId2", false, createArea("areaId2"));
+        databaseHelper.save(new SQLiteGeoMessage(message));
+
+        // index is not empty, so the message saved past the store is not indexed
+        assertTrue(store.findByAreaIds(context, Collections.singleton("areaId2")).isEmpty());
+        assertTrue(store.findByAreaIds(context, Collections.singleton("")).isEmpty());
+    }
+
+    @Test
+    public void test_shouldMoveIndexEntriesWithSwappedMessageIds() {
+        createMessage(context, "messageId1", "campaignId1", true, createArea("areaId1"));
+        createMessage(context, "messageId2", "campaignId2", true, createArea("areaId2"));
+        Map<String, String> messageIds = new LinkedHashMap<>();
+        messageIds.put("messageId1", "messageId2");
+        messageIds.put("messageId2", "messageId1");
+
+        store.updateMessageIds(context, messageIds);
+
+        assertEquals(Collections.singleton("messageId2"), messageIds(store.findByAreaIds(context, Collections.singleton("areaId1"))));
+        assertEquals(Collections.singleton("messageId1"), messageIds(store.findByAreaIds(context, Collections.singleton("areaId2"))));
+    }
+
+    private static Set<String> messageIds(List<Message> messages) {
+        Set<String> ids = new HashSet<>();
+        for (Message message : messages) {
+            ids.add(message.getMessageId());
+        }
+        return ids;
+    }
+}
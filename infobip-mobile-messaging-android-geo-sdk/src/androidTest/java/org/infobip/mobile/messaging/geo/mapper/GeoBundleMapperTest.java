@@ -0,0 +1,83 @@
+package org.infobip.mobile.messaging.geo.mapper;
+
+import android.os.Bundle;
+
+import junit.framework.TestCase;
+
+import org.infobip.mobile.messaging.Message;
+import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.infobip.mobile.messaging.geo.Area;
+import org.infobip.mobile.messaging.geo.Geo;
+import org.infobip.mobile.messaging.geo.GeoEventSettings;
+import org.infobip.mobile.messaging.geo.GeoEventType;
+import org.infobip.mobile.messaging.geo.GeoLatLng;
+import org.infobip.mobile.messaging.geo.GeoMessage;
+import org.infobip.mobile.messaging.geo.report.GeoReport;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class GeoBundleMapperTest extends TestCase {
+
+    private final JsonSerializer serializer = new JsonSerializer(false);
+
+    public void test_shouldSerializeAndDeserializeGeoMessage() throws Exception {
+
+        // Given
+        GeoMessage givenMessage = geoMessage();
+
+        // When
+        GeoMessage actualMessage = GeoBundleMapper.geoMessageFromBundle(GeoBundleMapper.geoMessageToBundle(givenMessage));
+
+        // Then
+        JSONAssert.assertEquals(serializer.serialize(givenMessage), serializer.serialize(actualMessage), true);
+    }
+
+    public void test_shouldSerializeAndDeserializeGeoReports() throws Exception {
+
+        // Given
+        List<GeoReport> givenReports = Arrays.asList(
+                new GeoReport("campaignId", "messageId", "signalingMessageId", GeoEventType.entry, area(), 1L, new GeoLatLng(1.0, 2.0)),
+                new GeoReport());
+
+        // When
+        List<GeoReport> actualReports = GeoBundleMapper.geoReportsFromBundle(GeoBundleMapper.geoReportsToBundle(givenReports));
+
+        // Then
+        JSONAssert.assertEquals(serializer.serialize(givenReports), serializer.serialize(actualReports), true);
+    }
+
+    public void test_shouldDeserializeGeoReportsFromJsonBundle() throws Exception {
+
+        // Given
+        String tag = GeoBundleMapper.class.getName() + ".geo.report";
+        GeoReport givenReport = new GeoReport("campaignId", "messageId", "signalingMessageId", GeoEventType.exit, area(), 1L, null);
+        Bundle reportBundle = new Bundle();
+        reportBundle.putString(tag, serializer.serialize(givenReport));
+        Bundle jsonBundle = new Bundle();
+        jsonBundle.putParcelableArrayList(tag, new ArrayList<>(Collections.singletonList(reportBundle)));
+
+        // When
+        List<GeoReport> actualReports = GeoBundleMapper.geoReportsFromBundle(jsonBundle);
+
+        // Then
+        assertEquals(1, actualReports.size());
+        JSONAssert.assertEquals(serializer.serialize(givenReport), serializer.serialize(actualReports.get(0)), true);
+    }
+
+    private static Area area() {
+        return new Area("areaId", "someTitle", 1.0, 2.0, 3);
+    }
+
+    private static GeoMessage geoMessage() {
+        Geo geo = new Geo(1.0, 2.0, null, "2017-01-01T00:00:00+00:00", null, "campaignId", Collections.singletonList(area()),
+                new ArrayList<GeoEventSettings>(), 1L, "http://www.example.com/image.png");
+        Message message = new Message();
+        message.setMessageId("someMessageId");
+        message.setBody("someBody");
+        return GeoMessage.createFrom(message, geo);
+    }
+}
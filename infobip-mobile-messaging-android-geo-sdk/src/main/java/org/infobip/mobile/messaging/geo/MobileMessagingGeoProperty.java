@@ -9,6 +9,7 @@ public enum MobileMessagingGeoProperty {
     SUSPENDED_CAMPAIGN_IDS("org.infobip.mobile.messaging.infobip.SUSPENDED_CAMPAIGN_IDS", new ArraySet<>()),
 
     ALL_ACTIVE_GEO_AREAS_MONITORED("org.infobip.mobile.messaging.infobip.ALL_ACTIVE_GEO_AREAS_MONITORED", false),
+    MONITORED_GEOFENCES("org.infobip.mobile.messaging.geo.MONITORED_GEOFENCES", new ArraySet<>()),
     UNREPORTED_GEO_EVENTS("org.infobip.mobile.messaging.infobip.UNREPORTED_GEO_EVENTS", new String[0]),
     GEOFENCING_ACTIVATED("org.infobip.mobile.messaging.geo.GEOFENCING_ACTIVATED", false);
 
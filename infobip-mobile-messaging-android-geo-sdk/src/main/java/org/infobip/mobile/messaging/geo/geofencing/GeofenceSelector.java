@@ -0,0 +1,310 @@
+package org.infobip.mobile.messaging.geo.geofencing;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.infobip.mobile.messaging.geo.Area;
+import org.infobip.mobile.messaging.geo.GeoLatLng;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Selects areas to monitor when there are more of them than Play Services allows to register.
+ * <br>
+ * Areas are ranked by distance from the device to the area border, then by campaign expiry (sooner first)
+ * and then by radius (smaller first). Only the best ones are selected, one slot is kept for the "refresh" geofence
+ * around the device. Refresh geofence reaches up to the border of the nearest area which is not selected,
+ * so the device leaves it before it can enter any area which is not monitored, and selection is planned again.
+ * Refresh geofence is never smaller than {@link #MIN_REFRESH_RADIUS_METERS}, so areas which are not selected
+ * and are closer than that to the device may be entered without being detected until the device leaves it.
+ */
+public class GeofenceSelector {
+
+    /**
+     * Play Services limit of active geofences per app
+     */
+    static final int MAX_GEOFENCES = 100;
+
+    public static final String REFRESH_GEOFENCE_ID = "org.infobip.mobile.messaging.geo.REFRESH_GEOFENCE";
+
+    /**
+     * Smaller geofences are not reliably detected by Play Services
+     */
+    static final float MIN_REFRESH_RADIUS_METERS = 200;
+
+    private static final double EARTH_RADIUS_METERS = 6371008.8;
+    private static final String SIGNATURE_SEPARATOR = "|";
+    private static final String REFRESH_GEOFENCE_SIGNATURE = "0|0|0|0|" + REFRESH_GEOFENCE_ID;
+
+    /**
+     * Valid area of a campaign which can be monitored
+     */
+    public static class Candidate {
+        private final Area area;
+        private final Date expiryDate;
+
+        public Candidate(@NonNull Area area, @Nullable Date expiryDate) {
+            this.area = area;
+            this.expiryDate = expiryDate;
+        }
+
+        @NonNull
+        public Area getArea() {
+            return area;
+        }
+
+        @Nullable
+        public Date getExpiryDate() {
+            return expiryDate;
+        }
+
+        /**
+         * @return string which changes whenever registered geofence of this area would change
+         */
+        String getSignature() {
+            return area.getLatitude() + SIGNATURE_SEPARATOR +
+                    area.getLongitude() + SIGNATURE_SEPARATOR +
+                    area.getRadius() + SIGNATURE_SEPARATOR +
+                    (expiryDate != null ? expiryDate.getTime() : 0) + SIGNATURE_SEPARATOR +
+                    area.getId();
+        }
+    }
+
+    /**
+     * Result of the selection
+     */
+    public static class Plan {
+        private final List<Candidate> selected;
+        private final GeoLatLng refreshCenter;
+        private final float refreshRadius;
+
+        Plan(List<Candidate> selected, GeoLatLng refreshCenter, float refreshRadius) {
+            this.selected = selected;
+            this.refreshCenter = refreshCenter;
+            this.refreshRadius = refreshRadius;
+        }
+
+        /**
+         * @return selected areas, best ranked first
+         */
+        @NonNull
+        public List<Candidate> getSelected() {
+            return selected;
+        }
+
+        /**
+         * @return center of the refresh geofence, null if all areas are selected or location is not known
+         */
+        @Nullable
+        public GeoLatLng getRefreshCenter() {
+            return refreshCenter;
+        }
+
+        public float getRefreshRadius() {
+            return refreshRadius;
+        }
+
+        /**
+         * @return signatures of selected areas and refresh geofence, to be stored as monitored after registration
+         */
+        @NonNull
+        public Set<String> getSignatures() {
+            Set<String> signatures = new HashSet<>(selected.size() + 1);
+            for (Candidate candidate : selected) {
+                signatures.add(candidate.getSignature());
+            }
+            if (refreshCenter != null) {
+                signatures.add(REFRESH_GEOFENCE_SIGNATURE);
+            }
+            return signatures;
+        }
+
+        /**
+         * @param monitoredSignatures signatures of currently monitored areas
+         * @return selected areas which are not monitored yet or have changed
+         */
+        @NonNull
+        public List<Candidate> getAdded(@NonNull Set<String> monitoredSignatures) {
+            List<Candidate> added = new ArrayList<>();
+            for (Candidate candidate : selected) {
+                if (!monitoredSignatures.contains(candidate.getSignature())) {
+                    added.add(candidate);
+                }
+            }
+            return added;
+        }
+
+        /**
+         * @param monitoredSignatures signatures of currently monitored areas
+         * @return ids of monitored areas, and of refresh geofence, which are not selected anymore
+         */
+        @NonNull
+        public List<String> getRemovedAreaIds(@NonNull Set<String> monitoredSignatures) {
+            Set<String> selectedIds = new HashSet<>(selected.size() + 1);
+            for (Candidate candidate : selected) {
+                selectedIds.add(candidate.getArea().getId());
+            }
+            if (refreshCenter != null) {
+                selectedIds.add(REFRESH_GEOFENCE_ID);
+            }
+
+            List<String> removed = new ArrayList<>();
+            for (String signature : monitoredSignatures) {
+                String areaId = areaIdFromSignature(signature);
+                if (areaId != null && !selectedIds.contains(areaId)) {
+                    removed.add(areaId);
+                }
+            }
+            return removed;
+        }
+    }
+
+    private static class RankedCandidate {
+        final Candidate candidate;
+        final double borderDistance;
+        final long expiryTime;
+
+        RankedCandidate(Candidate candidate, double borderDistance) {
+            this.candidate = candidate;
+            this.borderDistance = borderDistance;
+            this.expiryTime = candidate.getExpiryDate() != null ? candidate.getExpiryDate().getTime() : Long.MAX_VALUE;
+        }
+    }
+
+    private static final Comparator<RankedCandidate> BEST_FIRST = new Comparator<RankedCandidate>() {
+        @Override
+        public int compare(RankedCandidate c1, RankedCandidate c2) {
+            int result = Double.compare(c1.borderDistance, c2.borderDistance);
+            if (result != 0) {
+                return result;
+            }
+            result = c1.expiryTime < c2.expiryTime ? -1 : (c1.expiryTime == c2.expiryTime ? 0 : 1);
+            if (result != 0) {
+                return result;
+            }
+            result = c1.candidate.getArea().getRadius() - c2.candidate.getArea().getRadius();
+            if (result != 0) {
+                return result;
+            }
+            return c1.candidate.getArea().getId().compareTo(c2.candidate.getArea().getId());
+        }
+    };
+
+    private final int capacity;
+
+    public GeofenceSelector() {
+        this(MAX_GEOFENCES);
+    }
+
+    GeofenceSelector(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must leave room for the refresh geofence: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Selects areas to monitor
+     *
+     * @param candidates all areas which can be monitored
+     * @param location   last known location of the device, null if not known
+     * @return selected areas and refresh geofence
+     */
+    @NonNull
+    public Plan select(@NonNull Collection<Candidate> candidates, @Nullable GeoLatLng location) {
+        GeoLatLng origin = location != null && location.getLat() != null && location.getLng() != null ? location : null;
+        if (candidates.size() <= capacity) {
+            return new Plan(rankAll(candidates, origin), null, 0);
+        }
+
+        // bounded heap with the worst selected candidate on top, O(n log k)
+        int limit = origin != null ? capacity - 1 : capacity;
+        PriorityQueue<RankedCandidate> best = new PriorityQueue<>(limit + 1, Collections.reverseOrder(BEST_FIRST));
+        RankedCandidate nearestRejected = null;
+        for (Candidate candidate : candidates) {
+            RankedCandidate ranked = rank(candidate, origin);
+            RankedCandidate rejected = ranked;
+            if (best.size() < limit || BEST_FIRST.compare(ranked, best.peek()) < 0) {
+                best.add(ranked);
+                rejected = best.size() > limit ? best.poll() : null;
+            }
+            if (rejected != null) {
+                if (nearestRejected == null || BEST_FIRST.compare(rejected, nearestRejected) < 0) {
+                    nearestRejected = rejected;
+                }
+            }
+        }
+
+        List<RankedCandidate> ranked = new ArrayList<>(best);
+        Collections.sort(ranked, BEST_FIRST);
+        List<Candidate> selected = new ArrayList<>(ranked.size());
+        for (RankedCandidate rankedCandidate : ranked) {
+            selected.add(rankedCandidate.candidate);
+        }
+
+        if (origin == null || nearestRejected == null) {
+            return new Plan(selected, null, 0);
+        }
+        // smaller radius would not be detected at all, see class description for what it means for closer areas
+        float refreshRadius = (float) Math.max(MIN_REFRESH_RADIUS_METERS, nearestRejected.borderDistance);
+        return new Plan(selected, origin, refreshRadius);
+    }
+
+    private static List<Candidate> rankAll(Collection<Candidate> candidates, GeoLatLng location) {
+        List<RankedCandidate> ranked = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            ranked.add(rank(candidate, location));
+        }
+        Collections.sort(ranked, BEST_FIRST);
+        List<Candidate> all = new ArrayList<>(ranked.size());
+        for (RankedCandidate rankedCandidate : ranked) {
+            all.add(rankedCandidate.candidate);
+        }
+        return all;
+    }
+
+    private static RankedCandidate rank(Candidate candidate, GeoLatLng location) {
+        if (location == null) {
+            return new RankedCandidate(candidate, 0);
+        }
+
+        Area area = candidate.getArea();
+        double distance = distanceMeters(location.getLat(), location.getLng(), area.getLatitude(), area.getLongitude());
+        return new RankedCandidate(candidate, Math.max(0, distance - area.getRadius()));
+    }
+
+    /**
+     * Great-circle distance between two points
+     */
+    static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    @Nullable
+    private static String areaIdFromSignature(String signature) {
+        int index = -1;
+        for (int i = 0; i < 4; i++) {
+            index = signature.indexOf(SIGNATURE_SEPARATOR, index + 1);
+            if (index < 0) {
+                return null;
+            }
+        }
+        return signature.substring(index + 1);
+    }
+}
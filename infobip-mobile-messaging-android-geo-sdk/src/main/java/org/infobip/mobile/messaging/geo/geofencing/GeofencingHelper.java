@@ -7,6 +7,7 @@ import android.location.LocationManager;
 import android.os.Build;
 import android.provider.Settings;
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import androidx.collection.ArraySet;
 
 import org.infobip.mobile.messaging.MobileMessagingCore;
@@ -18,11 +19,16 @@ import org.infobip.mobile.messaging.geo.storage.GeoSQLiteMessageStore;
 import org.infobip.mobile.messaging.storage.MessageStore;
 import org.infobip.mobile.messaging.util.PreferenceHelper;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
 public class GeofencingHelper {
 
+    // campaign statuses are checked on every transition and refresh, so they are kept in memory after the first read
+    private static volatile Set<String> finishedCampaignIds;
+    private static volatile Set<String> suspendedCampaignIds;
+
     private final Context context;
     private GeoSQLiteMessageStore internalStoreForGeo;
     private final JsonSerializer serializer = new JsonSerializer(false);
@@ -86,15 +92,38 @@ public class GeofencingHelper {
         PreferenceHelper.runTransaction(new PreferenceHelper.Transaction<Void>() {
             @Override
             public Void run() {
-                PreferenceHelper.saveStringSet(context, MobileMessagingGeoProperty.FINISHED_CAMPAIGN_IDS.getKey(),
-                        finishedCampaignIds != null ? finishedCampaignIds : new ArraySet<String>());
-                PreferenceHelper.saveStringSet(context, MobileMessagingGeoProperty.SUSPENDED_CAMPAIGN_IDS.getKey(),
-                        suspendedCampaignIds != null ? suspendedCampaignIds : new ArraySet<String>());
+                Set<String> finished = finishedCampaignIds != null ? finishedCampaignIds : new ArraySet<String>();
+                Set<String> suspended = suspendedCampaignIds != null ? suspendedCampaignIds : new ArraySet<String>();
+                PreferenceHelper.saveStringSet(context, MobileMessagingGeoProperty.FINISHED_CAMPAIGN_IDS.getKey(), finished);
+                PreferenceHelper.saveStringSet(context, MobileMessagingGeoProperty.SUSPENDED_CAMPAIGN_IDS.getKey(), suspended);
+                GeofencingHelper.finishedCampaignIds = Collections.unmodifiableSet(new HashSet<>(finished));
+                GeofencingHelper.suspendedCampaignIds = Collections.unmodifiableSet(new HashSet<>(suspended));
+                return null;
+            }
+        });
+    }
+
+    public static void clearCampaignStatus(final Context context) {
+        PreferenceHelper.runTransaction(new PreferenceHelper.Transaction<Void>() {
+            @Override
+            public Void run() {
+                PreferenceHelper.remove(context, MobileMessagingGeoProperty.FINISHED_CAMPAIGN_IDS.getKey());
+                PreferenceHelper.remove(context, MobileMessagingGeoProperty.SUSPENDED_CAMPAIGN_IDS.getKey());
+                resetCampaignStatusCache();
                 return null;
             }
         });
     }
 
+    /**
+     * Drops in-memory campaign statuses, so that they are read from preferences again
+     */
+    @VisibleForTesting
+    public static void resetCampaignStatusCache() {
+        finishedCampaignIds = null;
+        suspendedCampaignIds = null;
+    }
+
     public void handleBootCompleted() {
         //active areas stop being monitored on boot and we need to re-register them
         setAllActiveGeoAreasMonitored(context, false);
@@ -131,11 +160,21 @@ public class GeofencingHelper {
     }
 
     public static Set<String> getFinishedCampaignIds(Context context) {
-        return PreferenceHelper.findStringSet(context, MobileMessagingGeoProperty.FINISHED_CAMPAIGN_IDS.getKey(), new ArraySet<String>());
+        Set<String> campaignIds = finishedCampaignIds;
+        if (campaignIds == null) {
+            campaignIds = Collections.unmodifiableSet(new HashSet<>(PreferenceHelper.findStringSet(context, MobileMessagingGeoProperty.FINISHED_CAMPAIGN_IDS.getKey(), new ArraySet<String>())));
+            finishedCampaignIds = campaignIds;
+        }
+        return campaignIds;
     }
 
     public static Set<String> getSuspendedCampaignIds(Context context) {
-        return PreferenceHelper.findStringSet(context, MobileMessagingGeoProperty.SUSPENDED_CAMPAIGN_IDS.getKey(), new ArraySet<String>());
+        Set<String> campaignIds = suspendedCampaignIds;
+        if (campaignIds == null) {
+            campaignIds = Collections.unmodifiableSet(new HashSet<>(PreferenceHelper.findStringSet(context, MobileMessagingGeoProperty.SUSPENDED_CAMPAIGN_IDS.getKey(), new ArraySet<String>())));
+            suspendedCampaignIds = campaignIds;
+        }
+        return campaignIds;
     }
 
     public static void setGeoActivated(Context context, boolean activated) {
@@ -153,4 +192,19 @@ public class GeofencingHelper {
     public static void setAllActiveGeoAreasMonitored(Context context, boolean allActiveGeoAreasMonitored) {
         PreferenceHelper.saveBoolean(context, MobileMessagingGeoProperty.ALL_ACTIVE_GEO_AREAS_MONITORED.getKey(), allActiveGeoAreasMonitored);
     }
+
+    /**
+     * Returns signatures of areas registered with Play Services, see {@link GeofenceSelector.Plan#getSignatures()}
+     */
+    static Set<String> getMonitoredGeofences(Context context) {
+        return PreferenceHelper.findStringSet(context, MobileMessagingGeoProperty.MONITORED_GEOFENCES.getKey(), new ArraySet<String>());
+    }
+
+    static void setMonitoredGeofences(Context context, Set<String> signatures) {
+        PreferenceHelper.saveStringSet(context, MobileMessagingGeoProperty.MONITORED_GEOFENCES.getKey(), signatures);
+    }
+
+    static void clearMonitoredGeofences(Context context) {
+        PreferenceHelper.remove(context, MobileMessagingGeoProperty.MONITORED_GEOFENCES.getKey());
+    }
 }
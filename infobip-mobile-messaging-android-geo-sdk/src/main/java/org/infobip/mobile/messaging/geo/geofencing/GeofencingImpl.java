@@ -8,6 +8,7 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.content.pm.PackageManager;
+import android.location.Location;
 import android.location.LocationManager;
 import android.os.Build;
 import androidx.annotation.NonNull;
@@ -29,6 +30,7 @@ import org.infobip.mobile.messaging.geo.Area;
 import org.infobip.mobile.messaging.geo.BootReceiver;
 import org.infobip.mobile.messaging.geo.Geo;
 import org.infobip.mobile.messaging.geo.GeoEnabledConsistencyReceiver;
+import org.infobip.mobile.messaging.geo.GeoLatLng;
 import org.infobip.mobile.messaging.geo.GeofencingConsistencyIntentService;
 import org.infobip.mobile.messaging.geo.GeofencingConsistencyReceiver;
 import org.infobip.mobile.messaging.geo.mapper.GeoDataMapper;
@@ -41,6 +43,7 @@ import org.infobip.mobile.messaging.storage.MessageStore;
 import org.infobip.mobile.messaging.util.ComponentUtil;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -57,7 +60,9 @@ public class GeofencingImpl extends Geofencing {
     private final GeofencingHelper geofencingHelper;
     private final GeofencingClient mGeofencingClient;
     private final MessageStore messageStore;
+    private final GeofenceSelector geofenceSelector;
     private List<Geofence> geofences;
+    private GeoLatLng lastLocation;
     private PendingIntent geofencePendingIntent;
     private GoogleApiClientRequestType requestType;
 
@@ -73,6 +78,7 @@ public class GeofencingImpl extends Geofencing {
         geofences = new ArrayList<>();
         geofencingHelper = new GeofencingHelper(context);
         messageStore = geofencingHelper.getMessageStoreForGeo();
+        geofenceSelector = new GeofenceSelector();
         mGeofencingClient = LocationServices.getGeofencingClient(context);
     }
 
@@ -105,34 +111,7 @@ public class GeofencingImpl extends Geofencing {
 
     void removeExpiredAreasFromStorage() {
         GeoSQLiteMessageStore messageStoreForGeo = (GeoSQLiteMessageStore) geofencingHelper.getMessageStoreForGeo();
-        List<Message> messages = messageStoreForGeo.findAll(context);
-        List<String> messageIdsToDelete = new ArrayList<>(messages.size());
-        Date now = Time.date();
-
-        for (Message message : messages) {
-            Geo geo = GeoDataMapper.geoFromInternalData(message.getInternalData());
-            if (geo == null) {
-                continue;
-            }
-
-            List<Area> areasList = geo.getAreasList();
-            Date expiryDate = geo.getExpiryDate();
-
-            if (areasList == null || areasList.isEmpty()) {
-                continue;
-            }
-
-            for (Area area : areasList) {
-                if (!area.isValid() || expiryDate == null) {
-                    continue;
-                }
-
-                if (expiryDate.before(now)) {
-                    messageIdsToDelete.add(message.getMessageId());
-                }
-            }
-        }
-
+        Set<String> messageIdsToDelete = messageStoreForGeo.findExpiredMessageIds(context, Time.now());
         if (!messageIdsToDelete.isEmpty()) {
             messageStoreForGeo.deleteByIds(context, messageIdsToDelete.toArray(new String[]{}));
         }
@@ -140,16 +119,18 @@ public class GeofencingImpl extends Geofencing {
 
     @VisibleForTesting
     public Pair<List<Geofence>, Pair<Date, Date>> calculateGeofencesToMonitorDates(MessageStore messageStore) {
-        return calculateGeofencesToMonitorAndNextCheckDates(messageStore);
+        Pair<Collection<GeofenceSelector.Candidate>, Pair<Date, Date>> tuple = calculateAreasToMonitorAndNextCheckDates(messageStore);
+        return new Pair<>(toGeofences(tuple.first), tuple.second);
     }
 
     @SuppressWarnings("WeakerAccess")
-    private Pair<List<Geofence>, Pair<Date, Date>> calculateGeofencesToMonitorAndNextCheckDates(MessageStore messageStore) {
+    private Pair<Collection<GeofenceSelector.Candidate>, Pair<Date, Date>> calculateAreasToMonitorAndNextCheckDates(MessageStore messageStore) {
         Date nextCheckRefreshDate = null;
         Date nextCheckExpireDate = null;
-        Map<String, Geofence> geofences = new HashMap<>();
+        Map<String, GeofenceSelector.Candidate> candidates = new HashMap<>();
         Map<String, Date> expiryDates = new HashMap<>();
         List<Message> messages = messageStore.findAll(context);
+        Set<String> finishedCampaignIds = GeofencingHelper.getFinishedCampaignIds(context);
 
         for (Message message : messages) {
             Geo geo = GeoDataMapper.geoFromInternalData(message.getInternalData());
@@ -159,7 +140,6 @@ public class GeofencingImpl extends Geofencing {
 
             nextCheckExpireDate = calculateNextCheckDateForGeoExpiry(geo, nextCheckExpireDate);
 
-            final Set<String> finishedCampaignIds = GeofencingHelper.getFinishedCampaignIds(context);
             if (finishedCampaignIds.contains(geo.getCampaignId())) {
                 continue;
             }
@@ -177,15 +157,22 @@ public class GeofencingImpl extends Geofencing {
                     }
 
                     expiryDates.put(area.getId(), geo.getExpiryDate());
-                    geofences.put(area.getId(), area.toGeofence(geo.getExpiryDate()));
+                    candidates.put(area.getId(), new GeofenceSelector.Candidate(area, geo.getExpiryDate()));
                 }
             }
 
             nextCheckRefreshDate = calculateNextCheckDateForGeoStart(geo, nextCheckRefreshDate);
         }
 
-        List<Geofence> geofenceList = new ArrayList<>(geofences.values());
-        return new Pair<>(geofenceList, new Pair<>(nextCheckRefreshDate, nextCheckExpireDate));
+        return new Pair<Collection<GeofenceSelector.Candidate>, Pair<Date, Date>>(candidates.values(), new Pair<>(nextCheckRefreshDate, nextCheckExpireDate));
+    }
+
+    private static List<Geofence> toGeofences(Collection<GeofenceSelector.Candidate> candidates) {
+        List<Geofence> result = new ArrayList<>(candidates.size() + 1);
+        for (GeofenceSelector.Candidate candidate : candidates) {
+            result.add(candidate.getArea().toGeofence(candidate.getExpiryDate()));
+        }
+        return result;
     }
 
     private static Date calculateNextCheckDateForGeoStart(Geo geo, Date oldCheckDate) {
@@ -245,18 +232,93 @@ public class GeofencingImpl extends Geofencing {
             return;
         }
 
-        Pair<List<Geofence>, Pair<Date, Date>> tuple = calculateGeofencesToMonitorAndNextCheckDates(messageStore);
+        monitorGeofences(false);
+    }
+
+    /**
+     * Plans monitored areas again around the new location and registers only the changes.
+     * Called when the device leaves the refresh geofence.
+     *
+     * @param location current location of the device
+     */
+    @SuppressWarnings("MissingPermission")
+    public void refreshGeofences(@NonNull GeoLatLng location) {
+        if (!GeofencingHelper.isGeoActivated(context) || !checkRequiredPermissions()) {
+            return;
+        }
+
+        lastLocation = location;
+        monitorGeofences(true);
+    }
+
+    @SuppressWarnings("MissingPermission")
+    private void monitorGeofences(final boolean incremental) {
+        Pair<Collection<GeofenceSelector.Candidate>, Pair<Date, Date>> tuple = calculateAreasToMonitorAndNextCheckDates(messageStore);
         Date nextRefreshDate = tuple.second.first;
         Date nextExpireDate = tuple.second.second;
 
         scheduleRefresh(context, nextRefreshDate);
         scheduleExpiry(context, nextExpireDate);
 
-        geofences = tuple.first;
-        if (geofences.isEmpty()) {
+        final Collection<GeofenceSelector.Candidate> candidates = tuple.first;
+        if (candidates.size() <= geofenceSelector.getCapacity() || lastLocation != null) {
+            registerGeofences(geofenceSelector.select(candidates, lastLocation), incremental);
+            return;
+        }
+
+        // location is needed only to choose nearest areas when there are too many of them
+        LocationServices.getFusedLocationProviderClient(context).getLastLocation()
+                .addOnCompleteListener(new OnCompleteListener<Location>() {
+                    @Override
+                    public void onComplete(@NonNull Task<Location> task) {
+                        Location location = task.isSuccessful() ? task.getResult() : null;
+                        if (location != null) {
+                            lastLocation = new GeoLatLng(location.getLatitude(), location.getLongitude());
+                        }
+                        registerGeofences(geofenceSelector.select(candidates, lastLocation), incremental);
+                    }
+                });
+    }
+
+    /**
+     * Registers selected areas and refresh geofence, removes areas which are not selected anymore
+     *
+     * @param plan        selected areas
+     * @param incremental true to register only areas which are not monitored yet,
+     *                    false to register all selected areas in case monitored ones were dropped by Play Services
+     */
+    @SuppressWarnings("MissingPermission")
+    private void registerGeofences(final GeofenceSelector.Plan plan, boolean incremental) {
+        Set<String> monitoredSignatures = GeofencingHelper.getMonitoredGeofences(context);
+        List<String> removedAreaIds = plan.getRemovedAreaIds(monitoredSignatures);
+        if (!removedAreaIds.isEmpty()) {
+            mGeofencingClient.removeGeofences(removedAreaIds)
+                    .addOnCompleteListener(new OnCompleteListener<Void>() {
+                        @Override
+                        public void onComplete(@NonNull Task<Void> task) {
+                            logGeofenceStatus(task, false);
+                        }
+                    });
+        }
+
+        List<Geofence> geofencesToAdd = toGeofences(incremental ? plan.getAdded(monitoredSignatures) : plan.getSelected());
+        GeoLatLng refreshCenter = plan.getRefreshCenter();
+        if (refreshCenter != null) {
+            geofencesToAdd.add(new Geofence.Builder()
+                    .setCircularRegion(refreshCenter.getLat(), refreshCenter.getLng(), plan.getRefreshRadius())
+                    .setRequestId(GeofenceSelector.REFRESH_GEOFENCE_ID)
+                    .setTransitionTypes(Geofence.GEOFENCE_TRANSITION_EXIT)
+                    .setExpirationDuration(Geofence.NEVER_EXPIRE)
+                    .build());
+        }
+
+        if (geofencesToAdd.isEmpty()) {
+            GeofencingHelper.setMonitoredGeofences(context, plan.getSignatures());
             return;
         }
 
+        MobileMessagingLogger.d(TAG, "Monitoring " + plan.getSelected().size() + " areas, registering " + geofencesToAdd.size() + " geofences");
+        geofences = geofencesToAdd;
         requestType = GoogleApiClientRequestType.ADD_GEOFENCES;
 
         mGeofencingClient.addGeofences(geofencingRequest(), geofencePendingIntent())
@@ -265,6 +327,9 @@ public class GeofencingImpl extends Geofencing {
                     public void onComplete(@NonNull Task<Void> task) {
                         logGeofenceStatus(task, true);
                         requestType = GoogleApiClientRequestType.NONE;
+                        if (task.isSuccessful()) {
+                            GeofencingHelper.setMonitoredGeofences(context, plan.getSignatures());
+                        }
                         GeofencingHelper.setAllActiveGeoAreasMonitored(context, task.isSuccessful());
                     }
                 });
@@ -273,6 +338,7 @@ public class GeofencingImpl extends Geofencing {
     @Override
     public void stopGeoMonitoring() {
         GeofencingHelper.setAllActiveGeoAreasMonitored(context, false);
+        GeofencingHelper.clearMonitoredGeofences(context);
 
         if (!checkRequiredPermissions()) {
             return;
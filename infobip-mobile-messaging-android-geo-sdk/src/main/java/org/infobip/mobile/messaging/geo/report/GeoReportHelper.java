@@ -15,15 +15,20 @@ import org.infobip.mobile.messaging.geo.GeoEventType;
 import org.infobip.mobile.messaging.geo.GeoLatLng;
 import org.infobip.mobile.messaging.geo.geofencing.GeofencingHelper;
 import org.infobip.mobile.messaging.geo.mapper.GeoDataMapper;
+import org.infobip.mobile.messaging.geo.storage.GeoSQLiteMessageStore;
 import org.infobip.mobile.messaging.geo.transition.GeoNotificationHelper;
 import org.infobip.mobile.messaging.platform.Time;
 import org.infobip.mobile.messaging.storage.MessageStore;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -53,6 +58,45 @@ public class GeoReportHelper {
         return null;
     }
 
+    /**
+     * Returns signaling message for geofencing report
+     *
+     * @param messagesById signaling messages by their ids, see {@link #findSignalingMessages(Context, MessageStore, Collection)}
+     * @param report       geofencing event report
+     * @return corresponding signaling message
+     */
+    @Nullable
+    public static Message getSignalingMessageForReport(Map<String, Message> messagesById, GeoReport report) {
+        return messagesById.get(report.getSignalingMessageId());
+    }
+
+    /**
+     * Loads only signaling messages of the reports from the store
+     *
+     * @param messageStore message store to look messages for
+     * @param reports      geofencing event reports
+     * @return signaling messages by their ids
+     */
+    @NonNull
+    public static Map<String, Message> findSignalingMessages(Context context, MessageStore messageStore, Collection<GeoReport> reports) {
+        Set<String> signalingMessageIds = new HashSet<>(reports.size());
+        for (GeoReport report : reports) {
+            if (report.getSignalingMessageId() != null) {
+                signalingMessageIds.add(report.getSignalingMessageId());
+            }
+        }
+
+        Map<String, Message> messagesById = new HashMap<>(signalingMessageIds.size());
+        if (signalingMessageIds.isEmpty()) {
+            return messagesById;
+        }
+
+        for (Message message : messageStore.findByIds(context, signalingMessageIds)) {
+            messagesById.put(message.getMessageId(), message);
+        }
+        return messagesById;
+    }
+
     /**
      * Creates new geo notification messages based on reporting result
      *
@@ -62,10 +106,10 @@ public class GeoReportHelper {
      */
     public static Map<Message, GeoEventType> createMessagesToNotify(Context context, List<GeoReport> reportedEvents, @NonNull GeoReportingResult reportingResult) {
         GeofencingHelper geofencingHelper = new GeofencingHelper(context);
-        List<Message> allMessages = geofencingHelper.getMessageStoreForGeo().findAll(context);
+        Map<String, Message> signalingMessages = findSignalingMessages(context, geofencingHelper.getMessageStoreForGeo(), reportedEvents);
         Map<Message, GeoEventType> messages = new ArrayMap<>();
         for (GeoReport report : reportedEvents) {
-            Message signalingMessage = GeoReportHelper.getSignalingMessageForReport(allMessages, report);
+            Message signalingMessage = GeoReportHelper.getSignalingMessageForReport(signalingMessages, report);
             if (signalingMessage == null) {
                 MobileMessagingLogger.e("Cannot find signaling message for id: " + report.getSignalingMessageId());
                 continue;
@@ -265,8 +309,18 @@ public class GeoReportHelper {
     @NonNull
     public static Map<Message, List<Area>> findSignalingMessagesAndAreas(Context context, MessageStore messageStore, Set<String> requestIds, @NonNull GeoEventType event) {
         Date now = Time.date();
+        Set<String> triggeredAreaIds = new HashSet<>(requestIds.size());
+        for (String requestId : requestIds) {
+            triggeredAreaIds.add(requestId.toLowerCase(Locale.US));
+        }
+
+        // only messages with triggered areas are loaded when the store is indexed by area
+        List<Message> candidates = messageStore instanceof GeoSQLiteMessageStore ?
+                ((GeoSQLiteMessageStore) messageStore).findByAreaIds(context, triggeredAreaIds) :
+                messageStore.findAll(context);
+
         Map<Message, List<Area>> messagesAndAreas = new ArrayMap<>();
-        for (Message message : messageStore.findAll(context)) {
+        for (Message message : candidates) {
             Geo geo = GeoDataMapper.geoFromInternalData(message.getInternalData());
             if (geo == null || geo.getAreasList() == null || geo.getAreasList().isEmpty()) {
                 continue;
@@ -278,25 +332,18 @@ public class GeoReportHelper {
                 continue;
             }
 
-            List<Area> campaignAreas = geo.getAreasList();
             List<Area> triggeredAreas = new ArrayList<>();
-            for (Area area : campaignAreas) {
-                for (String requestId : requestIds) {
-                    if (!requestId.equalsIgnoreCase(area.getId())) {
-                        continue;
-                    }
-
-                    if (!GeoNotificationHelper.shouldReportTransition(context, geo, event)) {
-                        continue;
-                    }
-
+            for (Area area : geo.getAreasList()) {
+                if (area.getId() != null && triggeredAreaIds.contains(area.getId().toLowerCase(Locale.US))) {
                     triggeredAreas.add(area);
                 }
             }
 
-            if (!triggeredAreas.isEmpty()) {
-                messagesAndAreas.put(message, triggeredAreas);
+            if (triggeredAreas.isEmpty() || !GeoNotificationHelper.shouldReportTransition(context, geo, event)) {
+                continue;
             }
+
+            messagesAndAreas.put(message, triggeredAreas);
         }
 
         return filterOverlappingAreas(messagesAndAreas);
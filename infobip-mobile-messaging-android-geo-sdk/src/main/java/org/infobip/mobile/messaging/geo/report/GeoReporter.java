@@ -28,6 +28,7 @@ import org.infobip.mobile.messaging.storage.MessageStore;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -62,7 +63,7 @@ public class GeoReporter {
             return;
         }
 
-        new MRetryableTask<GeoReport, GeoReportingResult>() {
+        new MRetryableTask<GeoReport, GeoReportingResult>(mobileMessagingCore.getExecutors()) {
             @Override
             public GeoReportingResult run(GeoReport[] reports) {
                 return reportSync(reports);
@@ -82,6 +83,7 @@ public class GeoReporter {
             }
         }
         .retryWith(retryPolicy)
+        .recordRetriesTo(stats, "MobileApiGeo.report")
         .execute(reports);
     }
 
@@ -139,7 +141,7 @@ public class GeoReporter {
         Set<MessagePayload> messagePayloads = new HashSet<>();
         Set<EventReport> eventReports = new HashSet<>();
 
-        List<Message> messages = geoMessageStore.findAll(context);
+        Map<String, Message> messages = GeoReportHelper.findSignalingMessages(context, geoMessageStore, Arrays.asList(geoReports));
 
         for (GeoReport r : geoReports) {
 
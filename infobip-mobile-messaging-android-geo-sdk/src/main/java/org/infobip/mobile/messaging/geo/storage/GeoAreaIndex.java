@@ -0,0 +1,234 @@
+package org.infobip.mobile.messaging.geo.storage;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import androidx.annotation.NonNull;
+
+import org.infobip.mobile.messaging.Message;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.GeoAreaColumns;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.Tables;
+import org.infobip.mobile.messaging.dal.sqlite.SqliteDatabaseProvider;
+import org.infobip.mobile.messaging.geo.Area;
+import org.infobip.mobile.messaging.geo.Geo;
+import org.infobip.mobile.messaging.geo.mapper.GeoDataMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of geo messages by their geofence areas, backed by {@link Tables#GEO_AREAS} table.
+ * <br>
+ * Lets geofence transitions look up only the messages that contain triggered areas
+ * instead of loading and parsing all stored geo messages.
+ * <br>
+ * Every indexed message has at least one entry, messages without valid areas get a {@link #NO_AREAS} entry.
+ * So the index is empty while there are stored geo messages only if they were saved before the index existed.
+ */
+class GeoAreaIndex {
+
+    /**
+     * SQLite limits number of bound arguments per statement, larger lookups are split into chunks
+     */
+    private static final int MAX_ARGS_PER_QUERY = 500;
+
+    /**
+     * Area id of the entry of a message without valid areas, no area matches it
+     */
+    static final String NO_AREAS = "";
+
+    /**
+     * Entries are moved through these message ids while message ids are updated, they are never used as real ids
+     */
+    private static final String TEMPORARY_MESSAGE_ID_PREFIX = "org.infobip.mobile.messaging.geo.TEMPORARY_MESSAGE_ID.";
+
+    private final SqliteDatabaseProvider databaseProvider;
+
+    GeoAreaIndex(SqliteDatabaseProvider databaseProvider) {
+        this.databaseProvider = databaseProvider;
+    }
+
+    /**
+     * Replaces index entries of the messages with their current valid areas
+     *
+     * @param messages geo messages to index
+     */
+    void index(Collection<Message> messages) {
+        SQLiteDatabase db = databaseProvider.getDatabase();
+        db.beginTransaction();
+        try {
+            for (Message message : messages) {
+                String messageId = message.getMessageId();
+                db.delete(Tables.GEO_AREAS, GeoAreaColumns.MESSAGE_ID + " = ?", new String[]{messageId});
+
+                boolean indexed = false;
+                Geo geo = GeoDataMapper.geoFromInternalData(message.getInternalData());
+                if (geo != null && geo.getAreasList() != null) {
+                    Date expiryDate = geo.getExpiryDate();
+                    for (Area area : geo.getAreasList()) {
+                        if (!area.isValid()) {
+                            continue;
+                        }
+
+                        insert(db, normalize(area.getId()), messageId, geo.getCampaignId(), expiryDate != null ? expiryDate.getTime() : 0);
+                        indexed = true;
+                    }
+                }
+
+                if (!indexed) {
+                    insert(db, NO_AREAS, messageId, geo != null ? geo.getCampaignId() : null, 0);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Removes index entries of the messages
+     *
+     * @param messageIds ids of geo messages
+     */
+    void remove(String... messageIds) {
+        SQLiteDatabase db = databaseProvider.getDatabase();
+        for (String[] chunk : chunks(Arrays.asList(messageIds))) {
+            db.delete(Tables.GEO_AREAS, GeoAreaColumns.MESSAGE_ID + " IN (" + placeholders(chunk.length) + ")", chunk);
+        }
+    }
+
+    /**
+     * Moves index entries to new message ids, entries of messages which already have the new ids are replaced.
+     * Ids may be chained or swapped, entries are moved through temporary ids so that they do not overwrite each other.
+     *
+     * @param messageIds map of old message ids to new ones
+     */
+    void updateMessageIds(Map<String, String> messageIds) {
+        List<Map.Entry<String, String>> updates = new ArrayList<>(messageIds.size());
+        for (Map.Entry<String, String> entry : messageIds.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null && !entry.getKey().equals(entry.getValue())) {
+                updates.add(entry);
+            }
+        }
+
+        SQLiteDatabase db = databaseProvider.getDatabase();
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < updates.size(); i++) {
+                moveEntries(db, updates.get(i).getKey(), TEMPORARY_MESSAGE_ID_PREFIX + i);
+            }
+            for (int i = 0; i < updates.size(); i++) {
+                db.delete(Tables.GEO_AREAS, GeoAreaColumns.MESSAGE_ID + " = ?", new String[]{updates.get(i).getValue()});
+                moveEntries(db, TEMPORARY_MESSAGE_ID_PREFIX + i, updates.get(i).getValue());
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static void moveEntries(SQLiteDatabase db, String fromMessageId, String toMessageId) {
+        ContentValues values = new ContentValues();
+        values.put(GeoAreaColumns.MESSAGE_ID, toMessageId);
+        db.update(Tables.GEO_AREAS, values, GeoAreaColumns.MESSAGE_ID + " = ?", new String[]{fromMessageId});
+    }
+
+    void clear() {
+        databaseProvider.getDatabase().delete(Tables.GEO_AREAS, null, null);
+    }
+
+    boolean isEmpty() {
+        Cursor cursor = databaseProvider.getDatabase().query(Tables.GEO_AREAS, new String[]{GeoAreaColumns.MESSAGE_ID},
+                null, null, null, null, null, "1");
+        try {
+            return !cursor.moveToFirst();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Finds ids of messages which contain any of the areas
+     *
+     * @param areaIds area ids, matched case-insensitively
+     * @return ids of geo messages
+     */
+    @NonNull
+    Set<String> findMessageIds(Collection<String> areaIds) {
+        Set<String> normalizedAreaIds = new HashSet<>(areaIds.size());
+        for (String areaId : areaIds) {
+            if (areaId != null && !areaId.equals(NO_AREAS)) {
+                normalizedAreaIds.add(normalize(areaId));
+            }
+        }
+
+        Set<String> messageIds = new HashSet<>();
+        for (String[] chunk : chunks(normalizedAreaIds)) {
+            messageIds.addAll(queryMessageIds(GeoAreaColumns.AREA_ID + " IN (" + placeholders(chunk.length) + ")", chunk));
+        }
+        return messageIds;
+    }
+
+    /**
+     * Finds ids of messages which have valid areas and expired before the provided time
+     *
+     * @param now current time in milliseconds
+     * @return ids of expired geo messages
+     */
+    @NonNull
+    Set<String> findExpiredMessageIds(long now) {
+        return queryMessageIds(GeoAreaColumns.EXPIRY_TIME + " > 0 AND " + GeoAreaColumns.EXPIRY_TIME + " < ?", new String[]{String.valueOf(now)});
+    }
+
+    private Set<String> queryMessageIds(String selection, String[] args) {
+        Set<String> messageIds = new HashSet<>();
+        Cursor cursor = databaseProvider.getDatabase().query(true, Tables.GEO_AREAS, new String[]{GeoAreaColumns.MESSAGE_ID},
+                selection, args, null, null, null, null);
+        try {
+            while (cursor.moveToNext()) {
+                messageIds.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return messageIds;
+    }
+
+    private static void insert(SQLiteDatabase db, String areaId, String messageId, String campaignId, long expiryTime) {
+        ContentValues values = new ContentValues();
+        values.put(GeoAreaColumns.AREA_ID, areaId);
+        values.put(GeoAreaColumns.MESSAGE_ID, messageId);
+        values.put(GeoAreaColumns.CAMPAIGN_ID, campaignId);
+        values.put(GeoAreaColumns.EXPIRY_TIME, expiryTime);
+        db.insertWithOnConflict(Tables.GEO_AREAS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    static String normalize(@NonNull String areaId) {
+        return areaId.toLowerCase(Locale.US);
+    }
+
+    private static List<String[]> chunks(Collection<String> values) {
+        List<String> list = new ArrayList<>(values);
+        List<String[]> chunks = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += MAX_ARGS_PER_QUERY) {
+            List<String> chunk = list.subList(i, Math.min(list.size(), i + MAX_ARGS_PER_QUERY));
+            chunks.add(chunk.toArray(new String[0]));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 2);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ",?");
+        }
+        return sb.toString();
+    }
+}
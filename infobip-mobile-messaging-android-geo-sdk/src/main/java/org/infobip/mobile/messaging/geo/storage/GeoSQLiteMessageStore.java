@@ -1,14 +1,21 @@
 package org.infobip.mobile.messaging.geo.storage;
 
 import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import androidx.annotation.NonNull;
 
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MobileMessagingCore;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.MessageColumns;
 import org.infobip.mobile.messaging.dal.sqlite.DatabaseHelper;
 import org.infobip.mobile.messaging.storage.MessageStore;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * @author sslavin
@@ -17,10 +24,28 @@ import java.util.List;
 
 public class GeoSQLiteMessageStore implements MessageStore {
 
+    private static final String NEWEST_FIRST = MessageColumns.RECEIVED_TIMESTAMP + " DESC";
+    private static final String SEEN = MessageColumns.SEEN_TIMESTAMP + " > 0";
+    private static final String UNSEEN = MessageColumns.SEEN_TIMESTAMP + " = 0";
+
     public void save(Context context, Message... messages) {
         DatabaseHelper helper = MobileMessagingCore.getDatabaseHelper(context);
-        for (Message message : messages) {
-            helper.save(new SQLiteGeoMessage(message));
+        SQLiteDatabase db = MobileMessagingCore.getDatabaseProvider(context).getDatabase();
+        db.beginTransaction();
+        try {
+            if (messages.length == 1) {
+                helper.save(new SQLiteGeoMessage(messages[0]));
+            } else {
+                List<SQLiteGeoMessage> geoMessages = new ArrayList<>(messages.length);
+                for (Message message : messages) {
+                    geoMessages.add(new SQLiteGeoMessage(message));
+                }
+                helper.saveAll(geoMessages);
+            }
+            areaIndex(context).index(Arrays.asList(messages));
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
         }
     }
 
@@ -28,6 +53,68 @@ public class GeoSQLiteMessageStore implements MessageStore {
         return new ArrayList<Message>(MobileMessagingCore.getDatabaseHelper(context).findAll(SQLiteGeoMessage.class));
     }
 
+    @Override
+    public List<Message> findPage(Context context, int offset, int limit) {
+        return find(context, null, offset, limit);
+    }
+
+    @Override
+    public List<Message> findSeen(Context context, int offset, int limit) {
+        return find(context, SEEN, offset, limit);
+    }
+
+    @Override
+    public List<Message> findUnseen(Context context, int offset, int limit) {
+        return find(context, UNSEEN, offset, limit);
+    }
+
+    @Override
+    public long countUnseen(Context context) {
+        return MobileMessagingCore.getDatabaseHelper(context).countAll(SQLiteGeoMessage.class, UNSEEN);
+    }
+
+    /**
+     * Finds geo messages which contain any of the provided areas, using the area index
+     *
+     * @param context context
+     * @param areaIds area ids, matched case-insensitively
+     * @return messages with at least one of the areas
+     */
+    @NonNull
+    public List<Message> findByAreaIds(Context context, Collection<String> areaIds) {
+        return findByIds(context, indexedAreas(context).findMessageIds(areaIds));
+    }
+
+    @Override
+    public List<Message> findByIds(Context context, Collection<String> messageIds) {
+        return new ArrayList<Message>(MobileMessagingCore.getDatabaseHelper(context).find(SQLiteGeoMessage.class, messageIds));
+    }
+
+    @Override
+    public void updateMessageIds(Context context, Map<String, String> messageIds) {
+        SQLiteDatabase db = MobileMessagingCore.getDatabaseProvider(context).getDatabase();
+        db.beginTransaction();
+        try {
+            MobileMessagingCore.getDatabaseHelper(context).updatePrimaryKeys(SQLiteGeoMessage.class, messageIds);
+            areaIndex(context).updateMessageIds(messageIds);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Finds ids of geo messages with valid areas which expired before the provided time, using the area index
+     *
+     * @param context context
+     * @param now     current time in milliseconds
+     * @return ids of expired messages
+     */
+    @NonNull
+    public Set<String> findExpiredMessageIds(Context context, long now) {
+        return indexedAreas(context).findExpiredMessageIds(now);
+    }
+
     public Message findById(Context context, String messageId) {
         return MobileMessagingCore.getDatabaseHelper(context).find(SQLiteGeoMessage.class, messageId);
     }
@@ -38,13 +125,42 @@ public class GeoSQLiteMessageStore implements MessageStore {
 
     public void deleteAll(Context context) {
         MobileMessagingCore.getDatabaseHelper(context).deleteAll(SQLiteGeoMessage.class);
+        areaIndex(context).clear();
     }
 
     public void deleteById(Context context, String messageId) {
         MobileMessagingCore.getDatabaseHelper(context).delete(SQLiteGeoMessage.class, messageId);
+        areaIndex(context).remove(messageId);
     }
 
     public void deleteByIds(Context context, String[] messageIds) {
         MobileMessagingCore.getDatabaseHelper(context).delete(SQLiteGeoMessage.class, messageIds);
+        areaIndex(context).remove(messageIds);
+    }
+
+    private GeoAreaIndex areaIndex(Context context) {
+        return new GeoAreaIndex(MobileMessagingCore.getDatabaseProvider(context));
+    }
+
+    /**
+     * Returns area index, building it from stored messages first if they were saved before the index existed
+     */
+    private GeoAreaIndex indexedAreas(Context context) {
+        GeoAreaIndex index = areaIndex(context);
+        SQLiteDatabase db = MobileMessagingCore.getDatabaseProvider(context).getDatabase();
+        db.beginTransaction();
+        try {
+            if (index.isEmpty() && countAll(context) > 0) {
+                index.index(findAll(context));
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return index;
+    }
+
+    private List<Message> find(Context context, String sqlWhereCondition, int offset, int limit) {
+        return new ArrayList<Message>(MobileMessagingCore.getDatabaseHelper(context).find(SQLiteGeoMessage.class, sqlWhereCondition, null, NEWEST_FIRST, offset, limit));
     }
 }
@@ -12,6 +12,7 @@ import org.infobip.mobile.messaging.geo.Area;
 import org.infobip.mobile.messaging.geo.GeoEventType;
 import org.infobip.mobile.messaging.geo.MobileGeoImpl;
 import org.infobip.mobile.messaging.geo.geofencing.GeofencingHelper;
+import org.infobip.mobile.messaging.geo.geofencing.GeofencingImpl;
 import org.infobip.mobile.messaging.geo.platform.GeoBroadcaster;
 import org.infobip.mobile.messaging.geo.report.GeoReport;
 import org.infobip.mobile.messaging.geo.report.GeoReportHelper;
@@ -68,9 +69,9 @@ public class GeoAreasHandler {
      */
     void handleTransition(Intent intent) {
 
-        GeoTransition transition;
+        GeoTransitionHelper.GeofencingResult result;
         try {
-            transition = GeoTransitionHelper.resolveTransitionFromIntent(intent);
+            result = GeoTransitionHelper.resolveTransitionFromIntent(intent);
         } catch (GeoTransitionHelper.GeofenceNotAvailableException e) {
             GeofencingHelper.setAllActiveGeoAreasMonitored(context, false);
             MobileMessagingLogger.e(TAG, "Geofence not available");
@@ -80,7 +81,13 @@ public class GeoAreasHandler {
             return;
         }
 
-        handleTransition(transition);
+        if (result.refreshGeofenceExited) {
+            MobileMessagingLogger.d(TAG, "Left refresh geofence, selecting areas to monitor again");
+            GeofencingImpl.getInstance(context).refreshGeofences(result.location);
+        }
+        if (result.transition != null) {
+            handleTransition(result.transition);
+        }
     }
 
     /**
@@ -175,20 +182,7 @@ public class GeoAreasHandler {
         }
 
         MessageStore messageStore = mobileMessagingCore.getMessageStore();
-        // Code below is far from being effective but messageId is primary key
-        // so we will have to remove messages with invalid keys
-        List<Message> allMessages = messageStore.findAll(context);
-        Map<String, String> messageIds = reportingResult.getMessageIds();
-        for (Message message : allMessages) {
-            String newMessageId = messageIds.get(message.getMessageId());
-            if (newMessageId == null) {
-                continue;
-            }
-
-            message.setMessageId(newMessageId);
-        }
-        messageStore.deleteAll(context);
-        messageStore.save(context, allMessages.toArray(new Message[0]));
+        messageStore.updateMessageIds(context, reportingResult.getMessageIds());
     }
 
     /**
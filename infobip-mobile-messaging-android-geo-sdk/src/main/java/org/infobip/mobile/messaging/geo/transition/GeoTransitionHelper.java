@@ -2,6 +2,8 @@ package org.infobip.mobile.messaging.geo.transition;
 
 import android.content.Intent;
 import android.location.Location;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.collection.ArraySet;
 import android.util.SparseArray;
 
@@ -11,7 +13,9 @@ import com.google.android.gms.location.GeofencingEvent;
 
 import org.infobip.mobile.messaging.geo.GeoEventType;
 import org.infobip.mobile.messaging.geo.GeoLatLng;
+import org.infobip.mobile.messaging.geo.geofencing.GeofenceSelector;
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -24,6 +28,31 @@ class GeoTransitionHelper {
     static class GeofenceNotAvailableException extends RuntimeException {
     }
 
+    /**
+     * Geofencing event resolved from intent, it may both require refresh of monitored areas and carry a transition
+     */
+    static class GeofencingResult {
+        /**
+         * True if device left the refresh geofence and areas to monitor should be selected again
+         */
+        final boolean refreshGeofenceExited;
+
+        /**
+         * Transition of monitored areas, null if only the refresh geofence was triggered
+         */
+        @Nullable
+        final GeoTransition transition;
+
+        @NonNull
+        final GeoLatLng location;
+
+        GeofencingResult(boolean refreshGeofenceExited, @Nullable GeoTransition transition, @NonNull GeoLatLng location) {
+            this.refreshGeofenceExited = refreshGeofenceExited;
+            this.transition = transition;
+            this.location = location;
+        }
+    }
+
     /**
      * Supported geofence transition events
      */
@@ -35,10 +64,10 @@ class GeoTransitionHelper {
      * Resolves transition information from geofencing intent
      *
      * @param intent geofencing intent
-     * @return transition information
+     * @return transition information and whether refresh geofence was exited
      * @throws RuntimeException if information cannot be resolved
      */
-    static GeoTransition resolveTransitionFromIntent(Intent intent) throws RuntimeException {
+    static GeofencingResult resolveTransitionFromIntent(Intent intent) throws RuntimeException {
         GeofencingEvent geofencingEvent = GeofencingEvent.fromIntent(intent);
         if (geofencingEvent == null) {
             throw new RuntimeException("Geofencing event is null, cannot process");
@@ -51,17 +80,40 @@ class GeoTransitionHelper {
             throw new RuntimeException("ERROR: " + GeofenceStatusCodes.getStatusCodeString(geofencingEvent.getErrorCode()));
         }
 
+        Location triggeringLocation = geofencingEvent.getTriggeringLocation();
+        GeoLatLng location = new GeoLatLng(triggeringLocation.getLatitude(), triggeringLocation.getLongitude());
+        boolean refreshGeofenceExited = geofencingEvent.getGeofenceTransition() == Geofence.GEOFENCE_TRANSITION_EXIT && isRefreshGeofenceTriggered(geofencingEvent);
+
         GeoEventType event = supportedTransitionEvents.get(geofencingEvent.getGeofenceTransition());
         if (event == null) {
+            if (refreshGeofenceExited) {
+                return new GeofencingResult(true, null, location);
+            }
             throw new RuntimeException("Transition is not supported: " + geofencingEvent.getGeofenceTransition());
         }
 
         Set<String> triggeringRequestIds = new ArraySet<>();
         for (Geofence geofence : geofencingEvent.getTriggeringGeofences()) {
-            triggeringRequestIds.add(geofence.getRequestId());
+            if (!GeofenceSelector.REFRESH_GEOFENCE_ID.equals(geofence.getRequestId())) {
+                triggeringRequestIds.add(geofence.getRequestId());
+            }
+        }
+
+        GeoTransition transition = triggeringRequestIds.isEmpty() ? null : new GeoTransition(event, triggeringRequestIds, location);
+        return new GeofencingResult(refreshGeofenceExited, transition, location);
+    }
+
+    private static boolean isRefreshGeofenceTriggered(GeofencingEvent geofencingEvent) {
+        List<Geofence> geofences = geofencingEvent.getTriggeringGeofences();
+        if (geofences == null) {
+            return false;
         }
 
-        Location location = geofencingEvent.getTriggeringLocation();
-        return new GeoTransition(event, triggeringRequestIds, new GeoLatLng(location.getLatitude(), location.getLongitude()));
+        for (Geofence geofence : geofences) {
+            if (GeofenceSelector.REFRESH_GEOFENCE_ID.equals(geofence.getRequestId())) {
+                return true;
+            }
+        }
+        return false;
     }
 }
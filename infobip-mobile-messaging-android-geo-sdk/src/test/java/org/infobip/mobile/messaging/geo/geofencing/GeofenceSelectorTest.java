@@ -0,0 +1,167 @@
+package org.infobip.mobile.messaging.geo.geofencing;
+
+import org.infobip.mobile.messaging.geo.Area;
+import org.infobip.mobile.messaging.geo.GeoLatLng;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GeofenceSelectorTest {
+
+    private static final GeoLatLng ZAGREB = new GeoLatLng(45.8150, 15.9819);
+    private static final int SYNTHETIC_AREAS = 10000;
+
+    private GeofenceSelector selector;
+
+    @Before
+    public void setUp() {
+        selector = new GeofenceSelector();
+    }
+
+    @Test
+    public void should_select_all_areas_when_under_the_cap() {
+        List<GeofenceSelector.Candidate> candidates = syntheticCandidates(GeofenceSelector.MAX_GEOFENCES, 1);
+
+        GeofenceSelector.Plan plan = selector.select(candidates, ZAGREB);
+
+        assertEquals(GeofenceSelector.MAX_GEOFENCES, plan.getSelected().size());
+        assertNull(plan.getRefreshCenter());
+    }
+
+    @Test
+    public void should_select_nearest_areas_and_keep_slot_for_refresh_geofence() {
+        List<GeofenceSelector.Candidate> candidates = syntheticCandidates(SYNTHETIC_AREAS, 2);
+
+        GeofenceSelector.Plan plan = selector.select(candidates, ZAGREB);
+
+        assertEquals(GeofenceSelector.MAX_GEOFENCES - 1, plan.getSelected().size());
+        assertNotNull(plan.getRefreshCenter());
+
+        double farthestSelected = 0;
+        for (GeofenceSelector.Candidate candidate : plan.getSelected()) {
+            farthestSelected = Math.max(farthestSelected, borderDistance(candidate));
+        }
+        Set<GeofenceSelector.Candidate> selected = new HashSet<>(plan.getSelected());
+        double nearestRejected = Double.MAX_VALUE;
+        for (GeofenceSelector.Candidate candidate : candidates) {
+            if (!selected.contains(candidate)) {
+                nearestRejected = Math.min(nearestRejected, borderDistance(candidate));
+            }
+        }
+        assertTrue(farthestSelected <= nearestRejected);
+        assertEquals(Math.max(GeofenceSelector.MIN_REFRESH_RADIUS_METERS, nearestRejected), plan.getRefreshRadius(), 1);
+    }
+
+    @Test
+    public void should_not_make_refresh_geofence_smaller_than_minimum() {
+        GeofenceSelector selector = new GeofenceSelector(2);
+        GeofenceSelector.Candidate nearest = new GeofenceSelector.Candidate(new Area("nearest", "nearest", ZAGREB.getLat(), ZAGREB.getLng(), 100), null);
+        GeofenceSelector.Candidate rejected = new GeofenceSelector.Candidate(new Area("rejected", "rejected", ZAGREB.getLat() + 0.001, ZAGREB.getLng(), 100), null);
+
+        GeofenceSelector.Candidate far = new GeofenceSelector.Candidate(new Area("far", "far", ZAGREB.getLat() + 0.1, ZAGREB.getLng(), 100), null);
+
+        GeofenceSelector.Plan plan = selector.select(Arrays.asList(far, nearest, rejected), ZAGREB);
+
+        assertEquals(Collections.singletonList(nearest), plan.getSelected());
+        assertTrue(borderDistance(rejected) < GeofenceSelector.MIN_REFRESH_RADIUS_METERS);
+        assertEquals(GeofenceSelector.MIN_REFRESH_RADIUS_METERS, plan.getRefreshRadius(), 0);
+    }
+
+    @Test
+    public void should_prefer_sooner_expiry_and_smaller_radius_at_same_distance() {
+        Date soon = new Date(TimeUnit.DAYS.toMillis(1));
+        Date later = new Date(TimeUnit.DAYS.toMillis(2));
+        GeofenceSelector selector = new GeofenceSelector(3);
+        GeofenceSelector.Candidate neverExpires = candidate("neverExpires", 1000, null);
+        GeofenceSelector.Candidate expiresLater = candidate("expiresLater", 1000, later);
+        GeofenceSelector.Candidate expiresSoonLarge = candidate("expiresSoonLarge", 2000, soon);
+        GeofenceSelector.Candidate expiresSoonSmall = candidate("expiresSoonSmall", 1000, soon);
+
+        GeofenceSelector.Plan plan = selector.select(Arrays.asList(neverExpires, expiresLater, expiresSoonLarge, expiresSoonSmall), null);
+
+        assertEquals(Arrays.asList(expiresSoonSmall, expiresSoonLarge, expiresLater), plan.getSelected());
+        assertNull(plan.getRefreshCenter());
+    }
+
+    @Test
+    public void should_change_only_few_areas_after_short_move() {
+        List<GeofenceSelector.Candidate> candidates = syntheticCandidates(SYNTHETIC_AREAS, 4);
+        GeofenceSelector.Plan plan = selector.select(candidates, ZAGREB);
+        Set<String> monitored = plan.getSignatures();
+
+        GeofenceSelector.Plan nextPlan = selector.select(candidates, new GeoLatLng(ZAGREB.getLat() + 0.01, ZAGREB.getLng()));
+        List<GeofenceSelector.Candidate> added = nextPlan.getAdded(monitored);
+        List<String> removed = nextPlan.getRemovedAreaIds(monitored);
+
+        assertTrue(added.size() < nextPlan.getSelected().size() / 2);
+        assertEquals(added.size(), removed.size());
+        Set<String> addedIds = new HashSet<>();
+        for (GeofenceSelector.Candidate candidate : added) {
+            addedIds.add(candidate.getArea().getId());
+        }
+        assertTrue(Collections.disjoint(addedIds, removed));
+        assertFalse(removed.contains(GeofenceSelector.REFRESH_GEOFENCE_ID));
+    }
+
+    @Test
+    public void should_remove_refresh_geofence_when_all_areas_fit() {
+        List<GeofenceSelector.Candidate> candidates = syntheticCandidates(SYNTHETIC_AREAS, 5);
+        Set<String> monitored = selector.select(candidates, ZAGREB).getSignatures();
+
+        GeofenceSelector.Plan plan = selector.select(candidates.subList(0, 10), ZAGREB);
+
+        assertTrue(plan.getRemovedAreaIds(monitored).contains(GeofenceSelector.REFRESH_GEOFENCE_ID));
+    }
+
+    @Test
+    public void should_register_area_again_when_its_expiry_changes() {
+        GeofenceSelector.Candidate candidate = candidate("area", 100, new Date(1000));
+        Set<String> monitored = selector.select(Collections.singletonList(candidate), ZAGREB).getSignatures();
+
+        GeofenceSelector.Candidate extended = candidate("area", 100, new Date(2000));
+        GeofenceSelector.Plan plan = selector.select(Collections.singletonList(extended), ZAGREB);
+
+        assertEquals(Collections.singletonList(extended), plan.getAdded(monitored));
+        assertTrue(plan.getRemovedAreaIds(monitored).isEmpty());
+    }
+
+    private static List<GeofenceSelector.Candidate> syntheticCandidates(int count, long seed) {
+        Random random = new Random(seed);
+        List<GeofenceSelector.Candidate> candidates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // roughly 200 x 200 km around the center
+            Area area = new Area("area" + i, "Area " + i,
+                    ZAGREB.getLat() + (random.nextDouble() - 0.5) * 2,
+                    ZAGREB.getLng() + (random.nextDouble() - 0.5) * 2,
+                    100 + random.nextInt(2000));
+            Date expiry = random.nextBoolean() ? null : new Date(TimeUnit.DAYS.toMillis(1 + random.nextInt(30)));
+            candidates.add(new GeofenceSelector.Candidate(area, expiry));
+        }
+        return candidates;
+    }
+
+    private static GeofenceSelector.Candidate candidate(String id, int radius, Date expiry) {
+        return new GeofenceSelector.Candidate(new Area(id, id, 0.0, 0.0, radius), expiry);
+    }
+
+    private static double borderDistance(GeofenceSelector.Candidate candidate) {
+        Area area = candidate.getArea();
+        double distance = GeofenceSelector.distanceMeters(ZAGREB.getLat(), ZAGREB.getLng(), area.getLatitude(), area.getLongitude());
+        return Math.max(0, distance - area.getRadius());
+    }
+}
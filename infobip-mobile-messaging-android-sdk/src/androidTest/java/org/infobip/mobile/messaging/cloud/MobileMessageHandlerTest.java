@@ -2,17 +2,22 @@ package org.infobip.mobile.messaging.cloud;
 
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MobileMessaging;
+import org.infobip.mobile.messaging.MobileMessagingProperty;
 import org.infobip.mobile.messaging.storage.MessageStore;
 import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
+import org.infobip.mobile.messaging.util.PreferenceHelper;
 import org.junit.Test;
 import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static junit.framework.Assert.assertEquals;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -98,6 +103,62 @@ public class MobileMessageHandlerTest extends MobileMessagingTestCase {
         verify(notificationHandler, times(1)).displayNotification(messageWith("messageId2"));
     }
 
+    @Test
+    public void test_shouldHandleMessagesReceivedTogetherInOrder() throws Exception {
+        // Given
+        Message m1 = createMessage(context, "messageId1", false);
+        Message m2 = createMessage(context, "messageId2", false);
+        Message m3 = createMessage(context, "messageId1", false);
+
+        // When
+        handler.handleMessages(Arrays.asList(m1, m2, m3));
+
+        // Then
+        InOrder inOrder = Mockito.inOrder(broadcaster, notificationHandler);
+        inOrder.verify(broadcaster).messageReceived(messageWith("messageId1"));
+        inOrder.verify(broadcaster).messageReceived(messageWith("messageId2"));
+        inOrder.verify(notificationHandler).displayNotification(messageWith("messageId1"));
+        inOrder.verify(notificationHandler).displayNotification(messageWith("messageId2"));
+        verify(broadcaster, times(1)).messageReceived(messageWith("messageId1"));
+        assertEquals(2, commonStore.findAll(context).size());
+    }
+
+    @Test
+    public void test_shouldIgnoreMessagesAsSoonAsPushRegistrationIsDisabled() throws Exception {
+        // Given
+        Message m1 = createMessage(context, "messageId1", false);
+        Message m2 = createMessage(context, "messageId2", false);
+        Message m3 = createMessage(context, "messageId3", false);
+
+        // When
+        handler.handleMessage(m1);
+        mobileMessagingCore.setPushRegistrationEnabled(false);
+        handler.handleMessage(m2);
+        mobileMessagingCore.setPushRegistrationEnabled(true);
+        handler.handleMessage(m3);
+
+        // Then
+        verify(broadcaster, times(1)).messageReceived(messageWith("messageId1"));
+        verify(broadcaster, never()).messageReceived(messageWith("messageId2"));
+        verify(broadcaster, times(1)).messageReceived(messageWith("messageId3"));
+    }
+
+    @Test
+    public void test_shouldIgnoreMessagesWhileDepersonalizeIsInProgress() throws Exception {
+        // Given
+        Message m1 = createMessage(context, "messageId1", false);
+        Message m2 = createMessage(context, "messageId2", false);
+        handler.handleMessage(m1);
+
+        // When
+        PreferenceHelper.saveBoolean(context, MobileMessagingProperty.IS_DEPERSONALIZE_UNREPORTED, true);
+        handler.handleMessage(m2);
+
+        // Then
+        verify(broadcaster, times(1)).messageReceived(messageWith("messageId1"));
+        verify(broadcaster, never()).messageReceived(messageWith("messageId2"));
+    }
+
     private Message messageWith(final String messageId) {
         return argThat(new ArgumentMatcher<Message>() {
             @Override
@@ -47,6 +47,21 @@ public class MobileMessagingCloudHandlerTest extends TestCase {
         assertEquals("body", messageArgumentCaptor.getValue().getBody());
     }
 
+    @Test
+    public void test_shouldHandleMessageKeptInMemory() {
+
+        Message message = new Message();
+        message.setBody("body");
+        message.setMessageId("messageId");
+        Intent intent = new Intent("org.infobip.mobile.messaging.cloud.MESSAGE_RECEIVE")
+                .putExtra(MobileMessagingCloudHandler.EXTRA_MESSAGE_KEY, MobileMessagingCloudHandler.keepInMemory(message));
+
+        handler.handleWork(context, intent);
+
+        Mockito.verify(mobileMessageHandler, Mockito.times(1)).handleMessage(messageArgumentCaptor.capture());
+        assertSame(message, messageArgumentCaptor.getValue());
+    }
+
     @Test
     public void test_shouldHandleNewToken() {
         Intent intent = new Intent("org.infobip.mobile.messaging.cloud.NEW_TOKEN")
@@ -1,5 +1,8 @@
 package org.infobip.mobile.messaging.dal.bundle;
 
+import android.os.Bundle;
+import android.os.Parcel;
+
 import junit.framework.TestCase;
 
 import org.infobip.mobile.messaging.Message;
@@ -7,6 +10,10 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import org.skyscreamer.jsonassert.JSONAssert;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * @author sslavin
  * @since 13/09/2017.
@@ -39,4 +46,126 @@ public class MessageBundleMapperTest extends TestCase {
         // Then
         JSONAssert.assertEquals(givenMessage.getCustomPayload(), actualMessage.getCustomPayload(), true);
     }
+
+    public void test_shouldSerializeAndDeserializeAllFields() throws Exception {
+
+        // Given
+        Message givenMessage = fullMessage();
+
+        // When
+        Message actualMessage = MessageBundleMapper.messageFromBundle(
+                MessageBundleMapper.messageToBundle(givenMessage));
+
+        // Then
+        JSONAssert.assertEquals(BundleMapper.serializer.serialize(givenMessage), BundleMapper.serializer.serialize(actualMessage), true);
+    }
+
+    public void test_shouldSerializeAndDeserializeMessageWithoutOptionalFieldsInInternalBundle() throws Exception {
+
+        // Given
+        Message givenMessage = new Message(null, null, null, null, false, null, false, null, null, 0, 0, 0,
+                null, null, null, null, null, null, null, 0, null, null, null, null, null, null);
+
+        // When
+        Message actualMessage = MessageBundleMapper.messageFromBundle(
+                MessageBundleMapper.messageToInternalBundle(givenMessage));
+
+        // Then
+        JSONAssert.assertEquals(BundleMapper.serializer.serialize(givenMessage), BundleMapper.serializer.serialize(actualMessage), true);
+    }
+
+    public void test_shouldDeserializeMessageFromJsonBundle() throws Exception {
+
+        // Given
+        Message givenMessage = fullMessage();
+        Bundle jsonBundle = BundleMapper.objectToBundle(givenMessage, MessageBundleMapper.class.getName() + ".message");
+
+        // When
+        Message actualMessage = MessageBundleMapper.messageFromBundle(jsonBundle);
+
+        // Then
+        JSONAssert.assertEquals(BundleMapper.serializer.serialize(givenMessage), BundleMapper.serializer.serialize(actualMessage), true);
+    }
+
+    public void test_shouldKeepJsonInBundlesWhichLeaveApplication() throws Exception {
+
+        // Given
+        Message givenMessage = fullMessage();
+
+        // When
+        Bundle bundle = MessageBundleMapper.messageToBundle(givenMessage);
+        ArrayList<Bundle> bundles = MessageBundleMapper.messagesToBundles(Arrays.asList(givenMessage));
+
+        // Then
+        String tag = MessageBundleMapper.class.getName() + ".message";
+        JSONAssert.assertEquals(BundleMapper.serializer.serialize(givenMessage), bundle.getString(tag), true);
+        JSONAssert.assertEquals(BundleMapper.serializer.serialize(givenMessage), bundles.get(0).getString(tag), true);
+        assertEquals(1, bundle.size());
+    }
+
+    public void test_shouldSerializeAndDeserializeAllFieldsOfInternalBundle() throws Exception {
+
+        // Given
+        Message givenMessage = fullMessage();
+
+        // When
+        Bundle bundle = MessageBundleMapper.messageToInternalBundle(givenMessage);
+        Message actualMessage = MessageBundleMapper.messageFromBundle(bundle);
+
+        // Then
+        assertNull(bundle.getString(MessageBundleMapper.class.getName() + ".message"));
+        JSONAssert.assertEquals(BundleMapper.serializer.serialize(givenMessage), BundleMapper.serializer.serialize(actualMessage), true);
+    }
+
+    public void test_shouldDeserializeMessagesFromJsonAndInternalBundles() throws Exception {
+
+        // Given
+        Message message1 = fullMessage();
+        Message message2 = new Message();
+        ArrayList<Bundle> bundles = new ArrayList<>();
+        bundles.addAll(MessageBundleMapper.messagesToBundles(Arrays.asList(message1)));
+        bundles.add(MessageBundleMapper.messageToInternalBundle(message2));
+
+        // When
+        List<Message> actualMessages = MessageBundleMapper.messagesFromBundles(bundles);
+
+        // Then
+        assertEquals(2, actualMessages.size());
+        JSONAssert.assertEquals(BundleMapper.serializer.serialize(message1), BundleMapper.serializer.serialize(actualMessages.get(0)), true);
+        JSONAssert.assertEquals(BundleMapper.serializer.serialize(message2), BundleMapper.serializer.serialize(actualMessages.get(1)), true);
+    }
+
+    public void test_shouldSkipUnknownFieldsOfParceledMessage() throws Exception {
+
+        // Given
+        Parcel parcel = Parcel.obtain();
+        new TaggedParcelWriter(parcel, 0, 2)
+                .writeString(1, "someMessageId")
+                .writeDouble(500, 1.0)
+                .writeObject(501, new Message())
+                .writeObjects(502, Arrays.asList(new Message(), new Message()))
+                .writeString(3, "someBody")
+                .end();
+        parcel.setDataPosition(0);
+
+        // When
+        Message actualMessage = Message.CREATOR.createFromParcel(parcel);
+        parcel.recycle();
+
+        // Then
+        assertEquals("someMessageId", actualMessage.getMessageId());
+        assertEquals("someBody", actualMessage.getBody());
+    }
+
+    private static Message fullMessage() {
+        try {
+            return new Message("someMessageId", "someTitle", "someBody", "someSound", true, "someIcon", true, "someCategory",
+                    "someFrom", 1L, 2L, 3L, new JSONObject().put("key", "value").put("number", 1).put("nested", new JSONObject().put("key", "value")),
+                    "{\"internal\":\"data\"}", "someDestination", Message.Status.SUCCESS, "someStatusMessage", "http://www.example.com/image.png",
+                    Message.InAppStyle.BANNER, 4L, "http://www.example.com/webView", "http://www.example.com/browser", Message.MESSAGE_TYPE_CHAT,
+                    "app://deeplink", "someOpenTitle", "someDismissTitle");
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -6,7 +6,11 @@ import android.database.sqlite.SQLiteDatabase;
 import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static junit.framework.Assert.assertEquals;
@@ -160,4 +164,106 @@ public class DatabaseHelperTest extends MobileMessagingTestCase {
 
         assertEquals(100, databaseHelper.countAll(SomethingInDatabase.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_shouldSaveAllObjectsInOneTransaction() {
+        database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something0", 0, 0).getContentValues());
+        List<SomethingInDatabase> somethings = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            somethings.add(new SomethingInDatabase("Something" + i, i, i + 0.5));
+        }
+
+        databaseHelper.saveAll(somethings);
+
+        assertEquals(100, databaseHelper.countAll(SomethingInDatabase.class));
+        SomethingInDatabase replaced = databaseHelper.find(SomethingInDatabase.class, "Something0");
+        assertEquals(0, replaced.longValue);
+        assertEquals(0.5, replaced.doubleValue, 0.001);
+        SomethingInDatabase something = databaseHelper.find(SomethingInDatabase.class, "Something99");
+        assertEquals(99, something.longValue);
+        assertEquals(99.5, something.doubleValue, 0.001);
+    }
+
+    @Test
+    public void test_shouldFindFilteredOrderedPageOfObjects() {
+        for (int i = 0; i < 100; i++) {
+            database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something" + i, i, i % 2).getContentValues());
+        }
+
+        List<SomethingInDatabase> somethings = databaseHelper.find(SomethingInDatabase.class, "double_value = ?", new String[]{"1"}, "long_value DESC", 5, 10);
+
+        assertEquals(10, somethings.size());
+        assertEquals(89, somethings.get(0).longValue);
+        assertEquals(71, somethings.get(9).longValue);
+    }
+
+    @Test
+    public void test_shouldFindObjectsWithOffsetAndNoLimit() {
+        for (int i = 0; i < 10; i++) {
+            database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something" + i, i, 0).getContentValues());
+        }
+
+        List<SomethingInDatabase> somethings = databaseHelper.find(SomethingInDatabase.class, null, null, "long_value", 7, 0);
+
+        assertEquals(3, somethings.size());
+        assertEquals(7, somethings.get(0).longValue);
+    }
+
+    @Test
+    public void test_shouldFindObjectsByManyIdsInChunks() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something" + i, i, 0).getContentValues());
+            if (i % 2 == 0) {
+                ids.add("Something" + i);
+            }
+        }
+        ids.add("Nothing");
+
+        List<SomethingInDatabase> somethings = databaseHelper.find(SomethingInDatabase.class, ids);
+
+        assertEquals(600, somethings.size());
+    }
+
+    @Test
+    public void test_shouldUpdatePrimaryKeysInOneTransaction() {
+        database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something1", 1, 0).getContentValues());
+        database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something2", 2, 0).getContentValues());
+        database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something3", 3, 0).getContentValues());
+        Map<String, String> ids = new HashMap<>();
+        ids.put("Something1", "Renamed1");
+        ids.put("Something2", "Something3");
+
+        databaseHelper.updatePrimaryKeys(SomethingInDatabase.class, ids);
+
+        assertEquals(2, databaseHelper.countAll(SomethingInDatabase.class));
+        assertNull(databaseHelper.find(SomethingInDatabase.class, "Something1"));
+        assertEquals(1, databaseHelper.find(SomethingInDatabase.class, "Renamed1").longValue);
+        assertEquals(2, databaseHelper.find(SomethingInDatabase.class, "Something3").longValue);
+    }
+
+    @Test
+    public void test_shouldUpdateChainedAndSwappedPrimaryKeys() {
+        database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something1", 1, 0).getContentValues());
+        database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something2", 2, 0).getContentValues());
+        database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something3", 3, 0).getContentValues());
+        database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something4", 4, 0).getContentValues());
+        database.insert(SomethingInDatabase.getTable(), null, new SomethingInDatabase("Something5", 5, 0).getContentValues());
+        Map<String, String> ids = new LinkedHashMap<>();
+        ids.put("Something1", "Something2");
+        ids.put("Something2", "Something3");
+        ids.put("Something3", "Renamed3");
+        ids.put("Something4", "Something5");
+        ids.put("Something5", "Something4");
+
+        databaseHelper.updatePrimaryKeys(SomethingInDatabase.class, ids);
+
+        assertEquals(5, databaseHelper.countAll(SomethingInDatabase.class));
+        assertNull(databaseHelper.find(SomethingInDatabase.class, "Something1"));
+        assertEquals(1, databaseHelper.find(SomethingInDatabase.class, "Something2").longValue);
+        assertEquals(2, databaseHelper.find(SomethingInDatabase.class, "Something3").longValue);
+        assertEquals(3, databaseHelper.find(SomethingInDatabase.class, "Renamed3").longValue);
+        assertEquals(5, databaseHelper.find(SomethingInDatabase.class, "Something4").longValue);
+        assertEquals(4, databaseHelper.find(SomethingInDatabase.class, "Something5").longValue);
+    }
+}
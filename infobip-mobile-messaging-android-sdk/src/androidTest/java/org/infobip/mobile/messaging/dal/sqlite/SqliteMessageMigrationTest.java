@@ -197,4 +197,32 @@ public class SqliteMessageMigrationTest extends MobileMessagingTestCase {
         assertEquals("SomeMessageStatusMessage", messages.get(0).getStatusMessage());
         assertEquals("SomeMessageContentUrl", messages.get(0).getContentUrl());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_shouldAddTimestampIndexesDuringMigration() throws Exception {
+        // Create SQLiteOpenHelper directly to perform raw operations on database
+        context.deleteDatabase(PushDatabaseHelperImpl.DATABASE_NAME);
+        SQLiteOpenHelper sqLiteOpenHelper = new SQLiteOpenHelper(context, PushDatabaseHelperImpl.DATABASE_NAME, null, PushDatabaseHelperImpl.VER_2019_JAN_21) {
+            @Override
+            public void onCreate(SQLiteDatabase db) {
+                db.execSQL(SQL_CREATE_MAY_MESSAGES_TABLE);
+                db.execSQL(SQL_CREATE_GEO_MESSAGES_TABLE);
+            }
+
+            @Override
+            public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+
+            }
+        };
+
+        SQLiteDatabase db = sqLiteOpenHelper.getWritableDatabase();
+        db.close();
+        sqLiteOpenHelper.close();
+
+        // Check that indexes exist for both tables
+        SQLiteDatabase database = databaseProvider.getDatabase();
+        Cursor cursor = database.rawQuery("SELECT * FROM sqlite_master WHERE type='index' AND name LIKE '%_timestamp_idx'", null);
+        assertEquals(4, cursor.getCount());
+        cursor.close();
+    }
+}
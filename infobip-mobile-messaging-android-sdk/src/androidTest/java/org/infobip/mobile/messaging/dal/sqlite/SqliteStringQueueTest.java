@@ -0,0 +1,131 @@
+package org.infobip.mobile.messaging.dal.sqlite;
+
+import android.annotation.SuppressLint;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import org.infobip.mobile.messaging.MobileMessagingProperty;
+import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
+import org.infobip.mobile.messaging.util.PreferenceHelper;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SqliteStringQueueTest extends MobileMessagingTestCase {
+
+    private static final int NUMBER_OF_IDS = 1000;
+
+    private SqliteStringQueue queue;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        queue = new SqliteStringQueue(databaseProvider, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS.getKey());
+    }
+
+    @Test
+    public void test_shouldKeepOrderAndIgnoreDuplicates() {
+        queue.append("id1", "id2");
+        queue.append("id2", "id3");
+
+        assertEquals(Arrays.asList("id1", "id2", "id3"), queue.findAll());
+        assertEquals(3, queue.count());
+    }
+
+    @Test
+    public void test_shouldDrainOldestStringsInBatches() {
+        queue.append("id1", "id2", "id3", "id4", "id5");
+
+        assertEquals(Arrays.asList("id1", "id2"), queue.drain(2));
+        assertEquals(Arrays.asList("id3", "id4"), queue.drain(2));
+        assertEquals(Arrays.asList("id5"), queue.drain(0));
+        assertTrue(queue.drain(2).isEmpty());
+    }
+
+    @Test
+    public void test_shouldKeepQueuesSeparateByKey() {
+        SqliteStringQueue otherQueue = new SqliteStringQueue(databaseProvider, MobileMessagingProperty.UNSENT_MO_MESSAGES.getKey());
+        queue.append("id1");
+        otherQueue.append("id1", "id2");
+
+        queue.remove("id1");
+
+        assertEquals(0, queue.count());
+        assertEquals(Arrays.asList("id1", "id2"), otherQueue.findAll());
+    }
+
+    @Test
+    public void test_preferenceHelper_shouldStoreQueuedPropertiesInDatabase() {
+        PreferenceHelper.appendToStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS, "id1", "id2", "id3");
+        PreferenceHelper.deleteFromStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS, "id2");
+
+        assertFalse(PreferenceHelper.getDefaultMMSharedPreferences(context).contains(MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS.getKey()));
+        assertTrue(PreferenceHelper.contains(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS));
+        assertArrayEquals(new String[]{"id1", "id3"}, PreferenceHelper.findStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS));
+        assertArrayEquals(new String[]{"id1"}, PreferenceHelper.findAndRemoveStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS, 1));
+        assertArrayEquals(new String[]{"id3"}, PreferenceHelper.findAndRemoveStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS));
+        assertEquals(0, PreferenceHelper.findStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS).length);
+
+        PreferenceHelper.saveStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS, "id4");
+        assertEquals(Arrays.asList("id4"), queue.findAll());
+        PreferenceHelper.remove(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS);
+        assertEquals(0, queue.count());
+    }
+
+    @SuppressLint("ApplySharedPref")
+    @Test
+    public void test_shouldMigrateStringSetsFromSharedPreferences() {
+        // Create database of previous version directly
+        databaseProvider.deleteDatabase();
+        SQLiteOpenHelper sqLiteOpenHelper = new SQLiteOpenHelper(context, PushDatabaseHelperImpl.DATABASE_NAME, null, PushDatabaseHelperImpl.VER_2026_OCT_17) {
+            @Override
+            public void onCreate(SQLiteDatabase db) {
+            }
+
+            @Override
+            public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            }
+        };
+        sqLiteOpenHelper.getWritableDatabase().close();
+        sqLiteOpenHelper.close();
+
+        PreferenceHelper.getDefaultMMSharedPreferences(context).edit()
+                .putStringSet(MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS.getKey(), new HashSet<>(Arrays.asList("id1", "id2")))
+                .putStringSet(MobileMessagingProperty.UNSENT_MO_MESSAGES.getKey(), new HashSet<>(Arrays.asList("{}")))
+                .commit();
+
+        String[] unreportedIds = PreferenceHelper.findStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS);
+
+        Arrays.sort(unreportedIds);
+        assertArrayEquals(new String[]{"id1", "id2"}, unreportedIds);
+        assertArrayEquals(new String[]{"{}"}, PreferenceHelper.findStringArray(context, MobileMessagingProperty.UNSENT_MO_MESSAGES));
+        assertFalse(PreferenceHelper.getDefaultMMSharedPreferences(context).contains(MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS.getKey()));
+        assertFalse(PreferenceHelper.getDefaultMMSharedPreferences(context).contains(MobileMessagingProperty.UNSENT_MO_MESSAGES.getKey()));
+    }
+
+    @Test
+    public void test_shouldDrainAllAppendedStringsInOrder() {
+        for (int i = 0; i < NUMBER_OF_IDS; i++) {
+            PreferenceHelper.appendToStringArray(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS, "messageId" + i);
+        }
+
+        int drained = 0;
+        List<String> batch;
+        while (!(batch = queue.drain(100)).isEmpty()) {
+            for (String id : batch) {
+                assertEquals("messageId" + drained++, id);
+            }
+        }
+
+        assertEquals(NUMBER_OF_IDS, drained);
+        assertEquals(0, queue.count());
+    }
+}
@@ -0,0 +1,62 @@
+package org.infobip.mobile.messaging.interactive.dal.bundle;
+
+import android.os.Bundle;
+
+import junit.framework.TestCase;
+
+import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.infobip.mobile.messaging.interactive.NotificationAction;
+import org.infobip.mobile.messaging.interactive.NotificationCategory;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+public class NotificationCategoryBundleMapperTest extends TestCase {
+
+    private final JsonSerializer serializer = new JsonSerializer(false);
+
+    public void test_shouldSerializeAndDeserializeCategoryWithActions() throws Exception {
+
+        // Given
+        NotificationAction inputAction = new NotificationAction.Builder()
+                .withId("inputActionId")
+                .withTitleText("Reply")
+                .withInput("Type here")
+                .withMoMessage()
+                .build();
+        inputAction.setInputText("someInput");
+        NotificationAction resourceAction = new NotificationAction.Builder()
+                .withId("resourceActionId")
+                .withTitleResourceId(1)
+                .withIcon(2)
+                .withBringingAppToForeground(true)
+                .build();
+        NotificationCategory givenCategory = new NotificationCategory("categoryId", inputAction, resourceAction);
+
+        // When
+        NotificationCategory actualCategory = NotificationCategoryBundleMapper.notificationCategoryFromBundle(
+                NotificationCategoryBundleMapper.notificationCategoryToBundle(givenCategory));
+        NotificationAction actualAction = NotificationActionBundleMapper.notificationActionFromBundle(
+                NotificationActionBundleMapper.notificationActionToBundle(inputAction));
+
+        // Then
+        JSONAssert.assertEquals(serializer.serialize(givenCategory), serializer.serialize(actualCategory), true);
+        JSONAssert.assertEquals(serializer.serialize(inputAction), serializer.serialize(actualAction), true);
+        assertEquals("someInput", actualAction.getInputText());
+    }
+
+    public void test_shouldDeserializeCategoryFromJsonBundle() throws Exception {
+
+        // Given
+        NotificationCategory givenCategory = new NotificationCategory("categoryId", new NotificationAction.Builder()
+                .withId("actionId")
+                .withTitleText("Open")
+                .build());
+        Bundle jsonBundle = new Bundle();
+        jsonBundle.putString(NotificationCategoryBundleMapper.class.getName() + ".category", serializer.serialize(givenCategory));
+
+        // When
+        NotificationCategory actualCategory = NotificationCategoryBundleMapper.notificationCategoryFromBundle(jsonBundle);
+
+        // Then
+        JSONAssert.assertEquals(serializer.serialize(givenCategory), serializer.serialize(actualCategory), true);
+    }
+}
@@ -104,6 +104,7 @@ public abstract class MobileMessagingTestCase extends MobileMessagingBaseTestCas
         super.setUp();
 
         PreferenceHelper.getDefaultMMSharedPreferences(context).edit().clear().commit();
+        PreferenceHelper.resetCache();
 
         PreferenceHelper.saveString(context, MobileMessagingProperty.API_URI, "http://127.0.0.1:" + debugServer.getListeningPort() + "/");
         PreferenceHelper.saveString(context, MobileMessagingProperty.APPLICATION_CODE, "TestApplicationCode");
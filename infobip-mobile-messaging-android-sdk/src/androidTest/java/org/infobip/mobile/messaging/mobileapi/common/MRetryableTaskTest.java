@@ -2,11 +2,15 @@ package org.infobip.mobile.messaging.mobileapi.common;
 
 import androidx.annotation.NonNull;
 
+import org.infobip.mobile.messaging.platform.MobileMessagingExecutors;
+import org.infobip.mobile.messaging.stats.MobileMessagingStats;
 import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
@@ -101,6 +105,32 @@ public class MRetryableTaskTest extends MobileMessagingTestCase {
                 .run(any(String[].class));
     }
 
+    @Test
+    public void shouldRecordEachRetryToStats() {
+
+        // Given
+        MobileMessagingStats stats = Mockito.mock(MobileMessagingStats.class);
+        MRetryPolicy givenRetryPolicy = new MRetryPolicy.Builder()
+                .withMaxRetries(2)
+                .withBackoffMultiplier(0)
+                .withRetryOn(Throwable.class)
+                .build();
+        Mockito.when(tester.run(any(String[].class)))
+                .thenThrow(new RuntimeException("Error"));
+
+        // When
+        retryableTask
+                .retryWith(givenRetryPolicy)
+                .recordRetriesTo(stats, "MobileApiMessages.sync")
+                .execute(executor);
+
+        // Then
+        Mockito.verify(tester, Mockito.timeout(1000).times(3)).run(any(String[].class));
+        Mockito.verify(stats).recordRetry("MobileApiMessages.sync", 1);
+        Mockito.verify(stats).recordRetry("MobileApiMessages.sync", 2);
+        Mockito.verifyNoMoreInteractions(stats);
+    }
+
     @Test
     public void shouldExecuteRunUntilThereAreExceptions() {
 
@@ -276,4 +306,32 @@ public class MRetryableTaskTest extends MobileMessagingTestCase {
         Mockito.verify(tester, Mockito.never()).error(any(Throwable.class));
         Mockito.verify(tester, Mockito.never()).error(any(String[].class), any(Throwable.class));
     }
+
+    @Test
+    public void shouldScheduleRetriesOnOwnExecutors() {
+        // Given
+        ScheduledExecutorService scheduler = Mockito.mock(ScheduledExecutorService.class);
+        MobileMessagingExecutors executors = new MobileMessagingExecutors(executor, scheduler);
+        MRetryPolicy givenRetryPolicy = new MRetryPolicy.Builder()
+                .withMaxRetries(3)
+                .withBackoffMultiplier(0)
+                .withRetryOn(Throwable.class)
+                .build();
+        Mockito.when(tester.run(any(String[].class)))
+                .thenThrow(new RuntimeException("Error"));
+
+        // When
+        new MRetryableTask<String, String>(executors) {
+            @Override
+            public String run(String[] strings) {
+                return tester.run(strings);
+            }
+        }
+                .retryWith(givenRetryPolicy)
+                .execute();
+
+        // Then
+        Mockito.verify(scheduler, Mockito.timeout(1000)).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+        Mockito.verify(tester, Mockito.times(1)).run(any(String[].class));
+    }
 }
@@ -0,0 +1,215 @@
+package org.infobip.mobile.messaging.mobileapi.common;
+
+import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RetryQueueTest extends MobileMessagingTestCase {
+
+    private final List<RetryOperation> dispatched = new ArrayList<>();
+    private final List<Long> scheduledDelays = new ArrayList<>();
+    private RetryQueue retryQueue;
+    private MRetryPolicy retryPolicy;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        dispatched.clear();
+        scheduledDelays.clear();
+        retryPolicy = new MRetryPolicy.Builder().withBackoffMultiplier(1).build();
+        retryQueue = new RetryQueue(databaseProvider, retryPolicy, new RetryQueue.Scheduler() {
+            @Override
+            public void schedule(long delayMillis) {
+                scheduledDelays.add(delayMillis);
+            }
+        }, new RetryQueue.Dispatcher() {
+            @Override
+            public void dispatch(RetryOperation operation) {
+                dispatched.add(operation);
+            }
+        });
+    }
+
+    @Test
+    public void test_shouldQueueOperationOnce() {
+        retryQueue.reportFailure(RetryOperation.SEEN_REPORTS);
+        retryQueue.reportFailure(RetryOperation.SEEN_REPORTS);
+
+        assertEquals(Arrays.asList(RetryOperation.SEEN_REPORTS), retryQueue.findAll());
+    }
+
+    @Test
+    public void test_shouldDispatchDueOperationsByPriority() {
+        retryQueue.reportFailure(RetryOperation.SESSION_REPORTS);
+        retryQueue.reportFailure(RetryOperation.SEEN_REPORTS);
+        retryQueue.reportFailure(RetryOperation.DELIVERY_REPORTS);
+
+        time.forward(1, TimeUnit.MINUTES);
+        retryQueue.dispatchDue();
+
+        assertEquals(Arrays.asList(RetryOperation.DELIVERY_REPORTS, RetryOperation.SEEN_REPORTS, RetryOperation.SESSION_REPORTS), dispatched);
+    }
+
+    @Test
+    public void test_shouldKeepDispatchedOperationUntilItReportsBack() {
+        retryQueue.reportFailure(RetryOperation.DELIVERY_REPORTS);
+        retryQueue.reportFailure(RetryOperation.SEEN_REPORTS);
+        time.forward(1, TimeUnit.MINUTES);
+        retryQueue.dispatchDue();
+
+        assertEquals(Arrays.asList(RetryOperation.DELIVERY_REPORTS, RetryOperation.SEEN_REPORTS), retryQueue.findAll());
+        retryQueue.dispatchDue();
+        assertEquals(2, dispatched.size());
+
+        retryQueue.remove(RetryOperation.DELIVERY_REPORTS);
+        retryQueue.remove(RetryOperation.SEEN_REPORTS);
+        assertTrue(retryQueue.findAll().isEmpty());
+    }
+
+    @Test
+    public void test_shouldDispatchOperationAgainWhenLeaseExpiresAfterProcessRestart() {
+        retryQueue.reportFailure(RetryOperation.MO_MESSAGES);
+        time.forward(1, TimeUnit.MINUTES);
+        retryQueue.dispatchDue();
+
+        RetryQueue restoredQueue = new RetryQueue(databaseProvider, retryPolicy, new RetryQueue.Scheduler() {
+            @Override
+            public void schedule(long delayMillis) {
+                scheduledDelays.add(delayMillis);
+            }
+        }, new RetryQueue.Dispatcher() {
+            @Override
+            public void dispatch(RetryOperation operation) {
+                dispatched.add(operation);
+            }
+        });
+        restoredQueue.dispatchDue();
+        assertEquals(Arrays.asList(RetryOperation.MO_MESSAGES), dispatched);
+
+        time.forward(RetryQueue.LEASE_MILLIS, TimeUnit.MILLISECONDS);
+        restoredQueue.dispatchDue();
+        assertEquals(Arrays.asList(RetryOperation.MO_MESSAGES, RetryOperation.MO_MESSAGES), dispatched);
+    }
+
+    @Test
+    public void test_shouldGiveUpOperationWhichNeverReportsBack() {
+        retryQueue.reportFailure(RetryOperation.SESSION_REPORTS);
+
+        for (int i = 0; i < RetryQueue.MAX_ATTEMPTS; i++) {
+            time.forward(1, TimeUnit.DAYS);
+            retryQueue.dispatchDue();
+        }
+
+        assertEquals(RetryQueue.MAX_ATTEMPTS - 1, dispatched.size());
+        assertTrue(retryQueue.findAll().isEmpty());
+    }
+
+    @Test
+    public void test_shouldNotDispatchOperationsBeforeBackoffPasses() {
+        retryQueue.reportFailure(RetryOperation.MO_MESSAGES);
+
+        retryQueue.dispatchDue();
+
+        assertTrue(dispatched.isEmpty());
+        assertEquals(Arrays.asList(RetryOperation.MO_MESSAGES), retryQueue.findAll());
+        long lastDelay = scheduledDelays.get(scheduledDelays.size() - 1);
+        assertTrue(lastDelay >= 500 && lastDelay <= 1000);
+    }
+
+    @Test
+    public void test_shouldGrowBackoffWithEachFailedDispatch() {
+        retryQueue.reportFailure(RetryOperation.DELIVERY_REPORTS);
+        for (int i = 0; i < 4; i++) {
+            time.forward(1, TimeUnit.HOURS);
+            retryQueue.dispatchDue();
+            retryQueue.reportFailure(RetryOperation.DELIVERY_REPORTS);
+        }
+
+        long lastDelay = scheduledDelays.get(scheduledDelays.size() - 1);
+        assertTrue(lastDelay >= 8000 && lastDelay <= 16000);
+        assertEquals(4, dispatched.size());
+    }
+
+    @Test
+    public void test_shouldBackOffRepeatedlyFailingSeenReport() {
+        RetryQueue defaultQueue = new RetryQueue(databaseProvider, new RetryQueue.Scheduler() {
+            @Override
+            public void schedule(long delayMillis) {
+                scheduledDelays.add(delayMillis);
+            }
+        }, new RetryQueue.Dispatcher() {
+            @Override
+            public void dispatch(RetryOperation operation) {
+                dispatched.add(operation);
+            }
+        });
+
+        // seen reports are not retried in-process, each failure goes straight to the queue
+        defaultQueue.reportFailure(RetryOperation.SEEN_REPORTS);
+        for (int attempt = 1; attempt <= 5; attempt++) {
+            long delay = scheduledDelays.get(scheduledDelays.size() - 1);
+            long minDelay = TimeUnit.SECONDS.toMillis(RetryQueue.BACKOFF_MULTIPLIER_SECONDS) / 2 * (1 << (attempt - 1));
+            assertTrue("attempt " + attempt + " delay " + delay, delay >= minDelay);
+
+            defaultQueue.dispatchDue();
+            assertEquals(attempt - 1, dispatched.size());
+
+            time.forward(delay, TimeUnit.MILLISECONDS);
+            defaultQueue.dispatchDue();
+            assertEquals(attempt, dispatched.size());
+            defaultQueue.reportFailure(RetryOperation.SEEN_REPORTS);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_shouldRequireBackoff() {
+        new RetryQueue(databaseProvider, new MRetryPolicy.Builder().withMaxRetries(0).build(), new RetryQueue.Scheduler() {
+            @Override
+            public void schedule(long delayMillis) {
+            }
+        }, new RetryQueue.Dispatcher() {
+            @Override
+            public void dispatch(RetryOperation operation) {
+            }
+        });
+    }
+
+    @Test
+    public void test_shouldRemoveOperation() {
+        retryQueue.reportFailure(RetryOperation.DELIVERY_REPORTS);
+        retryQueue.reportFailure(RetryOperation.MO_MESSAGES);
+
+        retryQueue.remove(RetryOperation.DELIVERY_REPORTS);
+
+        assertEquals(Arrays.asList(RetryOperation.MO_MESSAGES), retryQueue.findAll());
+    }
+
+    @Test
+    public void test_shouldSurviveNewQueueInstance() {
+        retryQueue.reportFailure(RetryOperation.SESSION_REPORTS);
+
+        RetryQueue restoredQueue = new RetryQueue(databaseProvider, retryPolicy, new RetryQueue.Scheduler() {
+            @Override
+            public void schedule(long delayMillis) {
+                scheduledDelays.add(delayMillis);
+            }
+        }, new RetryQueue.Dispatcher() {
+            @Override
+            public void dispatch(RetryOperation operation) {
+                dispatched.add(operation);
+            }
+        });
+        time.forward(1, TimeUnit.MINUTES);
+        restoredQueue.dispatchDue();
+
+        assertEquals(Arrays.asList(RetryOperation.SESSION_REPORTS), dispatched);
+    }
+}
@@ -37,7 +37,7 @@ public class MessagesSynchronizerTest extends MobileMessagingTestCase {
 
     private static final int MESSAGE_ID_PARAMETER_LIMIT = 100;
 
-    private ArgumentCaptor<Message> messageArgumentCaptor;
+    private ArgumentCaptor<List> messagesArgumentCaptor;
     private ArgumentCaptor<SyncMessagesBody> syncBodyCaptor;
     private MessagesSynchronizer messagesSynchronizer;
     private MRetryPolicy retryPolicy;
@@ -48,7 +48,7 @@ public class MessagesSynchronizerTest extends MobileMessagingTestCase {
         super.setUp();
 
         mobileMessageHandler = mock(MobileMessageHandler.class);
-        messageArgumentCaptor = forClass(Message.class);
+        messagesArgumentCaptor = forClass(List.class);
         syncBodyCaptor = forClass(SyncMessagesBody.class);
 
         retryPolicy = new RetryPolicyProvider(context).DEFAULT();
@@ -159,8 +159,10 @@ public class MessagesSynchronizerTest extends MobileMessagingTestCase {
         messagesSynchronizer.sync();
 
         // Then
-        verify(mobileMessageHandler, after(1000).times(3)).handleMessage(messageArgumentCaptor.capture());
-        List<Message> actualMessages = messageArgumentCaptor.getAllValues();
+        verify(mobileMessageHandler, after(1000).times(1)).handleMessages(messagesArgumentCaptor.capture());
+        //noinspection unchecked
+        List<Message> actualMessages = messagesArgumentCaptor.getValue();
+        assertEquals(3, actualMessages.size());
         assertEquals("someMessageId1", actualMessages.get(0).getMessageId());
         assertEquals("someBody1", actualMessages.get(0).getBody());
         assertTrue(actualMessages.get(0).isVibrate());
@@ -0,0 +1,253 @@
+package org.infobip.mobile.messaging.notification;
+
+import org.infobip.mobile.messaging.Message;
+import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.infobip.mobile.messaging.dal.sqlite.SqliteStringQueue;
+import org.infobip.mobile.messaging.platform.Broadcaster;
+import org.infobip.mobile.messaging.platform.MobileMessagingExecutors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class NotificationSchedulerTest {
+
+    private static final int NOTIFICATION_ID = 12345;
+    private static final int SUMMARY_ID = 54321;
+
+    private ExecutorService workers;
+    private ScheduledExecutorService scheduler;
+    private MobileMessagingExecutors executors;
+    private NotificationHandler notificationHandler;
+    private Broadcaster broadcaster;
+    private NotificationScheduler notificationScheduler;
+    private final List<Long> notifyTimes = Collections.synchronizedList(new ArrayList<Long>());
+    private final List<Thread> notifyThreads = Collections.synchronizedList(new ArrayList<Thread>());
+
+    @Before
+    public void setUp() {
+        workers = Executors.newFixedThreadPool(2);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        executors = new MobileMessagingExecutors(workers, scheduler);
+        notificationHandler = mock(NotificationHandler.class);
+        broadcaster = mock(Broadcaster.class);
+        notificationScheduler = new NotificationScheduler(notificationHandler, broadcaster,
+                executors.queue(MobileMessagingExecutors.QUEUE_NOTIFICATIONS), executors.scheduler());
+
+        given(notificationHandler.displayNotification(any(Message.class))).willAnswer(notify(NOTIFICATION_ID));
+        given(notificationHandler.displayNotification(any(Message.class), anyString())).willAnswer(notify(NOTIFICATION_ID));
+        given(notificationHandler.displayGroupSummary(anyString(), anyListOf(Message.class))).willAnswer(notify(SUMMARY_ID));
+    }
+
+    @After
+    public void tearDown() {
+        workers.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void test_shouldDisplayFirstMessageRightAway() {
+        Message message = message("messageId1");
+
+        notificationScheduler.schedule(message);
+
+        verify(notificationHandler).displayNotification(message);
+        verify(broadcaster).notificationDisplayed(message, NOTIFICATION_ID);
+        assertEquals(Thread.currentThread(), notifyThreads.get(0));
+    }
+
+    @Test
+    public void test_shouldDisplayMessagesReceivedShortlyAfterAsGroup() {
+        Message m1 = message("messageId1");
+        Message m2 = message("messageId2");
+        Message m3 = message("messageId3");
+
+        notificationScheduler.schedule(m1);
+        notificationScheduler.schedule(m2);
+        notificationScheduler.schedule(m3);
+
+        verify(broadcaster, timeout(5000)).notificationDisplayed(m3, NOTIFICATION_ID);
+        InOrder inOrder = inOrder(notificationHandler, broadcaster);
+        inOrder.verify(notificationHandler).displayNotification(m1);
+        inOrder.verify(broadcaster).notificationDisplayed(m1, NOTIFICATION_ID);
+        inOrder.verify(notificationHandler).displayGroupSummary(NotificationScheduler.GROUP_KEY, Arrays.asList(m1, m2, m3));
+        inOrder.verify(notificationHandler).displayNotification(m1, NotificationScheduler.GROUP_KEY);
+        inOrder.verify(notificationHandler).displayNotification(m2, NotificationScheduler.GROUP_KEY);
+        inOrder.verify(broadcaster).notificationDisplayed(m2, NOTIFICATION_ID);
+        inOrder.verify(notificationHandler).displayNotification(m3, NotificationScheduler.GROUP_KEY);
+        inOrder.verify(broadcaster).notificationDisplayed(m3, NOTIFICATION_ID);
+    }
+
+    @Test
+    public void test_shouldDisplaySummaryOfSameGroupForEachBurst() {
+        Message m1 = message("messageId1");
+        Message m2 = message("messageId2");
+        Message m3 = message("messageId3");
+        Message m4 = message("messageId4");
+
+        notificationScheduler.schedule(Arrays.asList(m1, m2));
+        verify(broadcaster, timeout(5000)).notificationDisplayed(m2, NOTIFICATION_ID);
+        notificationScheduler.schedule(Arrays.asList(m3, m4));
+
+        verify(broadcaster, timeout((int) NotificationScheduler.BURST_WINDOW_MILLIS + 5000)).notificationDisplayed(m4, NOTIFICATION_ID);
+        InOrder inOrder = inOrder(notificationHandler);
+        inOrder.verify(notificationHandler).displayGroupSummary(NotificationScheduler.GROUP_KEY, Arrays.asList(m1, m2));
+        inOrder.verify(notificationHandler).displayGroupSummary(NotificationScheduler.GROUP_KEY, Arrays.asList(m3, m4));
+        inOrder.verify(notificationHandler).displayNotification(m3, NotificationScheduler.GROUP_KEY);
+        inOrder.verify(notificationHandler).displayNotification(m4, NotificationScheduler.GROUP_KEY);
+    }
+
+    @Test
+    public void test_shouldDisplayMessagesWithoutGroupIfSummaryIsNotDisplayed() {
+        given(notificationHandler.displayGroupSummary(anyString(), anyListOf(Message.class))).willReturn(-1);
+        Message m1 = message("messageId1");
+        Message m2 = message("messageId2");
+
+        notificationScheduler.schedule(Arrays.asList(m1, m2));
+
+        verify(broadcaster, timeout(5000)).notificationDisplayed(m2, NOTIFICATION_ID);
+        verify(notificationHandler).displayNotification(m1);
+        verify(notificationHandler).displayNotification(m2);
+        verify(notificationHandler, never()).displayNotification(any(Message.class), anyString());
+    }
+
+    @Test
+    public void test_shouldDisplayReceivedMessagesInBackgroundNoFasterThanAllowed() {
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            messages.add(message("messageId" + i));
+        }
+
+        notificationScheduler.schedule(messages);
+
+        verify(broadcaster, timeout(5000)).notificationDisplayed(messages.get(4), NOTIFICATION_ID);
+        assertEquals(6, notifyTimes.size());
+        for (int i = 1; i < notifyTimes.size(); i++) {
+            // scheduler may run tasks a bit earlier than requested
+            assertTrue(notifyTimes.get(i) - notifyTimes.get(i - 1) >= NotificationScheduler.MIN_NOTIFY_INTERVAL_MILLIS - 10);
+        }
+        assertFalse(notifyThreads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void test_shouldNotDisplayPendingMessagesAfterCancel() {
+        Message m1 = message("messageId1");
+        Message m2 = message("messageId2");
+
+        notificationScheduler.schedule(m1);
+        notificationScheduler.schedule(m2);
+        notificationScheduler.cancel();
+
+        verify(notificationHandler, after((int) NotificationScheduler.BURST_WINDOW_MILLIS + 500).never()).displayNotification(eq(m2));
+        verify(notificationHandler, never()).displayNotification(eq(m2), anyString());
+    }
+
+    @Test
+    public void test_shouldBroadcastFirstMessageOnceWhenMovingItToGroup() {
+        Message m1 = message("messageId1");
+        Message m2 = message("messageId2");
+
+        notificationScheduler.schedule(m1);
+        notificationScheduler.schedule(m2);
+
+        verify(broadcaster, timeout(5000)).notificationDisplayed(m2, NOTIFICATION_ID);
+        verify(notificationHandler).displayNotification(m1, NotificationScheduler.GROUP_KEY);
+        verify(broadcaster, times(1)).notificationDisplayed(m1, NOTIFICATION_ID);
+    }
+
+    @Test
+    public void test_shouldPersistCollectedMessagesUntilTheyAreDisplayed() {
+        SqliteStringQueue pendingMessages = mock(SqliteStringQueue.class);
+        notificationScheduler = new NotificationScheduler(notificationHandler, broadcaster,
+                executors.queue(MobileMessagingExecutors.QUEUE_NOTIFICATIONS), executors.scheduler(), pendingMessages);
+        Message m1 = message("messageId1");
+        Message m2 = message("messageId2");
+
+        notificationScheduler.schedule(m1);
+        notificationScheduler.schedule(m2);
+
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(pendingMessages).append(json.capture());
+        assertEquals("messageId2", new JsonSerializer(false).deserialize(json.getValue(), Message.class).getMessageId());
+        verify(pendingMessages, timeout(5000)).remove(json.getValue());
+        verify(broadcaster).notificationDisplayed(m2, NOTIFICATION_ID);
+    }
+
+    @Test
+    public void test_shouldDisplayRestoredMessages() {
+        SqliteStringQueue pendingMessages = mock(SqliteStringQueue.class);
+        JsonSerializer serializer = new JsonSerializer(false);
+        String json1 = serializer.serialize(message("messageId1"));
+        String json2 = serializer.serialize(message("messageId2"));
+        given(pendingMessages.findAll()).willReturn(Arrays.asList(json1, json2));
+        notificationScheduler = new NotificationScheduler(notificationHandler, broadcaster,
+                executors.queue(MobileMessagingExecutors.QUEUE_NOTIFICATIONS), executors.scheduler(), pendingMessages);
+
+        notificationScheduler.restore();
+
+        ArgumentCaptor<Message> displayed = ArgumentCaptor.forClass(Message.class);
+        verify(broadcaster, timeout(5000).times(2)).notificationDisplayed(displayed.capture(), eq(NOTIFICATION_ID));
+        assertEquals("messageId1", displayed.getAllValues().get(0).getMessageId());
+        assertEquals("messageId2", displayed.getAllValues().get(1).getMessageId());
+        verify(pendingMessages, timeout(5000)).remove(json2);
+        verify(pendingMessages).remove(json1);
+    }
+
+    @Test
+    public void test_shouldDropPersistedMessagesOnCancel() {
+        SqliteStringQueue pendingMessages = mock(SqliteStringQueue.class);
+        notificationScheduler = new NotificationScheduler(notificationHandler, broadcaster,
+                executors.queue(MobileMessagingExecutors.QUEUE_NOTIFICATIONS), executors.scheduler(), pendingMessages);
+
+        notificationScheduler.schedule(message("messageId1"));
+        notificationScheduler.schedule(message("messageId2"));
+        notificationScheduler.cancel();
+
+        verify(pendingMessages).clear();
+    }
+
+    private Answer<Integer> notify(final int notificationId) {
+        return new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) {
+                notifyTimes.add(System.currentTimeMillis());
+                notifyThreads.add(Thread.currentThread());
+                return notificationId;
+            }
+        };
+    }
+
+    private static Message message(String messageId) {
+        Message message = new Message();
+        message.setMessageId(messageId);
+        message.setBody("body of " + messageId);
+        return message;
+    }
+}
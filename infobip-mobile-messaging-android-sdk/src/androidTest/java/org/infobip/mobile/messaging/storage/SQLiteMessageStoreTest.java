@@ -0,0 +1,110 @@
+package org.infobip.mobile.messaging.storage;
+
+import org.infobip.mobile.messaging.Message;
+import org.infobip.mobile.messaging.tools.MobileMessagingTestCase;
+import org.junit.Test;
+
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+
+public class SQLiteMessageStoreTest extends MobileMessagingTestCase {
+
+    private SQLiteMessageStore messageStore;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        messageStore = new SQLiteMessageStore();
+        messageStore.deleteAll(context);
+    }
+
+    @Test
+    public void test_shouldSaveMessagesInBulk() {
+        messageStore.save(context, messages(100));
+
+        assertEquals(100, messageStore.countAll(context));
+        assertEquals("message42", messageStore.findById(context, "message42").getMessageId());
+    }
+
+    @Test
+    public void test_shouldReplaceMessagesOnBulkSave() {
+        messageStore.save(context, messages(10));
+        Message[] messages = messages(10);
+        for (Message message : messages) {
+            message.setBody("updated");
+        }
+
+        messageStore.save(context, messages);
+
+        assertEquals(10, messageStore.countAll(context));
+        for (Message message : messageStore.findAll(context)) {
+            assertEquals("updated", message.getBody());
+        }
+    }
+
+    @Test
+    public void test_shouldFindPageOfMessages_newestFirst() {
+        messageStore.save(context, messages(100));
+
+        List<Message> page = messageStore.findPage(context, 10, 20);
+
+        assertEquals(20, page.size());
+        assertEquals("message89", page.get(0).getMessageId());
+        assertEquals("message70", page.get(19).getMessageId());
+    }
+
+    @Test
+    public void test_shouldFindSeenAndUnseenMessages() {
+        messageStore.save(context, messages(100));
+
+        List<Message> seen = messageStore.findSeen(context, 0, 5);
+        List<Message> unseen = messageStore.findUnseen(context, 0, 0);
+
+        assertEquals(5, seen.size());
+        assertEquals("message98", seen.get(0).getMessageId());
+        assertEquals("message90", seen.get(4).getMessageId());
+        assertEquals(50, unseen.size());
+        assertEquals("message99", unseen.get(0).getMessageId());
+        assertEquals("message1", unseen.get(49).getMessageId());
+        assertEquals(50, messageStore.countUnseen(context));
+    }
+
+    @Test
+    public void test_findAll_shouldLoadAllColumnsOfEveryRow() {
+        int count = 1000;
+        Message[] messages = messages(count);
+        for (Message message : messages) {
+            message.setContentUrl("https://www.example.com/image.png");
+            message.setSentTimestamp(message.getReceivedTimestamp());
+            message.setInAppStyle(Message.InAppStyle.BANNER);
+        }
+        messageStore.save(context, messages);
+
+        List<Message> loaded = messageStore.findAll(context);
+
+        assertEquals(count, loaded.size());
+        for (Message message : loaded) {
+            int i = Integer.parseInt(message.getMessageId().substring("message".length()));
+            assertEquals("some text", message.getBody());
+            assertEquals(1000L + i, message.getReceivedTimestamp());
+            assertEquals(1000L + i, message.getSentTimestamp());
+            assertEquals(i % 2 == 0 ? 2000L + i : 0, message.getSeenTimestamp());
+            assertEquals("https://www.example.com/image.png", message.getContentUrl());
+            assertEquals(Message.InAppStyle.BANNER, message.getInAppStyle());
+        }
+    }
+
+    private static Message[] messages(int count) {
+        Message[] messages = new Message[count];
+        for (int i = 0; i < count; i++) {
+            messages[i] = new Message();
+            messages[i].setMessageId("message" + i);
+            messages[i].setBody("some text");
+            messages[i].setReceivedTimestamp(1000L + i);
+            messages[i].setSeenTimestamp(i % 2 == 0 ? 2000L + i : 0);
+        }
+        return messages;
+    }
+}
@@ -20,6 +20,7 @@ import org.infobip.mobile.messaging.api.version.MobileApiVersion;
 import org.infobip.mobile.messaging.cloud.firebase.FirebaseAppProvider;
 import org.infobip.mobile.messaging.dal.sqlite.DatabaseHelper;
 import org.infobip.mobile.messaging.dal.sqlite.SqliteDatabaseProvider;
+import org.infobip.mobile.messaging.image.ImageLoader;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.mobileapi.MobileApiResourceProvider;
 import org.infobip.mobile.messaging.notification.NotificationHandler;
@@ -152,6 +153,7 @@ public abstract class MobileMessagingTestCase extends MobileMessagingBaseTestCas
 
         PreferenceHelper.getPublicSharedPreferences(context).edit().clear().commit();
         PreferenceHelper.getPrivateMMSharedPreferences(context).edit().clear().commit();
+        PreferenceHelper.resetCache();
         PreferenceHelper.saveUsePrivateSharedPrefs(context, true);
 
         PreferenceHelper.saveString(context, MobileMessagingProperty.API_URI, "http://127.0.0.1:" + debugServer.getListeningPort() + "/");
@@ -163,6 +165,7 @@ public abstract class MobileMessagingTestCase extends MobileMessagingBaseTestCas
         PreferenceHelper.saveLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY, 100);
 
         MobileMessagingLogger.enforce();
+        ImageLoader.getInstance(context).clear();
 
         time = new TestTimeProvider();
         Time.reset(time);
@@ -133,4 +133,32 @@ public class PreferenceHelperTest extends MobileMessagingTestCase {
         assertFalse(PreferenceHelper.contains(context, MobileMessagingProperty.INFOBIP_REGISTRATION_ID));
         assertNull(PreferenceHelper.findString(context, MobileMessagingProperty.INFOBIP_REGISTRATION_ID));
     }
+
+    @Test
+    public void test_shouldReturnLatestValueOfCachedEncryptedProperty() throws Exception {
+        PreferenceHelper.saveString(context, MobileMessagingProperty.INFOBIP_REGISTRATION_ID, "first");
+        assertEquals("first", PreferenceHelper.findString(context, MobileMessagingProperty.INFOBIP_REGISTRATION_ID));
+
+        PreferenceHelper.saveString(context, MobileMessagingProperty.INFOBIP_REGISTRATION_ID, "second");
+        assertEquals("second", PreferenceHelper.findString(context, MobileMessagingProperty.INFOBIP_REGISTRATION_ID));
+
+        PreferenceHelper.resetCache();
+        assertEquals("second", PreferenceHelper.findString(context, MobileMessagingProperty.INFOBIP_REGISTRATION_ID));
+    }
+
+    @Test
+    public void test_shouldReturnLatestValueAfterChangingTypeOfProperty() throws Exception {
+        String key = "someKey";
+
+        PreferenceHelper.saveLong(context, key, 5);
+        assertEquals(5, PreferenceHelper.findLong(context, key, 0));
+        assertEquals("5", PreferenceHelper.findString(context, key, null));
+
+        PreferenceHelper.saveString(context, key, "7");
+        assertEquals(7, PreferenceHelper.findLong(context, key, 0));
+
+        PreferenceHelper.remove(context, key);
+        assertEquals(3, PreferenceHelper.findLong(context, key, 3));
+        assertNull(PreferenceHelper.findString(context, key, null));
+    }
 }
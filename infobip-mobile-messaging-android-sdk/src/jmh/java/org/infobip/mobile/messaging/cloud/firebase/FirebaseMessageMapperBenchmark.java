@@ -0,0 +1,92 @@
+package org.infobip.mobile.messaging.cloud.firebase;
+
+import org.infobip.mobile.messaging.Message;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures per push time and, with the gc profiler of the jmh task, allocation of mapping push data to {@link Message}.
+ * {@link #parseOnly()} is the cost of parsing the payload alone, which every mapping has to pay.
+ * <p>
+ * Run with {@code ./gradlew :infobip-mobile-messaging-android-sdk:jmh -Pjmh.include=FirebaseMessageMapperBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FirebaseMessageMapperBenchmark {
+
+    private static final String IB_DATA_KEY = "org_ib_d";
+
+    /**
+     * minimal - text only, typical - notification settings, custom payload and internal data, large - typical with 50 custom attributes
+     */
+    @Param({"minimal", "typical", "large"})
+    public String payload;
+
+    private FirebaseMessageMapper mapper;
+    private Map<String, String> data;
+
+    @Setup
+    public void setUp() {
+        mapper = new FirebaseMessageMapper();
+        switch (payload) {
+            case "minimal":
+                data = push("{\"messageId\":\"5f2b4a3c-1d6e-4f7a-8b9c-0d1e2f3a4b5c\",\"text\":\"Some message text\"}");
+                break;
+            case "typical":
+                data = push(typicalIBData());
+                break;
+            case "large":
+                data = push(largeIBData());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown payload " + payload);
+        }
+    }
+
+    @Benchmark
+    public Message createMessage() {
+        return mapper.createMessage(data, "remoteMessageId");
+    }
+
+    @Benchmark
+    public JSONObject parseOnly() throws JSONException {
+        return new JSONObject(data.get(IB_DATA_KEY));
+    }
+
+    private static String typicalIBData() {
+        return "{" +
+                "\"messageId\":\"5f2b4a3c-1d6e-4f7a-8b9c-0d1e2f3a4b5c\"," +
+                "\"text\":\"Your order has been shipped and will arrive tomorrow\"," +
+                "\"notification\":{\"icon\":\"icon\",\"title\":\"Order update\",\"sound\":\"default\",\"category\":\"category\"," +
+                "\"vibrate\":false,\"silent\":false,\"contentUrl\":\"https://www.example.com/image.png\",\"inAppStyle\":1}," +
+                "\"custom\":{\"orderId\":\"12345\",\"items\":3,\"express\":true}," +
+                "\"internal\":{\"sendDateTime\":1570000000000,\"inAppExpiryDateTime\":1570086400000,\"webViewUrl\":\"https://www.example.com/webview\"," +
+                "\"deeplink\":\"app://orders/12345\",\"atts\":[{\"url\":\"https://www.example.com/image.png\"}]}" +
+                "}";
+    }
+
+    private static String largeIBData() {
+        StringBuilder custom = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            custom.append(i == 0 ? "" : ",").append("\"key").append(i).append("\":\"value of custom attribute number ").append(i).append("\"");
+        }
+        return typicalIBData().replace("\"custom\":{\"orderId\":\"12345\",\"items\":3,\"express\":true}", "\"custom\":{" + custom + "}");
+    }
+
+    private static Map<String, String> push(String ibData) {
+        return Collections.singletonMap(IB_DATA_KEY, ibData);
+    }
+}
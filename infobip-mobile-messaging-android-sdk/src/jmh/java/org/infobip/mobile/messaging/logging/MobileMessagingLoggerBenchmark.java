@@ -0,0 +1,100 @@
+package org.infobip.mobile.messaging.logging;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures per call cost of debug logs on the message hot path with logging disabled and enabled,
+ * for messages built eagerly, behind {@link MobileMessagingLogger#isLoggable(Level)} and with {@link MobileMessagingLogger.LazyMessage}.
+ * <p>
+ * Run with {@code ./gradlew :infobip-mobile-messaging-android-sdk:jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MobileMessagingLoggerBenchmark {
+
+    @Param({"false", "true"})
+    public boolean loggingEnabled;
+
+    private String messageId;
+    private Object body;
+
+    @Setup
+    public void setUp() {
+        MobileMessagingLogger.reset();
+        MobileMessagingLogger.setWriter(new LastMessageWriter());
+        if (loggingEnabled) {
+            MobileMessagingLogger.enforce();
+        }
+
+        messageId = "5f2b4a3c-1d6e-4f7a-8b9c-0d1e2f3a4b5c";
+        List<Map<String, String>> payloads = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Map<String, String> payload = new HashMap<>();
+            payload.put("messageId", messageId + i);
+            payload.put("text", "Some message text number " + i);
+            payloads.add(payload);
+        }
+        body = payloads;
+    }
+
+    @TearDown
+    public void tearDown() {
+        MobileMessagingLogger.reset();
+    }
+
+    @Benchmark
+    public void concatenated() {
+        MobileMessagingLogger.d("Saving message: " + messageId);
+    }
+
+    @Benchmark
+    public void guarded() {
+        if (MobileMessagingLogger.isLoggable(Level.DEBUG)) {
+            MobileMessagingLogger.d("Saving message: " + messageId);
+        }
+    }
+
+    @Benchmark
+    public void lazy() {
+        final String messageId = this.messageId;
+        MobileMessagingLogger.d(MobileMessagingLogger.TAG, new MobileMessagingLogger.LazyMessage() {
+            @Override
+            public String get() {
+                return "Saving message: " + messageId;
+            }
+        });
+    }
+
+    @Benchmark
+    public void object() {
+        MobileMessagingLogger.v("SYNC MESSAGES >>>", body);
+    }
+
+    /**
+     * Keeps the last message so that building it is not optimized away, does not write it anywhere.
+     */
+    private static class LastMessageWriter implements Writer {
+
+        private volatile String lastMessage;
+
+        @Override
+        public void write(Level level, String tag, String message, Throwable throwable) {
+            lastMessage = message;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.infobip.mobile.messaging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Immutable view of the configuration used when receiving and displaying messages.
+ *
+ * @see MobileMessagingCore#getConfiguration()
+ */
+public class ConfigurationSnapshot {
+
+    private final NotificationSettings notificationSettings;
+    private final boolean pushRegistrationEnabled;
+    private final boolean depersonalizeInProgress;
+    private final Collection<MessageHandlerModule> messageHandlerModules;
+
+    ConfigurationSnapshot(NotificationSettings notificationSettings, boolean pushRegistrationEnabled, boolean depersonalizeInProgress, Collection<MessageHandlerModule> messageHandlerModules) {
+        this.notificationSettings = notificationSettings;
+        this.pushRegistrationEnabled = pushRegistrationEnabled;
+        this.depersonalizeInProgress = depersonalizeInProgress;
+        this.messageHandlerModules = Collections.unmodifiableCollection(messageHandlerModules);
+    }
+
+    /**
+     * @return notification settings or null if displaying of notifications is disabled
+     */
+    @Nullable
+    public NotificationSettings getNotificationSettings() {
+        return notificationSettings;
+    }
+
+    public boolean isPushRegistrationEnabled() {
+        return pushRegistrationEnabled;
+    }
+
+    public boolean isDepersonalizeInProgress() {
+        return depersonalizeInProgress;
+    }
+
+    @NonNull
+    public Collection<MessageHandlerModule> getMessageHandlerModules() {
+        return messageHandlerModules;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigurationSnapshot{" +
+                "displayNotificationEnabled=" + (notificationSettings != null) +
+                ", pushRegistrationEnabled=" + pushRegistrationEnabled +
+                ", depersonalizeInProgress=" + depersonalizeInProgress +
+                ", messageHandlerModules=" + messageHandlerModules.size() +
+                '}';
+    }
+}
@@ -1,13 +1,19 @@
 package org.infobip.mobile.messaging;
 
 import android.os.Bundle;
+import android.os.Parcel;
+import android.os.Parcelable;
 import androidx.annotation.NonNull;
 
 import com.google.gson.annotations.SerializedName;
 
 import org.infobip.mobile.messaging.dal.bundle.MessageBundleMapper;
+import org.infobip.mobile.messaging.dal.bundle.TaggedParcelReader;
+import org.infobip.mobile.messaging.dal.bundle.TaggedParcelWriter;
+import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.platform.Time;
 import org.infobip.mobile.messaging.util.StringUtils;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
@@ -21,7 +27,7 @@ import java.util.UUID;
  * @since 05/09/16.
  */
 @SuppressWarnings({"unused", "WeakerAccess"})
-public class Message implements Comparable<Message> {
+public class Message implements Comparable<Message>, Parcelable {
 
     public static final String MESSAGE_TYPE_CHAT = "chat";
     public static final String MESSAGE_TYPE_GEO = "geo";
@@ -65,6 +71,49 @@ public class Message implements Comparable<Message> {
     private String destination;
     private Status status;
     private String statusMessage;
+    // contents of the message serialized for intents and broadcasts, dropped on every change of the message
+    private transient Bundle bundle;
+
+    // ids of fields in parcel, must never be reused or change type
+    private static final int PARCEL_VERSION = 1;
+    private static final int FIELD_MESSAGE_ID = 1;
+    private static final int FIELD_TITLE = 2;
+    private static final int FIELD_BODY = 3;
+    private static final int FIELD_SOUND = 4;
+    private static final int FIELD_VIBRATE = 5;
+    private static final int FIELD_ICON = 6;
+    private static final int FIELD_SILENT = 7;
+    private static final int FIELD_CATEGORY = 8;
+    private static final int FIELD_FROM = 9;
+    private static final int FIELD_RECEIVED_TIMESTAMP = 10;
+    private static final int FIELD_SEEN_TIMESTAMP = 11;
+    private static final int FIELD_SENT_TIMESTAMP = 12;
+    private static final int FIELD_IN_APP_EXPIRY_TIMESTAMP = 13;
+    private static final int FIELD_CUSTOM_PAYLOAD = 14;
+    private static final int FIELD_INTERNAL_DATA = 15;
+    private static final int FIELD_CONTENT_URL = 16;
+    private static final int FIELD_WEB_VIEW_URL = 17;
+    private static final int FIELD_BROWSER_URL = 18;
+    private static final int FIELD_IN_APP_STYLE = 19;
+    private static final int FIELD_MESSAGE_TYPE = 20;
+    private static final int FIELD_DEEPLINK = 21;
+    private static final int FIELD_IN_APP_OPEN_TITLE = 22;
+    private static final int FIELD_IN_APP_DISMISS_TITLE = 23;
+    private static final int FIELD_DESTINATION = 24;
+    private static final int FIELD_STATUS = 25;
+    private static final int FIELD_STATUS_MESSAGE = 26;
+
+    public static final Creator<Message> CREATOR = new Creator<Message>() {
+        @Override
+        public Message createFromParcel(Parcel in) {
+            return new Message(in);
+        }
+
+        @Override
+        public Message[] newArray(int size) {
+            return new Message[size];
+        }
+    };
 
     public static Message createFrom(Bundle bundle) {
         return MessageBundleMapper.messageFromBundle(bundle);
@@ -74,6 +123,23 @@ public class Message implements Comparable<Message> {
         return MessageBundleMapper.messagesFromBundles(bundles);
     }
 
+    /**
+     * Returns bundle with contents of the message. Contents are serialized only once and reused until the message
+     * is changed via one of the setters, so the same message can be put into several intents and broadcasts cheaply.
+     * Changes made directly to {@link #getCustomPayload()} are not tracked.
+     *
+     * @return new bundle with message contents
+     */
+    @NonNull
+    public Bundle toBundle() {
+        Bundle bundle = this.bundle;
+        if (bundle == null) {
+            bundle = MessageBundleMapper.messageToBundle(this);
+            this.bundle = bundle;
+        }
+        return new Bundle(bundle);
+    }
+
     public Message(String messageId, String title, String body, String sound,
                    boolean vibrate, String icon, boolean silent, String category,
                    String from, long receivedTimestamp, long seenTimestamp, long sentTimestamp,
@@ -116,6 +182,95 @@ public class Message implements Comparable<Message> {
         this.status = Status.UNKNOWN;
     }
 
+    private Message(Parcel in) {
+        TaggedParcelReader reader = new TaggedParcelReader(in);
+        for (int field = reader.nextField(); field != TaggedParcelReader.END; field = reader.nextField()) {
+            switch (field) {
+                case FIELD_MESSAGE_ID: messageId = reader.readString(); break;
+                case FIELD_TITLE: title = reader.readString(); break;
+                case FIELD_BODY: body = reader.readString(); break;
+                case FIELD_SOUND: sound = reader.readString(); break;
+                case FIELD_VIBRATE: vibrate = reader.readBoolean(); break;
+                case FIELD_ICON: icon = reader.readString(); break;
+                case FIELD_SILENT: silent = reader.readBoolean(); break;
+                case FIELD_CATEGORY: category = reader.readString(); break;
+                case FIELD_FROM: from = reader.readString(); break;
+                case FIELD_RECEIVED_TIMESTAMP: receivedTimestamp = reader.readLong(); break;
+                case FIELD_SEEN_TIMESTAMP: seenTimestamp = reader.readLong(); break;
+                case FIELD_SENT_TIMESTAMP: sentTimestamp = reader.readLong(); break;
+                case FIELD_IN_APP_EXPIRY_TIMESTAMP: inAppExpiryTimestamp = reader.readLong(); break;
+                case FIELD_CUSTOM_PAYLOAD: customPayload = jsonObject(reader.readString()); break;
+                case FIELD_INTERNAL_DATA: internalData = reader.readString(); break;
+                case FIELD_CONTENT_URL: contentUrl = reader.readString(); break;
+                case FIELD_WEB_VIEW_URL: webViewUrl = reader.readString(); break;
+                case FIELD_BROWSER_URL: browserUrl = reader.readString(); break;
+                case FIELD_IN_APP_STYLE: inAppStyle = enumValue(InAppStyle.class, reader.readString(), null); break;
+                case FIELD_MESSAGE_TYPE: messageType = reader.readString(); break;
+                case FIELD_DEEPLINK: deeplink = reader.readString(); break;
+                case FIELD_IN_APP_OPEN_TITLE: inAppOpenTitle = reader.readString(); break;
+                case FIELD_IN_APP_DISMISS_TITLE: inAppDismissTitle = reader.readString(); break;
+                case FIELD_DESTINATION: destination = reader.readString(); break;
+                case FIELD_STATUS: status = enumValue(Status.class, reader.readString(), Status.UNKNOWN); break;
+                case FIELD_STATUS_MESSAGE: statusMessage = reader.readString(); break;
+                default: reader.skip(); break;
+            }
+        }
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        new TaggedParcelWriter(dest, flags, PARCEL_VERSION)
+                .writeString(FIELD_MESSAGE_ID, messageId)
+                .writeString(FIELD_TITLE, title)
+                .writeString(FIELD_BODY, body)
+                .writeString(FIELD_SOUND, sound)
+                .writeBoolean(FIELD_VIBRATE, vibrate)
+                .writeString(FIELD_ICON, icon)
+                .writeBoolean(FIELD_SILENT, silent)
+                .writeString(FIELD_CATEGORY, category)
+                .writeString(FIELD_FROM, from)
+                .writeLong(FIELD_RECEIVED_TIMESTAMP, receivedTimestamp)
+                .writeLong(FIELD_SEEN_TIMESTAMP, seenTimestamp)
+                .writeLong(FIELD_SENT_TIMESTAMP, sentTimestamp)
+                .writeLong(FIELD_IN_APP_EXPIRY_TIMESTAMP, inAppExpiryTimestamp)
+                .writeString(FIELD_CUSTOM_PAYLOAD, customPayload != null ? customPayload.toString() : null)
+                .writeString(FIELD_INTERNAL_DATA, internalData)
+                .writeString(FIELD_CONTENT_URL, contentUrl)
+                .writeString(FIELD_WEB_VIEW_URL, webViewUrl)
+                .writeString(FIELD_BROWSER_URL, browserUrl)
+                .writeString(FIELD_IN_APP_STYLE, inAppStyle != null ? inAppStyle.name() : null)
+                .writeString(FIELD_MESSAGE_TYPE, messageType)
+                .writeString(FIELD_DEEPLINK, deeplink)
+                .writeString(FIELD_IN_APP_OPEN_TITLE, inAppOpenTitle)
+                .writeString(FIELD_IN_APP_DISMISS_TITLE, inAppDismissTitle)
+                .writeString(FIELD_DESTINATION, destination)
+                .writeString(FIELD_STATUS, status != null ? status.name() : null)
+                .writeString(FIELD_STATUS_MESSAGE, statusMessage)
+                .end();
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    private static JSONObject jsonObject(String json) {
+        try {
+            return new JSONObject(json);
+        } catch (JSONException e) {
+            MobileMessagingLogger.w("Cannot parse custom payload of parceled message: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> cls, String name, E defaultValue) {
+        try {
+            return Enum.valueOf(cls, name);
+        } catch (IllegalArgumentException e) {
+            return defaultValue;
+        }
+    }
+
     @Override
     public int compareTo(@NonNull Message another) {
         if (another.sentTimestamp != 0 && sentTimestamp != 0) {
@@ -130,6 +285,7 @@ public class Message implements Comparable<Message> {
 
     public void setContentUrl(String contentUrl) {
         this.contentUrl = contentUrl;
+        this.bundle = null;
     }
 
     public String getInternalData() {
@@ -138,6 +294,7 @@ public class Message implements Comparable<Message> {
 
     public void setInternalData(String internalData) {
         this.internalData = internalData;
+        this.bundle = null;
     }
 
     public String getMessageId() {
@@ -146,6 +303,7 @@ public class Message implements Comparable<Message> {
 
     public void setMessageId(String messageId) {
         this.messageId = messageId;
+        this.bundle = null;
     }
 
     public String getTitle() {
@@ -154,6 +312,7 @@ public class Message implements Comparable<Message> {
 
     public void setTitle(String title) {
         this.title = title;
+        this.bundle = null;
     }
 
     public String getBody() {
@@ -162,6 +321,7 @@ public class Message implements Comparable<Message> {
 
     public void setBody(String body) {
         this.body = body;
+        this.bundle = null;
     }
 
     public String getSound() {
@@ -170,6 +330,7 @@ public class Message implements Comparable<Message> {
 
     public void setSound(String sound) {
         this.sound = sound;
+        this.bundle = null;
     }
 
     public boolean isDefaultSound() {
@@ -182,6 +343,7 @@ public class Message implements Comparable<Message> {
 
     public void setVibrate(boolean vibrate) {
         this.vibrate = vibrate;
+        this.bundle = null;
     }
 
     public String getIcon() {
@@ -190,6 +352,7 @@ public class Message implements Comparable<Message> {
 
     public void setIcon(String icon) {
         this.icon = icon;
+        this.bundle = null;
     }
 
     public boolean isSilent() {
@@ -198,6 +361,7 @@ public class Message implements Comparable<Message> {
 
     public void setSilent(boolean silent) {
         this.silent = silent;
+        this.bundle = null;
     }
 
     public String getCategory() {
@@ -206,6 +370,7 @@ public class Message implements Comparable<Message> {
 
     public void setCategory(String category) {
         this.category = category;
+        this.bundle = null;
     }
 
     public String getFrom() {
@@ -214,6 +379,7 @@ public class Message implements Comparable<Message> {
 
     public void setFrom(String from) {
         this.from = from;
+        this.bundle = null;
     }
 
     public long getReceivedTimestamp() {
@@ -222,6 +388,7 @@ public class Message implements Comparable<Message> {
 
     public void setReceivedTimestamp(long receivedTimestamp) {
         this.receivedTimestamp = receivedTimestamp;
+        this.bundle = null;
     }
 
     public long getSeenTimestamp() {
@@ -230,6 +397,7 @@ public class Message implements Comparable<Message> {
 
     public void setSeenTimestamp(long seenTimestamp) {
         this.seenTimestamp = seenTimestamp;
+        this.bundle = null;
     }
 
     public long getSentTimestamp() {
@@ -238,6 +406,7 @@ public class Message implements Comparable<Message> {
 
     public void setSentTimestamp(long sentTimestamp) {
         this.sentTimestamp = sentTimestamp;
+        this.bundle = null;
     }
 
     public long getInAppExpiryTimestamp() {
@@ -246,6 +415,7 @@ public class Message implements Comparable<Message> {
 
     public void setInAppExpiryTimestamp(long inAppExpiryTimestamp) {
         this.inAppExpiryTimestamp = inAppExpiryTimestamp;
+        this.bundle = null;
     }
 
     public JSONObject getCustomPayload() {
@@ -254,6 +424,7 @@ public class Message implements Comparable<Message> {
 
     public void setCustomPayload(JSONObject customPayload) {
         this.customPayload = customPayload;
+        this.bundle = null;
     }
 
     public String getDestination() {
@@ -262,6 +433,7 @@ public class Message implements Comparable<Message> {
 
     public void setDestination(String destination) {
         this.destination = destination;
+        this.bundle = null;
     }
 
     public Status getStatus() {
@@ -270,6 +442,7 @@ public class Message implements Comparable<Message> {
 
     public void setStatus(Status status) {
         this.status = status;
+        this.bundle = null;
     }
 
     public String getStatusMessage() {
@@ -278,6 +451,7 @@ public class Message implements Comparable<Message> {
 
     public void setStatusMessage(String statusMessage) {
         this.statusMessage = statusMessage;
+        this.bundle = null;
     }
 
     public InAppStyle getInAppStyle() {
@@ -286,6 +460,7 @@ public class Message implements Comparable<Message> {
 
     public void setInAppStyle(InAppStyle inAppStyle) {
         this.inAppStyle = inAppStyle;
+        this.bundle = null;
     }
 
     public String getWebViewUrl() {
@@ -294,6 +469,7 @@ public class Message implements Comparable<Message> {
 
     public void setWebViewUrl(String webViewUrl) {
         this.webViewUrl = webViewUrl;
+        this.bundle = null;
     }
 
     public String getBrowserUrl() {
@@ -302,6 +478,7 @@ public class Message implements Comparable<Message> {
 
     public void setBrowserUrl(String browserUrl) {
         this.browserUrl = browserUrl;
+        this.bundle = null;
     }
 
     public String getMessageType() {
@@ -310,6 +487,7 @@ public class Message implements Comparable<Message> {
 
     public void setMessageType(String messageType) {
         this.messageType = messageType;
+        this.bundle = null;
     }
 
     public boolean isChatMessage() {
@@ -322,6 +500,7 @@ public class Message implements Comparable<Message> {
 
     public void setDeeplink(String deeplink) {
         this.deeplink = deeplink;
+        this.bundle = null;
     }
 
     public String getInAppOpenTitle() {
@@ -330,6 +509,7 @@ public class Message implements Comparable<Message> {
 
     public void setInAppOpenTitle(String inAppOpenTitle) {
         this.inAppOpenTitle = inAppOpenTitle;
+        this.bundle = null;
     }
 
     public String getInAppDismissTitle() {
@@ -338,5 +518,6 @@ public class Message implements Comparable<Message> {
 
     public void setInAppDismissTitle(String inAppDismissTitle) {
         this.inAppDismissTitle = inAppDismissTitle;
+        this.bundle = null;
     }
 }
\ No newline at end of file
@@ -25,18 +25,24 @@ import org.infobip.mobile.messaging.cloud.firebase.FirebaseAppProvider;
 import org.infobip.mobile.messaging.dal.sqlite.DatabaseHelper;
 import org.infobip.mobile.messaging.dal.sqlite.PushDatabaseHelperImpl;
 import org.infobip.mobile.messaging.dal.sqlite.SqliteDatabaseProvider;
+import org.infobip.mobile.messaging.dal.sqlite.SqliteStringQueue;
 import org.infobip.mobile.messaging.interactive.MobileInteractiveImpl;
 import org.infobip.mobile.messaging.interactive.notification.InteractiveNotificationHandler;
+import org.infobip.mobile.messaging.image.ImageLoader;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.mobileapi.BatchReporter;
+import org.infobip.mobile.messaging.mobileapi.BatchingEngine;
 import org.infobip.mobile.messaging.mobileapi.InternalSdkError;
 import org.infobip.mobile.messaging.mobileapi.MobileApiResourceProvider;
 import org.infobip.mobile.messaging.mobileapi.MobileMessagingError;
 import org.infobip.mobile.messaging.mobileapi.Result;
+import org.infobip.mobile.messaging.mobileapi.SyncCoordinator;
 import org.infobip.mobile.messaging.mobileapi.appinstance.InstallationSynchronizer;
 import org.infobip.mobile.messaging.mobileapi.baseurl.BaseUrlChecker;
 import org.infobip.mobile.messaging.mobileapi.common.MAsyncTask;
+import org.infobip.mobile.messaging.mobileapi.common.RetryOperation;
 import org.infobip.mobile.messaging.mobileapi.common.RetryPolicyProvider;
+import org.infobip.mobile.messaging.mobileapi.common.RetryQueue;
 import org.infobip.mobile.messaging.mobileapi.events.UserEventsRequestMapper;
 import org.infobip.mobile.messaging.mobileapi.events.UserEventsSynchronizer;
 import org.infobip.mobile.messaging.mobileapi.messages.MessagesSynchronizer;
@@ -48,11 +54,14 @@ import org.infobip.mobile.messaging.mobileapi.user.PersonalizeSynchronizer;
 import org.infobip.mobile.messaging.mobileapi.user.UserDataReporter;
 import org.infobip.mobile.messaging.mobileapi.version.VersionChecker;
 import org.infobip.mobile.messaging.notification.NotificationHandler;
+import org.infobip.mobile.messaging.notification.NotificationScheduler;
 import org.infobip.mobile.messaging.platform.AndroidBroadcaster;
 import org.infobip.mobile.messaging.platform.Broadcaster;
+import org.infobip.mobile.messaging.platform.MobileMessagingExecutors;
 import org.infobip.mobile.messaging.platform.MobileMessagingJobService;
 import org.infobip.mobile.messaging.platform.Platform;
 import org.infobip.mobile.messaging.platform.Time;
+import org.infobip.mobile.messaging.platform.TimeProvider;
 import org.infobip.mobile.messaging.stats.MobileMessagingStats;
 import org.infobip.mobile.messaging.storage.MessageStore;
 import org.infobip.mobile.messaging.storage.MessageStoreWrapper;
@@ -80,12 +89,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
@@ -108,6 +116,11 @@ public class MobileMessagingCore
     private static final long MESSAGE_EXPIRY_TIME = TimeUnit.DAYS.toMillis(7);
     private static final long LAZY_SYNC_THROTTLE_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(5);
     private static final long FOREGROUND_SYNC_THROTTLE_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final long SYNC_COALESCING_WINDOW_MILLIS = 100;
+    private static final String SYNC_ACTIONS = "actions";
+    private static final String SYNC_MESSAGES = "messages";
+    private static final String SYNC_MO_MESSAGES = "mo_messages";
+    private static final String SYNC_SEEN = "seen";
     private static final JsonSerializer nullSerializer = new JsonSerializer(true);
     public static final String MM_DEFAULT_HIGH_PRIORITY_CHANNEL_ID = "mm_default_channel_high_priority";
     public static final String MM_DEFAULT_CHANNEL_ID = "mm_default_channel";
@@ -119,11 +132,15 @@ public class MobileMessagingCore
     private static DatabaseHelper databaseHelper;
     private static MobileMessagingSynchronizationReceiver mobileMessagingSynchronizationReceiver;
     private final MobileMessagingStats stats;
-    private final ExecutorService registrationAlignedExecutor;
+    private final MobileMessagingExecutors executors;
+    private final BatchingEngine batchingEngine;
+    private final Executor registrationAlignedExecutor;
     private final RetryPolicyProvider retryPolicyProvider;
     private final Broadcaster broadcaster;
     private final ModuleLoader moduleLoader;
     private final NotificationHandler notificationHandler;
+    private final NotificationScheduler notificationScheduler;
+    private final ProcessedMessageIds processedMessageIds = new ProcessedMessageIds(MESSAGE_ID_PARAMETER_LIMIT, MESSAGE_EXPIRY_TIME);
     private String installationId;
 
     private MessagesSynchronizer messagesSynchronizer;
@@ -136,6 +153,9 @@ public class MobileMessagingCore
     private SeenStatusReporter seenStatusReporter;
     private VersionChecker versionChecker;
     private BaseUrlChecker baseUrlChecker;
+    private SyncCoordinator syncCoordinator;
+    private RetryQueue retryQueue;
+    private ScheduledFuture<?> retryQueueDispatch;
     private ActivityLifecycleMonitor activityLifecycleMonitor;
     @SuppressWarnings("unused")
     private MobileNetworkStateListener mobileNetworkStateListener;
@@ -148,23 +168,57 @@ public class MobileMessagingCore
     private volatile boolean didSyncAtLeastOnce;
     private volatile Long lastSyncTimeMillis;
     private volatile Long lastForegroundSyncMillis;
+    private volatile ConfigurationSnapshot configuration;
+    private final Object configurationLock = new Object();
+    private long configurationGeneration;
+    // kept as a field since preference helper holds listeners by weak references
+    private final PreferenceHelper.PropertyChangeListener configurationInvalidator = new PreferenceHelper.PropertyChangeListener() {
+        @Override
+        public void onPropertyChanged(@Nullable String key) {
+            if (key == null ||
+                    key.equals(MobileMessagingProperty.DISPLAY_NOTIFICATION_ENABLED.getKey()) ||
+                    key.equals(MobileMessagingProperty.PUSH_REGISTRATION_ENABLED.getKey()) ||
+                    key.equals(MobileMessagingProperty.IS_DEPERSONALIZE_UNREPORTED.getKey())) {
+                invalidateConfiguration();
+            }
+        }
+    };
     private FirebaseAppProvider firebaseAppProvider;
 
     protected MobileMessagingCore(Context context) {
-        this(context, new AndroidBroadcaster(context), Executors.newSingleThreadExecutor(), new ModuleLoader(context), new FirebaseAppProvider(context));
+        this(context, new AndroidBroadcaster(context), Platform.executors(), new ModuleLoader(context), new FirebaseAppProvider(context));
     }
 
+    /**
+     * Creates instance which runs all synchronization queues on the provided executor
+     */
     protected MobileMessagingCore(Context context, Broadcaster broadcaster, ExecutorService registrationAlignedExecutor, ModuleLoader moduleLoader, FirebaseAppProvider firebaseAppProvider) {
+        this(context, broadcaster, new MobileMessagingExecutors(registrationAlignedExecutor, Platform.executors().scheduler()), moduleLoader, firebaseAppProvider);
+    }
+
+    protected MobileMessagingCore(Context context, Broadcaster broadcaster, MobileMessagingExecutors executors, ModuleLoader moduleLoader, FirebaseAppProvider firebaseAppProvider) {
         MobileMessagingLogger.init(context);
 
         this.context = context;
         this.broadcaster = broadcaster;
-        this.registrationAlignedExecutor = registrationAlignedExecutor;
-        this.stats = new MobileMessagingStats(context);
+        this.executors = executors;
+        this.registrationAlignedExecutor = executors.queue(MobileMessagingExecutors.QUEUE_REGISTRATION);
+        this.stats = new MobileMessagingStats(context, executors.scheduler());
+        this.batchingEngine = new BatchingEngine(executors.scheduler(), new TimeProvider() {
+            @Override
+            public long now() {
+                return Time.now();
+            }
+        });
         this.retryPolicyProvider = new RetryPolicyProvider(context);
         this.moduleLoader = moduleLoader;
         this.notificationHandler = new InteractiveNotificationHandler(context);
+        this.notificationScheduler = new NotificationScheduler(notificationHandler, broadcaster,
+                executors.queue(MobileMessagingExecutors.QUEUE_NOTIFICATIONS), executors.scheduler(),
+                new SqliteStringQueue(getDatabaseProvider(context), MobileMessagingProperty.PENDING_NOTIFICATION_MESSAGES.getKey()));
+        this.notificationScheduler.restore();
         this.messageHandlerModules = loadMessageHandlerModules();
+        PreferenceHelper.registerPropertyChangeListener(configurationInvalidator);
 
         if (mobileMessagingSynchronizationReceiver == null) {
             mobileMessagingSynchronizationReceiver = new MobileMessagingSynchronizationReceiver();
@@ -285,6 +339,7 @@ public class MobileMessagingCore
         if (module != null) {
             module.init(context);
             messageHandlerModules.put(cls.getName(), module);
+            invalidateConfiguration();
         }
         return module;
     }
@@ -345,15 +400,16 @@ public class MobileMessagingCore
 
         lastSyncTimeMillis = Time.now();
         baseUrlChecker().sync();
+        dispatchRetryQueue();
         if (foreground) {
             lastForegroundSyncMillis = lastSyncTimeMillis;
             userEventsSynchronizer().reportSessions();
-            performSyncActions();
+            syncCoordinator().request(SYNC_ACTIONS);
             versionChecker().sync();
             return;
         }
 
-        performSyncActions();
+        syncCoordinator().request(SYNC_ACTIONS);
     }
 
     private boolean didSyncRecently() {
@@ -375,7 +431,8 @@ public class MobileMessagingCore
         }
 
         MobileMessagingLogger.d(">>> Retry sync on network available");
-        performSyncActions();
+        dispatchRetryQueue();
+        syncCoordinator().request(SYNC_ACTIONS);
     }
 
     private void performSyncActions() {
@@ -395,9 +452,9 @@ public class MobileMessagingCore
         } else {
             userDataReporter().patch(null, getUnreportedUserData());
         }
-        messagesSynchronizer().sync();
-        moMessageSender().sync();
-        seenStatusReporter().sync();
+        syncCoordinator().request(SYNC_MESSAGES);
+        syncCoordinator().request(SYNC_MO_MESSAGES);
+        syncCoordinator().request(SYNC_SEEN);
     }
 
     protected void syncInstallation() {
@@ -480,6 +537,7 @@ public class MobileMessagingCore
         PreferenceHelper.remove(context, MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS);
         PreferenceHelper.remove(context, MobileMessagingProperty.INFOBIP_UNREPORTED_SEEN_MESSAGE_IDS);
         PreferenceHelper.remove(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS);
+        processedMessageIds.clear();
         PreferenceHelper.remove(context, MobileMessagingProperty.IS_PRIMARY_UNREPORTED);
         PreferenceHelper.remove(context, MobileMessagingProperty.UNSENT_MO_MESSAGES);
         PreferenceHelper.remove(context, MobileMessagingProperty.CUSTOM_ATTRIBUTES);
@@ -493,6 +551,7 @@ public class MobileMessagingCore
         if (messageStore != null) {
             messageStore.deleteAll(context);
         }
+        notificationScheduler.cancel();
         getNotificationHandler().cancelAllNotifications();
         for (MessageHandlerModule module : messageHandlerModules.values()) {
             module.depersonalize();
@@ -503,6 +562,15 @@ public class MobileMessagingCore
         return PreferenceHelper.findBoolean(context, MobileMessagingProperty.IS_DEPERSONALIZE_UNREPORTED);
     }
 
+    private void dispatchRetryQueue() {
+        executors.queue(MobileMessagingExecutors.QUEUE_BACKGROUND).execute(new Runnable() {
+            @Override
+            public void run() {
+                getRetryQueue().dispatchDue();
+            }
+        });
+    }
+
     private void registerForNetworkAvailability() {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
             MobileMessagingJobService.registerJobForConnectivityUpdates(context);
@@ -513,6 +581,10 @@ public class MobileMessagingCore
         return notificationHandler;
     }
 
+    public NotificationScheduler getNotificationScheduler() {
+        return notificationScheduler;
+    }
+
     public String getPushRegistrationId() {
         return PreferenceHelper.findString(context, MobileMessagingProperty.INFOBIP_REGISTRATION_ID);
     }
@@ -696,44 +768,44 @@ public class MobileMessagingCore
     public void addSyncMessagesIds(String... messageIDs) {
         String[] timestampMessageIdPair = concatTimestampToMessageId(messageIDs);
         PreferenceHelper.appendToStringArray(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS, timestampMessageIdPair);
+
+        ProcessedMessageIds index = loadedProcessedMessageIds();
+        for (String messageIdWithTimestamp : timestampMessageIdPair) {
+            String[] messageIdAndTimestamp = messageIdWithTimestamp.split(StringUtils.COMMA_WITH_SPACE);
+            index.add(messageIdAndTimestamp[0], Long.parseLong(messageIdAndTimestamp[1]));
+        }
     }
 
     public String[] getSyncMessagesIds() {
-        String[] messageIds = PreferenceHelper.findStringArray(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS);
-        ArrayList<String> messageIdsArrayList = new ArrayList<>(Arrays.asList(messageIds));
-        Set<String> messageIdsToSync = new HashSet<>(Math.min(messageIdsArrayList.size(), MESSAGE_ID_PARAMETER_LIMIT));
-        boolean shouldUpdateMessageIds = false;
-
-        for (int i = 0; i < messageIdsArrayList.size(); i++) {
-            String syncMessage = messageIdsArrayList.get(i);
-            String[] messageIdWithTimestamp = syncMessage.split(StringUtils.COMMA_WITH_SPACE);
-
-            String strTimeMessageReceived = messageIdWithTimestamp[1];
-
-            long timeMessageReceived = Long.parseLong(strTimeMessageReceived);
-            long timeInterval = Time.now() - timeMessageReceived;
-
-            if (timeInterval > MESSAGE_EXPIRY_TIME || i >= MESSAGE_ID_PARAMETER_LIMIT) {
-                messageIdsArrayList.remove(i);
-                shouldUpdateMessageIds = true;
-                i--;
-            } else {
-                messageIdsToSync.add(messageIdWithTimestamp[0]);
-            }
-        }
+        ProcessedMessageIds index = loadedProcessedMessageIds();
+        String[] messageIds = index.messageIds(Time.now());
 
-        if (shouldUpdateMessageIds) {
-            String[] messageIdsToUpdate = new String[messageIdsArrayList.size()];
-            messageIdsToUpdate = messageIdsArrayList.toArray(messageIdsToUpdate);
-            PreferenceHelper.remove(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS);
-            PreferenceHelper.appendToStringArray(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS, messageIdsToUpdate);
+        String[] messageIdsToUpdate = index.takeReportsIfEvicted();
+        if (messageIdsToUpdate != null) {
+            PreferenceHelper.saveStringArray(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS, messageIdsToUpdate);
         }
 
-        return messageIdsToSync.toArray(new String[0]);
+        return messageIds;
     }
 
+    /**
+     * Checks if message was already received, uses in-memory index so that storage is read only once per process
+     *
+     * @param messageId id of message
+     * @return true if message with this id was received within last {@link #MESSAGE_EXPIRY_TIME}
+     */
     public boolean isMessageAlreadyProcessed(String messageId) {
-        return Arrays.asList(getSyncMessagesIds()).contains(messageId);
+        return loadedProcessedMessageIds().contains(messageId, Time.now());
+    }
+
+    private ProcessedMessageIds loadedProcessedMessageIds() {
+        synchronized (processedMessageIds) {
+            if (!processedMessageIds.isLoaded()) {
+                String[] reports = PreferenceHelper.findStringArray(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS);
+                processedMessageIds.load(reports, Time.now());
+            }
+        }
+        return processedMessageIds;
     }
 
     public String[] getUnreportedSeenMessageIds() {
@@ -943,6 +1015,42 @@ public class MobileMessagingCore
     private void setNotificationSettings(NotificationSettings notificationSettings) {
         PreferenceHelper.saveBoolean(context, MobileMessagingProperty.DISPLAY_NOTIFICATION_ENABLED, null != notificationSettings);
         this.notificationSettings = notificationSettings;
+        invalidateConfiguration();
+    }
+
+    /**
+     * Returns configuration used on every received and displayed message. Configuration is read from preferences
+     * only after one of its properties changes, otherwise the same snapshot is returned without any locking.
+     *
+     * @return current configuration snapshot
+     */
+    @NonNull
+    public ConfigurationSnapshot getConfiguration() {
+        ConfigurationSnapshot configuration = this.configuration;
+        if (configuration != null) {
+            return configuration;
+        }
+
+        long generation;
+        synchronized (configurationLock) {
+            generation = configurationGeneration;
+        }
+        configuration = new ConfigurationSnapshot(getNotificationSettings(), isPushRegistrationEnabled(), isDepersonalizeInProgress(),
+                new ArrayList<>(messageHandlerModules.values()));
+        synchronized (configurationLock) {
+            // configuration changed while snapshot was being built, next call will build it again
+            if (generation == configurationGeneration) {
+                this.configuration = configuration;
+            }
+        }
+        return configuration;
+    }
+
+    private void invalidateConfiguration() {
+        synchronized (configurationLock) {
+            configurationGeneration++;
+            configuration = null;
+        }
     }
 
     private boolean isDisplayNotificationEnabled() {
@@ -1096,6 +1204,30 @@ public class MobileMessagingCore
         return stats;
     }
 
+    public ImageLoader getImageLoader() {
+        return ImageLoader.getInstance(context);
+    }
+
+    /**
+     * Returns depth and latency metrics of background queues used by SDK synchronizers
+     *
+     * @return snapshot of metrics per queue
+     */
+    @NonNull
+    public List<MobileMessagingExecutors.QueueMetrics> getExecutorMetrics() {
+        return executors.getMetrics();
+    }
+
+    /**
+     * Executors which SDK runs its background work on
+     *
+     * @return executors of this instance
+     */
+    @NonNull
+    public MobileMessagingExecutors getExecutors() {
+        return executors;
+    }
+
     private void setApplicationCode(String applicationCode) {
         if (shouldSaveApplicationCode(context)) {
             if (StringUtils.isBlank(applicationCode)) {
@@ -1294,6 +1426,7 @@ public class MobileMessagingCore
         PreferenceHelper.remove(context, MobileMessagingProperty.UNSENT_MO_MESSAGES);
 
         PreferenceHelper.remove(context, MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS);
+        processedMessageIds.clear();
         PreferenceHelper.remove(context, MobileMessagingProperty.CUSTOM_ATTRIBUTES);
         PreferenceHelper.remove(context, MobileMessagingProperty.UNREPORTED_CUSTOM_ATTRIBUTES);
         PreferenceHelper.remove(context, MobileMessagingProperty.APP_USER_ID);
@@ -1843,7 +1976,7 @@ public class MobileMessagingCore
     private MoMessageSender moMessageSender() {
         if (moMessageSender == null) {
             moMessageSender = new MoMessageSender(context, this, broadcaster,
-                    registrationAlignedExecutor, stats, retryPolicyProvider.DEFAULT(), mobileApiResourceProvider().getMobileApiMessages(context), getMessageStoreWrapper());
+                    executors.queue(MobileMessagingExecutors.QUEUE_MO), stats, retryPolicyProvider.DEFAULT(), mobileApiResourceProvider().getMobileApiMessages(context), getMessageStoreWrapper());
         }
         return moMessageSender;
     }
@@ -1866,7 +1999,7 @@ public class MobileMessagingCore
                     mobileApiResourceProvider().getMobileApiAppInstance(context),
                     retryPolicyProvider.DEFAULT(),
                     registrationAlignedExecutor,
-                    new BatchReporter(PreferenceHelper.findLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY)),
+                    new BatchReporter(batchingEngine, PreferenceHelper.findLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY)),
                     this);
         }
         return personalizeSynchronizer;
@@ -1875,8 +2008,8 @@ public class MobileMessagingCore
     @NonNull
     private MessagesSynchronizer messagesSynchronizer() {
         if (messagesSynchronizer == null) {
-            MobileMessageHandler mobileMessageHandler = new MobileMessageHandler(this, broadcaster, getNotificationHandler(), getMessageStoreWrapper());
-            messagesSynchronizer = new MessagesSynchronizer(this, stats, registrationAlignedExecutor,
+            MobileMessageHandler mobileMessageHandler = new MobileMessageHandler(this, broadcaster, getNotificationHandler(), getMessageStoreWrapper(), getNotificationScheduler());
+            messagesSynchronizer = new MessagesSynchronizer(this, stats, executors.queue(MobileMessagingExecutors.QUEUE_MESSAGES),
                     broadcaster, retryPolicyProvider.DEFAULT(), mobileMessageHandler, mobileApiResourceProvider().getMobileApiMessages(context));
         }
         return messagesSynchronizer;
@@ -1885,8 +2018,8 @@ public class MobileMessagingCore
     @NonNull
     private SeenStatusReporter seenStatusReporter() {
         if (seenStatusReporter == null) {
-            seenStatusReporter = new SeenStatusReporter(this, stats, registrationAlignedExecutor, broadcaster,
-                    mobileApiResourceProvider().getMobileApiMessages(context), new BatchReporter(PreferenceHelper.findLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY)));
+            seenStatusReporter = new SeenStatusReporter(this, stats, executors.queue(MobileMessagingExecutors.QUEUE_SEEN), broadcaster,
+                    mobileApiResourceProvider().getMobileApiMessages(context), new BatchReporter(batchingEngine, PreferenceHelper.findLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY)));
         }
         return seenStatusReporter;
     }
@@ -1899,6 +2032,93 @@ public class MobileMessagingCore
         return versionChecker;
     }
 
+    /**
+     * Coalesces bursts of sync triggers, each kind of sync has at most one request in flight
+     */
+    @NonNull
+    private synchronized SyncCoordinator syncCoordinator() {
+        if (syncCoordinator == null) {
+            syncCoordinator = new SyncCoordinator(executors.scheduler(), SYNC_COALESCING_WINDOW_MILLIS);
+            syncCoordinator.register(SYNC_ACTIONS, new SyncCoordinator.Action() {
+                @Override
+                public void run(Runnable onComplete) {
+                    try {
+                        performSyncActions();
+                    } finally {
+                        onComplete.run();
+                    }
+                }
+            });
+            syncCoordinator.register(SYNC_MESSAGES, new SyncCoordinator.Action() {
+                @Override
+                public void run(Runnable onComplete) {
+                    messagesSynchronizer().sync(onComplete);
+                }
+            });
+            syncCoordinator.register(SYNC_MO_MESSAGES, new SyncCoordinator.Action() {
+                @Override
+                public void run(Runnable onComplete) {
+                    moMessageSender().sync(onComplete);
+                }
+            });
+            syncCoordinator.register(SYNC_SEEN, new SyncCoordinator.Action() {
+                @Override
+                public void run(Runnable onComplete) {
+                    seenStatusReporter().sync(onComplete);
+                }
+            });
+        }
+        return syncCoordinator;
+    }
+
+    /**
+     * Persistent queue of failed Mobile API operations, retried with backoff across process restarts
+     */
+    @NonNull
+    public synchronized RetryQueue getRetryQueue() {
+        if (retryQueue == null) {
+            retryQueue = new RetryQueue(getDatabaseProvider(context), new RetryQueue.Scheduler() {
+                @Override
+                public void schedule(long delayMillis) {
+                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                        MobileMessagingJobService.scheduleRetryQueue(context, delayMillis);
+                        return;
+                    }
+                    synchronized (MobileMessagingCore.this) {
+                        if (retryQueueDispatch != null) {
+                            retryQueueDispatch.cancel(false);
+                        }
+                        retryQueueDispatch = executors.scheduler().schedule(new Runnable() {
+                            @Override
+                            public void run() {
+                                dispatchRetryQueue();
+                            }
+                        }, delayMillis, TimeUnit.MILLISECONDS);
+                    }
+                }
+            }, new RetryQueue.Dispatcher() {
+                @Override
+                public void dispatch(RetryOperation operation) {
+                    switch (operation) {
+                        case DELIVERY_REPORTS:
+                            syncCoordinator().request(SYNC_MESSAGES);
+                            break;
+                        case MO_MESSAGES:
+                            syncCoordinator().request(SYNC_MO_MESSAGES);
+                            break;
+                        case SEEN_REPORTS:
+                            syncCoordinator().request(SYNC_SEEN);
+                            break;
+                        case SESSION_REPORTS:
+                            userEventsSynchronizer().reportSessions();
+                            break;
+                    }
+                }
+            });
+        }
+        return retryQueue;
+    }
+
     @NonNull
     private BaseUrlChecker baseUrlChecker() {
         if (baseUrlChecker == null) {
@@ -1930,8 +2150,8 @@ public class MobileMessagingCore
                     broadcaster,
                     mobileApiResourceProvider().getMobileApiAppInstance(context),
                     retryPolicyProvider.DEFAULT(),
-                    registrationAlignedExecutor,
-                    new BatchReporter(PreferenceHelper.findLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY)));
+                    executors.queue(MobileMessagingExecutors.QUEUE_EVENTS),
+                    new BatchReporter(batchingEngine, PreferenceHelper.findLong(context, MobileMessagingProperty.BATCH_REPORTING_DELAY)));
         }
         return userEventsSynchronizer;
     }
@@ -43,6 +43,7 @@ public enum MobileMessagingProperty {
     INFOBIP_SYNC_MESSAGES_IDS("org.infobip.mobile.messaging.infobip.INFOBIP_SYNC_MESSAGES_IDS", new String[0]),
     MESSAGE_STORE_CLASS("org.infobip.mobile.messaging.infobip.MESSAGE_STORE_CLASS"),
     UNSENT_MO_MESSAGES("org.infobip.mobile.messaging.infobip.UNSENT_MO_MESSAGES", new String[0]),
+    PENDING_NOTIFICATION_MESSAGES("org.infobip.mobile.messaging.infobip.PENDING_NOTIFICATION_MESSAGES", new String[0]),
     // END
 
     // START: notifications config
@@ -0,0 +1,172 @@
+package org.infobip.mobile.messaging;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index of ids of already processed messages, used to skip duplicates without reading them from storage.
+ * <br>
+ * Keeps at most {@code limit} newest ids which are not older than {@code expiryMillis}.
+ * Persisted form of each entry is "messageId, timestamp" as stored in {@link MobileMessagingProperty#INFOBIP_SYNC_MESSAGES_IDS}.
+ */
+class ProcessedMessageIds {
+
+    private static final String SEPARATOR = ", ";
+
+    private final int limit;
+    private final long expiryMillis;
+    private final Map<String, Long> timestamps = new HashMap<>();
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    private boolean loaded;
+    private boolean evicted;
+
+    ProcessedMessageIds(int limit, long expiryMillis) {
+        this.limit = limit;
+        this.expiryMillis = expiryMillis;
+    }
+
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Replaces contents of the index with persisted entries
+     *
+     * @param reports entries in "messageId, timestamp" format, oldest first
+     * @param now     current time
+     */
+    synchronized void load(String[] reports, long now) {
+        timestamps.clear();
+        entries.clear();
+        evicted = false;
+
+        List<Entry> parsed = new ArrayList<>(reports.length);
+        for (String report : reports) {
+            String[] messageIdAndTimestamp = report.split(SEPARATOR);
+            try {
+                parsed.add(new Entry(messageIdAndTimestamp[0], Long.parseLong(messageIdAndTimestamp[1])));
+            } catch (Exception e) {
+                evicted = true;
+            }
+        }
+
+        // expiry relies on entries being ordered by time
+        Collections.sort(parsed, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry e1, Entry e2) {
+                return e1.timestamp < e2.timestamp ? -1 : (e1.timestamp == e2.timestamp ? 0 : 1);
+            }
+        });
+        for (Entry entry : parsed) {
+            put(entry.messageId, entry.timestamp);
+        }
+        evict(now);
+        loaded = true;
+    }
+
+    synchronized void add(String messageId, long timestamp) {
+        put(messageId, timestamp);
+        evict(timestamp);
+    }
+
+    synchronized boolean contains(String messageId, long now) {
+        evict(now);
+        return timestamps.containsKey(messageId);
+    }
+
+    /**
+     * Returns ids of all messages which are in the index
+     *
+     * @param now current time
+     * @return message ids, oldest first
+     */
+    synchronized String[] messageIds(long now) {
+        evict(now);
+        List<String> messageIds = new ArrayList<>(timestamps.size());
+        for (Entry entry : entries) {
+            if (entry.isCurrent()) {
+                messageIds.add(entry.messageId);
+            }
+        }
+        return messageIds.toArray(new String[0]);
+    }
+
+    /**
+     * Returns entries which should be persisted if any entries were evicted since last call, null otherwise
+     *
+     * @return entries in "messageId, timestamp" format, oldest first, or null if persisted entries are up-to-date
+     */
+    synchronized String[] takeReportsIfEvicted() {
+        if (!evicted) {
+            return null;
+        }
+
+        evicted = false;
+        List<String> reports = new ArrayList<>(timestamps.size());
+        for (Entry entry : entries) {
+            if (entry.isCurrent()) {
+                reports.add(entry.messageId + SEPARATOR + entry.timestamp);
+            }
+        }
+        return reports.toArray(new String[0]);
+    }
+
+    synchronized void clear() {
+        timestamps.clear();
+        entries.clear();
+        evicted = false;
+        loaded = false;
+    }
+
+    synchronized int size() {
+        return timestamps.size();
+    }
+
+    private void put(String messageId, long timestamp) {
+        Long previous = timestamps.put(messageId, timestamp);
+        if (previous != null) {
+            if (previous == timestamp) {
+                return;
+            }
+            // previous entry for the same id becomes stale and is skipped when it reaches the head
+            evicted = true;
+        }
+        entries.addLast(new Entry(messageId, timestamp));
+    }
+
+    private void evict(long now) {
+        Entry head;
+        while ((head = entries.peekFirst()) != null) {
+            if (!head.isCurrent()) {
+                entries.removeFirst();
+                continue;
+            }
+            if (timestamps.size() <= limit && now - head.timestamp <= expiryMillis) {
+                return;
+            }
+            entries.removeFirst();
+            timestamps.remove(head.messageId);
+            evicted = true;
+        }
+    }
+
+    private class Entry {
+        final String messageId;
+        final long timestamp;
+
+        Entry(String messageId, long timestamp) {
+            this.messageId = messageId;
+            this.timestamp = timestamp;
+        }
+
+        boolean isCurrent() {
+            Long current = timestamps.get(messageId);
+            return current != null && current == timestamp;
+        }
+    }
+}
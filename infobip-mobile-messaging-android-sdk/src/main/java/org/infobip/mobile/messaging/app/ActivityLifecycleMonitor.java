@@ -91,6 +91,8 @@ public class ActivityLifecycleMonitor implements Application.ActivityLifecycleCa
         foregroundActivity = null;
         setForeground(null, false);
         if (activity != null) UserSessionTracker.stopSessionTracking(activity);
+        // process may be killed in background before statistics are flushed on schedule
+        if (activity != null) MobileMessagingCore.getInstance(activity).getStats().flushPending();
     }
 
     @Override
@@ -12,7 +12,6 @@ import androidx.annotation.Nullable;
 import org.infobip.mobile.messaging.Event;
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.NotificationSettings;
-import org.infobip.mobile.messaging.dal.bundle.MessageBundleMapper;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.view.WebViewActivity;
 
@@ -32,7 +31,7 @@ public class ContentIntentWrapper {
         if (intent == null) return null;
 
         intent.setAction(Event.NOTIFICATION_TAPPED.getKey());
-        intent.putExtra(EXTRA_MESSAGE, MessageBundleMapper.messageToBundle(message));
+        intent.putExtra(EXTRA_MESSAGE, message.toBundle());
         return intent;
     }
 
@@ -60,7 +59,7 @@ public class ContentIntentWrapper {
     public Intent createWebViewContentIntent(@NonNull Message message) {
         Intent webViewIntent = createWebViewContentIntent(new Intent(), message.getWebViewUrl());
         webViewIntent.setAction(Event.NOTIFICATION_TAPPED.getKey());
-        webViewIntent.putExtra(EXTRA_MESSAGE, MessageBundleMapper.messageToBundle(message));
+        webViewIntent.putExtra(EXTRA_MESSAGE, message.toBundle());
         return webViewIntent;
     }
 
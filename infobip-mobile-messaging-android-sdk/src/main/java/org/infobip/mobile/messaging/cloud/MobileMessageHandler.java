@@ -1,16 +1,24 @@
 package org.infobip.mobile.messaging.cloud;
 
+import androidx.annotation.Nullable;
+
+import org.infobip.mobile.messaging.ConfigurationSnapshot;
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MessageHandlerModule;
 import org.infobip.mobile.messaging.MobileMessagingCore;
+import org.infobip.mobile.messaging.logging.Level;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.mobileapi.InternalSdkError;
 import org.infobip.mobile.messaging.notification.NotificationHandler;
+import org.infobip.mobile.messaging.notification.NotificationScheduler;
 import org.infobip.mobile.messaging.platform.Broadcaster;
 import org.infobip.mobile.messaging.platform.Time;
 import org.infobip.mobile.messaging.storage.MessageStoreWrapper;
 import org.infobip.mobile.messaging.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author mstipanov
  * @since 14.04.2016.
@@ -21,12 +29,25 @@ public class MobileMessageHandler {
     private final NotificationHandler notificationHandler;
     private final MessageStoreWrapper messageStoreWrapper;
     private final MobileMessagingCore mobileMessagingCore;
+    private final NotificationScheduler notificationScheduler;
 
+    /**
+     * Creates handler which displays notifications right away, one by one
+     */
     public MobileMessageHandler(MobileMessagingCore mobileMessagingCore, Broadcaster broadcaster, NotificationHandler notificationHandler, MessageStoreWrapper messageStoreWrapper) {
+        this(mobileMessagingCore, broadcaster, notificationHandler, messageStoreWrapper, null);
+    }
+
+    /**
+     * Creates handler which displays notifications with the scheduler, so that bursts of messages are displayed together
+     */
+    public MobileMessageHandler(MobileMessagingCore mobileMessagingCore, Broadcaster broadcaster, NotificationHandler notificationHandler, MessageStoreWrapper messageStoreWrapper,
+                                @Nullable NotificationScheduler notificationScheduler) {
         this.broadcaster = broadcaster;
         this.notificationHandler = notificationHandler;
         this.messageStoreWrapper = messageStoreWrapper;
         this.mobileMessagingCore = mobileMessagingCore;
+        this.notificationScheduler = notificationScheduler;
     }
 
     /**
@@ -35,47 +56,100 @@ public class MobileMessageHandler {
      * @param message new message
      */
     public void handleMessage(Message message) {
-        if (!mobileMessagingCore.isPushRegistrationEnabled() || mobileMessagingCore.isDepersonalizeInProgress()) {
+        if (!receive(message, mobileMessagingCore.getConfiguration())) {
+            return;
+        }
+
+        if (notificationScheduler != null) {
+            notificationScheduler.schedule(message);
+        } else {
+            displayNotification(message);
+        }
+    }
+
+    /**
+     * Handles messages received together, such as messages fetched by synchronization.
+     * Delivery is reported in the order of messages, notifications are displayed in background when handler has the scheduler.
+     *
+     * @param messages new messages
+     */
+    public void handleMessages(List<Message> messages) {
+        ConfigurationSnapshot configuration = mobileMessagingCore.getConfiguration();
+        List<Message> notificationMessages = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            if (receive(message, configuration)) {
+                notificationMessages.add(message);
+            }
+        }
+
+        if (notificationScheduler != null) {
+            notificationScheduler.schedule(notificationMessages);
             return;
         }
+        for (Message message : notificationMessages) {
+            displayNotification(message);
+        }
+    }
+
+    /**
+     * Reports delivery, saves and broadcasts the message unless one of modules handles it
+     *
+     * @return true if notification should be displayed for the message
+     */
+    private boolean receive(Message message, ConfigurationSnapshot configuration) {
+        if (!configuration.isPushRegistrationEnabled() || configuration.isDepersonalizeInProgress()) {
+            return false;
+        }
 
         if (StringUtils.isBlank(message.getMessageId())) {
             MobileMessagingLogger.w("Ignoring message without messageId");
-            return;
+            return false;
         }
 
         if (StringUtils.isBlank(message.getBody())) {
             MobileMessagingLogger.w("Ignoring message without text");
-            return;
+            return false;
         }
 
         if (mobileMessagingCore.isMessageAlreadyProcessed(message.getMessageId())) {
             MobileMessagingLogger.w("Skipping message " + message.getMessageId() + " as already processed");
-            return;
+            return false;
         }
 
         message.setReceivedTimestamp(Time.now());
         sendDeliveryReport(message);
+        if (StringUtils.isNotBlank(message.getContentUrl())) {
+            // notification and in-app dialog will share the download
+            mobileMessagingCore.getImageLoader().prefetch(message.getContentUrl());
+        }
 
-        for (MessageHandlerModule handler : mobileMessagingCore.getMessageHandlerModules()) {
-            MobileMessagingLogger.d("Dispatching message to " + handler.getClass().getName());
+        for (MessageHandlerModule handler : configuration.getMessageHandlerModules()) {
+            if (MobileMessagingLogger.isLoggable(Level.DEBUG)) {
+                MobileMessagingLogger.d("Dispatching message to " + handler.getClass().getName());
+            }
             if (handler.handleMessage(message)) {
-                return;
+                return false;
             }
         }
 
         saveMessage(message);
         broadcaster.messageReceived(message);
 
-        MobileMessagingLogger.d("Message is silent: " + message.isSilent());
-        if (!message.isSilent()) {
-            int notificationId = notificationHandler.displayNotification(message);
-            broadcaster.notificationDisplayed(message, notificationId);
+        if (MobileMessagingLogger.isLoggable(Level.DEBUG)) {
+            MobileMessagingLogger.d("Message is silent: " + message.isSilent());
         }
+        return !message.isSilent();
+    }
+
+    private void displayNotification(Message message) {
+        int notificationId = notificationHandler.displayNotification(message);
+        broadcaster.notificationDisplayed(message, notificationId);
     }
 
     private void saveMessage(Message message) {
-        MobileMessagingLogger.d("Saving message: " + message.getMessageId());
+        if (MobileMessagingLogger.isLoggable(Level.DEBUG)) {
+            MobileMessagingLogger.d("Saving message: " + message.getMessageId());
+        }
         try {
             messageStoreWrapper.upsert(message);
         } catch (Exception e) {
@@ -88,7 +162,9 @@ public class MobileMessageHandler {
             MobileMessagingLogger.e("No ID received for message: " + message);
             return;
         }
-        MobileMessagingLogger.d("Sending DR: " + message.getMessageId());
+        if (MobileMessagingLogger.isLoggable(Level.DEBUG)) {
+            MobileMessagingLogger.d("Sending DR: " + message.getMessageId());
+        }
         mobileMessagingCore.setMessagesDelivered(message.getMessageId());
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import org.infobip.mobile.messaging.Message;
@@ -11,11 +12,16 @@ import org.infobip.mobile.messaging.dal.bundle.MessageBundleMapper;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.platform.Lazy;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
 public class MobileMessagingCloudHandler {
 
     private static final String PREFIX = "org.infobip.mobile.messaging.cloud.";
 
     static final String EXTRA_TOKEN = PREFIX + "TOKEN";
+    static final String EXTRA_MESSAGE_KEY = PREFIX + "MESSAGE_KEY";
 
     static final String ACTION_CLOUD_MESSAGE_RECEIVE = PREFIX + "MESSAGE_RECEIVE";
     static final String ACTION_TOKEN_ACQUIRE = PREFIX + "TOKEN_ACQUIRE";
@@ -23,6 +29,19 @@ public class MobileMessagingCloudHandler {
     static final String ACTION_TOKEN_RESET = PREFIX + "TOKEN_RESET";
     static final String ACTION_NEW_TOKEN = PREFIX + "NEW_TOKEN";
 
+    private static final int MAX_MESSAGES_IN_MEMORY = 100;
+
+    /**
+     * Messages enqueued by this process, so that they don't have to be deserialized from intent extras.
+     * Oldest ones are dropped if work is not processed, such work reads message from extras.
+     */
+    private static final Map<String, Message> messagesInMemory = new LinkedHashMap<String, Message>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Message> eldest) {
+            return size() > MAX_MESSAGES_IN_MEMORY;
+        }
+    };
+
     private final Lazy<RegistrationTokenHandler, Context> registrationTokenHandler;
     private final Lazy<MobileMessageHandler, Context> mobileMessageHandler;
 
@@ -82,13 +101,41 @@ public class MobileMessagingCloudHandler {
     }
 
     private void handleMessage(Context context, @NonNull Intent intent) {
-        Bundle extras = intent.getExtras();
-        if (extras == null) {
-            MobileMessagingLogger.e("No extras in intent, cannot receive message");
-            return;
+        Message message = takeFromMemory(intent.getStringExtra(EXTRA_MESSAGE_KEY));
+        if (message == null) {
+            Bundle extras = intent.getExtras();
+            if (extras == null) {
+                MobileMessagingLogger.e("No extras in intent, cannot receive message");
+                return;
+            }
+            message = MessageBundleMapper.messageFromBundle(extras);
         }
 
-        Message message = MessageBundleMapper.messageFromBundle(extras);
         mobileMessageHandler.get(context).handleMessage(message);
     }
+
+    /**
+     * Keeps message in memory until it is handled by this process
+     *
+     * @param message message to keep
+     * @return key to look up the message with
+     */
+    @NonNull
+    static String keepInMemory(@NonNull Message message) {
+        String key = UUID.randomUUID().toString();
+        synchronized (messagesInMemory) {
+            messagesInMemory.put(key, message);
+        }
+        return key;
+    }
+
+    @Nullable
+    private static Message takeFromMemory(@Nullable String key) {
+        if (key == null) {
+            return null;
+        }
+        synchronized (messagesInMemory) {
+            return messagesInMemory.remove(key);
+        }
+    }
 }
@@ -24,6 +24,7 @@ import static org.infobip.mobile.messaging.cloud.MobileMessagingCloudHandler.ACT
 import static org.infobip.mobile.messaging.cloud.MobileMessagingCloudHandler.ACTION_TOKEN_ACQUIRE;
 import static org.infobip.mobile.messaging.cloud.MobileMessagingCloudHandler.ACTION_TOKEN_CLEANUP;
 import static org.infobip.mobile.messaging.cloud.MobileMessagingCloudHandler.ACTION_TOKEN_RESET;
+import static org.infobip.mobile.messaging.cloud.MobileMessagingCloudHandler.EXTRA_MESSAGE_KEY;
 import static org.infobip.mobile.messaging.cloud.MobileMessagingCloudHandler.EXTRA_TOKEN;
 import static org.infobip.mobile.messaging.platform.Platform.mobileMessagingCloudHandler;
 
@@ -63,9 +64,13 @@ public class MobileMessagingCloudService extends JobIntentService {
     }
 
     public static void enqueueNewMessage(Context context, @NonNull Message message) {
-        Bundle messageBundle = MessageBundleMapper.messageToBundle(message);
+        // message is also kept in memory, bundle is read only if work is processed after process restart.
+        // Work intent is delivered only to this application, so message is stored as parcel rather than JSON
+        Bundle messageBundle = MessageBundleMapper.messageToInternalBundle(message);
+        String messageKey = MobileMessagingCloudHandler.keepInMemory(message);
         enqueueWork(context, new Intent(ACTION_CLOUD_MESSAGE_RECEIVE)
-                .putExtras(messageBundle));
+                .putExtras(messageBundle)
+                .putExtra(EXTRA_MESSAGE_KEY, messageKey));
     }
 
     private static void enqueueWork(Context context, Intent work) {
@@ -2,17 +2,18 @@ package org.infobip.mobile.messaging.cloud.firebase;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import android.text.TextUtils;
 
 import com.google.firebase.messaging.RemoteMessage;
 
 import org.infobip.mobile.messaging.Message;
-import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
-import org.infobip.mobile.messaging.dal.json.JSONObjectAdapter;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.platform.Time;
+import org.infobip.mobile.messaging.util.StringUtils;
+import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.Map;
+
 /**
  * @author sslavin
  * @since 03/09/2018.
@@ -21,79 +22,79 @@ public class FirebaseMessageMapper {
 
     private static final String TAG = FirebaseMessageMapper.class.getSimpleName();
     private static final String IB_DATA_KEY = "org_ib_d";
-    private static final JsonSerializer serializer = new JsonSerializer(false, new JSONObjectAdapter());
-
-    private static class IBData {
-        String messageId;
-        String text;
-        NotificationSettings notification;
-        JSONObject custom;
-        JSONObject internal;
-    }
 
-    private static class NotificationSettings {
-        String icon;
-        String title;
-        String sound;
-        String category;
-        Boolean vibrate;
-        Boolean silent;
-        String contentUrl;
-        Message.InAppStyle inAppStyle;
+    public Message createMessage(RemoteMessage remoteMessage) {
+        if (remoteMessage == null) {
+            MobileMessagingLogger.e(TAG, "Cannot retrieve message data, remote message is null");
+            return null;
+        }
+        return createMessage(remoteMessage.getData(), remoteMessage.getMessageId());
     }
 
-    public Message createMessage(RemoteMessage remoteMessage) {
-        IBData data = getIBData(remoteMessage);
-        if (data == null) {
-            MobileMessagingLogger.e(TAG, "Cannot retrieve message data for message ID " + remoteMessage.getMessageId());
+    /**
+     * Creates message from data of the push. Data is parsed only once, directly into message fields.
+     *
+     * @param data            data of the push
+     * @param remoteMessageId id of the push, used for logging
+     * @return new message or null if data doesn't contain valid message
+     */
+    @Nullable
+    Message createMessage(@Nullable Map<String, String> data, @Nullable String remoteMessageId) {
+        JSONObject ibData = getIBData(data);
+        if (ibData == null) {
+            MobileMessagingLogger.e(TAG, "Cannot retrieve message data for message ID " + remoteMessageId);
             return null;
         }
 
-        if (TextUtils.isEmpty(data.messageId)) {
-            MobileMessagingLogger.e(TAG, "Message ID is empty for " + remoteMessage);
+        String messageId = optString(ibData, "messageId");
+        if (StringUtils.isBlank(messageId)) {
+            MobileMessagingLogger.e(TAG, "Message ID is empty for message ID " + remoteMessageId);
             return null;
         }
 
-        if (TextUtils.isEmpty(data.text)) {
-            MobileMessagingLogger.e(TAG, "Message text is empty for " + remoteMessage);
+        String text = optString(ibData, "text");
+        if (StringUtils.isBlank(text)) {
+            MobileMessagingLogger.e(TAG, "Message text is empty for message ID " + remoteMessageId);
             return null;
         }
 
-        NotificationSettings notificationSettings = data.notification != null ? data.notification : new NotificationSettings();
-        long sentDateTime = data.internal != null ? data.internal.optLong("sendDateTime", Time.now()) : Time.now();
-        long inAppExpiryDateTime = data.internal != null ? data.internal.optLong("inAppExpiryDateTime", 0) : 0;
-        String webViewUrl = getInternalDataStringValue(data.internal, "webViewUrl");
-        String browserUrl = getInternalDataStringValue(data.internal, "browserUrl");
-        String deeplink = getInternalDataStringValue(data.internal, "deeplink");
-        String messageType = getInternalDataStringValue(data.internal, "messageType");
-        String inAppOpenTitle = getInternalDataStringValue(data.internal, "inAppOpenTitle");
-        String inAppDismissTitle = getInternalDataStringValue(data.internal, "inAppDismissTitle");
-        boolean inApp = data.internal != null && data.internal.optBoolean("inApp"); // deprecated
-        Message.InAppStyle inAppStyle = null;
-        if (data.notification.inAppStyle != null) {
-            inAppStyle = data.notification.inAppStyle;
-        } else if (inApp) {
+        JSONObject notification = ibData.optJSONObject("notification");
+        if (notification == null) {
+            notification = new JSONObject();
+        }
+        JSONObject internal = ibData.optJSONObject("internal");
+        long sentDateTime = internal != null ? internal.optLong("sendDateTime", Time.now()) : Time.now();
+        long inAppExpiryDateTime = internal != null ? internal.optLong("inAppExpiryDateTime", 0) : 0;
+        String webViewUrl = getInternalDataStringValue(internal, "webViewUrl");
+        String browserUrl = getInternalDataStringValue(internal, "browserUrl");
+        String deeplink = getInternalDataStringValue(internal, "deeplink");
+        String messageType = getInternalDataStringValue(internal, "messageType");
+        String inAppOpenTitle = getInternalDataStringValue(internal, "inAppOpenTitle");
+        String inAppDismissTitle = getInternalDataStringValue(internal, "inAppDismissTitle");
+        boolean inApp = internal != null && internal.optBoolean("inApp"); // deprecated
+        Message.InAppStyle inAppStyle = inAppStyle(notification.opt("inAppStyle"));
+        if (inAppStyle == null && inApp) {
             inAppStyle = Message.InAppStyle.MODAL;
         }
         return new Message(
-                data.messageId,
-                notificationSettings.title,
-                data.text,
-                notificationSettings.sound,
-                orDefault(notificationSettings.vibrate, true),
-                notificationSettings.icon,
-                orDefault(notificationSettings.silent, false),
-                notificationSettings.category,
+                messageId,
+                optString(notification, "title"),
+                text,
+                optString(notification, "sound"),
+                orDefault(optBoolean(notification, "vibrate"), true),
+                optString(notification, "icon"),
+                orDefault(optBoolean(notification, "silent"), false),
+                optString(notification, "category"),
                 "",
                 Time.now(),
                 0,
                 sentDateTime,
-                data.custom,
-                data.internal != null ? data.internal.toString() : null,
+                ibData.optJSONObject("custom"),
+                internal != null ? internal.toString() : null,
                 "",
                 Message.Status.UNKNOWN,
                 "",
-                notificationSettings.contentUrl,
+                optString(notification, "contentUrl"),
                 inAppStyle,
                 inAppExpiryDateTime,
                 webViewUrl,
@@ -108,13 +109,47 @@ public class FirebaseMessageMapper {
         return internalData != null ? internalData.optString(key) : null;
     }
 
-    private static IBData getIBData(RemoteMessage remoteMessage) {
+    @Nullable
+    private static JSONObject getIBData(@Nullable Map<String, String> data) {
         String json;
-        if (remoteMessage == null || remoteMessage.getData() == null || (json = remoteMessage.getData().get(IB_DATA_KEY)) == null) {
+        if (data == null || (json = data.get(IB_DATA_KEY)) == null) {
             return null;
         }
 
-        return serializer.deserialize(json, IBData.class);
+        try {
+            return new JSONObject(json);
+        } catch (JSONException e) {
+            MobileMessagingLogger.e(TAG, "Error parsing message data " + json, e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String optString(@NonNull JSONObject object, @NonNull String key) {
+        return object.isNull(key) ? null : object.optString(key);
+    }
+
+    @Nullable
+    private static Boolean optBoolean(@NonNull JSONObject object, @NonNull String key) {
+        return object.isNull(key) ? null : object.optBoolean(key);
+    }
+
+    /**
+     * Accepts both names and ordinals of the style, same as serialized names of {@link Message.InAppStyle}
+     */
+    @Nullable
+    private static Message.InAppStyle inAppStyle(@Nullable Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            return null;
+        }
+
+        String style = String.valueOf(value);
+        if ("MODAL".equals(style) || "0".equals(style)) {
+            return Message.InAppStyle.MODAL;
+        } else if ("BANNER".equals(style) || "1".equals(style)) {
+            return Message.InAppStyle.BANNER;
+        }
+        return null;
     }
 
     private static <T> T orDefault(@Nullable T value, @NonNull T defaultValue) {
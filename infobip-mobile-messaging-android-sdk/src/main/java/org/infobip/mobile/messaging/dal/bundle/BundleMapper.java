@@ -2,6 +2,8 @@ package org.infobip.mobile.messaging.dal.bundle;
 
 
 import android.os.Bundle;
+import android.os.Parcel;
+import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
@@ -117,4 +119,52 @@ public abstract class BundleMapper {
 
         return bundles;
     }
+
+    /**
+     * De-serializes parcelable object from bundle created with {@link #parcelableToBundle(Parcelable, String)}
+     *
+     * @param bundle  where to load data from
+     * @param tag     tag to use when reading data from bundle
+     * @param creator creator of the object
+     * @param <T>     object type
+     * @return deserialized object instance or null if bundle doesn't contain parcel under the tag
+     */
+    @Nullable
+    protected static <T extends Parcelable> T parcelableFromBundle(@NonNull Bundle bundle, @NonNull String tag, @NonNull Parcelable.Creator<T> creator) {
+        byte[] bytes = bundle.getByteArray(tag);
+        if (bytes == null) {
+            return null;
+        }
+
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.unmarshall(bytes, 0, bytes.length);
+            parcel.setDataPosition(0);
+            return creator.createFromParcel(parcel);
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    /**
+     * Serializes parcelable object into bundle as marshalled parcel.
+     * Such bundles are meant only for handing objects over within the application, since other applications
+     * expect JSON under public tags. Use {@link #objectToBundle(Object, String)} for broadcasts and pending intents.
+     *
+     * @param object what to serialize
+     * @param tag    tag to use when storing data in bundle, should not be the tag of JSON contents
+     * @return bundle that contains object data
+     */
+    @NonNull
+    protected static Bundle parcelableToBundle(@NonNull Parcelable object, @NonNull String tag) {
+        Bundle bundle = new Bundle();
+        Parcel parcel = Parcel.obtain();
+        try {
+            object.writeToParcel(parcel, 0);
+            bundle.putByteArray(tag, parcel.marshall());
+        } finally {
+            parcel.recycle();
+        }
+        return bundle;
+    }
 }
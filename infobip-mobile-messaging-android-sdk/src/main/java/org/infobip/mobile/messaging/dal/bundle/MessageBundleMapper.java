@@ -17,6 +17,7 @@ import java.util.List;
 public class MessageBundleMapper extends BundleMapper {
 
     private static final String BUNDLED_MESSAGE_TAG = MessageBundleMapper.class.getName() + ".message";
+    private static final String PARCELED_MESSAGE_TAG = MessageBundleMapper.class.getName() + ".parcel";
 
     /**
      * De-serializes message object from bundle
@@ -26,6 +27,10 @@ public class MessageBundleMapper extends BundleMapper {
      */
     @Nullable
     public static Message messageFromBundle(@NonNull Bundle bundle) {
+        Message message = parcelableFromBundle(bundle, PARCELED_MESSAGE_TAG, Message.CREATOR);
+        if (message != null) {
+            return message;
+        }
         return objectFromBundle(bundle, BUNDLED_MESSAGE_TAG, Message.class);
     }
 
@@ -37,7 +42,11 @@ public class MessageBundleMapper extends BundleMapper {
      */
     @NonNull
     public static List<Message> messagesFromBundles(@NonNull ArrayList<Bundle> bundles) {
-        return objectsFromBundles(bundles, BUNDLED_MESSAGE_TAG, Message.class);
+        List<Message> messages = new ArrayList<>(bundles.size());
+        for (Bundle bundle : bundles) {
+            messages.add(messageFromBundle(bundle));
+        }
+        return messages;
     }
 
     /**
@@ -51,6 +60,18 @@ public class MessageBundleMapper extends BundleMapper {
         return objectToBundle(message, BUNDLED_MESSAGE_TAG);
     }
 
+    /**
+     * Serializes message object into bundle as parcel, which is cheaper to write and read than JSON.
+     * Should be used only for work within the application, not for broadcasts and pending intents.
+     *
+     * @param message object to serialize
+     * @return bundle with message contents
+     */
+    @NonNull
+    public static Bundle messageToInternalBundle(@NonNull Message message) {
+        return parcelableToBundle(message, PARCELED_MESSAGE_TAG);
+    }
+
     /**
      * Serializes list of messages into list of bundles
      *
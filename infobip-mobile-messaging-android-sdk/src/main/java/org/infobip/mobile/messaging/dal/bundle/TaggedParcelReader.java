@@ -0,0 +1,147 @@
+package org.infobip.mobile.messaging.dal.bundle;
+
+import android.os.BadParcelableException;
+import android.os.Parcel;
+import android.os.Parcelable;
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.infobip.mobile.messaging.dal.bundle.TaggedParcelWriter.TYPE_BITS;
+import static org.infobip.mobile.messaging.dal.bundle.TaggedParcelWriter.TYPE_DOUBLE;
+import static org.infobip.mobile.messaging.dal.bundle.TaggedParcelWriter.TYPE_INT;
+import static org.infobip.mobile.messaging.dal.bundle.TaggedParcelWriter.TYPE_LONG;
+import static org.infobip.mobile.messaging.dal.bundle.TaggedParcelWriter.TYPE_MASK;
+import static org.infobip.mobile.messaging.dal.bundle.TaggedParcelWriter.TYPE_OBJECT;
+import static org.infobip.mobile.messaging.dal.bundle.TaggedParcelWriter.TYPE_OBJECTS;
+import static org.infobip.mobile.messaging.dal.bundle.TaggedParcelWriter.TYPE_STRING;
+
+/**
+ * Reads objects written with {@link TaggedParcelWriter}. Usage:
+ * <pre>
+ * TaggedParcelReader reader = new TaggedParcelReader(parcel);
+ * for (int field = reader.nextField(); field != TaggedParcelReader.END; field = reader.nextField()) {
+ *     switch (field) {
+ *         case FIELD_ID: id = reader.readString(); break;
+ *         default: reader.skip(); break;
+ *     }
+ * }
+ * </pre>
+ */
+public class TaggedParcelReader {
+
+    public static final int END = TaggedParcelWriter.END;
+
+    private final Parcel parcel;
+    private final int version;
+    private int type;
+
+    public TaggedParcelReader(@NonNull Parcel parcel) {
+        this.parcel = parcel;
+        this.version = parcel.readInt();
+    }
+
+    /**
+     * @return version of the layout the object was written with
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return id of the next field or {@link #END} if there are no more fields
+     */
+    public int nextField() {
+        int tag = parcel.readInt();
+        if (tag == END) {
+            return END;
+        }
+        type = tag & TYPE_MASK;
+        return tag >>> TYPE_BITS;
+    }
+
+    public String readString() {
+        checkType(TYPE_STRING);
+        return parcel.readString();
+    }
+
+    public int readInt() {
+        checkType(TYPE_INT);
+        return parcel.readInt();
+    }
+
+    public boolean readBoolean() {
+        return readInt() != 0;
+    }
+
+    public long readLong() {
+        checkType(TYPE_LONG);
+        return parcel.readLong();
+    }
+
+    public double readDouble() {
+        checkType(TYPE_DOUBLE);
+        return parcel.readDouble();
+    }
+
+    public <T> T readObject(@NonNull Parcelable.Creator<T> creator) {
+        checkType(TYPE_OBJECT);
+        return creator.createFromParcel(parcel);
+    }
+
+    @NonNull
+    public <T> List<T> readObjects(@NonNull Parcelable.Creator<T> creator) {
+        checkType(TYPE_OBJECTS);
+        int size = parcel.readInt();
+        List<T> objects = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            objects.add(creator.createFromParcel(parcel));
+        }
+        return objects;
+    }
+
+    /**
+     * Skips value of the current field, used for fields unknown to the reader.
+     */
+    public void skip() {
+        switch (type) {
+            case TYPE_STRING:
+                parcel.readString();
+                break;
+            case TYPE_INT:
+                parcel.readInt();
+                break;
+            case TYPE_LONG:
+                parcel.readLong();
+                break;
+            case TYPE_DOUBLE:
+                parcel.readDouble();
+                break;
+            case TYPE_OBJECT:
+                skipObject(parcel);
+                break;
+            case TYPE_OBJECTS:
+                int size = parcel.readInt();
+                for (int i = 0; i < size; i++) {
+                    skipObject(parcel);
+                }
+                break;
+            default:
+                throw new BadParcelableException("Unknown field type " + type);
+        }
+    }
+
+    private void checkType(int expected) {
+        if (type != expected) {
+            throw new BadParcelableException("Expected field type " + expected + " but was " + type);
+        }
+    }
+
+    private static void skipObject(Parcel parcel) {
+        TaggedParcelReader reader = new TaggedParcelReader(parcel);
+        while (reader.nextField() != END) {
+            reader.skip();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.infobip.mobile.messaging.dal.bundle;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Writes objects into parcel in a versioned, field-tagged layout:
+ * <pre>
+ * version, (tag, value)*, END
+ * </pre>
+ * where tag is {@code fieldId << 3 | type}. Null values are not written at all.
+ * Readers skip fields they don't know, so fields can be added freely. Field ids must never be reused or change type.
+ * Nested objects must be written with this class as well so they can be skipped by readers.
+ *
+ * @see TaggedParcelReader
+ */
+public class TaggedParcelWriter {
+
+    static final int END = 0;
+
+    static final int TYPE_BITS = 3;
+    static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+    static final int TYPE_STRING = 1;
+    static final int TYPE_INT = 2;
+    static final int TYPE_LONG = 3;
+    static final int TYPE_DOUBLE = 4;
+    static final int TYPE_OBJECT = 5;
+    static final int TYPE_OBJECTS = 6;
+
+    private final Parcel parcel;
+    private final int flags;
+
+    public TaggedParcelWriter(@NonNull Parcel parcel, int flags, int version) {
+        this.parcel = parcel;
+        this.flags = flags;
+        parcel.writeInt(version);
+    }
+
+    public TaggedParcelWriter writeString(int field, @Nullable String value) {
+        if (value != null) {
+            writeTag(field, TYPE_STRING);
+            parcel.writeString(value);
+        }
+        return this;
+    }
+
+    public TaggedParcelWriter writeInt(int field, @Nullable Integer value) {
+        if (value != null) {
+            writeTag(field, TYPE_INT);
+            parcel.writeInt(value);
+        }
+        return this;
+    }
+
+    public TaggedParcelWriter writeBoolean(int field, boolean value) {
+        writeTag(field, TYPE_INT);
+        parcel.writeInt(value ? 1 : 0);
+        return this;
+    }
+
+    public TaggedParcelWriter writeLong(int field, @Nullable Long value) {
+        if (value != null) {
+            writeTag(field, TYPE_LONG);
+            parcel.writeLong(value);
+        }
+        return this;
+    }
+
+    public TaggedParcelWriter writeDouble(int field, @Nullable Double value) {
+        if (value != null) {
+            writeTag(field, TYPE_DOUBLE);
+            parcel.writeDouble(value);
+        }
+        return this;
+    }
+
+    public TaggedParcelWriter writeObject(int field, @Nullable Parcelable value) {
+        if (value != null) {
+            writeTag(field, TYPE_OBJECT);
+            value.writeToParcel(parcel, flags);
+        }
+        return this;
+    }
+
+    public TaggedParcelWriter writeObjects(int field, @Nullable Parcelable[] values) {
+        if (values != null) {
+            writeTag(field, TYPE_OBJECTS);
+            parcel.writeInt(values.length);
+            for (Parcelable value : values) {
+                value.writeToParcel(parcel, flags);
+            }
+        }
+        return this;
+    }
+
+    public TaggedParcelWriter writeObjects(int field, @Nullable List<? extends Parcelable> values) {
+        if (values != null) {
+            writeTag(field, TYPE_OBJECTS);
+            parcel.writeInt(values.size());
+            for (Parcelable value : values) {
+                value.writeToParcel(parcel, flags);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Marks the end of the object, must be called after all fields are written.
+     */
+    public void end() {
+        parcel.writeInt(END);
+    }
+
+    private void writeTag(int field, int type) {
+        parcel.writeInt(field << TYPE_BITS | type);
+    }
+}
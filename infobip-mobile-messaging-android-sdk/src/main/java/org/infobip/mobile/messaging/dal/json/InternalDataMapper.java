@@ -55,6 +55,83 @@ public class InternalDataMapper {
                 this.atts = createAttachments(contentUrl);
             }
         }
+
+        public String getTitle() {
+            return silent != null ? silent.title : null;
+        }
+
+        public String getBody() {
+            return silent != null ? silent.body : null;
+        }
+
+        public String getSound() {
+            return silent != null ? silent.sound : null;
+        }
+
+        public boolean isVibrate(boolean defaultVibrate) {
+            if (silent == null || silent.vibrate == null) {
+                return defaultVibrate;
+            }
+            return Boolean.valueOf(silent.vibrate.toString());
+        }
+
+        public String getCategory() {
+            return silent != null ? silent.category : null;
+        }
+
+        public String getContentUrl() {
+            if (atts == null || atts.length == 0 || atts[0] == null) {
+                return null;
+            }
+            return atts[0].url;
+        }
+
+        public long getSendDateTime() {
+            return sendDateTime;
+        }
+
+        public String getBulkId() {
+            return bulkId;
+        }
+
+        public String getInitialMessageId() {
+            return initialMessageId;
+        }
+
+        public Message.InAppStyle getInAppStyle() {
+            if (inAppStyle != null) {
+                return inAppStyle;
+            }
+            return Boolean.TRUE.equals(inApp) ? Message.InAppStyle.MODAL : null;
+        }
+
+        public long getInAppExpiryDateTime() {
+            return inAppExpiryDateTime;
+        }
+
+        public String getWebViewUrl() {
+            return webViewUrl;
+        }
+
+        public String getBrowserUrl() {
+            return browserUrl;
+        }
+
+        public String getMessageType() {
+            return messageType;
+        }
+
+        public String getDeeplink() {
+            return deeplink;
+        }
+
+        public String getInAppOpenTitle() {
+            return inAppOpenTitle;
+        }
+
+        public String getInAppDismissTitle() {
+            return inAppDismissTitle;
+        }
     }
 
     private static class Attachment {
@@ -90,8 +167,17 @@ public class InternalDataMapper {
      * @param internalDataJson json object with internal data
      */
     public static void updateMessageWithInternalData(@NonNull Message message, String internalDataJson) {
-        InternalData internalData = serializer.deserialize(internalDataJson, InternalData.class);
+        updateMessageWithInternalData(message, serializer.deserialize(internalDataJson, InternalData.class));
+    }
 
+    /**
+     * Updates message fields based on what is set in already parsed internal data
+     *
+     * @param message      message to update
+     * @param internalData parsed internal data
+     * @see #parseInternalData(String)
+     */
+    public static void updateMessageWithInternalData(@NonNull Message message, @Nullable InternalData internalData) {
         if (internalData == null || internalData.silent == null) {
             return;
         }
@@ -106,19 +192,36 @@ public class InternalDataMapper {
 
 
     /**
-     * Returns title from internal data
+     * Parses internal data json once, so that several fields can be read from the same object
+     * instead of parsing json again for each of them
      *
      * @param json internal data json
-     * @return title if present or null otherwise
+     * @return internal data if json is present and valid or null otherwise
      */
-    public static String getInternalDataTitle(String json) {
+    @Nullable
+    public static InternalData parseInternalData(String json) {
+        if (json == null) {
+            return null;
+        }
+
         try {
-            return serializer.deserialize(json, InternalData.class).silent.title;
+            return serializer.deserialize(json, InternalData.class);
         } catch (Exception e) {
             return null;
         }
     }
 
+    /**
+     * Returns title from internal data
+     *
+     * @param json internal data json
+     * @return title if present or null otherwise
+     */
+    public static String getInternalDataTitle(String json) {
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getTitle() : null;
+    }
+
     /**
      * Returns body from internal data
      *
@@ -126,11 +229,8 @@ public class InternalDataMapper {
      * @return body if present or null otherwise
      */
     public static String getInternalDataBody(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).silent.body;
-        } catch (Exception e) {
-            return null;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getBody() : null;
     }
 
     /**
@@ -140,11 +240,8 @@ public class InternalDataMapper {
      * @return sound if present or null otherwise
      */
     public static String getInternalDataSound(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).silent.sound;
-        } catch (Exception e) {
-            return null;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getSound() : null;
     }
 
     /**
@@ -155,12 +252,8 @@ public class InternalDataMapper {
      * @return vibrate if present or defaultVibrate otherwise
      */
     public static boolean getInternalDataVibrate(String json, boolean defaultVibrate) {
-        try {
-            Object vibrate = serializer.deserialize(json, InternalData.class).silent.vibrate;
-            return Boolean.valueOf(vibrate.toString());
-        } catch (Exception e) {
-            return defaultVibrate;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.isVibrate(defaultVibrate) : defaultVibrate;
     }
 
     /**
@@ -170,11 +263,8 @@ public class InternalDataMapper {
      * @return category if present or null otherwise
      */
     public static String getInternalDataCategory(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).silent.category;
-        } catch (Exception e) {
-            return null;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getCategory() : null;
     }
 
     /**
@@ -184,11 +274,8 @@ public class InternalDataMapper {
      * @return content url if present or null otherwise
      */
     public static String getInternalDataContentUrl(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).atts[0].url;
-        } catch (Exception e) {
-            return null;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getContentUrl() : null;
     }
 
     /**
@@ -198,11 +285,8 @@ public class InternalDataMapper {
      * @return timestamp if present or 0 otherwise
      */
     public static long getInternalDataSendDateTime(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).sendDateTime;
-        } catch (Exception e) {
-            return 0;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getSendDateTime() : 0;
     }
 
     /**
@@ -212,11 +296,8 @@ public class InternalDataMapper {
      * @return timestamp if present or 0 otherwise
      */
     public static long getInternalDataInAppExpiryDateTime(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).inAppExpiryDateTime;
-        } catch (Exception e) {
-            return 0;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getInAppExpiryDateTime() : 0;
     }
 
     /**
@@ -226,11 +307,8 @@ public class InternalDataMapper {
      * @return web view URL if present or null otherwise
      */
     public static String getInternalDataWebViewUrl(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).webViewUrl;
-        } catch (Exception e) {
-            return null;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getWebViewUrl() : null;
     }
 
     /**
@@ -240,11 +318,8 @@ public class InternalDataMapper {
      * @return browser URL if present or null otherwise
      */
     public static String getInternalDataBrowserUrl(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).browserUrl;
-        } catch (Exception e) {
-            return null;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getBrowserUrl() : null;
     }
 
     /**
@@ -254,11 +329,8 @@ public class InternalDataMapper {
      * @return message type if present or null otherwise
      */
     public static String getInternalDataMessageType(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).messageType;
-        } catch (Exception e) {
-            return null;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getMessageType() : null;
     }
 
     /**
@@ -268,11 +340,8 @@ public class InternalDataMapper {
      * @return bulkId if present or null otherwise
      */
     public static String getInternalDataBulkId(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).bulkId;
-        } catch (Exception e) {
-            return null;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getBulkId() : null;
     }
 
     /**
@@ -282,28 +351,19 @@ public class InternalDataMapper {
      * @return initialMessageId if present or null otherwise
      */
     public static String getInternalDataInitialMessageId(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).initialMessageId;
-        } catch (Exception e) {
-            return null;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getInitialMessageId() : null;
     }
 
+    /**
+     * Returns in-app style from internal data
+     *
+     * @param json internal data json
+     * @return in-app style if present or null otherwise
+     */
     public static Message.InAppStyle getInternalDataInAppStyle(String json) {
-        try {
-            InternalData internalData = serializer.deserialize(json, InternalData.class);
-            if (internalData.inAppStyle != null) {
-                return internalData.inAppStyle;
-            }
-
-            if (internalData.inApp) {
-                return Message.InAppStyle.MODAL;
-            }
-
-            return null;
-        } catch (Exception e) {
-            return null;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getInAppStyle() : null;
     }
 
     /**
@@ -313,11 +373,8 @@ public class InternalDataMapper {
      * @return Deeplink URI if present or null otherwise
      */
     public static String getInternalDataDeeplinkUri(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).deeplink;
-        } catch (Exception e) {
-            return null;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getDeeplink() : null;
     }
 
     /**
@@ -327,11 +384,8 @@ public class InternalDataMapper {
      * @return Title for in-app open button if present or null otherwise
      */
     public static String getInternalDataInAppOpenTitle(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).inAppOpenTitle;
-        } catch (Exception e) {
-            return null;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getInAppOpenTitle() : null;
     }
 
     /**
@@ -341,11 +395,8 @@ public class InternalDataMapper {
      * @return Title for in-app dismiss button if present or null otherwise
      */
     public static String getInternalDataInAppDismissTitle(String json) {
-        try {
-            return serializer.deserialize(json, InternalData.class).inAppDismissTitle;
-        } catch (Exception e) {
-            return null;
-        }
+        InternalData internalData = parseInternalData(json);
+        return internalData != null ? internalData.getInAppDismissTitle() : null;
     }
 
     @SuppressWarnings("unchecked")
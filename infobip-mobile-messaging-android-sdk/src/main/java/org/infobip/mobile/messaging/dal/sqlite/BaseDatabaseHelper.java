@@ -1,17 +1,21 @@
 package org.infobip.mobile.messaging.dal.sqlite;
 
+import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.DatabaseUtils;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import androidx.annotation.NonNull;
 import android.util.Log;
 
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +29,12 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
 
     private static final Map<Class<? extends DatabaseContract.DatabaseObject>, DatabaseContract.DatabaseObject> databaseObjectsCache = new HashMap<>();
 
+    // SQLite limits number of bound arguments per statement (999 before 3.32)
+    private static final int MAX_ARGS_PER_STATEMENT = 500;
+
+    // primary keys are moved through these while being updated, they are never used as real keys
+    private static final String TEMPORARY_PRIMARY_KEY_PREFIX = "org.infobip.mobile.messaging.TEMPORARY_PRIMARY_KEY.";
+
     protected final Context context;
     private SQLiteDatabase sqLiteDatabase;
 
@@ -48,6 +58,25 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
         return objects;
     }
 
+    @Override
+    public <T extends DatabaseContract.DatabaseObject> List<T> find(Class<T> cls, String sqlWhereCondition, String[] args, String sqlOrderBy, int offset, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM ").append(getTableName(cls));
+        if (sqlWhereCondition != null) {
+            sql.append(" WHERE ").append(sqlWhereCondition);
+        }
+        if (sqlOrderBy != null) {
+            sql.append(" ORDER BY ").append(sqlOrderBy);
+        }
+        if (limit > 0 || offset > 0) {
+            sql.append(" LIMIT ").append(limit > 0 ? limit : -1).append(" OFFSET ").append(Math.max(offset, 0));
+        }
+
+        Cursor cursor = db().rawQuery(sql.toString(), args != null ? args : new String[0]);
+        List<T> objects = loadFromCursor(cursor, cls);
+        cursor.close();
+        return objects;
+    }
+
     @Override
     public <T extends DatabaseContract.DatabaseObject> T find(Class<T> cls, @NonNull String primaryKey) {
         Cursor cursor = db().rawQuery("SELECT * FROM " + getTableName(cls) + " WHERE " + getPrimaryKeyColumn(cls) + " = ?", new String[]{primaryKey});
@@ -56,6 +85,20 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
         return !objects.isEmpty() ? objects.get(0) : null;
     }
 
+    @Override
+    public <T extends DatabaseContract.DatabaseObject> List<T> find(Class<T> cls, Collection<String> primaryKeys) {
+        List<T> objects = new ArrayList<>(primaryKeys.size());
+        List<String> keys = new ArrayList<>(primaryKeys);
+        String sql = "SELECT * FROM " + getTableName(cls) + " WHERE " + getPrimaryKeyColumn(cls) + " IN (";
+        for (int from = 0; from < keys.size(); from += MAX_ARGS_PER_STATEMENT) {
+            List<String> chunk = keys.subList(from, Math.min(keys.size(), from + MAX_ARGS_PER_STATEMENT));
+            Cursor cursor = db().rawQuery(sql + placeholders(chunk.size()) + ")", chunk.toArray(new String[0]));
+            objects.addAll(loadFromCursor(cursor, cls));
+            cursor.close();
+        }
+        return objects;
+    }
+
     @Override
     public <T extends DatabaseContract.DatabaseObject> long countAll(Class<T> cls) {
         return DatabaseUtils.queryNumEntries(db(), getTableName(cls));
@@ -71,6 +114,51 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
         db().insertWithOnConflict(object.getTableName(), null, object.getContentValues(), SQLiteDatabase.CONFLICT_REPLACE);
     }
 
+    @Override
+    public void saveAll(Collection<? extends DatabaseContract.DatabaseObject> objects) {
+        if (objects.isEmpty()) {
+            return;
+        }
+
+        // statements are compiled once per table and set of columns and reused for all rows
+        Map<String, SQLiteStatement> statements = new HashMap<>();
+        SQLiteStatement statement = null;
+        String statementTable = null;
+        String[] statementColumns = null;
+        SQLiteDatabase db = db();
+        db.beginTransaction();
+        try {
+            for (DatabaseContract.DatabaseObject object : objects) {
+                ContentValues contentValues = object.getContentValues();
+                String[] columns = contentValues.keySet().toArray(new String[contentValues.size()]);
+                Arrays.sort(columns);
+
+                String table = object.getTableName();
+                if (statement == null || !table.equals(statementTable) || !Arrays.equals(columns, statementColumns)) {
+                    String sql = insertOrReplaceSql(table, columns);
+                    statement = statements.get(sql);
+                    if (statement == null) {
+                        statement = db.compileStatement(sql);
+                        statements.put(sql, statement);
+                    }
+                    statementTable = table;
+                    statementColumns = columns;
+                }
+
+                for (int i = 0; i < columns.length; i++) {
+                    DatabaseUtils.bindObjectToProgram(statement, i + 1, contentValues.get(columns[i]));
+                }
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            for (SQLiteStatement compiled : statements.values()) {
+                compiled.close();
+            }
+        }
+    }
+
     @Override
     public void insert(DatabaseContract.DatabaseObject object) throws PrimaryKeyViolationException {
         try {
@@ -96,6 +184,46 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
                 " IN (" + new String(new char[primaryKeys.length - 1]).replace("\0", "?,") + "?)", primaryKeys);
     }
 
+    @Override
+    public <T extends DatabaseContract.DatabaseObject> void updatePrimaryKeys(Class<T> cls, Map<String, String> primaryKeys) {
+        if (primaryKeys.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<String, String>> updates = new ArrayList<>(primaryKeys.size());
+        for (Map.Entry<String, String> entry : primaryKeys.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null && !entry.getKey().equals(entry.getValue())) {
+                updates.add(entry);
+            }
+        }
+
+        // keys are first moved to temporary ones, so that chained and swapped keys do not overwrite each other
+        String primaryKeyColumn = getPrimaryKeyColumn(cls);
+        SQLiteDatabase db = db();
+        SQLiteStatement toTemporary = db.compileStatement("UPDATE " + getTableName(cls) +
+                " SET " + primaryKeyColumn + " = ? WHERE " + primaryKeyColumn + " = ?");
+        SQLiteStatement fromTemporary = db.compileStatement("UPDATE OR REPLACE " + getTableName(cls) +
+                " SET " + primaryKeyColumn + " = ? WHERE " + primaryKeyColumn + " = ?");
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < updates.size(); i++) {
+                toTemporary.bindString(1, TEMPORARY_PRIMARY_KEY_PREFIX + i);
+                toTemporary.bindString(2, updates.get(i).getKey());
+                toTemporary.executeUpdateDelete();
+            }
+            for (int i = 0; i < updates.size(); i++) {
+                fromTemporary.bindString(1, updates.get(i).getValue());
+                fromTemporary.bindString(2, TEMPORARY_PRIMARY_KEY_PREFIX + i);
+                fromTemporary.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            toTemporary.close();
+            fromTemporary.close();
+            db.endTransaction();
+        }
+    }
+
     private DatabaseContract.DatabaseObject emptyDatabaseObject(Class<? extends DatabaseContract.DatabaseObject> cls) {
         DatabaseContract.DatabaseObject emptyInstance = databaseObjectsCache.get(cls);
         if (emptyInstance != null) {
@@ -113,6 +241,7 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
     }
 
     @NonNull
+    @SuppressWarnings("unchecked")
     private <T extends DatabaseContract.DatabaseObject> List<T> loadFromCursor(Cursor cursor, Class<T> cls) {
         if (cursor.getCount() == 0) {
             cursor.close();
@@ -120,11 +249,20 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
         }
 
         List<T> objects = new ArrayList<>();
+        Object columnIndices = null;
         if (cursor.moveToFirst()) {
             do {
                 try {
                     T object = cls.newInstance();
-                    object.fillFromCursor(cursor);
+                    if (object instanceof DatabaseContract.ColumnIndexedObject) {
+                        DatabaseContract.ColumnIndexedObject<Object> indexedObject = (DatabaseContract.ColumnIndexedObject<Object>) object;
+                        if (columnIndices == null) {
+                            columnIndices = indexedObject.resolveColumnIndices(cursor);
+                        }
+                        indexedObject.fillFromCursor(cursor, columnIndices);
+                    } else {
+                        object.fillFromCursor(cursor);
+                    }
                     objects.add(object);
                 } catch (Exception e) {
                     MobileMessagingLogger.e(Log.getStackTraceString(e));
@@ -134,6 +272,27 @@ public abstract class BaseDatabaseHelper extends SQLiteOpenHelper implements Dat
         return objects;
     }
 
+    private static String insertOrReplaceSql(String table, String[] columns) {
+        StringBuilder sql = new StringBuilder(64 + columns.length * 24);
+        sql.append("INSERT OR REPLACE INTO ").append(table).append(" (");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i > 0 ? "," : "").append(columns[i]);
+        }
+        sql.append(") VALUES (");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i > 0 ? ",?" : "?");
+        }
+        return sql.append(')').toString();
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 2);
+        for (int i = 0; i < count; i++) {
+            sb.append(i > 0 ? ",?" : "?");
+        }
+        return sb.toString();
+    }
+
     private String getTableName(Class<? extends DatabaseContract.DatabaseObject> cls) {
         DatabaseContract.DatabaseObject o = emptyDatabaseObject(cls);
         return o != null ? o.getTableName() : null;
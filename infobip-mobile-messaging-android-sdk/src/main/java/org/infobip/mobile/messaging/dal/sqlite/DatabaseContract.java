@@ -20,6 +20,21 @@ public interface DatabaseContract {
          * Table for geo messages
          */
         String  GEO_MESSAGES = "geo_messages";
+
+        /**
+         * Table for queued strings such as unreported message ids
+         */
+        String QUEUED_STRINGS = "queued_strings";
+
+        /**
+         * Table for Mobile API operations which are waiting to be retried
+         */
+        String RETRY_OPERATIONS = "retry_operations";
+
+        /**
+         * Table which indexes geo messages by their geofence areas
+         */
+        String GEO_AREAS = "geo_areas";
     }
 
     interface MessageColumns {
@@ -132,6 +147,78 @@ public interface DatabaseContract {
         String IN_APP_STYLE = "in_app_style";
     }
 
+    interface QueueColumns {
+        /**
+         * Auto-incremented row id, defines order in which strings were queued
+         *  [INTEGER]
+         */
+        String ID = "_id";
+
+        /**
+         * Key of a queue which string belongs to, typically a preference key
+         *  [TEXT]
+         */
+        String QUEUE_KEY = "queue_key";
+
+        /**
+         * Queued string, unique within queue
+         *  [TEXT]
+         */
+        String VALUE = "value";
+    }
+
+    interface RetryColumns {
+        /**
+         * Name of the operation, unique so that the same operation is queued only once
+         *  [TEXT]
+         */
+        String OPERATION = "operation";
+
+        /**
+         * Operations with higher priority are dispatched first
+         *  [INTEGER]
+         */
+        String PRIORITY = "priority";
+
+        /**
+         * Number of failed attempts so far
+         *  [INTEGER]
+         */
+        String ATTEMPTS = "attempts";
+
+        /**
+         * Time in milliseconds when operation should be retried
+         *  [INTEGER]
+         */
+        String NEXT_RUN_AT = "next_run_at";
+    }
+
+    interface GeoAreaColumns {
+        /**
+         * Identifier of geofence area in lower case, as area ids are matched case-insensitively
+         *  [TEXT]
+         */
+        String AREA_ID = "area_id";
+
+        /**
+         * Identifier of geo message which contains the area
+         *  [TEXT]
+         */
+        String MESSAGE_ID = "message_id";
+
+        /**
+         * Identifier of campaign of the geo message
+         *  [TEXT]
+         */
+        String CAMPAIGN_ID = "campaign_id";
+
+        /**
+         * Expiry time of the campaign in milliseconds, 0 if campaign does not expire
+         *  [INTEGER]
+         */
+        String EXPIRY_TIME = "expiry_time";
+    }
+
     interface DatabaseObject {
 
         /**
@@ -158,4 +245,25 @@ public interface DatabaseContract {
          */
         ContentValues getContentValues();
     }
+
+    /**
+     * Database object which reads rows using column indices resolved once for the whole cursor
+     * @param <C> type which holds column indices
+     */
+    interface ColumnIndexedObject<C> extends DatabaseObject {
+
+        /**
+         * Resolves indices of columns of the cursor
+         * @param cursor cursor to load rows from
+         * @return column indices to use for all rows of the cursor
+         */
+        C resolveColumnIndices(Cursor cursor);
+
+        /**
+         * Fills object from database row
+         * @param cursor for current database row
+         * @param columnIndices indices resolved for this cursor
+         */
+        void fillFromCursor(Cursor cursor, C columnIndices) throws Exception;
+    }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package org.infobip.mobile.messaging.dal.sqlite;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author sslavin
@@ -16,6 +18,19 @@ public interface DatabaseHelper {
      */
     <T extends DatabaseContract.DatabaseObject> List<T> findAll(Class<T> cls);
 
+    /**
+     * Finds instances of specified type in database
+     * @param cls object class
+     * @param sqlWhereCondition condition with '?' placeholders, null to find all objects
+     * @param args values of placeholders in condition
+     * @param sqlOrderBy order by clause, null for unspecified order
+     * @param offset number of objects to skip
+     * @param limit maximum number of objects to return, 0 or less for no limit
+     * @param <T> object type
+     * @return list of found objects
+     */
+    <T extends DatabaseContract.DatabaseObject> List<T> find(Class<T> cls, String sqlWhereCondition, String[] args, String sqlOrderBy, int offset, int limit);
+
     /**
      * Finds instance of object by primary key
      * @param cls object class
@@ -25,6 +40,15 @@ public interface DatabaseHelper {
      */
     <T extends DatabaseContract.DatabaseObject> T find(Class<T> cls, String primaryKey);
 
+    /**
+     * Finds instances of objects by primary keys
+     * @param cls object class
+     * @param primaryKeys object primary keys
+     * @param <T> object type
+     * @return list of found objects, in unspecified order
+     */
+    <T extends DatabaseContract.DatabaseObject> List<T> find(Class<T> cls, Collection<String> primaryKeys);
+
     /**
      * Counts all instances of specified type in database
      * @param cls object class
@@ -48,6 +72,12 @@ public interface DatabaseHelper {
      */
     void save(DatabaseContract.DatabaseObject object);
 
+    /**
+     * Saves objects to database in a single transaction, replaces on conflict
+     * @param objects objects to save
+     */
+    void saveAll(Collection<? extends DatabaseContract.DatabaseObject> objects);
+
     /**
      * Inserts object to database, fails on conflict
      * @param object object to insert
@@ -73,4 +103,12 @@ public interface DatabaseHelper {
      * @param primaryKeys object primary keys
      */
     <T extends DatabaseContract.DatabaseObject> void delete(Class<T> cls, String[] primaryKeys);
+
+    /**
+     * Changes primary keys of objects in a single transaction, replaces objects which already have the new keys.
+     * Keys may be chained or swapped, all objects are matched by their keys before the update.
+     * @param cls object class
+     * @param primaryKeys map of old primary keys to new ones
+     */
+    <T extends DatabaseContract.DatabaseObject> void updatePrimaryKeys(Class<T> cls, Map<String, String> primaryKeys);
 }
\ No newline at end of file
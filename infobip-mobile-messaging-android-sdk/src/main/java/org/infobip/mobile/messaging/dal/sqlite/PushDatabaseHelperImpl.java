@@ -7,7 +7,10 @@ import android.database.sqlite.SQLiteDatabase;
 import android.util.Log;
 
 import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.GeoAreaColumns;
 import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.MessageColumns;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.QueueColumns;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.RetryColumns;
 import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.Tables;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 
@@ -28,7 +31,11 @@ public class PushDatabaseHelperImpl extends BaseDatabaseHelper {
     static final int VER_2017_MAY_15 = 3; // Added "content_url" column to messages/geo_messages table
     static final int VER_2017_AUG_25 = 4; // Added "sendDateTime" to internal data (must be present for all messages)
     static final int VER_2019_JAN_21 = 5; // Added "inAppStyle" to internal data
-    private static final int VER_CURRENT = VER_2019_JAN_21;
+    static final int VER_2026_OCT_17 = 6; // Added indexes on "received_timestamp" and "seen_timestamp" to messages/geo_messages tables
+    static final int VER_2026_OCT_18 = 7; // Added "queued_strings" table for message ids queued in shared preferences before
+    static final int VER_2026_OCT_19 = 8; // Added "retry_operations" table for durable retries of Mobile API operations
+    static final int VER_2026_OCT_20 = 9; // Added "geo_areas" table which indexes geo messages by area
+    private static final int VER_CURRENT = VER_2026_OCT_20;
 
     @SuppressWarnings("WeakerAccess")
     static final String DATABASE_NAME = "mm_infobip_database.db";
@@ -69,6 +76,27 @@ public class PushDatabaseHelperImpl extends BaseDatabaseHelper {
             MessageColumns.STATUS + " TEXT," +
             MessageColumns.STATUS_MESSAGE + " TEXT)";
 
+    private static final String SQL_CREATE_QUEUED_STRINGS_TABLE = "CREATE TABLE " + Tables.QUEUED_STRINGS + " (" +
+            QueueColumns.ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            QueueColumns.QUEUE_KEY + " TEXT NOT NULL, " +
+            QueueColumns.VALUE + " TEXT NOT NULL, " +
+            "UNIQUE (" + QueueColumns.QUEUE_KEY + ", " + QueueColumns.VALUE + ") ON CONFLICT IGNORE)";
+
+    private static final String SQL_CREATE_RETRY_OPERATIONS_TABLE = "CREATE TABLE " + Tables.RETRY_OPERATIONS + " (" +
+            RetryColumns.OPERATION + " TEXT PRIMARY KEY NOT NULL, " +
+            RetryColumns.PRIORITY + " INTEGER NOT NULL DEFAULT 0, " +
+            RetryColumns.ATTEMPTS + " INTEGER NOT NULL DEFAULT 0, " +
+            RetryColumns.NEXT_RUN_AT + " INTEGER NOT NULL DEFAULT 0)";
+
+    private static final String SQL_CREATE_GEO_AREAS_TABLE = "CREATE TABLE " + Tables.GEO_AREAS + " (" +
+            GeoAreaColumns.AREA_ID + " TEXT NOT NULL, " +
+            GeoAreaColumns.MESSAGE_ID + " TEXT NOT NULL, " +
+            GeoAreaColumns.CAMPAIGN_ID + " TEXT, " +
+            GeoAreaColumns.EXPIRY_TIME + " INTEGER NOT NULL DEFAULT 0, " +
+            "PRIMARY KEY (" + GeoAreaColumns.AREA_ID + ", " + GeoAreaColumns.MESSAGE_ID + "))";
+
+    private static final String SQL_CREATE_GEO_AREAS_MESSAGE_ID_INDEX = createIndexSql(Tables.GEO_AREAS, GeoAreaColumns.MESSAGE_ID);
+
     private static final String SQL_ALTER_TABLE_MESSAGES_WITH_CONTENT_URL = "ALTER TABLE "
             + Tables.MESSAGES + " ADD COLUMN " + MessageColumns.CONTENT_URL + " TEXT;";
 
@@ -81,6 +109,13 @@ public class PushDatabaseHelperImpl extends BaseDatabaseHelper {
     private static final String SQL_ALTER_TABLE_GEO_MESSAGES_WITH_IN_APP_STYLE  = "ALTER TABLE "
             + Tables.GEO_MESSAGES + " ADD COLUMN " + MessageColumns.IN_APP_STYLE + " TEXT;";
 
+    private static final String[] SQL_CREATE_TIMESTAMP_INDEXES = {
+            createIndexSql(Tables.MESSAGES, MessageColumns.RECEIVED_TIMESTAMP),
+            createIndexSql(Tables.MESSAGES, MessageColumns.SEEN_TIMESTAMP, MessageColumns.RECEIVED_TIMESTAMP),
+            createIndexSql(Tables.GEO_MESSAGES, MessageColumns.RECEIVED_TIMESTAMP),
+            createIndexSql(Tables.GEO_MESSAGES, MessageColumns.SEEN_TIMESTAMP, MessageColumns.RECEIVED_TIMESTAMP)
+    };
+
     public PushDatabaseHelperImpl(Context context) {
         super(context, DATABASE_NAME, VER_CURRENT);
     }
@@ -94,9 +129,14 @@ public class PushDatabaseHelperImpl extends BaseDatabaseHelper {
         db.execSQL(SQL_ALTER_TABLE_GEO_MESSAGES_WITH_CONTENT_URL);
         db.execSQL(SQL_ALTER_TABLE_MESSAGES_WITH_IN_APP_STYLE);
         db.execSQL(SQL_ALTER_TABLE_GEO_MESSAGES_WITH_IN_APP_STYLE);
+        createTimestampIndexes(db);
+        db.execSQL(SQL_CREATE_QUEUED_STRINGS_TABLE);
+        db.execSQL(SQL_CREATE_RETRY_OPERATIONS_TABLE);
+        createGeoAreasTable(db);
         db.setTransactionSuccessful();
         db.endTransaction();
         SharedPreferencesMigrator.migrateMessages(context, db);
+        SharedPreferencesMigrator.migrateQueues(context, db);
     }
 
     @Override
@@ -124,11 +164,58 @@ public class PushDatabaseHelperImpl extends BaseDatabaseHelper {
             version = VER_2019_JAN_21;
         }
 
+        if (version <= VER_2019_JAN_21) {
+            createTimestampIndexes(db);
+            version = VER_2026_OCT_17;
+        }
+
+        if (version <= VER_2026_OCT_17) {
+            db.execSQL(SQL_CREATE_QUEUED_STRINGS_TABLE);
+            SharedPreferencesMigrator.migrateQueues(context, db);
+            version = VER_2026_OCT_18;
+        }
+
+        if (version <= VER_2026_OCT_18) {
+            db.execSQL(SQL_CREATE_RETRY_OPERATIONS_TABLE);
+            version = VER_2026_OCT_19;
+        }
+
+        if (version <= VER_2026_OCT_19) {
+            createGeoAreasTable(db);
+            version = VER_2026_OCT_20;
+        }
+
         if (version != VER_CURRENT) {
             MobileMessagingLogger.e("SQLite DB version is not what expected: " + VER_CURRENT);
         }
     }
 
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        // called after onCreate/onUpgrade transaction is committed, migrated data can be safely removed from preferences
+        SharedPreferencesMigrator.removeMigratedQueues(context);
+    }
+
+    private static String createIndexSql(String table, String... columns) {
+        StringBuilder sb = new StringBuilder();
+        for (String column : columns) {
+            sb.append(sb.length() > 0 ? ", " : "").append(column);
+        }
+        return "CREATE INDEX IF NOT EXISTS " + table + "_" + columns[0] + "_idx ON " + table + " (" + sb + ")";
+    }
+
+    private void createGeoAreasTable(SQLiteDatabase db) {
+        db.execSQL(SQL_CREATE_GEO_AREAS_TABLE);
+        db.execSQL(SQL_CREATE_GEO_AREAS_MESSAGE_ID_INDEX);
+    }
+
+    private void createTimestampIndexes(SQLiteDatabase db) {
+        for (String sql : SQL_CREATE_TIMESTAMP_INDEXES) {
+            db.execSQL(sql);
+        }
+    }
+
     private void setSendDateTimeToReceivedTimeIfAbsent(SQLiteDatabase db) {
         // Read existing data from database
         class Message {
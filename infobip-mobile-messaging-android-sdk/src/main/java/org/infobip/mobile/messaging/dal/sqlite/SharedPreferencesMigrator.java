@@ -1,12 +1,16 @@
 package org.infobip.mobile.messaging.dal.sqlite;
 
 import android.content.Context;
+import android.content.SharedPreferences;
 import android.database.sqlite.SQLiteDatabase;
 
 import org.infobip.mobile.messaging.Message;
+import org.infobip.mobile.messaging.MobileMessagingProperty;
 import org.infobip.mobile.messaging.storage.SharedPreferencesMessageStore;
+import org.infobip.mobile.messaging.util.PreferenceHelper;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author sslavin
@@ -26,4 +30,42 @@ class SharedPreferencesMigrator {
             db.insert(SqliteMessage.getTable(), null, SqliteMessage.save(message));
         }
     }
+
+    /**
+     * Copies string sets of queued properties to the queue table, shared preferences are not modified
+     * until {@link #removeMigratedQueues(Context)} is called after the database transaction is committed.
+     */
+    static void migrateQueues(Context context, SQLiteDatabase db) {
+        SharedPreferences sharedPreferences = PreferenceHelper.getDefaultMMSharedPreferences(context);
+        for (MobileMessagingProperty property : SqliteStringQueue.PROPERTIES) {
+            Set<String> strings = sharedPreferences.getStringSet(property.getKey(), null);
+            if (strings == null) {
+                continue;
+            }
+
+            SqliteStringQueue.insert(db, property.getKey(), strings.toArray(new String[0]));
+        }
+    }
+
+    /**
+     * Removes string sets of queued properties which are already in the queue table from shared preferences.
+     */
+    static void removeMigratedQueues(Context context) {
+        SharedPreferences sharedPreferences = PreferenceHelper.getDefaultMMSharedPreferences(context);
+        SharedPreferences.Editor editor = null;
+        for (MobileMessagingProperty property : SqliteStringQueue.PROPERTIES) {
+            if (!sharedPreferences.contains(property.getKey())) {
+                continue;
+            }
+
+            if (editor == null) {
+                editor = sharedPreferences.edit();
+            }
+            editor.remove(property.getKey());
+        }
+
+        if (editor != null) {
+            editor.apply();
+        }
+    }
 }
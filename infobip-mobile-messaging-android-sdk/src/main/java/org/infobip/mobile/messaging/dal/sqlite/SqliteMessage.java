@@ -14,7 +14,7 @@ import org.json.JSONObject;
  * @since 09/01/2017.
  */
 
-public class SqliteMessage extends Message implements DatabaseContract.DatabaseObject {
+public class SqliteMessage extends Message implements DatabaseContract.ColumnIndexedObject<SqliteMessage.ColumnIndices> {
 
     public SqliteMessage() {
         super(null, null, null, null, true, null, false, null, null, 0, 0, 0, null, null, null,
@@ -68,39 +68,52 @@ public class SqliteMessage extends Message implements DatabaseContract.DatabaseO
 
     @Override
     public void fillFromCursor(Cursor cursor) throws Exception {
-        setMessageId(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.MESSAGE_ID)));
-        setTitle(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.TITLE)));
-        setBody(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.BODY)));
-        setSound(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.SOUND)));
-        setVibrate(cursor.getInt(cursor.getColumnIndexOrThrow(MessageColumns.VIBRATE)) != 0);
-        setIcon(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.ICON)));
-        setSilent(cursor.getShort(cursor.getColumnIndexOrThrow(MessageColumns.SILENT)) != 0);
-        setCategory(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.CATEGORY)));
-        setFrom(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.FROM)));
-        setReceivedTimestamp(cursor.getLong(cursor.getColumnIndexOrThrow(MessageColumns.RECEIVED_TIMESTAMP)));
-        setSeenTimestamp(cursor.getLong(cursor.getColumnIndexOrThrow(MessageColumns.SEEN_TIMESTAMP)));
-        setContentUrl(cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.CONTENT_URL)));
-
-        String dataJson = cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.INTERNAL_DATA));
+        fillFromCursor(cursor, resolveColumnIndices(cursor));
+    }
+
+    @Override
+    public ColumnIndices resolveColumnIndices(Cursor cursor) {
+        return new ColumnIndices(cursor);
+    }
+
+    @Override
+    public void fillFromCursor(Cursor cursor, ColumnIndices columns) throws Exception {
+        setMessageId(cursor.getString(columns.messageId));
+        setTitle(cursor.getString(columns.title));
+        setBody(cursor.getString(columns.body));
+        setSound(cursor.getString(columns.sound));
+        setVibrate(cursor.getInt(columns.vibrate) != 0);
+        setIcon(cursor.getString(columns.icon));
+        setSilent(cursor.getShort(columns.silent) != 0);
+        setCategory(cursor.getString(columns.category));
+        setFrom(cursor.getString(columns.from));
+        setReceivedTimestamp(cursor.getLong(columns.receivedTimestamp));
+        setSeenTimestamp(cursor.getLong(columns.seenTimestamp));
+        setContentUrl(cursor.getString(columns.contentUrl));
+
+        String dataJson = cursor.getString(columns.internalData);
         setInternalData(dataJson);
-        setSentTimestamp(InternalDataMapper.getInternalDataSendDateTime(dataJson));
-        setInAppExpiryTimestamp(InternalDataMapper.getInternalDataInAppExpiryDateTime(dataJson));
-        setWebViewUrl(InternalDataMapper.getInternalDataWebViewUrl(dataJson));
-        setBrowserUrl(InternalDataMapper.getInternalDataBrowserUrl(dataJson));
-        setDeeplink(InternalDataMapper.getInternalDataDeeplinkUri(dataJson));
-        setMessageType(InternalDataMapper.getInternalDataMessageType(dataJson));
-        setInAppOpenTitle(InternalDataMapper.getInternalDataInAppOpenTitle(dataJson));
-        setInAppDismissTitle(InternalDataMapper.getInternalDataInAppDismissTitle(dataJson));
-
-        dataJson = cursor.getString(cursor.getColumnIndexOrThrow(MessageColumns.CUSTOM_PAYLOAD));
+        InternalDataMapper.InternalData internalData = InternalDataMapper.parseInternalData(dataJson);
+        if (internalData != null) {
+            setSentTimestamp(internalData.getSendDateTime());
+            setInAppExpiryTimestamp(internalData.getInAppExpiryDateTime());
+            setWebViewUrl(internalData.getWebViewUrl());
+            setBrowserUrl(internalData.getBrowserUrl());
+            setDeeplink(internalData.getDeeplink());
+            setMessageType(internalData.getMessageType());
+            setInAppOpenTitle(internalData.getInAppOpenTitle());
+            setInAppDismissTitle(internalData.getInAppDismissTitle());
+        }
+
+        dataJson = cursor.getString(columns.customPayload);
         setCustomPayload(dataJson == null ? null : new JSONObject(dataJson));
 
-        setDestination(cursor.getString(cursor.getColumnIndex(MessageColumns.DESTINATION)));
-        String statusName = cursor.getString(cursor.getColumnIndex(MessageColumns.STATUS));
+        setDestination(cursor.getString(columns.destination));
+        String statusName = cursor.getString(columns.status);
         setStatus(statusName != null ? Status.valueOf(statusName) : null);
-        setStatusMessage(cursor.getString(cursor.getColumnIndex(MessageColumns.STATUS_MESSAGE)));
+        setStatusMessage(cursor.getString(columns.statusMessage));
         try {
-            String inAppStyle = cursor.getString(cursor.getColumnIndex(MessageColumns.IN_APP_STYLE));
+            String inAppStyle = cursor.getString(columns.inAppStyle);
             setInAppStyle(InAppStyle.valueOf(inAppStyle));
         } catch (Exception ignored) {
 
@@ -140,4 +153,50 @@ public class SqliteMessage extends Message implements DatabaseContract.DatabaseO
     public String getPrimaryKeyColumnName() {
         return MessageColumns.MESSAGE_ID;
     }
+
+    /**
+     * Column indices of message table, resolved once per cursor and reused for all of its rows.
+     */
+    public static class ColumnIndices {
+
+        private final int messageId;
+        private final int title;
+        private final int body;
+        private final int sound;
+        private final int vibrate;
+        private final int icon;
+        private final int silent;
+        private final int category;
+        private final int from;
+        private final int receivedTimestamp;
+        private final int seenTimestamp;
+        private final int contentUrl;
+        private final int internalData;
+        private final int customPayload;
+        private final int destination;
+        private final int status;
+        private final int statusMessage;
+        private final int inAppStyle;
+
+        private ColumnIndices(Cursor cursor) {
+            this.messageId = cursor.getColumnIndexOrThrow(MessageColumns.MESSAGE_ID);
+            this.title = cursor.getColumnIndexOrThrow(MessageColumns.TITLE);
+            this.body = cursor.getColumnIndexOrThrow(MessageColumns.BODY);
+            this.sound = cursor.getColumnIndexOrThrow(MessageColumns.SOUND);
+            this.vibrate = cursor.getColumnIndexOrThrow(MessageColumns.VIBRATE);
+            this.icon = cursor.getColumnIndexOrThrow(MessageColumns.ICON);
+            this.silent = cursor.getColumnIndexOrThrow(MessageColumns.SILENT);
+            this.category = cursor.getColumnIndexOrThrow(MessageColumns.CATEGORY);
+            this.from = cursor.getColumnIndexOrThrow(MessageColumns.FROM);
+            this.receivedTimestamp = cursor.getColumnIndexOrThrow(MessageColumns.RECEIVED_TIMESTAMP);
+            this.seenTimestamp = cursor.getColumnIndexOrThrow(MessageColumns.SEEN_TIMESTAMP);
+            this.contentUrl = cursor.getColumnIndexOrThrow(MessageColumns.CONTENT_URL);
+            this.internalData = cursor.getColumnIndexOrThrow(MessageColumns.INTERNAL_DATA);
+            this.customPayload = cursor.getColumnIndexOrThrow(MessageColumns.CUSTOM_PAYLOAD);
+            this.destination = cursor.getColumnIndex(MessageColumns.DESTINATION);
+            this.status = cursor.getColumnIndex(MessageColumns.STATUS);
+            this.statusMessage = cursor.getColumnIndex(MessageColumns.STATUS_MESSAGE);
+            this.inAppStyle = cursor.getColumnIndex(MessageColumns.IN_APP_STYLE);
+        }
+    }
 }
\ No newline at end of file
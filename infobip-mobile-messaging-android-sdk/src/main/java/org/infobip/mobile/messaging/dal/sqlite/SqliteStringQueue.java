@@ -0,0 +1,213 @@
+package org.infobip.mobile.messaging.dal.sqlite;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import androidx.annotation.NonNull;
+
+import org.infobip.mobile.messaging.MobileMessagingProperty;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.QueueColumns;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.Tables;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Durable queue of unique strings backed by {@link Tables#QUEUED_STRINGS} table.
+ * <br>
+ * Appending or removing a string touches only its own row, unlike string sets in shared preferences
+ * which are copied and rewritten as a whole on every change. Strings are returned in the order they were queued.
+ */
+public class SqliteStringQueue {
+
+    /**
+     * Properties which are kept in the queue instead of shared preferences
+     */
+    public static final MobileMessagingProperty[] PROPERTIES = {
+            MobileMessagingProperty.INFOBIP_UNREPORTED_MESSAGE_IDS,
+            MobileMessagingProperty.INFOBIP_UNREPORTED_SEEN_MESSAGE_IDS,
+            MobileMessagingProperty.INFOBIP_GENERATED_MESSAGE_IDS,
+            MobileMessagingProperty.INFOBIP_SYNC_MESSAGES_IDS,
+            MobileMessagingProperty.UNSENT_MO_MESSAGES,
+            MobileMessagingProperty.PENDING_NOTIFICATION_MESSAGES
+    };
+
+    private static final String SQL_INSERT = "INSERT OR IGNORE INTO " + Tables.QUEUED_STRINGS +
+            " (" + QueueColumns.QUEUE_KEY + ", " + QueueColumns.VALUE + ") VALUES (?, ?)";
+    private static final String SQL_DELETE_VALUE = "DELETE FROM " + Tables.QUEUED_STRINGS +
+            " WHERE " + QueueColumns.QUEUE_KEY + " = ? AND " + QueueColumns.VALUE + " = ?";
+
+    private final SqliteDatabaseProvider databaseProvider;
+    private final String key;
+
+    public SqliteStringQueue(SqliteDatabaseProvider databaseProvider, String key) {
+        this.databaseProvider = databaseProvider;
+        this.key = key;
+    }
+
+    /**
+     * Checks if strings for the key are kept in the queue
+     *
+     * @param key preference key
+     * @return true if key belongs to one of {@link #PROPERTIES}
+     */
+    public static boolean isQueued(String key) {
+        for (MobileMessagingProperty property : PROPERTIES) {
+            if (property.getKey().equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends strings to the end of the queue, strings which are already queued are ignored
+     *
+     * @param strings strings to append
+     */
+    public void append(String... strings) {
+        if (strings == null || strings.length == 0) {
+            return;
+        }
+
+        SQLiteDatabase db = databaseProvider.getDatabase();
+        db.beginTransaction();
+        try {
+            insert(db, key, strings);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Removes strings from the queue
+     *
+     * @param strings strings to remove
+     */
+    public void remove(String... strings) {
+        if (strings == null || strings.length == 0) {
+            return;
+        }
+
+        SQLiteDatabase db = databaseProvider.getDatabase();
+        SQLiteStatement statement = db.compileStatement(SQL_DELETE_VALUE);
+        db.beginTransaction();
+        try {
+            for (String string : strings) {
+                if (string == null) {
+                    continue;
+                }
+                statement.bindString(1, key);
+                statement.bindString(2, string);
+                statement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            statement.close();
+        }
+    }
+
+    /**
+     * Replaces all queued strings with the provided ones
+     *
+     * @param strings new contents of the queue
+     */
+    public void replaceAll(String... strings) {
+        SQLiteDatabase db = databaseProvider.getDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(Tables.QUEUED_STRINGS, QueueColumns.QUEUE_KEY + " = ?", new String[]{key});
+            if (strings != null) {
+                insert(db, key, strings);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Returns all queued strings in the order they were queued
+     *
+     * @return queued strings
+     */
+    @NonNull
+    public List<String> findAll() {
+        return find(databaseProvider.getDatabase(), -1).values;
+    }
+
+    /**
+     * Removes and returns at most {@code limit} oldest strings from the queue
+     *
+     * @param limit maximum number of strings to return, zero or negative for all
+     * @return removed strings in the order they were queued
+     */
+    @NonNull
+    public List<String> drain(int limit) {
+        SQLiteDatabase db = databaseProvider.getDatabase();
+        db.beginTransaction();
+        try {
+            Batch batch = find(db, limit);
+            if (!batch.values.isEmpty()) {
+                db.delete(Tables.QUEUED_STRINGS, QueueColumns.QUEUE_KEY + " = ? AND " + QueueColumns.ID + " <= ?",
+                        new String[]{key, String.valueOf(batch.lastId)});
+            }
+            db.setTransactionSuccessful();
+            return batch.values;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Removes all strings from the queue
+     */
+    public void clear() {
+        databaseProvider.getDatabase().delete(Tables.QUEUED_STRINGS, QueueColumns.QUEUE_KEY + " = ?", new String[]{key});
+    }
+
+    public long count() {
+        return DatabaseUtils.queryNumEntries(databaseProvider.getDatabase(), Tables.QUEUED_STRINGS, QueueColumns.QUEUE_KEY + " = ?", new String[]{key});
+    }
+
+    static void insert(SQLiteDatabase db, String key, String... strings) {
+        SQLiteStatement statement = db.compileStatement(SQL_INSERT);
+        try {
+            for (String string : strings) {
+                if (string == null) {
+                    continue;
+                }
+                statement.bindString(1, key);
+                statement.bindString(2, string);
+                statement.executeInsert();
+            }
+        } finally {
+            statement.close();
+        }
+    }
+
+    private Batch find(SQLiteDatabase db, int limit) {
+        String sql = "SELECT " + QueueColumns.ID + ", " + QueueColumns.VALUE + " FROM " + Tables.QUEUED_STRINGS +
+                " WHERE " + QueueColumns.QUEUE_KEY + " = ? ORDER BY " + QueueColumns.ID +
+                (limit > 0 ? " LIMIT " + limit : "");
+        Batch batch = new Batch();
+        Cursor cursor = db.rawQuery(sql, new String[]{key});
+        try {
+            while (cursor.moveToNext()) {
+                batch.lastId = cursor.getLong(0);
+                batch.values.add(cursor.getString(1));
+            }
+        } finally {
+            cursor.close();
+        }
+        return batch;
+    }
+
+    private static class Batch {
+        final List<String> values = new ArrayList<>();
+        long lastId;
+    }
+}
@@ -0,0 +1,223 @@
+package org.infobip.mobile.messaging.image;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.infobip.mobile.messaging.util.SHA1;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Size-bounded disk cache of downloaded images keyed by their url.
+ * <br>
+ * Concurrent requests for the same url share one download. Least recently used files are removed
+ * in background when the cache grows over its size, file modification time is used as last access time.
+ */
+class ImageDiskCache {
+
+    interface Downloader {
+        /**
+         * Downloads content of the url to the target file
+         *
+         * @param url    url to download
+         * @param target file to write the content to
+         * @throws IOException if content can't be downloaded
+         */
+        void download(@NonNull String url, @NonNull File target) throws IOException;
+    }
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    static final long MIN_AGE_MILLIS = 5000;
+
+    private final File directory;
+    private final long maxBytes;
+    private final Downloader downloader;
+    private final Executor trimExecutor;
+    private final Map<String, FutureTask<File>> downloads = new HashMap<>();
+    private final AtomicBoolean trimScheduled = new AtomicBoolean();
+
+    /**
+     * @param directory    directory to keep the images in
+     * @param maxBytes     maximum size of all cached images
+     * @param downloader   downloader of the images
+     * @param trimExecutor executor to remove least recently used images on, so that it doesn't delay loading
+     */
+    ImageDiskCache(@NonNull File directory, long maxBytes, @NonNull Downloader downloader, @NonNull Executor trimExecutor) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.downloader = downloader;
+        this.trimExecutor = trimExecutor;
+    }
+
+    /**
+     * Returns cached file of the url, downloads it first if not cached yet.
+     * Waits for the download started by another thread if there is one for the same url.
+     *
+     * @param url url of the image
+     * @return file with the image content
+     * @throws IOException if image can't be downloaded
+     */
+    @NonNull
+    File get(@NonNull final String url) throws IOException {
+        File cached = find(url);
+        if (cached != null) {
+            return cached;
+        }
+
+        FutureTask<File> download;
+        boolean owner = false;
+        synchronized (downloads) {
+            download = downloads.get(url);
+            if (download == null) {
+                download = new FutureTask<>(new Callable<File>() {
+                    @Override
+                    public File call() throws Exception {
+                        return download(url);
+                    }
+                });
+                downloads.put(url, download);
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            try {
+                download.run();
+            } finally {
+                synchronized (downloads) {
+                    downloads.remove(url);
+                }
+            }
+        }
+
+        try {
+            return download.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading " + url);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Cannot download " + url, e.getCause());
+        }
+    }
+
+    /**
+     * @param url url of the image
+     * @return cached file of the url, null if not cached
+     */
+    @Nullable
+    File find(@NonNull String url) {
+        File file = fileFor(url);
+        if (!file.exists()) {
+            return null;
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    synchronized void clear() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    private File download(String url) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create image cache directory");
+        }
+
+        File file = fileFor(url);
+        File temp = new File(directory, file.getName() + TEMP_SUFFIX);
+        try {
+            downloader.download(url, temp);
+            if (!temp.renameTo(file)) {
+                throw new IOException("Cannot save downloaded image");
+            }
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+        }
+
+        scheduleTrim();
+        return file;
+    }
+
+    private void scheduleTrim() {
+        // downloads of a burst of messages share one trim
+        if (!trimScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        trimExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                trimScheduled.set(false);
+                trim();
+            }
+        });
+    }
+
+    /**
+     * Removes least recently used files until cache fits its size.
+     * Files written or read in the last {@link #MIN_AGE_MILLIS} are kept, so that a just downloaded image
+     * is not removed before it is decoded.
+     */
+    synchronized void trim() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long totalBytes = 0;
+        for (File file : files) {
+            totalBytes += file.length();
+        }
+        if (totalBytes <= maxBytes) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File f1, File f2) {
+                long m1 = f1.lastModified();
+                long m2 = f2.lastModified();
+                return m1 < m2 ? -1 : (m1 == m2 ? 0 : 1);
+            }
+        });
+        for (File file : files) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+            if (file.getName().endsWith(TEMP_SUFFIX) || file.lastModified() > now - MIN_AGE_MILLIS) {
+                continue;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                totalBytes -= length;
+            }
+        }
+    }
+
+    private File fileFor(String url) {
+        return new File(directory, SHA1.calc(url));
+    }
+}
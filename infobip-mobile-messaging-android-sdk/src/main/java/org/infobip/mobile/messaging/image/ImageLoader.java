@@ -0,0 +1,238 @@
+package org.infobip.mobile.messaging.image;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.DisplayMetrics;
+import android.util.LruCache;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
+import org.infobip.mobile.messaging.platform.MobileMessagingExecutors;
+import org.infobip.mobile.messaging.platform.Platform;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.Executor;
+
+/**
+ * Loads images of messages ({@code contentUrl}) for notifications and in-app dialogs.
+ * <br>
+ * Downloaded images are kept in a size-bounded disk cache, so the same image is downloaded only once
+ * for the notification, the in-app dialog and retries. Decoded bitmaps are downsampled to the requested size
+ * and kept in a size-bounded memory cache.
+ */
+public class ImageLoader {
+
+    private static final String CACHE_DIRECTORY = "mm-images";
+    private static final long MAX_DISK_CACHE_BYTES = 10 * 1024 * 1024;
+    private static final int MEMORY_CACHE_FRACTION = 16;
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final int READ_TIMEOUT_MILLIS = 30_000;
+    /**
+     * Approximate height of big picture in expanded notification
+     */
+    private static final int NOTIFICATION_PICTURE_HEIGHT_DP = 256;
+
+    private static volatile ImageLoader instance;
+
+    private final DisplayMetrics displayMetrics;
+    private final ImageDiskCache diskCache;
+    private final LruCache<String, Bitmap> memoryCache;
+    private final Executor prefetchExecutor;
+
+    @VisibleForTesting
+    ImageLoader(Context context, ImageDiskCache diskCache, Executor prefetchExecutor) {
+        this.displayMetrics = context.getResources().getDisplayMetrics();
+        this.diskCache = diskCache;
+        this.prefetchExecutor = prefetchExecutor;
+        int maxMemoryCacheBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / MEMORY_CACHE_FRACTION);
+        this.memoryCache = new LruCache<String, Bitmap>(maxMemoryCacheBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getByteCount();
+            }
+        };
+    }
+
+    public static ImageLoader getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ImageLoader.class) {
+                if (instance == null) {
+                    Context applicationContext = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+                    instance = new ImageLoader(applicationContext,
+                            new ImageDiskCache(new File(applicationContext.getCacheDir(), CACHE_DIRECTORY), MAX_DISK_CACHE_BYTES, new HttpDownloader(),
+                                    Platform.executors().queue(MobileMessagingExecutors.QUEUE_BACKGROUND)),
+                            Platform.executors().queue(MobileMessagingExecutors.QUEUE_IMAGES));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Loads image sized for big picture style notification, should not be called on the main thread
+     *
+     * @param url url of the image
+     * @return bitmap or null if image can't be loaded
+     */
+    @Nullable
+    public Bitmap loadForNotification(@NonNull String url) {
+        return load(url, displayMetrics.widthPixels, Math.round(NOTIFICATION_PICTURE_HEIGHT_DP * displayMetrics.density));
+    }
+
+    /**
+     * Loads image sized for in-app dialog, should not be called on the main thread
+     *
+     * @param url url of the image
+     * @return bitmap or null if image can't be loaded
+     */
+    @Nullable
+    public Bitmap loadForDialog(@NonNull String url) {
+        return load(url, displayMetrics.widthPixels, displayMetrics.heightPixels);
+    }
+
+    /**
+     * Loads image from cache or network, should not be called on the main thread.
+     * Image is downsampled by a power of two while it is still at least of the requested size.
+     *
+     * @param url       url of the image
+     * @param reqWidth  required width in pixels, 0 for no limit
+     * @param reqHeight required height in pixels, 0 for no limit
+     * @return bitmap or null if image can't be loaded
+     */
+    @Nullable
+    public Bitmap load(@NonNull String url, int reqWidth, int reqHeight) {
+        String key = url + "@" + reqWidth + "x" + reqHeight;
+        Bitmap bitmap = memoryCache.get(key);
+        if (bitmap != null) {
+            return bitmap;
+        }
+
+        File file;
+        try {
+            file = diskCache.get(url);
+        } catch (IOException e) {
+            MobileMessagingLogger.e("Cannot download picture: " + e.getMessage());
+            return null;
+        }
+
+        bitmap = decode(file, reqWidth, reqHeight);
+        if (bitmap != null) {
+            memoryCache.put(key, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Downloads image to disk cache in background, so that it's ready when the notification or dialog needs it.
+     * Several images are downloaded at the same time.
+     *
+     * @param url url of the image
+     */
+    public void prefetch(@NonNull final String url) {
+        if (diskCache.find(url) != null) {
+            return;
+        }
+
+        prefetchExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    diskCache.get(url);
+                } catch (IOException e) {
+                    MobileMessagingLogger.w("Cannot prefetch picture: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes all images from memory and disk cache
+     */
+    public void clear() {
+        memoryCache.evictAll();
+        diskCache.clear();
+    }
+
+    @Nullable
+    private static Bitmap decode(File file, int reqWidth, int reqHeight) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getPath(), options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            MobileMessagingLogger.e("Cannot decode picture");
+            return null;
+        }
+
+        options.inSampleSize = calculateSampleSize(options.outWidth, options.outHeight, reqWidth, reqHeight);
+        options.inJustDecodeBounds = false;
+        try {
+            return BitmapFactory.decodeFile(file.getPath(), options);
+        } catch (OutOfMemoryError e) {
+            MobileMessagingLogger.e("Not enough memory to decode picture");
+            return null;
+        }
+    }
+
+    static int calculateSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int sampleSize = 1;
+        if (reqWidth <= 0 && reqHeight <= 0) {
+            return sampleSize;
+        }
+
+        int minWidth = reqWidth > 0 ? reqWidth : 1;
+        int minHeight = reqHeight > 0 ? reqHeight : 1;
+        while (width / (sampleSize * 2) >= minWidth && height / (sampleSize * 2) >= minHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private static class HttpDownloader implements ImageDiskCache.Downloader {
+
+        @Override
+        public void download(@NonNull String url, @NonNull File target) throws IOException {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            connection.setDoInput(true);
+
+            InputStream input = null;
+            OutputStream output = null;
+            try {
+                int responseCode = connection.getResponseCode();
+                if (responseCode < 200 || responseCode >= 300) {
+                    connection.disconnect();
+                    throw new IOException("Unexpected response code " + responseCode + " for " + url);
+                }
+
+                // stream is read to the end and closed, so the connection can be reused for the next image
+                input = connection.getInputStream();
+                output = new FileOutputStream(target);
+                byte[] buffer = new byte[8192];
+                int length;
+                while ((length = input.read(buffer)) != -1) {
+                    output.write(buffer, 0, length);
+                }
+            } finally {
+                if (input != null) {
+                    try {
+                        input.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+                if (output != null) {
+                    output.close();
+                }
+            }
+        }
+    }
+}
@@ -62,7 +62,7 @@ public class InAppNotificationHandlerImpl implements InAppNotificationHandler, I
                         MobileMessagingCore.getInstance(context).getNotificationSettings()
                 ),
                 new OneMessagePreferenceCache(context),
-                new QueuedDialogStack(),
+                new QueuedDialogStack(context),
                 new AndroidInteractiveBroadcaster(context),
                 new ActivityStarterWrapper(context,
                         MobileMessagingCore.getInstance(context))
@@ -1,11 +1,16 @@
 package org.infobip.mobile.messaging.interactive.inapp.image;
 
+import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.os.AsyncTask;
 
+import androidx.annotation.Nullable;
+
+import org.infobip.mobile.messaging.image.ImageLoader;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 
@@ -17,6 +22,24 @@ public abstract class DownloadImageTask extends AsyncTask<String, Void, Bitmap>
 
     private final static int MAX_DOWNLOAD_ATTEMPTS = 3;
 
+    private final ImageLoader imageLoader;
+
+    /**
+     * Creates task which downloads images without caching them
+     */
+    public DownloadImageTask() {
+        this(null);
+    }
+
+    /**
+     * Creates task which loads images through the shared {@link ImageLoader} if context is provided
+     *
+     * @param context context to get image loader with
+     */
+    public DownloadImageTask(@Nullable Context context) {
+        this.imageLoader = context != null ? ImageLoader.getInstance(context) : null;
+    }
+
     @Override
     protected Bitmap doInBackground(String... URL) {
         String imageUrl = URL[0];
@@ -26,15 +49,30 @@ public abstract class DownloadImageTask extends AsyncTask<String, Void, Bitmap>
     private Bitmap downloadWithRetries(String imageUrl) {
         int attempt = 0;
         do {
-            try {
-                InputStream input = new URL(imageUrl).openStream();
-                return BitmapFactory.decodeStream(input);
-            } catch (Exception e) {
-                MobileMessagingLogger.e("Cannot download picture: " + e.getMessage());
-            } finally {
-                attempt++;
+            Bitmap bitmap = imageLoader != null ? imageLoader.loadForDialog(imageUrl) : download(imageUrl);
+            if (bitmap != null) {
+                return bitmap;
             }
+            attempt++;
         } while (attempt <= MAX_DOWNLOAD_ATTEMPTS);
         return null;
     }
-}
\ No newline at end of file
+
+    private static Bitmap download(String imageUrl) {
+        InputStream input = null;
+        try {
+            input = new URL(imageUrl).openStream();
+            return BitmapFactory.decodeStream(input);
+        } catch (Exception e) {
+            MobileMessagingLogger.e("Cannot download picture: " + e.getMessage());
+            return null;
+        } finally {
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}
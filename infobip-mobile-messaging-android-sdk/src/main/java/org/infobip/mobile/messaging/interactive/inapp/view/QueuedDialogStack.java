@@ -1,9 +1,12 @@
 package org.infobip.mobile.messaging.interactive.inapp.view;
 
 import android.annotation.SuppressLint;
+import android.content.Context;
 import android.graphics.Bitmap;
 import android.text.TextUtils;
 
+import androidx.annotation.Nullable;
+
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.interactive.NotificationAction;
 import org.infobip.mobile.messaging.interactive.NotificationCategory;
@@ -19,6 +22,19 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 public class QueuedDialogStack implements DialogStack {
 
     private final Queue<InAppViewCtx> queue = new ConcurrentLinkedQueue<>();
+    private final Context context;
+
+    /**
+     * Creates stack which downloads images of dialogs without caching them,
+     * prefer {@link #QueuedDialogStack(Context)} so that images are shared with notifications
+     */
+    public QueuedDialogStack() {
+        this(null);
+    }
+
+    public QueuedDialogStack(@Nullable Context context) {
+        this.context = context;
+    }
 
     @Override
     public void add(InAppView view, Message message, NotificationCategory category, NotificationAction[] actions) {
@@ -62,7 +78,7 @@ public class QueuedDialogStack implements DialogStack {
                                              final NotificationAction[] actions,
                                              String imageUrl,
                                              final InAppView dialog) {
-        new DownloadImageTask() {
+        new DownloadImageTask(context) {
             @Override
             protected void onPostExecute(Bitmap bitmap) {
                 if (bitmap == null) {
@@ -6,11 +6,11 @@ import android.content.Intent;
 import android.os.Build;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.core.app.NotificationCompat;
 import androidx.core.app.RemoteInput;
 
 import org.infobip.mobile.messaging.Message;
-import org.infobip.mobile.messaging.dal.bundle.MessageBundleMapper;
 import org.infobip.mobile.messaging.interactive.MobileInteractiveImpl;
 import org.infobip.mobile.messaging.interactive.NotificationAction;
 import org.infobip.mobile.messaging.interactive.NotificationCategory;
@@ -19,6 +19,8 @@ import org.infobip.mobile.messaging.interactive.dal.bundle.NotificationCategoryB
 import org.infobip.mobile.messaging.notification.BaseNotificationHandler;
 import org.infobip.mobile.messaging.notification.NotificationHandler;
 
+import java.util.List;
+
 import static org.infobip.mobile.messaging.BroadcastParameter.EXTRA_MESSAGE;
 import static org.infobip.mobile.messaging.BroadcastParameter.EXTRA_NOTIFICATION_ID;
 import static org.infobip.mobile.messaging.BroadcastParameter.EXTRA_TAPPED_ACTION;
@@ -38,16 +40,39 @@ public class InteractiveNotificationHandler implements NotificationHandler {
 
     @Override
     public int displayNotification(Message message) {
+        return displayNotification(message, null);
+    }
+
+    @Override
+    public int displayNotification(Message message, @Nullable String group) {
         if (context == null) return NOTIFICATION_NOT_DISPLAYED_ID;
 
         int notificationId = baseNotificationHandler.getNotificationId(message);
         NotificationCompat.Builder builder = getNotificationBuilder(message, notificationId);
+        if (builder != null && group != null) {
+            // summary of the group makes sound and vibrates once for all messages
+            builder.setGroup(group)
+                    .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY);
+        }
         boolean displayed = baseNotificationHandler.displayNotification(builder, message, notificationId);
 
         if (!displayed) return NOTIFICATION_NOT_DISPLAYED_ID;
         return notificationId;
     }
 
+    @Override
+    public int displayGroupSummary(@NonNull String group, @NonNull List<Message> messages) {
+        if (context == null || messages.isEmpty()) return NOTIFICATION_NOT_DISPLAYED_ID;
+
+        // one summary per group, summary of each burst replaces the previous one and is built to cover it
+        int notificationId = group.hashCode();
+        NotificationCompat.Builder builder = baseNotificationHandler.createGroupSummaryBuilder(group, messages);
+        boolean displayed = baseNotificationHandler.displayNotification(builder, messages.get(messages.size() - 1), notificationId);
+
+        if (!displayed) return NOTIFICATION_NOT_DISPLAYED_ID;
+        return notificationId;
+    }
+
     @Override
     public void cancelAllNotifications() {
         baseNotificationHandler.cancelAllNotifications();
@@ -111,7 +136,7 @@ public class InteractiveNotificationHandler implements NotificationHandler {
     private PendingIntent createActionTapPendingIntent(Message message, NotificationCategory notificationCategory, NotificationAction notificationAction, int notificationId) {
         Intent intent = new Intent(context, NotificationActionTapReceiver.class);
         intent.setAction(message.getMessageId() + notificationAction.getId());
-        intent.putExtra(EXTRA_MESSAGE, MessageBundleMapper.messageToBundle(message));
+        intent.putExtra(EXTRA_MESSAGE, message.toBundle());
         intent.putExtra(EXTRA_TAPPED_ACTION, NotificationActionBundleMapper.notificationActionToBundle(notificationAction));
         intent.putExtra(EXTRA_TAPPED_CATEGORY, NotificationCategoryBundleMapper.notificationCategoryToBundle(notificationCategory));
         intent.putExtra(EXTRA_NOTIFICATION_ID, notificationId);
@@ -5,7 +5,6 @@ import android.content.Intent;
 import androidx.localbroadcastmanager.content.LocalBroadcastManager;
 
 import org.infobip.mobile.messaging.Message;
-import org.infobip.mobile.messaging.dal.bundle.MessageBundleMapper;
 import org.infobip.mobile.messaging.interactive.InteractiveEvent;
 import org.infobip.mobile.messaging.interactive.NotificationAction;
 import org.infobip.mobile.messaging.interactive.NotificationCategory;
@@ -28,7 +27,7 @@ public class AndroidInteractiveBroadcaster implements InteractiveBroadcaster {
     @Override
     public Intent notificationActionTapped(Message message, NotificationCategory category, NotificationAction action) {
         Intent actionTapped = prepare(InteractiveEvent.NOTIFICATION_ACTION_TAPPED);
-        actionTapped.putExtras(MessageBundleMapper.messageToBundle(message));
+        actionTapped.putExtras(message.toBundle());
         actionTapped.putExtras(NotificationActionBundleMapper.notificationActionToBundle(action));
         actionTapped.putExtras(NotificationCategoryBundleMapper.notificationCategoryToBundle(category));
 
@@ -39,7 +38,7 @@ public class AndroidInteractiveBroadcaster implements InteractiveBroadcaster {
 
     @Override
     public void inAppNotificationIsReadyToDisplay(Message message) {
-        Intent intent = prepare(InteractiveEvent.MODAL_IN_APP_NOTIFICATION_IS_READY_TO_DISPLAY).putExtras(MessageBundleMapper.messageToBundle(message));
+        Intent intent = prepare(InteractiveEvent.MODAL_IN_APP_NOTIFICATION_IS_READY_TO_DISPLAY).putExtras(message.toBundle());
         send(intent);
     }
 
@@ -0,0 +1,161 @@
+package org.infobip.mobile.messaging.logging;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Writer which hands log entries over to a background thread.
+ * <br>
+ * Entries are kept in a fixed-size ring buffer, when the buffer is full the oldest entry is dropped,
+ * so writing never blocks on the delegate. Background thread takes all buffered entries in one go,
+ * writing doesn't allocate and wakes the thread up only when it is idle. Usage:
+ * <pre>{@code
+ * MobileMessagingLogger.setWriter(new AsyncWriter(new LogcatWriter()));
+ * }</pre>
+ */
+public class AsyncWriter implements Writer {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final Writer delegate;
+    private final Level[] levels;
+    private final String[] tags;
+    private final String[] messages;
+    private final Throwable[] throwables;
+    private int head;
+    private int size;
+    private long dropped;
+    private boolean writing;
+    private boolean drainerWaiting;
+    private Thread thread;
+
+    public AsyncWriter(Writer delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    public AsyncWriter(Writer delegate, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity should be positive");
+        }
+        this.delegate = delegate;
+        this.levels = new Level[capacity];
+        this.tags = new String[capacity];
+        this.messages = new String[capacity];
+        this.throwables = new Throwable[capacity];
+    }
+
+    @Override
+    public void write(Level level, String tag, String message, @Nullable Throwable throwable) {
+        synchronized (this) {
+            int capacity = levels.length;
+            if (size == capacity) {
+                head = (head + 1) % capacity;
+                size--;
+                dropped++;
+            }
+            int index = (head + size) % capacity;
+            levels[index] = level;
+            tags[index] = tag;
+            messages[index] = message;
+            throwables[index] = throwable;
+            size++;
+            startIfNeeded();
+            // background thread takes all buffered entries at once, it needs to be woken up only when it is idle
+            if (drainerWaiting) {
+                drainerWaiting = false;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return number of entries dropped because the buffer was full
+     */
+    public synchronized long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Waits until all buffered entries are written by the delegate
+     *
+     * @param timeoutMillis maximum time to wait
+     * @return true if buffer was drained within timeout
+     */
+    public synchronized boolean flush(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (size > 0 || writing) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    private void startIfNeeded() {
+        if (thread != null) {
+            return;
+        }
+
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }, "mm-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void drain() {
+        int capacity = levels.length;
+        Level[] batchLevels = new Level[capacity];
+        String[] batchTags = new String[capacity];
+        String[] batchMessages = new String[capacity];
+        Throwable[] batchThrowables = new Throwable[capacity];
+
+        while (true) {
+            int batchSize;
+            synchronized (this) {
+                while (size == 0) {
+                    try {
+                        drainerWaiting = true;
+                        wait();
+                    } catch (InterruptedException e) {
+                        drainerWaiting = false;
+                        thread = null;
+                        return;
+                    }
+                }
+                batchSize = size;
+                for (int i = 0; i < batchSize; i++) {
+                    int index = (head + i) % capacity;
+                    batchLevels[i] = levels[index];
+                    batchTags[i] = tags[index];
+                    batchMessages[i] = messages[index];
+                    batchThrowables[i] = throwables[index];
+                    tags[index] = null;
+                    messages[index] = null;
+                    throwables[index] = null;
+                }
+                head = (head + batchSize) % capacity;
+                size = 0;
+                writing = true;
+            }
+
+            for (int i = 0; i < batchSize; i++) {
+                try {
+                    delegate.write(batchLevels[i], batchTags[i], batchMessages[i], batchThrowables[i]);
+                } catch (RuntimeException ignored) {
+                }
+                batchMessages[i] = null;
+                batchThrowables[i] = null;
+            }
+
+            synchronized (this) {
+                writing = false;
+                notifyAll();
+            }
+        }
+    }
+}
@@ -1,26 +1,45 @@
 package org.infobip.mobile.messaging.logging;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.pm.ApplicationInfo;
+import androidx.annotation.NonNull;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
 
+import java.io.IOException;
 import java.util.Arrays;
 
 public final class MobileMessagingLogger {
 
     public static final String TAG = "MobileMessaging";
-    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
-    @SuppressLint("StaticFieldLeak")
-    private static Context context;
-    private static Writer writer = new LogcatWriter();
-    private static boolean isEnforced = false;
 
+    /**
+     * Maximum number of characters of serialized object which is written to log
+     */
+    static final int MAX_OBJECT_LENGTH = 4096;
+    static final String TRUNCATED_SUFFIX = "... (truncated)";
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static volatile Writer writer = new LogcatWriter();
+    private static volatile boolean isDebuggable = false;
+    private static volatile boolean isEnforced = false;
+    private static volatile Level minLevel = Level.VERBOSE;
+
+    /**
+     * Message which is built only if it is going to be written to log.
+     * Java 8 lambdas can be used, they are desugared for all supported Android versions:
+     * <pre>{@code
+     * MobileMessagingLogger.d(TAG, () -> "Saving message: " + message.getMessageId());
+     * }</pre>
+     */
+    public interface LazyMessage {
+        String get();
+    }
 
     public static void init(Context context) {
-        MobileMessagingLogger.context = context;
+        isDebuggable = context != null && 0 != (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE);
     }
 
     public static void enforce() {
@@ -34,11 +53,44 @@ public final class MobileMessagingLogger {
         writer = logWriter;
     }
 
+    /**
+     * Sets minimum level of messages which are written to log when logging is enabled.
+     * Errors are always written.
+     *
+     * @param level minimum level
+     */
+    public static void setMinLevel(@NonNull Level level) {
+        minLevel = level;
+    }
+
+    static void reset() {
+        writer = new LogcatWriter();
+        isDebuggable = false;
+        isEnforced = false;
+        minLevel = Level.VERBOSE;
+    }
+
     public static boolean loggingEnabled() {
-        boolean isDebuggable = (context != null && 0 != (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE));
         return isDebuggable || isEnforced;
     }
 
+    /**
+     * Checks if message of the level is going to be written to log.
+     * Callers which build messages by concatenation on hot paths should check it first or use {@link LazyMessage},
+     * the check also avoids allocation of a capturing {@link LazyMessage} when logging is disabled:
+     * <pre>{@code
+     * if (MobileMessagingLogger.isLoggable(Level.DEBUG)) {
+     *     MobileMessagingLogger.d("Saving message: " + message.getMessageId());
+     * }
+     * }</pre>
+     *
+     * @param level level of the message
+     * @return true if message of the level is written
+     */
+    public static boolean isLoggable(Level level) {
+        return level == Level.ERROR || (loggingEnabled() && level.ordinal() >= minLevel.ordinal());
+    }
+
     public static void v(String tag, String msg) {
         log(Level.VERBOSE, tag, msg, null);
     }
@@ -47,12 +99,23 @@ public final class MobileMessagingLogger {
         v(TAG, msg);
     }
 
+    public static void v(String tag, LazyMessage msg) {
+        log(Level.VERBOSE, tag, msg);
+    }
+
+    public static void v(LazyMessage msg) {
+        v(TAG, msg);
+    }
+
     public static void v(String msg, Object o) {
-        log(Level.VERBOSE, TAG, msg, o);
+        logWithObject(Level.VERBOSE, TAG, msg, o);
     }
 
     public static void v(String msg, Object o, Object... os) {
-        log(Level.VERBOSE, TAG, msg, Arrays.asList(o, os));
+        if (!isLoggable(Level.VERBOSE)) {
+            return;
+        }
+        logWithObject(Level.VERBOSE, TAG, msg, Arrays.asList(o, os));
     }
 
     public static void v(String tag, String msg, Throwable tr) {
@@ -71,6 +134,14 @@ public final class MobileMessagingLogger {
         d(TAG, msg);
     }
 
+    public static void d(String tag, LazyMessage msg) {
+        log(Level.DEBUG, tag, msg);
+    }
+
+    public static void d(LazyMessage msg) {
+        d(TAG, msg);
+    }
+
     public static void d(String tag, String msg, Throwable tr) {
         log(Level.DEBUG, tag, msg, tr);
     }
@@ -87,6 +158,14 @@ public final class MobileMessagingLogger {
         i(TAG, msg);
     }
 
+    public static void i(String tag, LazyMessage msg) {
+        log(Level.INFO, tag, msg);
+    }
+
+    public static void i(LazyMessage msg) {
+        i(TAG, msg);
+    }
+
     public static void i(String tag, String msg, Throwable tr) {
         log(Level.INFO, tag, msg, tr);
     }
@@ -103,6 +182,14 @@ public final class MobileMessagingLogger {
         w(TAG, msg);
     }
 
+    public static void w(String tag, LazyMessage msg) {
+        log(Level.WARN, tag, msg);
+    }
+
+    public static void w(LazyMessage msg) {
+        w(TAG, msg);
+    }
+
     public static void w(String tag, String msg, Throwable tr) {
         log(Level.WARN, tag, msg, tr);
     }
@@ -127,23 +214,92 @@ public final class MobileMessagingLogger {
         e(TAG, msg, tr);
     }
 
+    /**
+     * Serializes object to pretty printed JSON, at most {@link #MAX_OBJECT_LENGTH} characters are produced
+     *
+     * @param o object to serialize
+     * @return serialized object or empty string if logging is disabled
+     */
     public static String objectToPrettyString(Object o) {
         if (!loggingEnabled()) {
             return "";
         }
 
-        return gson.toJson(o);
+        BoundedAppendable appendable = new BoundedAppendable(MAX_OBJECT_LENGTH);
+        try {
+            gson.toJson(o, appendable);
+        } catch (JsonIOException e) {
+            if (!(e.getCause() instanceof BoundedAppendable.LimitReachedException)) {
+                throw e;
+            }
+            return appendable.builder.append(TRUNCATED_SUFFIX).toString();
+        }
+        return appendable.builder.toString();
+    }
+
+    private static void log(Level level, String tag, LazyMessage msg) {
+        if (isLoggable(level)) {
+            writer.write(level, tag, msg.get(), null);
+        }
     }
 
-    private static void log(Level level, String tag, String msg, Object o) {
-        if (loggingEnabled() || level == Level.ERROR) {
-            log(level, tag, msg + "\n" + objectToPrettyString(o), null);
+    private static void logWithObject(Level level, String tag, String msg, Object o) {
+        if (isLoggable(level)) {
+            writer.write(level, tag, msg + "\n" + objectToPrettyString(o), null);
         }
     }
 
     private static void log(Level level, String tag, String msg, Throwable tr) {
-        if (loggingEnabled() || level == Level.ERROR) {
+        if (isLoggable(level)) {
             writer.write(level, tag, msg, tr);
         }
     }
+
+    /**
+     * Collects characters until limit is reached and then stops serialization
+     */
+    private static class BoundedAppendable implements Appendable {
+
+        private static class LimitReachedException extends IOException {
+            @Override
+            public synchronized Throwable fillInStackTrace() {
+                return this;
+            }
+        }
+
+        private final StringBuilder builder = new StringBuilder();
+        private final int limit;
+
+        BoundedAppendable(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            return csq == null ? append("null") : append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            if (csq == null) {
+                csq = "null";
+            }
+            int available = limit - builder.length();
+            if (end - start > available) {
+                builder.append(csq, start, start + available);
+                throw new LimitReachedException();
+            }
+            builder.append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            if (builder.length() >= limit) {
+                throw new LimitReachedException();
+            }
+            builder.append(c);
+            return this;
+        }
+    }
 }
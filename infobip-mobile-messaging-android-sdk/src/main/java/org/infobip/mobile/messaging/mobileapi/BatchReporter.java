@@ -1,60 +1,50 @@
 package org.infobip.mobile.messaging.mobileapi;
 
+import androidx.annotation.NonNull;
+
+import org.infobip.mobile.messaging.platform.Platform;
 import org.infobip.mobile.messaging.platform.SystemTimeProvider;
 import org.infobip.mobile.messaging.platform.TimeProvider;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.List;
 
 /**
+ * Runs reporting tasks at most once per delay, on top of {@link BatchingEngine}.
+ * <br>
+ * Task put to an idle reporter runs right away, tasks put within the delay after that are coalesced
+ * and only the latest one runs when the delay passes.
+ *
  * @author sslavin
  * @since 07/07/16.
  */
 public class BatchReporter {
 
-    private final long delay;
-    private final TimeProvider timeProvider;
-    private final Timer timer = new Timer();
-    private volatile TimerTask timerTask = null;
-    private volatile long lastSubmitted = 0;
+    private static final int MAX_PENDING_TASKS = 100;
 
-    public BatchReporter(Long batchReportingDelay, TimeProvider timeProvider) {
-        this.delay = batchReportingDelay;
-        this.timeProvider = timeProvider;
-    }
+    private final BatchingEngine.Sink<Runnable> sink;
 
-    public BatchReporter(Long batchReportingDelay) {
-        this(batchReportingDelay, new SystemTimeProvider());
+    public BatchReporter(BatchingEngine batchingEngine, Long batchReportingDelay) {
+        this.sink = batchingEngine.createSink("reports", MAX_PENDING_TASKS, batchReportingDelay, MAX_PENDING_TASKS, new BatchingEngine.Flusher<Runnable>() {
+            @Override
+            public void flush(@NonNull List<Runnable> batch, @NonNull Runnable onComplete) {
+                try {
+                    batch.get(batch.size() - 1).run();
+                } finally {
+                    onComplete.run();
+                }
+            }
+        });
     }
 
-    public synchronized void put(final Runnable task) {
-        if (timerTask != null) {
-            timerTask.cancel();
-            timer.purge();
-        }
-
-        long now = timeProvider.now();
-        if (now - lastSubmitted >= delay) {
-            runNow(task);
-            return;
-        }
-
-        long after = lastSubmitted + delay - now;
-        scheduleWithDelay(task, after);
+    public BatchReporter(Long batchReportingDelay, TimeProvider timeProvider) {
+        this(new BatchingEngine(Platform.executors().scheduler(), timeProvider), batchReportingDelay);
     }
 
-    private void runNow(Runnable task) {
-        lastSubmitted = timeProvider.now();
-        task.run();
+    public BatchReporter(Long batchReportingDelay) {
+        this(batchReportingDelay, new SystemTimeProvider());
     }
 
-    private void scheduleWithDelay(final Runnable task, long delay) {
-        timerTask = new TimerTask() {
-            @Override
-            public void run() {
-                runNow(task);
-            }
-        };
-        timer.schedule(timerTask, delay);
+    public void put(final Runnable task) {
+        sink.offer(task);
     }
 }
@@ -0,0 +1,222 @@
+package org.infobip.mobile.messaging.mobileapi;
+
+import androidx.annotation.NonNull;
+
+import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
+import org.infobip.mobile.messaging.platform.TimeProvider;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Batches items of several independent sinks using one scheduler.
+ * <br>
+ * Sink flushes when it has {@code maxBatchSize} pending items or when {@code maxLatencyMillis} passed since its previous flush,
+ * whichever comes first. Items offered to an idle sink are flushed right away, bursts which follow are coalesced.
+ * Each sink has at most one batch in flight and at most {@code capacity} pending items, further items are rejected
+ * until the batch in flight completes.
+ * <pre>{@code
+ * BatchingEngine engine = new BatchingEngine(scheduler, timeProvider);
+ * BatchingEngine.Sink<String> seen = engine.createSink("seen", 100, 5000, 1000, new BatchingEngine.Flusher<String>() {
+ *     public void flush(List<String> batch, Runnable onComplete) {
+ *         ...
+ *         onComplete.run();
+ *     }
+ * });
+ * seen.offer(messageId);
+ * }</pre>
+ */
+public class BatchingEngine {
+
+    /**
+     * Delivers batches of one sink
+     */
+    public interface Flusher<T> {
+        /**
+         * Delivers the batch, {@code onComplete} should be run exactly once when delivery is finished, successfully or not.
+         * Next batch of the sink is not flushed until then.
+         *
+         * @param batch      items in the order they were offered, never empty
+         * @param onComplete callback to run when delivery is finished
+         */
+        void flush(@NonNull List<T> batch, @NonNull Runnable onComplete);
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final TimeProvider timeProvider;
+    private final List<Sink<?>> sinks = new CopyOnWriteArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private long scheduledFlushAt = Long.MAX_VALUE;
+
+    public BatchingEngine(ScheduledExecutorService scheduler, TimeProvider timeProvider) {
+        this.scheduler = scheduler;
+        this.timeProvider = timeProvider;
+    }
+
+    /**
+     * Creates new sink which is flushed by this engine
+     *
+     * @param name             name of the sink, for logging
+     * @param maxBatchSize     maximum number of items in one batch, sink is flushed as soon as it has that many items
+     * @param maxLatencyMillis minimum time between two flushes of the sink, and so the maximum time an item waits for the flush
+     * @param capacity         maximum number of pending items, not less than {@code maxBatchSize}
+     * @param flusher          delivers batches of the sink
+     * @return new sink
+     */
+    public <T> Sink<T> createSink(String name, int maxBatchSize, long maxLatencyMillis, int capacity, Flusher<T> flusher) {
+        if (maxBatchSize <= 0 || capacity < maxBatchSize) {
+            throw new IllegalArgumentException("Invalid batch size " + maxBatchSize + " or capacity " + capacity + " of sink " + name);
+        }
+        Sink<T> sink = new Sink<>(this, name, maxBatchSize, maxLatencyMillis, capacity, flusher);
+        sinks.add(sink);
+        return sink;
+    }
+
+    /**
+     * Flushes all sinks which are due and schedules the next check
+     */
+    void flushDue() {
+        synchronized (this) {
+            scheduledFlush = null;
+            scheduledFlushAt = Long.MAX_VALUE;
+        }
+        for (Sink<?> sink : sinks) {
+            sink.flushIfDue(false);
+        }
+    }
+
+    long now() {
+        return timeProvider.now();
+    }
+
+    private synchronized void scheduleFlushAt(long flushAt) {
+        if (scheduledFlush != null && scheduledFlushAt <= flushAt) {
+            return;
+        }
+
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+        }
+        scheduledFlushAt = flushAt;
+        scheduledFlush = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                flushDue();
+            }
+        }, Math.max(0, flushAt - now()), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Bounded queue of items of one type
+     */
+    public static class Sink<T> {
+
+        private final BatchingEngine engine;
+        private final String name;
+        private final int maxBatchSize;
+        private final long maxLatencyMillis;
+        private final int capacity;
+        private final Flusher<T> flusher;
+        private final ArrayDeque<T> pending = new ArrayDeque<>();
+        private boolean inFlight;
+        private long lastFlushAt = Long.MIN_VALUE;
+        private long rejectedCount;
+
+        private Sink(BatchingEngine engine, String name, int maxBatchSize, long maxLatencyMillis, int capacity, Flusher<T> flusher) {
+            this.engine = engine;
+            this.name = name;
+            this.maxBatchSize = maxBatchSize;
+            this.maxLatencyMillis = maxLatencyMillis;
+            this.capacity = capacity;
+            this.flusher = flusher;
+        }
+
+        /**
+         * Adds item to the sink, flushes the sink if it's due
+         *
+         * @param item item to add
+         * @return false if the sink is full and the item was rejected
+         */
+        public boolean offer(@NonNull T item) {
+            synchronized (this) {
+                if (pending.size() >= capacity) {
+                    rejectedCount++;
+                    return false;
+                }
+                pending.add(item);
+            }
+            flushIfDue(false);
+            return true;
+        }
+
+        /**
+         * Flushes pending items right away, unless there's a batch in flight
+         */
+        public void flush() {
+            flushIfDue(true);
+        }
+
+        public synchronized int size() {
+            return pending.size();
+        }
+
+        /**
+         * @return number of items rejected because the sink was full
+         */
+        public synchronized long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        private void flushIfDue(boolean force) {
+            List<T> batch;
+            synchronized (this) {
+                if (inFlight || pending.isEmpty()) {
+                    return;
+                }
+
+                long now = engine.now();
+                long flushAt = lastFlushAt == Long.MIN_VALUE ? now : lastFlushAt + maxLatencyMillis;
+                if (!force && pending.size() < maxBatchSize && now < flushAt) {
+                    engine.scheduleFlushAt(flushAt);
+                    return;
+                }
+
+                batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+                while (batch.size() < maxBatchSize && !pending.isEmpty()) {
+                    batch.add(pending.poll());
+                }
+                inFlight = true;
+                lastFlushAt = now;
+            }
+
+            final AtomicBoolean completed = new AtomicBoolean();
+            Runnable onComplete = new Runnable() {
+                @Override
+                public void run() {
+                    if (completed.compareAndSet(false, true)) {
+                        onFlushed();
+                    }
+                }
+            };
+            try {
+                flusher.flush(batch, onComplete);
+            } catch (Exception e) {
+                MobileMessagingLogger.e("Failed to flush " + name + " batch", e);
+                onComplete.run();
+            }
+        }
+
+        private void onFlushed() {
+            synchronized (this) {
+                inFlight = false;
+            }
+            flushIfDue(false);
+        }
+    }
+}
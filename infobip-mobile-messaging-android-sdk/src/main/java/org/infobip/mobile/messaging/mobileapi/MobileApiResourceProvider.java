@@ -212,6 +212,7 @@ public class MobileApiResourceProvider {
                 .withRequestInterceptors(baseUrlManager(context))
                 .withResponseHeaderInterceptors(baseUrlManager(context))
                 .withLogger(new AndroidHTTPLogger())
+                .withMetricsListeners(MobileMessagingCore.getInstance(context).getStats().getApiMetricsListener())
                 .withAllowUntrustedSSLOnError(shouldAllowUntrustedSSLOnError(context))
                 .build();
 
@@ -0,0 +1,206 @@
+package org.infobip.mobile.messaging.mobileapi;
+
+import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
+import org.infobip.mobile.messaging.platform.Time;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces sync requests per synchronizer type.
+ * <br>
+ * Requests which arrive within the window are served by a single run of the action.
+ * At most one run per type is in flight, requests which arrive while a run is in flight
+ * result in exactly one more run after it completes.
+ * Run which does not complete within the in-flight timeout is considered lost,
+ * so that a single missed completion does not stop synchronization of the type.
+ */
+public class SyncCoordinator {
+
+    public static final long DEFAULT_IN_FLIGHT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * Action which performs synchronization of one type
+     */
+    public interface Action {
+        /**
+         * Starts synchronization, {@code onComplete} should be run exactly once when it is finished,
+         * including the cases when there was nothing to synchronize
+         *
+         * @param onComplete callback to run when synchronization is finished
+         */
+        void run(Runnable onComplete);
+    }
+
+    private enum State {
+        IDLE,
+        SCHEDULED,
+        IN_FLIGHT,
+        IN_FLIGHT_PENDING
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+    private final long inFlightTimeoutMillis;
+    private final Map<String, Slot> slots = new HashMap<>();
+
+    public SyncCoordinator(ScheduledExecutorService scheduler, long windowMillis) {
+        this(scheduler, windowMillis, DEFAULT_IN_FLIGHT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param scheduler             scheduler to run actions on
+     * @param windowMillis          time to wait for more requests before running the action
+     * @param inFlightTimeoutMillis time after which run that did not complete no longer blocks new runs
+     */
+    public SyncCoordinator(ScheduledExecutorService scheduler, long windowMillis, long inFlightTimeoutMillis) {
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+        this.inFlightTimeoutMillis = inFlightTimeoutMillis;
+    }
+
+    /**
+     * Registers action for the type, replaces previously registered action
+     *
+     * @param type   synchronizer type
+     * @param action action to run for requests of the type
+     */
+    public synchronized void register(String type, Action action) {
+        Slot slot = slots.get(type);
+        if (slot == null) {
+            slots.put(type, new Slot(type, action));
+        } else {
+            slot.action = action;
+        }
+    }
+
+    /**
+     * Requests synchronization of the type
+     *
+     * @param type synchronizer type
+     */
+    public void request(String type) {
+        Slot slot;
+        synchronized (this) {
+            slot = slots.get(type);
+        }
+        if (slot == null) {
+            MobileMessagingLogger.w("No sync action registered for " + type);
+            return;
+        }
+        slot.request();
+    }
+
+    /**
+     * Returns number of times the action of the type was started
+     *
+     * @param type synchronizer type
+     * @return number of runs
+     */
+    public synchronized long getRunCount(String type) {
+        Slot slot = slots.get(type);
+        return slot != null ? slot.runs : 0;
+    }
+
+    private class Slot {
+        private final String type;
+        private Action action;
+        private State state = State.IDLE;
+        private long runs;
+        private long startedAtMillis;
+
+        Slot(String type, Action action) {
+            this.type = type;
+            this.action = action;
+        }
+
+        void request() {
+            synchronized (SyncCoordinator.this) {
+                switch (state) {
+                    case IDLE:
+                        state = State.SCHEDULED;
+                        break;
+                    case IN_FLIGHT:
+                    case IN_FLIGHT_PENDING:
+                        if (Time.now() - startedAtMillis < inFlightTimeoutMillis) {
+                            state = State.IN_FLIGHT_PENDING;
+                            return;
+                        }
+                        MobileMessagingLogger.w("Sync of " + type + " did not complete in " + inFlightTimeoutMillis + " ms, starting new one");
+                        state = State.SCHEDULED;
+                        break;
+                    default:
+                        return;
+                }
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    start();
+                }
+            }, windowMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void start() {
+            Action action;
+            long run;
+            synchronized (SyncCoordinator.this) {
+                state = State.IN_FLIGHT;
+                startedAtMillis = Time.now();
+                run = ++runs;
+                action = this.action;
+            }
+
+            Completion completion = new Completion(this, run);
+            try {
+                action.run(completion);
+            } catch (Throwable t) {
+                MobileMessagingLogger.e("Sync of " + type + " failed", t);
+                completion.run();
+            }
+        }
+
+        private void complete(long run) {
+            synchronized (SyncCoordinator.this) {
+                if (run != runs || (state != State.IN_FLIGHT && state != State.IN_FLIGHT_PENDING)) {
+                    // completion of a run which timed out, newer run is in charge of the state
+                    return;
+                }
+                if (state != State.IN_FLIGHT_PENDING) {
+                    state = State.IDLE;
+                    return;
+                }
+                state = State.SCHEDULED;
+            }
+            schedule();
+        }
+    }
+
+    private static class Completion implements Runnable {
+        private final long run;
+        private Slot slot;
+
+        Completion(Slot slot, long run) {
+            this.slot = slot;
+            this.run = run;
+        }
+
+        @Override
+        public void run() {
+            Slot slot;
+            synchronized (this) {
+                slot = this.slot;
+                this.slot = null;
+            }
+            if (slot != null) {
+                slot.complete(run);
+            }
+        }
+    }
+}
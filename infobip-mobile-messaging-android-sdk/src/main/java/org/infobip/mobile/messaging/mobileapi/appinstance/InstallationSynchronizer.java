@@ -146,7 +146,7 @@ public class InstallationSynchronizer {
     }
 
     private void createInstallation(final Installation installation, final MobileMessaging.ResultListener<Installation> actionListener) {
-        new MRetryableTask<Void, AppInstance>() {
+        new MRetryableTask<Void, AppInstance>(mobileMessagingCore.getExecutors()) {
 
             @Override
             public boolean shouldCancel() {
@@ -209,6 +209,7 @@ public class InstallationSynchronizer {
             }
         }
                 .retryWith(retryPolicyProvider.DEFAULT())
+                .recordRetriesTo(stats, "MobileApiAppInstance.createInstance")
                 .execute(executor);
     }
 
@@ -256,7 +257,7 @@ public class InstallationSynchronizer {
 
         final String pushRegIdToUpdate = pushRegId;
         final Map<String, Object> installationMap = installation.getMap();
-        new MRetryableTask<Void, Void>() {
+        new MRetryableTask<Void, Void>(mobileMessagingCore.getExecutors()) {
 
             @Override
             public Void run(Void[] voids) {
@@ -299,6 +300,7 @@ public class InstallationSynchronizer {
             }
         }
                 .retryWith(retryPolicyProvider.DEFAULT())
+                .recordRetriesTo(stats, "MobileApiAppInstance.patchInstance")
                 .execute(executor);
     }
 
@@ -341,7 +343,7 @@ public class InstallationSynchronizer {
             return;
         }
 
-        new MRetryableTask<Void, AppInstance>() {
+        new MRetryableTask<Void, AppInstance>(mobileMessagingCore.getExecutors()) {
             @Override
             public AppInstance run(Void[] voids) {
                 MobileMessagingLogger.v("GET INSTALLATION >>>");
@@ -381,6 +383,7 @@ public class InstallationSynchronizer {
             }
         }
                 .retryWith(retryPolicyProvider.DEFAULT())
+                .recordRetriesTo(stats, "MobileApiAppInstance.getInstance")
                 .execute(executor);
     }
 
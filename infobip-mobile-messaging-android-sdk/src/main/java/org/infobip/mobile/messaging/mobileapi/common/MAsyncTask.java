@@ -1,7 +1,7 @@
 package org.infobip.mobile.messaging.mobileapi.common;
 
-import android.annotation.SuppressLint;
-import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
 import androidx.annotation.NonNull;
 
 import org.infobip.mobile.messaging.api.support.ApiBackendExceptionWithContent;
@@ -13,14 +13,16 @@ import org.infobip.mobile.messaging.mobileapi.common.exceptions.BackendCommunica
 import org.infobip.mobile.messaging.mobileapi.common.exceptions.BackendCommunicationExceptionWithContent;
 import org.infobip.mobile.messaging.mobileapi.common.exceptions.BackendInvalidParameterException;
 import org.infobip.mobile.messaging.mobileapi.common.exceptions.BackendInvalidParameterExceptionWithContent;
+import org.infobip.mobile.messaging.platform.MobileMessagingExecutors;
+import org.infobip.mobile.messaging.platform.Platform;
 
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
 /**
- * Wrapper object over native AsyncTask
- * for easier handling of background operations.
+ * Background operation which runs on SDK executors
+ * and delivers results on the main thread.
  *
  * @author sslavin
  * @since 23/07/2017.
@@ -39,55 +41,16 @@ public abstract class MAsyncTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
         add(ApiErrorCode.NO_REGISTRATION);
     }};
 
-    @SuppressLint("StaticFieldLeak")
-    private final AsyncTask<IN, Void, ResultWrapper<IN, OUT>> asyncTask = new AsyncTask<IN, Void, ResultWrapper<IN, OUT>>() {
-        @Override
-        protected void onPreExecute() {
-            before();
-        }
-
-        @Override
-        protected ResultWrapper<IN, OUT> doInBackground(IN[] ins) {
-            try {
-                if (shouldCancel()) {
-                    return new ResultWrapper<>(ins, true);
-                } else {
-                    OUT out = run(ins);
-                    afterBackground(out);
-                    return new ResultWrapper<>(out);
-                }
-            } catch (Throwable error) {
-                return new ResultWrapper<>(ins, error);
-            }
-        }
-
-        @Override
-        protected void onPostExecute(ResultWrapper<IN, OUT> resultWrapper) {
-            MobileMessagingLogger.v("Result wrapper: ", resultWrapper);
-            if (resultWrapper.cancelled) {
-                cancelled(resultWrapper.inputs);
-                return;
-            }
-
-            if (resultWrapper.error == null) {
-                after(resultWrapper.result);
-                return;
-            }
-
-            Throwable error = backendErrorToTaskError(resultWrapper.error);
-            error(error);
-            error(resultWrapper.inputs, error);
-        }
-    };
+    private static final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
 
     /**
-     * Starts execution of background task
+     * Starts execution of background task on the default SDK queue
      *
      * @param ins input parametes
      */
     @SuppressWarnings({"unused", "unchecked"})
     public void execute(IN... ins) {
-        asyncTask.execute(ins);
+        execute(Platform.executors().queue(MobileMessagingExecutors.QUEUE_DEFAULT), ins);
     }
 
     /**
@@ -97,12 +60,55 @@ public abstract class MAsyncTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
      * @param ins      input parameters.
      */
     @SuppressWarnings({"unused", "unchecked"})
-    public void execute(Executor executor, IN... ins) {
-        asyncTask.executeOnExecutor(executor, ins);
+    public void execute(Executor executor, final IN... ins) {
+        before();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final ResultWrapper<IN, OUT> resultWrapper = runInBackground(ins);
+                mainThreadHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliver(resultWrapper);
+                    }
+                });
+            }
+        });
     }
 
     // region private methods
 
+    private ResultWrapper<IN, OUT> runInBackground(IN[] ins) {
+        try {
+            if (shouldCancel()) {
+                return new ResultWrapper<>(ins, true);
+            } else {
+                OUT out = run(ins);
+                afterBackground(out);
+                return new ResultWrapper<>(out);
+            }
+        } catch (Throwable error) {
+            return new ResultWrapper<>(ins, error);
+        }
+    }
+
+    private void deliver(ResultWrapper<IN, OUT> resultWrapper) {
+        MobileMessagingLogger.v("Result wrapper: ", resultWrapper);
+        if (resultWrapper.cancelled) {
+            cancelled(resultWrapper.inputs);
+            return;
+        }
+
+        if (resultWrapper.error == null) {
+            after(resultWrapper.result);
+            return;
+        }
+
+        Throwable error = backendErrorToTaskError(resultWrapper.error);
+        error(error);
+        error(resultWrapper.inputs, error);
+    }
+
     private static Throwable backendErrorToTaskError(Throwable originalError) {
         if (isInvalidParameterErrorWithContent(originalError)) {
             return new BackendInvalidParameterExceptionWithContent(originalError.getMessage(), (ApiBackendExceptionWithContent) originalError);
@@ -4,7 +4,9 @@ import org.infobip.mobile.messaging.mobileapi.common.exceptions.BackendCommunica
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author sslavin
@@ -13,6 +15,13 @@ import java.util.Set;
 
 public class MRetryPolicy {
 
+    /**
+     * Upper bound of a single backoff delay
+     */
+    static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final Random random = new Random();
+
     private final Set<Class<? extends Throwable>> errorsToRetryOn = new HashSet<>();
 
     private int maxRetries = 1;
@@ -22,14 +31,42 @@ public class MRetryPolicy {
     }
 
     boolean shouldRetry(Throwable error, int attemptsDone) {
+        return attemptsDone < maxRetries && isRetryable(error);
+    }
+
+    boolean isRetryable(Throwable error) {
         for (Class cls : errorsToRetryOn) {
-            if (cls.isInstance(error) && attemptsDone < maxRetries) {
+            if (cls.isInstance(error)) {
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Returns delay before the next attempt. Delay grows exponentially with the number of attempts
+     * and is randomized between half and full value, so that devices which failed at the same time don't retry in lockstep.
+     *
+     * @param attempt number of the failed attempt, starting from 1
+     * @return delay in milliseconds
+     */
+    public long getBackoffDelayMillis(int attempt) {
+        return backoffDelayMillis(backoffMultiplier, attempt, random.nextDouble());
+    }
+
+    static long backoffDelayMillis(int multiplierSeconds, int attempt, double jitter) {
+        if (multiplierSeconds <= 0 || attempt <= 0) {
+            return 0;
+        }
+
+        long delay = TimeUnit.SECONDS.toMillis(multiplierSeconds);
+        for (int i = 1; i < attempt && delay < MAX_BACKOFF_MILLIS; i++) {
+            delay *= 2;
+        }
+        delay = Math.min(delay, MAX_BACKOFF_MILLIS);
+        return delay / 2 + (long) (delay / 2 * jitter);
+    }
+
     public int getMaxRetries() {
         return maxRetries;
     }
@@ -1,9 +1,12 @@
 package org.infobip.mobile.messaging.mobileapi.common;
 
-import android.os.Handler;
-import android.os.Looper;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import org.infobip.mobile.messaging.platform.MobileMessagingExecutors;
+import org.infobip.mobile.messaging.platform.Platform;
+import org.infobip.mobile.messaging.stats.MobileMessagingStats;
+
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
@@ -14,10 +17,13 @@ import java.util.concurrent.TimeUnit;
 
 public abstract class MRetryableTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
 
-    private final Handler handler = new Handler(Looper.getMainLooper());
-
+    private final MobileMessagingExecutors executors;
     private volatile ExecutionContext executionContext;
     private MRetryPolicy retryPolicy;
+    private RetryQueue retryQueue;
+    private RetryOperation retryOperation;
+    private MobileMessagingStats stats;
+    private String statsOperation;
 
     private class ExecutionContext {
         final Executor executor;
@@ -36,6 +42,22 @@ public abstract class MRetryableTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
         }
     }
 
+    /**
+     * Creates task which runs on default SDK executors
+     */
+    public MRetryableTask() {
+        this(Platform.executors());
+    }
+
+    /**
+     * Creates task which runs on the provided executors
+     *
+     * @param executors executors to run the task, schedule its retries and update retry queue on
+     */
+    public MRetryableTask(@NonNull MobileMessagingExecutors executors) {
+        this.executors = executors;
+    }
+
     /**
      * Specifies policy to use when performing retries
      *
@@ -48,6 +70,34 @@ public abstract class MRetryableTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
         return this;
     }
 
+    /**
+     * Persists the operation in retry queue when all in-process retries fail,
+     * so that it's retried with backoff of the queue even after the process is restarted.
+     * Operation is removed from the queue when the task succeeds or fails with an error that should not be retried.
+     *
+     * @param retryQueue queue to persist the operation to, nothing is persisted if null
+     * @param operation  key of the operation in the queue
+     * @return self
+     */
+    public MRetryableTask<IN, OUT> persistAs(@Nullable RetryQueue retryQueue, RetryOperation operation) {
+        this.retryQueue = retryQueue;
+        this.retryOperation = operation;
+        return this;
+    }
+
+    /**
+     * Records each retry of the task to statistics
+     *
+     * @param stats     statistics to record retries to, nothing is recorded if null
+     * @param operation name of the operation in statistics, such as "MobileApiMessages.sync"
+     * @return self
+     */
+    public MRetryableTask<IN, OUT> recordRetriesTo(@Nullable MobileMessagingStats stats, String operation) {
+        this.stats = stats;
+        this.statsOperation = operation;
+        return this;
+    }
+
     @SafeVarargs
     public final void execute(IN... ins) {
         executionContext = new ExecutionContext(null, ins, retryPolicy);
@@ -79,11 +129,16 @@ public abstract class MRetryableTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
 
             @Override
             public OUT run(IN[] ins) {
+                int attempt = executionContext.attempts;
+                if (attempt > 0 && stats != null) {
+                    stats.recordRetry(statsOperation, attempt);
+                }
                 return MRetryableTask.this.run(ins);
             }
 
             @Override
             public void afterBackground(OUT out) {
+                removeFromRetryQueue();
                 MRetryableTask.this.afterBackground(out);
             }
 
@@ -95,6 +150,11 @@ public abstract class MRetryableTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
             @Override
             public void error(Throwable error) {
                 if (!executionContext.retryPolicy.shouldRetry(error, executionContext.attempts)) {
+                    if (executionContext.retryPolicy.isRetryable(error)) {
+                        reportFailureToRetryQueue();
+                    } else {
+                        removeFromRetryQueue();
+                    }
                     MRetryableTask.this.error(error);
                     MRetryableTask.this.error(executionContext.args, error);
                     executionContext = null;
@@ -102,12 +162,12 @@ public abstract class MRetryableTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
                 }
 
                 executionContext.attempts++;
-                handler.postDelayed(new Runnable() {
+                executors.scheduler().schedule(new Runnable() {
                     @Override
                     public void run() {
                         MRetryableTask.this.execute();
                     }
-                }, TimeUnit.SECONDS.toMillis(executionContext.attempts * executionContext.attempts * executionContext.retryPolicy.getBackoffMultiplier()));
+                }, executionContext.retryPolicy.getBackoffDelayMillis(executionContext.attempts), TimeUnit.MILLISECONDS);
             }
 
             @Override
@@ -116,10 +176,37 @@ public abstract class MRetryableTask<IN, OUT> extends IMAsyncTask<IN, OUT> {
             }
         };
 
-        if (executionContext.executor != null) {
-            asyncTask.execute(executionContext.executor, executionContext.args);
-        } else {
-            asyncTask.execute(executionContext.args);
+        Executor executor = executionContext.executor != null ? executionContext.executor : executors.queue(MobileMessagingExecutors.QUEUE_DEFAULT);
+        asyncTask.execute(executor, executionContext.args);
+    }
+
+    private void removeFromRetryQueue() {
+        final RetryQueue queue = retryQueue;
+        final RetryOperation operation = retryOperation;
+        if (queue == null || operation == null) {
+            return;
         }
+
+        executors.queue(MobileMessagingExecutors.QUEUE_BACKGROUND).execute(new Runnable() {
+            @Override
+            public void run() {
+                queue.remove(operation);
+            }
+        });
+    }
+
+    private void reportFailureToRetryQueue() {
+        final RetryQueue queue = retryQueue;
+        final RetryOperation operation = retryOperation;
+        if (queue == null || operation == null) {
+            return;
+        }
+
+        executors.queue(MobileMessagingExecutors.QUEUE_BACKGROUND).execute(new Runnable() {
+            @Override
+            public void run() {
+                queue.reportFailure(operation);
+            }
+        });
     }
 }
@@ -0,0 +1,30 @@
+package org.infobip.mobile.messaging.mobileapi.common;
+
+/**
+ * Mobile API operations which are retried through {@link RetryQueue}.
+ * <br>
+ * Each operation sends data which is already persisted by the SDK, so retrying means running the operation again.
+ */
+public enum RetryOperation {
+
+    /**
+     * Synchronization of messages, which also reports delivery
+     */
+    DELIVERY_REPORTS(30),
+    MO_MESSAGES(20),
+    SEEN_REPORTS(10),
+    SESSION_REPORTS(0);
+
+    private final int priority;
+
+    RetryOperation(int priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * @return priority of the operation, operations with higher priority are dispatched first
+     */
+    public int getPriority() {
+        return priority;
+    }
+}
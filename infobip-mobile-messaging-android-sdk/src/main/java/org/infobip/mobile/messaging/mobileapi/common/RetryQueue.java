@@ -0,0 +1,245 @@
+package org.infobip.mobile.messaging.mobileapi.common;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.RetryColumns;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.Tables;
+import org.infobip.mobile.messaging.dal.sqlite.SqliteDatabaseProvider;
+import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
+import org.infobip.mobile.messaging.platform.Time;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable queue of failed Mobile API operations backed by {@link Tables#RETRY_OPERATIONS} table.
+ * <br>
+ * Each operation is queued at most once. Failed operations are retried with exponential backoff and jitter
+ * of the queue's own policy, independent of in-process retries of the operation. Operations with higher {@link RetryOperation#getPriority() priority} are dispatched first.
+ * The queue survives process restarts, the next retry is scheduled with {@link Scheduler}.
+ * <br>
+ * Dispatched operations stay in the queue, leased for {@link #LEASE_MILLIS}, until they report back with
+ * {@link #remove(RetryOperation)} or {@link #reportFailure(RetryOperation)}. An operation which does not report back,
+ * for example because the process was killed meanwhile, is dispatched again once the lease expires.
+ */
+public class RetryQueue {
+
+    /**
+     * Operation is dropped after this many failed attempts, the data it sends stays persisted for the next regular sync
+     */
+    static final int MAX_ATTEMPTS = 20;
+
+    /**
+     * Backoff multiplier of queued operations, the first retry happens within 15-30 seconds
+     */
+    static final int BACKOFF_MULTIPLIER_SECONDS = 30;
+
+    /**
+     * Minimum time a dispatched operation has to report back before it is dispatched again
+     */
+    static final long LEASE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * Runs the operation again
+     */
+    public interface Dispatcher {
+        void dispatch(RetryOperation operation);
+    }
+
+    /**
+     * Schedules {@link #dispatchDue()} to be called after the delay
+     */
+    public interface Scheduler {
+        void schedule(long delayMillis);
+    }
+
+    private static final String SQL_NEXT_RUN_AT = "SELECT MIN(" + RetryColumns.NEXT_RUN_AT + ") FROM " + Tables.RETRY_OPERATIONS;
+
+    private final SqliteDatabaseProvider databaseProvider;
+    private final MRetryPolicy backoffPolicy;
+    private final Scheduler scheduler;
+    private final Dispatcher dispatcher;
+    private final Set<RetryOperation> dispatched = EnumSet.noneOf(RetryOperation.class);
+
+    public RetryQueue(SqliteDatabaseProvider databaseProvider, Scheduler scheduler, Dispatcher dispatcher) {
+        this(databaseProvider, new MRetryPolicy.Builder().withBackoffMultiplier(BACKOFF_MULTIPLIER_SECONDS).build(), scheduler, dispatcher);
+    }
+
+    /**
+     * @param backoffPolicy policy which defines backoff between retries of queued operations, must have positive backoff multiplier
+     */
+    RetryQueue(SqliteDatabaseProvider databaseProvider, MRetryPolicy backoffPolicy, Scheduler scheduler, Dispatcher dispatcher) {
+        if (backoffPolicy.getBackoffMultiplier() <= 0) {
+            throw new IllegalArgumentException("Retry queue requires backoff, multiplier is " + backoffPolicy.getBackoffMultiplier());
+        }
+        this.databaseProvider = databaseProvider;
+        this.backoffPolicy = backoffPolicy;
+        this.scheduler = scheduler;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Records failed attempt of the operation and schedules the next one
+     *
+     * @param operation failed operation
+     */
+    public void reportFailure(RetryOperation operation) {
+        synchronized (this) {
+            // attempt of a dispatched operation was already counted when it was leased
+            int attempts = dispatched.remove(operation) ? findAttempts(operation) : findAttempts(operation) + 1;
+            if (attempts > MAX_ATTEMPTS) {
+                MobileMessagingLogger.w("Giving up retries of " + operation + " after " + MAX_ATTEMPTS + " attempts");
+                delete(operation);
+            } else {
+                ContentValues values = new ContentValues();
+                values.put(RetryColumns.OPERATION, operation.name());
+                values.put(RetryColumns.PRIORITY, operation.getPriority());
+                values.put(RetryColumns.ATTEMPTS, attempts);
+                values.put(RetryColumns.NEXT_RUN_AT, Time.now() + backoffPolicy.getBackoffDelayMillis(attempts));
+                databaseProvider.getDatabase().insertWithOnConflict(Tables.RETRY_OPERATIONS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+        }
+        scheduleNext();
+    }
+
+    /**
+     * Removes the operation from the queue, either because it succeeded or because retrying would not help
+     *
+     * @param operation completed operation
+     */
+    public synchronized void remove(RetryOperation operation) {
+        dispatched.remove(operation);
+        delete(operation);
+    }
+
+    /**
+     * Dispatches operations which are due, by priority, and schedules the next check
+     */
+    public void dispatchDue() {
+        for (RetryOperation operation : takeDue(Time.now())) {
+            MobileMessagingLogger.d("Retrying " + operation);
+            try {
+                dispatcher.dispatch(operation);
+            } catch (Exception e) {
+                MobileMessagingLogger.e("Failed to dispatch " + operation, e);
+            }
+        }
+        scheduleNext();
+    }
+
+    /**
+     * Schedules the next check if there are queued operations
+     */
+    public void scheduleNext() {
+        Long nextRunAt = findNextRunAt();
+        if (nextRunAt != null) {
+            scheduler.schedule(Math.max(0, nextRunAt - Time.now()));
+        }
+    }
+
+    /**
+     * Returns queued operations by priority, highest first
+     *
+     * @return queued operations
+     */
+    @NonNull
+    public synchronized List<RetryOperation> findAll() {
+        return find(Long.MAX_VALUE);
+    }
+
+    /**
+     * Leases operations which are due and returns them by priority, highest first.
+     * Each lease counts as an attempt, so that operations which never report back are eventually dropped.
+     */
+    @NonNull
+    synchronized List<RetryOperation> takeDue(long now) {
+        SQLiteDatabase db = databaseProvider.getDatabase();
+        db.beginTransaction();
+        try {
+            List<RetryOperation> operations = new ArrayList<>();
+            for (RetryOperation operation : find(now)) {
+                int attempts = findAttempts(operation) + 1;
+                if (attempts > MAX_ATTEMPTS) {
+                    MobileMessagingLogger.w("Giving up retries of " + operation + " after " + MAX_ATTEMPTS + " attempts");
+                    delete(operation);
+                    continue;
+                }
+                lease(operation, attempts, now + Math.max(LEASE_MILLIS, backoffPolicy.getBackoffDelayMillis(attempts)));
+                dispatched.add(operation);
+                operations.add(operation);
+            }
+            db.setTransactionSuccessful();
+            return operations;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Nullable
+    private synchronized Long findNextRunAt() {
+        Cursor cursor = databaseProvider.getDatabase().rawQuery(SQL_NEXT_RUN_AT, null);
+        try {
+            if (cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getLong(0);
+            }
+            return null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private int findAttempts(RetryOperation operation) {
+        Cursor cursor = databaseProvider.getDatabase().query(Tables.RETRY_OPERATIONS, new String[]{RetryColumns.ATTEMPTS},
+                RetryColumns.OPERATION + " = ?", new String[]{operation.name()}, null, null, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private List<RetryOperation> find(long dueBefore) {
+        List<RetryOperation> operations = new ArrayList<>();
+        Cursor cursor = databaseProvider.getDatabase().query(Tables.RETRY_OPERATIONS, new String[]{RetryColumns.OPERATION},
+                RetryColumns.NEXT_RUN_AT + " <= ?", new String[]{String.valueOf(dueBefore)}, null, null,
+                RetryColumns.PRIORITY + " DESC, " + RetryColumns.NEXT_RUN_AT + " ASC");
+        try {
+            while (cursor.moveToNext()) {
+                RetryOperation operation = operation(cursor.getString(0));
+                if (operation != null) {
+                    operations.add(operation);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        return operations;
+    }
+
+    private void lease(RetryOperation operation, int attempts, long leasedUntil) {
+        ContentValues values = new ContentValues();
+        values.put(RetryColumns.ATTEMPTS, attempts);
+        values.put(RetryColumns.NEXT_RUN_AT, leasedUntil);
+        databaseProvider.getDatabase().update(Tables.RETRY_OPERATIONS, values, RetryColumns.OPERATION + " = ?", new String[]{operation.name()});
+    }
+
+    private void delete(RetryOperation operation) {
+        databaseProvider.getDatabase().delete(Tables.RETRY_OPERATIONS, RetryColumns.OPERATION + " = ?", new String[]{operation.name()});
+    }
+
+    @Nullable
+    private static RetryOperation operation(String name) {
+        try {
+            return RetryOperation.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
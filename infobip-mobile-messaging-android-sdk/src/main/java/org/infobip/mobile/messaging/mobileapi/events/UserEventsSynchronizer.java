@@ -18,6 +18,7 @@ import org.infobip.mobile.messaging.mobileapi.Result;
 import org.infobip.mobile.messaging.mobileapi.common.MAsyncTask;
 import org.infobip.mobile.messaging.mobileapi.common.MRetryPolicy;
 import org.infobip.mobile.messaging.mobileapi.common.MRetryableTask;
+import org.infobip.mobile.messaging.mobileapi.common.RetryOperation;
 import org.infobip.mobile.messaging.platform.Broadcaster;
 import org.infobip.mobile.messaging.util.StringUtils;
 
@@ -72,7 +73,7 @@ public class UserEventsSynchronizer {
             return;
         }
 
-        new MRetryableTask<Void, Void>() {
+        new MRetryableTask<Void, Void>(mobileMessagingCore.getExecutors()) {
 
             @Override
             public Void run(Void[] voids) {
@@ -96,6 +97,8 @@ public class UserEventsSynchronizer {
             }
         }
                 .retryWith(policy)
+                .recordRetriesTo(mobileMessagingCore.getStats(), "MobileApiAppInstance.sendUserSessionReport")
+                .persistAs(mobileMessagingCore.getRetryQueue(), RetryOperation.SESSION_REPORTS)
                 .execute(executor);
     }
 
@@ -41,7 +41,11 @@ class MessagesMapper {
             e.printStackTrace();
         }
 
-        final String internalData = response.getInternalData();
+        final String internalDataJson = response.getInternalData();
+        InternalDataMapper.InternalData internalData = InternalDataMapper.parseInternalData(internalDataJson);
+        if (internalData == null) {
+            internalData = new InternalDataMapper.InternalData();
+        }
         Message message = new Message(
                 response.getMessageId(),
                 response.getTitle(),
@@ -54,21 +58,21 @@ class MessagesMapper {
                 null,
                 Time.now(),
                 0,
-                InternalDataMapper.getInternalDataSendDateTime(internalData),
+                internalData.getSendDateTime(),
                 customPayload,
-                internalData,
+                internalDataJson,
                 null,
                 Message.Status.UNKNOWN,
                 null,
-                InternalDataMapper.getInternalDataContentUrl(internalData),
-                InternalDataMapper.getInternalDataInAppStyle(internalData),
-                InternalDataMapper.getInternalDataInAppExpiryDateTime(internalData),
-                InternalDataMapper.getInternalDataWebViewUrl(internalData),
-                InternalDataMapper.getInternalDataBrowserUrl(internalData),
-                InternalDataMapper.getInternalDataMessageType(internalData),
-                InternalDataMapper.getInternalDataDeeplinkUri(internalData),
-                InternalDataMapper.getInternalDataInAppOpenTitle(internalData),
-                InternalDataMapper.getInternalDataInAppDismissTitle(internalData)
+                internalData.getContentUrl(),
+                internalData.getInAppStyle(),
+                internalData.getInAppExpiryDateTime(),
+                internalData.getWebViewUrl(),
+                internalData.getBrowserUrl(),
+                internalData.getMessageType(),
+                internalData.getDeeplink(),
+                internalData.getInAppOpenTitle(),
+                internalData.getInAppDismissTitle()
         );
 
         InternalDataMapper.updateMessageWithInternalData(message, internalData);
@@ -1,5 +1,7 @@
 package org.infobip.mobile.messaging.mobileapi.messages;
 
+import androidx.annotation.Nullable;
+
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MobileMessagingCore;
 import org.infobip.mobile.messaging.api.messages.MobileApiMessages;
@@ -10,6 +12,7 @@ import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.mobileapi.MobileMessagingError;
 import org.infobip.mobile.messaging.mobileapi.common.MRetryPolicy;
 import org.infobip.mobile.messaging.mobileapi.common.MRetryableTask;
+import org.infobip.mobile.messaging.mobileapi.common.RetryOperation;
 import org.infobip.mobile.messaging.platform.Broadcaster;
 import org.infobip.mobile.messaging.platform.Time;
 import org.infobip.mobile.messaging.stats.MobileMessagingStats;
@@ -56,8 +59,18 @@ public class MessagesSynchronizer {
     }
 
     public void sync() {
+        sync(null);
+    }
+
+    /**
+     * Reports delivery of messages and fetches missed messages
+     *
+     * @param onComplete callback to run when synchronization is finished, can be null
+     */
+    public void sync(@Nullable final Runnable onComplete) {
         if (StringUtils.isBlank(mobileMessagingCore.getPushRegistrationId())) {
             MobileMessagingLogger.w("Registration not available yet, will patch messages later");
+            complete(onComplete);
             return;
         }
 
@@ -65,11 +78,12 @@ public class MessagesSynchronizer {
         if (unreportedMessageIds.length == 0 && lastSyncTimeMillis != null &&
                 Time.now() - lastSyncTimeMillis < SYNC_MSGS_THROTTLE_INTERVAL_MILLIS ||
                 !mobileMessagingCore.isPushRegistrationEnabled()) {
+            complete(onComplete);
             return;
         }
         lastSyncTimeMillis = Time.now();
 
-        new MRetryableTask<Void, List<Message>>() {
+        new MRetryableTask<Void, List<Message>>(mobileMessagingCore.getExecutors()) {
             @Override
             public List<Message> run(Void[] objects) {
                 String[] messageIds = mobileMessagingCore.getSyncMessagesIds();
@@ -83,27 +97,44 @@ public class MessagesSynchronizer {
 
             @Override
             public void after(List<Message> messages) {
-                broadcaster.deliveryReported(unreportedMessageIds);
-                if (messages == null || messages.isEmpty()) {
-                    return;
-                }
-
-                for (Message message : messages) {
-                    mobileMessageHandler.handleMessage(message);
+                try {
+                    broadcaster.deliveryReported(unreportedMessageIds);
+                    if (messages != null) {
+                        mobileMessageHandler.handleMessages(messages);
+                    }
+                } finally {
+                    complete(onComplete);
                 }
             }
 
             @Override
             public void error(Throwable error) {
-                mobileMessagingCore.addUnreportedMessageIds(unreportedMessageIds);
+                try {
+                    mobileMessagingCore.addUnreportedMessageIds(unreportedMessageIds);
+
+                    MobileMessagingLogger.e("MobileMessaging API returned error (synchronizing messages)! ", error);
+                    stats.reportError(MobileMessagingStatsError.SYNC_MESSAGES_ERROR);
 
-                MobileMessagingLogger.e("MobileMessaging API returned error (synchronizing messages)! ", error);
-                stats.reportError(MobileMessagingStatsError.SYNC_MESSAGES_ERROR);
+                    broadcaster.error(MobileMessagingError.createFrom(error));
+                } finally {
+                    complete(onComplete);
+                }
+            }
 
-                broadcaster.error(MobileMessagingError.createFrom(error));
+            @Override
+            public void cancelled(Void[] voids) {
+                complete(onComplete);
             }
         }
                 .retryWith(retryPolicy)
+                .recordRetriesTo(stats, "MobileApiMessages.sync")
+                .persistAs(mobileMessagingCore.getRetryQueue(), RetryOperation.DELIVERY_REPORTS)
                 .execute(executor);
     }
+
+    private static void complete(@Nullable Runnable onComplete) {
+        if (onComplete != null) {
+            onComplete.run();
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package org.infobip.mobile.messaging.mobileapi.messages;
 
 import android.content.Context;
+import androidx.annotation.Nullable;
 
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MobileMessaging;
@@ -16,6 +17,7 @@ import org.infobip.mobile.messaging.mobileapi.MobileMessagingError;
 import org.infobip.mobile.messaging.mobileapi.Result;
 import org.infobip.mobile.messaging.mobileapi.common.MRetryPolicy;
 import org.infobip.mobile.messaging.mobileapi.common.MRetryableTask;
+import org.infobip.mobile.messaging.mobileapi.common.RetryOperation;
 import org.infobip.mobile.messaging.platform.Broadcaster;
 import org.infobip.mobile.messaging.platform.Time;
 import org.infobip.mobile.messaging.stats.MobileMessagingStats;
@@ -128,27 +130,58 @@ public class MoMessageSender {
     }
 
     public void sync() {
+        sync(null);
+    }
+
+    /**
+     * Sends saved messages
+     *
+     * @param onComplete callback to run when sending is finished, can be null
+     */
+    public void sync(@Nullable final Runnable onComplete) {
         Message[] messages = getAndRemoveMessages();
         if (messages.length == 0) {
+            complete(onComplete);
             return;
         }
 
         new Task() {
 
+            @Override
+            public void after(Message[] messages) {
+                complete(onComplete);
+            }
+
             @Override
             public void error(Message[] messages, Throwable error) {
-                MobileMessagingLogger.e("MobileMessaging API returned error (sending messages in retry)! ", error);
+                try {
+                    MobileMessagingLogger.e("MobileMessaging API returned error (sending messages in retry)! ", error);
 
-                stats.reportError(MobileMessagingStatsError.MESSAGE_SEND_ERROR);
-                broadcaster.error(MobileMessagingError.createFrom(error));
+                    stats.reportError(MobileMessagingStatsError.MESSAGE_SEND_ERROR);
+                    broadcaster.error(MobileMessagingError.createFrom(error));
 
-                saveMessages(messages);
+                    saveMessages(messages);
+                } finally {
+                    complete(onComplete);
+                }
+            }
+
+            @Override
+            public void cancelled(Message[] messages) {
+                complete(onComplete);
             }
         }
         .retryWith(retryPolicy)
+        .persistAs(mobileMessagingCore.getRetryQueue(), RetryOperation.MO_MESSAGES)
         .execute(executor, messages);
     }
 
+    private static void complete(@Nullable Runnable onComplete) {
+        if (onComplete != null) {
+            onComplete.run();
+        }
+    }
+
     private void saveMessages(Message... messages) {
         String[] jsons = messagesToJson(excludeOutdatedMessages(messages));
         PreferenceHelper.appendToStringArray(context, MobileMessagingProperty.UNSENT_MO_MESSAGES, jsons);
@@ -1,5 +1,7 @@
 package org.infobip.mobile.messaging.mobileapi.seen;
 
+import androidx.annotation.Nullable;
+
 import org.infobip.mobile.messaging.MobileMessagingCore;
 import org.infobip.mobile.messaging.api.messages.MobileApiMessages;
 import org.infobip.mobile.messaging.api.messages.SeenMessages;
@@ -7,7 +9,9 @@ import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.mobileapi.BatchReporter;
 import org.infobip.mobile.messaging.mobileapi.InternalSdkError;
 import org.infobip.mobile.messaging.mobileapi.MobileMessagingError;
-import org.infobip.mobile.messaging.mobileapi.common.MAsyncTask;
+import org.infobip.mobile.messaging.mobileapi.common.MRetryPolicy;
+import org.infobip.mobile.messaging.mobileapi.common.MRetryableTask;
+import org.infobip.mobile.messaging.mobileapi.common.RetryOperation;
 import org.infobip.mobile.messaging.platform.Broadcaster;
 import org.infobip.mobile.messaging.stats.MobileMessagingStats;
 import org.infobip.mobile.messaging.stats.MobileMessagingStatsError;
@@ -21,6 +25,11 @@ import java.util.concurrent.Executor;
  */
 public class SeenStatusReporter {
 
+    /**
+     * Seen reports are not retried in-process, failed reports are retried by retry queue
+     */
+    private static final MRetryPolicy NO_RETRY_POLICY = new MRetryPolicy.Builder().withMaxRetries(0).build();
+
     private final MobileMessagingCore mobileMessagingCore;
     private final MobileMessagingStats stats;
     private final Executor executor;
@@ -45,15 +54,25 @@ public class SeenStatusReporter {
     }
 
     public void sync() {
+        sync(null);
+    }
+
+    /**
+     * Reports seen status of messages
+     *
+     * @param onComplete callback to run when reporting is finished, can be null
+     */
+    public void sync(@Nullable final Runnable onComplete) {
         String[] unreportedSeenMessageIds = mobileMessagingCore.getUnreportedSeenMessageIds();
         if (unreportedSeenMessageIds.length == 0) {
+            complete(onComplete);
             return;
         }
 
         batchReporter.put(new Runnable() {
             @Override
             public void run() {
-                new MAsyncTask<Void, String[]>() {
+                new MRetryableTask<Void, String[]>(mobileMessagingCore.getExecutors()) {
                     @Override
                     public String[] run(Void[] voids) {
 
@@ -77,19 +96,40 @@ public class SeenStatusReporter {
 
                     @Override
                     public void after(String[] messageIdsWithTimestamp) {
-                        String[] seenMessageIdsFromReports = mobileMessagingCore.getSeenMessageIdsFromReports(messageIdsWithTimestamp).toArray(new String[0]);
-                        broadcaster.seenStatusReported(seenMessageIdsFromReports);
+                        try {
+                            String[] seenMessageIdsFromReports = mobileMessagingCore.getSeenMessageIdsFromReports(messageIdsWithTimestamp).toArray(new String[0]);
+                            broadcaster.seenStatusReported(seenMessageIdsFromReports);
+                        } finally {
+                            complete(onComplete);
+                        }
                     }
 
                     @Override
                     public void error(Throwable error) {
-                        MobileMessagingLogger.e("Error reporting seen status!");
-                        stats.reportError(MobileMessagingStatsError.SEEN_REPORTING_ERROR);
-                        broadcaster.error(MobileMessagingError.createFrom(error));
+                        try {
+                            MobileMessagingLogger.e("Error reporting seen status!");
+                            stats.reportError(MobileMessagingStatsError.SEEN_REPORTING_ERROR);
+                            broadcaster.error(MobileMessagingError.createFrom(error));
+                        } finally {
+                            complete(onComplete);
+                        }
+                    }
+
+                    @Override
+                    public void cancelled(Void[] voids) {
+                        complete(onComplete);
                     }
                 }
+                .retryWith(NO_RETRY_POLICY)
+                .persistAs(mobileMessagingCore.getRetryQueue(), RetryOperation.SEEN_REPORTS)
                 .execute(executor);
             }
         });
     }
+
+    private static void complete(@Nullable Runnable onComplete) {
+        if (onComplete != null) {
+            onComplete.run();
+        }
+    }
 }
@@ -64,7 +64,7 @@ public class PersonalizeSynchronizer {
             userPersonalizeBody.setUserAttributes(userAttributes.getMap());
         }
 
-        new MRetryableTask<UserPersonalizeBody, Void>() {
+        new MRetryableTask<UserPersonalizeBody, Void>(mobileMessagingCore.getExecutors()) {
 
             @Override
             public Void run(UserPersonalizeBody[] userPersonalizeBodies) {
@@ -104,6 +104,7 @@ public class PersonalizeSynchronizer {
             }
         }
                 .retryWith(policy)
+                .recordRetriesTo(mobileMessagingCore.getStats(), "MobileApiAppInstance.personalize")
                 .execute(executor, userPersonalizeBody);
     }
 
@@ -111,7 +112,7 @@ public class PersonalizeSynchronizer {
         batchReporter.put(new Runnable() {
             @Override
             public void run() {
-                new MRetryableTask<String, Void>() {
+                new MRetryableTask<String, Void>(mobileMessagingCore.getExecutors()) {
 
                     @Override
                     public Void run(String[] pushRegIds) {
@@ -142,13 +143,14 @@ public class PersonalizeSynchronizer {
                     }
                 }
                         .retryWith(policy)
+                        .recordRetriesTo(mobileMessagingCore.getStats(), "MobileApiAppInstance.depersonalize")
                         .execute(executor, mobileMessagingCore.getPushRegistrationId());
             }
         });
     }
 
     public void depersonalize(String unreportedDepersonalizedPushRegId, final DepersonalizeActionListener actionListener) {
-        new MRetryableTask<String, Void>() {
+        new MRetryableTask<String, Void>(mobileMessagingCore.getExecutors()) {
 
             @Override
             public Void run(String[] pushRegIds) {
@@ -176,6 +178,7 @@ public class PersonalizeSynchronizer {
             }
         }
                 .retryWith(policy)
+                .recordRetriesTo(mobileMessagingCore.getStats(), "MobileApiAppInstance.depersonalize")
                 .execute(executor, unreportedDepersonalizedPushRegId);
     }
 
@@ -221,7 +224,7 @@ public class PersonalizeSynchronizer {
             return;
         }
 
-        new MRetryableTask<UserPersonalizeBody, Void>() {
+        new MRetryableTask<UserPersonalizeBody, Void>(mobileMessagingCore.getExecutors()) {
 
             @Override
             public Void run(UserPersonalizeBody[] userPersonalizeBodies) {
@@ -254,6 +257,7 @@ public class PersonalizeSynchronizer {
             }
         }
                 .retryWith(policy)
+                .recordRetriesTo(mobileMessagingCore.getStats(), "MobileApiAppInstance.repersonalize")
                 .execute(executor, userPersonalizeBody);
     }
 }
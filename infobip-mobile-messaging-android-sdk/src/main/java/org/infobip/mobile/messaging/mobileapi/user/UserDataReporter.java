@@ -69,7 +69,7 @@ public class UserDataReporter {
             return;
         }
 
-        new MRetryableTask<User, Void>() {
+        new MRetryableTask<User, Void>(mobileMessagingCore.getExecutors()) {
 
             @Override
             public Void run(User[] userData) {
@@ -119,6 +119,7 @@ public class UserDataReporter {
             }
         }
                 .retryWith(retryPolicy(listener))
+                .recordRetriesTo(stats, "MobileApiAppInstance.patchUser")
                 .execute(executor, user);
     }
 
@@ -132,7 +133,7 @@ public class UserDataReporter {
             return;
         }
 
-        new MRetryableTask<Void, UserBody>() {
+        new MRetryableTask<Void, UserBody>(mobileMessagingCore.getExecutors()) {
             @Override
             public UserBody run(Void[] aVoid) {
                 MobileMessagingLogger.v("FETCHING USER DATA >>>");
@@ -168,6 +169,7 @@ public class UserDataReporter {
             }
         }
                 .retryWith(retryPolicy(listener))
+                .recordRetriesTo(stats, "MobileApiAppInstance.getUser")
                 .execute(executor);
     }
 
@@ -52,7 +52,7 @@ public class VersionChecker {
             return;
         }
 
-        new MRetryableTask<Void, VersionCheckResult>() {
+        new MRetryableTask<Void, VersionCheckResult>(mobileMessagingCore.getExecutors()) {
             @Override
             public VersionCheckResult run(Void[] voids) {
                 MobileMessagingLogger.v("VERSION >>>");
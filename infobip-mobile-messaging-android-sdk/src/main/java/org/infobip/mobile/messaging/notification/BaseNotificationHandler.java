@@ -8,9 +8,9 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.os.Build;
+import android.service.notification.StatusBarNotification;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
@@ -27,16 +27,15 @@ import org.infobip.mobile.messaging.NotificationSettings;
 import org.infobip.mobile.messaging.NotificationTapReceiverActivity;
 import org.infobip.mobile.messaging.app.ActivityLifecycleMonitor;
 import org.infobip.mobile.messaging.app.ContentIntentWrapper;
-import org.infobip.mobile.messaging.dal.bundle.MessageBundleMapper;
+import org.infobip.mobile.messaging.image.ImageLoader;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 import org.infobip.mobile.messaging.util.PreferenceHelper;
 import org.infobip.mobile.messaging.util.ResourceLoader;
 import org.infobip.mobile.messaging.util.StringUtils;
 
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.infobip.mobile.messaging.BroadcastParameter.EXTRA_MESSAGE;
@@ -119,12 +118,121 @@ public class BaseNotificationHandler {
 
         setNotificationStyle(notificationBuilder, message, title);
         setNotificationSoundAndVibrate(notificationBuilder, message);
-        setNotificationIcon(notificationBuilder, message);
+        setNotificationIcon(notificationBuilder, notificationSettings, message);
         setNotificationPriority(notificationBuilder, notificationSettings, message);
 
         return notificationBuilder;
     }
 
+    /**
+     * Gets builder of summary notification for a group of messages which are displayed together.
+     * Summary is the only notification of the group which makes sound and vibrates.
+     *
+     * @param group    key of the group.
+     * @param messages messages of the group, in the order they were received.
+     * @return builder or null if messages should be displayed without the group
+     * @see #isGroupingEnabled()
+     */
+    @Nullable
+    public NotificationCompat.Builder createGroupSummaryBuilder(@NonNull String group, @NonNull List<Message> messages) {
+        if (messages.isEmpty() || !isGroupingEnabled()) return null;
+
+        Message latest = messages.get(messages.size() - 1);
+        NotificationSettings notificationSettings = notificationSettings(latest);
+        if (notificationSettings == null) return null;
+
+        String title = notificationSettings.getDefaultTitle();
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle().setBigContentTitle(title);
+        // summary replaces the one of the previous burst, so it also lists notifications of the group which are still displayed
+        for (CharSequence text : activeGroupTexts(group)) {
+            style.addLine(text);
+        }
+        for (Message message : messages) {
+            style.addLine(message.getBody());
+        }
+
+        NotificationCompat.Builder notificationBuilder = new NotificationCompat.Builder(context, getChannelIdForNotification(notificationSettings, latest))
+                .setContentTitle(title)
+                .setContentText(latest.getBody())
+                .setColor(notificationSettings.getColor())
+                .setAutoCancel(notificationSettings.isNotificationAutoCancel())
+                .setContentIntent(createTapPendingIntent(notificationSettings, latest))
+                .setWhen(latest.getReceivedTimestamp())
+                .setStyle(style)
+                .setGroup(group)
+                .setGroupSummary(true)
+                .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY);
+
+        setNotificationSoundAndVibrate(notificationBuilder, latest);
+        setNotificationIcon(notificationBuilder, notificationSettings, latest);
+        setNotificationPriority(notificationBuilder, notificationSettings, latest);
+
+        return notificationBuilder;
+    }
+
+    /**
+     * @param group key of the group
+     * @return texts of notifications of the group which are currently displayed, oldest first
+     */
+    @NonNull
+    private List<CharSequence> activeGroupTexts(@NonNull String group) {
+        List<CharSequence> texts = new ArrayList<>();
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return texts;
+        }
+
+        NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (notificationManager == null) {
+            return texts;
+        }
+
+        StatusBarNotification[] activeNotifications;
+        try {
+            activeNotifications = notificationManager.getActiveNotifications();
+        } catch (Exception e) {
+            MobileMessagingLogger.e("Unable to get active notifications", e);
+            return texts;
+        }
+
+        List<StatusBarNotification> children = new ArrayList<>();
+        for (StatusBarNotification statusBarNotification : activeNotifications) {
+            Notification notification = statusBarNotification.getNotification();
+            if (group.equals(notification.getGroup()) && (notification.flags & Notification.FLAG_GROUP_SUMMARY) == 0) {
+                children.add(statusBarNotification);
+            }
+        }
+        Collections.sort(children, new Comparator<StatusBarNotification>() {
+            @Override
+            public int compare(StatusBarNotification n1, StatusBarNotification n2) {
+                long t1 = n1.getPostTime();
+                long t2 = n2.getPostTime();
+                return t1 < t2 ? -1 : (t1 == t2 ? 0 : 1);
+            }
+        });
+        for (StatusBarNotification child : children) {
+            CharSequence text = child.getNotification().extras.getCharSequence(Notification.EXTRA_TEXT);
+            if (text != null) {
+                texts.add(text);
+            }
+        }
+        return texts;
+    }
+
+    /**
+     * Groups are supported since Android 7.0 and used only when multiple notifications are enabled,
+     * otherwise each notification replaces the previous one anyway.
+     *
+     * @return true if notifications can be displayed as a group
+     */
+    public boolean isGroupingEnabled() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            return false;
+        }
+
+        NotificationSettings notificationSettings = MobileMessagingCore.getInstance(context).getConfiguration().getNotificationSettings();
+        return notificationSettings != null && notificationSettings.areMultipleNotificationsEnabled();
+    }
+
     private void setNotificationStyle(NotificationCompat.Builder notificationBuilder, Message message, String title) {
         String contentUrl = message.getContentUrl();
         Bitmap notificationPicture = fetchNotificationPicture(contentUrl);
@@ -147,17 +255,9 @@ public class BaseNotificationHandler {
     }
 
     @Nullable
-    private static Bitmap downloadBitmap(@NonNull String contentUrl) {
+    private Bitmap downloadBitmap(@NonNull String contentUrl) {
         try {
-            URL url = new URL(contentUrl);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setDoInput(true);
-            connection.connect();
-            InputStream input = connection.getInputStream();
-            Bitmap bitmap = BitmapFactory.decodeStream(input);
-            input.close();
-            return validateBitmap(bitmap);
-
+            return validateBitmap(ImageLoader.getInstance(context).loadForNotification(contentUrl));
         } catch (Exception e) {
             MobileMessagingLogger.e(e.getMessage());
             return null;
@@ -222,7 +322,7 @@ public class BaseNotificationHandler {
 
         Intent invisibleActivity = new Intent(context, NotificationTapReceiverActivity.class);
         invisibleActivity.setAction(message.getMessageId());
-        invisibleActivity.putExtra(EXTRA_MESSAGE, MessageBundleMapper.messageToBundle(message));
+        invisibleActivity.putExtra(EXTRA_MESSAGE, message.toBundle());
         intentsList.add(invisibleActivity);
 
         Intent[] intents = new Intent[intentsList.size()];
@@ -237,13 +337,9 @@ public class BaseNotificationHandler {
     }
 
     private NotificationSettings notificationSettings(Message message) {
-        NotificationSettings notificationSettings = MobileMessagingCore.getInstance(context).getNotificationSettings();
-        if (null == notificationSettings) {
-            return null;
-        }
-
-        if (!notificationSettings.isDisplayNotificationEnabled() ||
-                null == notificationSettings.getCallbackActivity()) {
+        // settings are present in configuration only when displaying of notifications is enabled
+        NotificationSettings notificationSettings = MobileMessagingCore.getInstance(context).getConfiguration().getNotificationSettings();
+        if (null == notificationSettings || null == notificationSettings.getCallbackActivity()) {
             return null;
         }
 
@@ -258,10 +354,7 @@ public class BaseNotificationHandler {
         return notificationSettings;
     }
 
-    private void setNotificationIcon(NotificationCompat.Builder notificationBuilder, Message message) {
-        NotificationSettings notificationSettings = notificationSettings(message);
-        if (notificationSettings == null) return;
-
+    private void setNotificationIcon(NotificationCompat.Builder notificationBuilder, @NonNull NotificationSettings notificationSettings, Message message) {
         int icon;
         if (StringUtils.isNotBlank(message.getIcon())) {
             icon = ResourceLoader.loadResourceByName(context, "drawable", message.getIcon());
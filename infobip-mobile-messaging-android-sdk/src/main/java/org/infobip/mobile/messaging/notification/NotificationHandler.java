@@ -1,7 +1,13 @@
 package org.infobip.mobile.messaging.notification;
 
+import androidx.annotation.NonNull;
+
 import org.infobip.mobile.messaging.Message;
 
+import java.util.List;
+
+import static org.infobip.mobile.messaging.BroadcastParameter.NOTIFICATION_NOT_DISPLAYED_ID;
+
 /**
  * @author sslavin
  * @since 30/05/2017.
@@ -17,6 +23,31 @@ public interface NotificationHandler {
      */
     int displayNotification(Message message);
 
+    /**
+     * Displays native android notification for the provided message as a part of group of notifications.
+     * Called only after summary of the group was displayed with {@link #displayGroupSummary(String, List)}.
+     * @param message message to display notification for.
+     * @param group key of the group.
+     *
+     * @return notification ID. -1 if notification wasn't displayed
+     */
+    default int displayNotification(Message message, @NonNull String group) {
+        return displayNotification(message);
+    }
+
+    /**
+     * Displays summary notification for a group of messages which are displayed together.
+     * Summary is displayed for each burst of messages of the group and replaces the previous one,
+     * so it should also cover notifications of the group which are still displayed.
+     * @param group key of the group.
+     * @param messages messages of the group, in the order they were received.
+     *
+     * @return notification ID. -1 if summary wasn't displayed and messages should be displayed without the group
+     */
+    default int displayGroupSummary(@NonNull String group, @NonNull List<Message> messages) {
+        return NOTIFICATION_NOT_DISPLAYED_ID;
+    }
+
     /**
      * Cancels all outstanding notifications.
      */
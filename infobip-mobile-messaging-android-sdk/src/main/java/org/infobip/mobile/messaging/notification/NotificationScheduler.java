@@ -0,0 +1,398 @@
+package org.infobip.mobile.messaging.notification;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.infobip.mobile.messaging.Message;
+import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.infobip.mobile.messaging.dal.sqlite.SqliteStringQueue;
+import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
+import org.infobip.mobile.messaging.platform.Broadcaster;
+import org.infobip.mobile.messaging.platform.Time;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.infobip.mobile.messaging.BroadcastParameter.NOTIFICATION_NOT_DISPLAYED_ID;
+
+/**
+ * Displays notifications of received messages, taking care of bursts of messages (campaigns, synchronization).
+ * <br>
+ * A message received while no other notifications are being displayed is displayed right away.
+ * Messages received shortly after it are collected and displayed together on the notifications queue,
+ * as a group with a summary notification when there are several of them. The message displayed right away
+ * joins the group once the others are displayed. Notifications are displayed
+ * no faster than the platform accepts them, since it silently drops notifications of apps which post too often.
+ * <br>
+ * Collected messages are persisted until their notifications are displayed, {@link #restore()} displays
+ * messages which were left over when the process was stopped.
+ * <br>
+ * {@link Broadcaster#notificationDisplayed(Message, int)} is sent for each message after its notification is displayed,
+ * in the order messages were received.
+ */
+public class NotificationScheduler {
+
+    static final String GROUP_KEY = "org.infobip.mobile.messaging.MESSAGES";
+    /**
+     * Messages received within this time after the previous notification are displayed together
+     */
+    static final long BURST_WINDOW_MILLIS = 1000;
+    /**
+     * Matches the rate of notifications per app which the platform accepts
+     */
+    static final long MIN_NOTIFY_INTERVAL_MILLIS = 200;
+
+    private final NotificationHandler notificationHandler;
+    private final Broadcaster broadcaster;
+    private final Executor queue;
+    private final ScheduledExecutorService scheduler;
+    private final SqliteStringQueue pendingMessages;
+    private final JsonSerializer serializer = new JsonSerializer(false);
+    private final List<Message> pending = new ArrayList<>();
+    // JSON of collected messages as persisted in the queue
+    private final Map<Message, String> persisted = new IdentityHashMap<>();
+    // last message displayed without the group while notifications are being displayed
+    private Message ungrouped;
+    private boolean active;
+    private int cancellations;
+    private long lastNotifyMillis;
+
+    /**
+     * @param notificationHandler handler which displays the notifications
+     * @param broadcaster         broadcaster for displayed notifications
+     * @param queue               serial queue to display collected notifications on
+     * @param scheduler           scheduler for delayed displaying
+     */
+    public NotificationScheduler(@NonNull NotificationHandler notificationHandler, @NonNull Broadcaster broadcaster,
+                                 @NonNull Executor queue, @NonNull ScheduledExecutorService scheduler) {
+        this(notificationHandler, broadcaster, queue, scheduler, null);
+    }
+
+    /**
+     * @param notificationHandler handler which displays the notifications
+     * @param broadcaster         broadcaster for displayed notifications
+     * @param queue               serial queue to display collected notifications on
+     * @param scheduler           scheduler for delayed displaying
+     * @param pendingMessages     queue to persist collected messages to until they are displayed, nothing is persisted if null
+     */
+    public NotificationScheduler(@NonNull NotificationHandler notificationHandler, @NonNull Broadcaster broadcaster,
+                                 @NonNull Executor queue, @NonNull ScheduledExecutorService scheduler,
+                                 @Nullable SqliteStringQueue pendingMessages) {
+        this.notificationHandler = notificationHandler;
+        this.broadcaster = broadcaster;
+        this.queue = queue;
+        this.scheduler = scheduler;
+        this.pendingMessages = pendingMessages;
+    }
+
+    /**
+     * Displays notification for the message on the calling thread, unless other messages are being displayed.
+     * In that case the message is displayed later together with other messages received in the meantime.
+     *
+     * @param message message to display notification for
+     */
+    public void schedule(@NonNull Message message) {
+        synchronized (this) {
+            if (active) {
+                pending.add(message);
+                persist(message);
+                return;
+            }
+            active = true;
+        }
+
+        displayUngrouped(message);
+        flushAfter(BURST_WINDOW_MILLIS);
+    }
+
+    /**
+     * Displays notifications for the messages on the notifications queue, never on the calling thread.
+     *
+     * @param messages messages to display notifications for, in the order they were received
+     */
+    public void schedule(@NonNull List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        synchronized (this) {
+            pending.addAll(messages);
+            for (Message message : messages) {
+                persist(message);
+            }
+            if (active) {
+                return;
+            }
+            active = true;
+        }
+
+        flushAfter(0);
+    }
+
+    /**
+     * Displays notifications for messages which were collected but not displayed before the process was stopped,
+     * on the notifications queue.
+     */
+    public void restore() {
+        if (pendingMessages == null) {
+            return;
+        }
+
+        submitAfter(0, new Runnable() {
+            @Override
+            public void run() {
+                synchronized (NotificationScheduler.this) {
+                    List<Message> restored = new ArrayList<>();
+                    Set<String> known = new HashSet<>(persisted.values());
+                    for (String json : pendingMessages.findAll()) {
+                        if (known.contains(json)) {
+                            continue;
+                        }
+                        Message message = deserialize(json);
+                        if (message == null) {
+                            pendingMessages.remove(json);
+                            continue;
+                        }
+                        persisted.put(message, json);
+                        restored.add(message);
+                    }
+                    if (restored.isEmpty()) {
+                        return;
+                    }
+
+                    MobileMessagingLogger.d("Restored " + restored.size() + " notification(s) which were not displayed");
+                    pending.addAll(0, restored);
+                    if (active) {
+                        return;
+                    }
+                    active = true;
+                }
+
+                flush();
+            }
+        });
+    }
+
+    /**
+     * Drops messages which are not displayed yet, notifications which are already displayed stay as they are.
+     */
+    public synchronized void cancel() {
+        pending.clear();
+        persisted.clear();
+        ungrouped = null;
+        cancellations++;
+        if (pendingMessages != null) {
+            pendingMessages.clear();
+        }
+    }
+
+    private void flushAfter(long delayMillis) {
+        submitAfter(delayMillis, new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        });
+    }
+
+    private void flush() {
+        Burst burst;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                active = false;
+                ungrouped = null;
+                return;
+            }
+            burst = new Burst(new ArrayList<>(pending), ungrouped, cancellations);
+            ungrouped = null;
+            pending.clear();
+        }
+
+        MobileMessagingLogger.d("Displaying " + burst.messages.size() + " collected notification(s)");
+        burst.displayNext();
+    }
+
+    private void display(Message message, @Nullable String group) {
+        int notificationId = showNotification(message, group);
+        broadcaster.notificationDisplayed(message, notificationId);
+    }
+
+    /**
+     * Displays the message without group and keeps it, so that the next notifications displayed as group include it
+     */
+    private void displayUngrouped(Message message) {
+        int notificationId = showNotification(message, null);
+        if (notificationId != NOTIFICATION_NOT_DISPLAYED_ID) {
+            synchronized (this) {
+                ungrouped = message;
+            }
+        }
+        broadcaster.notificationDisplayed(message, notificationId);
+    }
+
+    private int showNotification(Message message, @Nullable String group) {
+        int notificationId;
+        try {
+            notificationId = group != null ?
+                    notificationHandler.displayNotification(message, group) :
+                    notificationHandler.displayNotification(message);
+        } catch (Exception e) {
+            MobileMessagingLogger.e("Cannot display notification for message " + message.getMessageId(), e);
+            notificationId = NOTIFICATION_NOT_DISPLAYED_ID;
+        }
+        notified();
+        return notificationId;
+    }
+
+    private synchronized void notified() {
+        lastNotifyMillis = Time.now();
+    }
+
+    private void persist(Message message) {
+        if (pendingMessages == null) {
+            return;
+        }
+
+        String json = serializer.serialize(message);
+        persisted.put(message, json);
+        pendingMessages.append(json);
+    }
+
+    private void forget(Message message) {
+        String json;
+        synchronized (this) {
+            json = persisted.remove(message);
+        }
+        if (json != null && pendingMessages != null) {
+            pendingMessages.remove(json);
+        }
+    }
+
+    @Nullable
+    private Message deserialize(String json) {
+        try {
+            return serializer.deserialize(json, Message.class);
+        } catch (Exception e) {
+            MobileMessagingLogger.e("Cannot restore message of pending notification", e);
+            return null;
+        }
+    }
+
+    private synchronized boolean isCancelled(Burst burst) {
+        return burst.cancellations != cancellations;
+    }
+
+    private synchronized long millisUntilNextNotify() {
+        return lastNotifyMillis + MIN_NOTIFY_INTERVAL_MILLIS - Time.now();
+    }
+
+    private void submitAfter(long delayMillis, final Runnable task) {
+        try {
+            if (delayMillis <= 0) {
+                queue.execute(task);
+                return;
+            }
+
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    queue.execute(task);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            MobileMessagingLogger.e("Cannot schedule notifications", e);
+            synchronized (this) {
+                // persisted messages stay in the queue and are displayed on restore
+                pending.clear();
+                persisted.clear();
+                ungrouped = null;
+                active = false;
+            }
+        }
+    }
+
+    /**
+     * Messages collected within one window, displayed one by one with the summary first.
+     * Message which was displayed without group before the burst is moved to the group right after the summary.
+     */
+    private class Burst implements Runnable {
+        private final List<Message> messages;
+        private final int cancellations;
+        private Message displayedBefore;
+        private boolean summaryDisplayed;
+        private String group;
+        private int next;
+
+        Burst(List<Message> messages, @Nullable Message displayedBefore, int cancellations) {
+            this.messages = messages;
+            this.displayedBefore = displayedBefore;
+            this.cancellations = cancellations;
+            // single message is displayed without the group
+            this.summaryDisplayed = messages.size() + (displayedBefore != null ? 1 : 0) < 2;
+        }
+
+        @Override
+        public void run() {
+            displayNext();
+        }
+
+        void displayNext() {
+            if (next >= messages.size() || isCancelled(this)) {
+                flushAfter(BURST_WINDOW_MILLIS);
+                return;
+            }
+
+            long delayMillis = millisUntilNextNotify();
+            if (delayMillis > 0) {
+                submitAfter(delayMillis, this);
+                return;
+            }
+
+            if (!summaryDisplayed) {
+                summaryDisplayed = true;
+                displaySummary();
+            } else if (displayedBefore != null) {
+                // notification is replaced silently, only summary alerts for the group
+                showNotification(displayedBefore, group);
+                displayedBefore = null;
+            } else {
+                Message message = messages.get(next++);
+                if (group != null) {
+                    display(message, group);
+                } else {
+                    displayUngrouped(message);
+                }
+                forget(message);
+            }
+            submitAfter(millisUntilNextNotify(), this);
+        }
+
+        private void displaySummary() {
+            List<Message> summaryMessages = new ArrayList<>(messages.size() + 1);
+            if (displayedBefore != null) {
+                summaryMessages.add(displayedBefore);
+            }
+            summaryMessages.addAll(messages);
+
+            try {
+                if (notificationHandler.displayGroupSummary(GROUP_KEY, summaryMessages) != NOTIFICATION_NOT_DISPLAYED_ID) {
+                    group = GROUP_KEY;
+                    notified();
+                }
+            } catch (Exception e) {
+                MobileMessagingLogger.e("Cannot display summary notification", e);
+            }
+            if (group == null) {
+                displayedBefore = null;
+            }
+        }
+    }
+}
@@ -35,20 +35,20 @@ public class AndroidBroadcaster implements Broadcaster {
     @Override
     public void messageReceived(@NonNull Message message) {
         send(prepare(Event.MESSAGE_RECEIVED)
-                .putExtras(MessageBundleMapper.messageToBundle(message)));
+                .putExtras(message.toBundle()));
     }
 
     @Override
     public void notificationDisplayed(Message message, int notificationId) {
         send(prepare(Event.NOTIFICATION_DISPLAYED)
-                .putExtras(MessageBundleMapper.messageToBundle(message))
+                .putExtras(message.toBundle())
                 .putExtra(BroadcastParameter.EXTRA_NOTIFICATION_ID, notificationId));
     }
 
     @Override
     public void notificationTapped(Message message) {
         send(prepare(Event.NOTIFICATION_TAPPED)
-                .putExtras(MessageBundleMapper.messageToBundle(message)));
+                .putExtras(message.toBundle()));
     }
 
     @Override
@@ -0,0 +1,365 @@
+package org.infobip.mobile.messaging.platform;
+
+import androidx.annotation.NonNull;
+
+import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execution layer for background work of the SDK.
+ * <br>
+ * Tasks are submitted to named serial queues which share a bounded pool of worker threads.
+ * Each queue runs at most one task at a time, so a slow task blocks only its own queue and the rest
+ * of the queues keep being served by other workers. Queues for independent tasks (such as downloads)
+ * run a limited number of tasks at a time, as configured per queue name in this class. Delayed work (such as retries) is scheduled
+ * with a dedicated single-thread scheduler and then submitted to the target queue.
+ *
+ * @see #queue(String)
+ * @see #scheduler()
+ * @see #getMetrics()
+ */
+public class MobileMessagingExecutors {
+
+    public static final String QUEUE_DEFAULT = "default";
+    public static final String QUEUE_BACKGROUND = "background";
+    public static final String QUEUE_REGISTRATION = "registration";
+    public static final String QUEUE_MESSAGES = "messages";
+    public static final String QUEUE_SEEN = "seen";
+    public static final String QUEUE_MO = "mo";
+    public static final String QUEUE_EVENTS = "events";
+    public static final String QUEUE_IMAGES = "images";
+    public static final String QUEUE_NOTIFICATIONS = "notifications";
+    public static final String QUEUE_ATTACHMENTS = "attachments";
+
+    /**
+     * Maximum number of tasks running at the same time per queue, queues which are not listed run tasks one by one.
+     * Images of a burst of messages are downloaded in parallel, limited so that downloads don't take all workers.
+     */
+    private static final Map<String, Integer> PARALLELISM = Collections.singletonMap(QUEUE_IMAGES, 3);
+
+    static final String THREAD_NAME_PREFIX = "mm-";
+    private static final int MAX_POOL_SIZE = 4;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final Executor workers;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Queue> queues = new LinkedHashMap<>();
+
+    /**
+     * Creates executors which run queued tasks on the provided workers
+     *
+     * @param workers   executor which runs the tasks, serial queues are built on top of it
+     * @param scheduler scheduler for delayed tasks
+     */
+    public MobileMessagingExecutors(@NonNull Executor workers, @NonNull ScheduledExecutorService scheduler) {
+        this.workers = workers;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Creates executors backed by a bounded pool of named worker threads.
+     * Threads are started on demand and stopped when idle.
+     *
+     * @return new executors
+     */
+    public static MobileMessagingExecutors create() {
+        int poolSize = Math.max(2, Math.min(MAX_POOL_SIZE, Runtime.getRuntime().availableProcessors()));
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory(THREAD_NAME_PREFIX + "worker-"));
+        workers.allowCoreThreadTimeOut(true);
+
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory(THREAD_NAME_PREFIX + "scheduler-"));
+        scheduler.setKeepAliveTime(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+        return new MobileMessagingExecutors(workers, scheduler);
+    }
+
+    /**
+     * Returns queue with the provided name, queue is created on first use.
+     * Tasks are started in submission order, most queues run them one by one.
+     *
+     * @param name name of the queue
+     * @return executor which runs tasks one by one, or several at a time for queues of independent tasks
+     */
+    @NonNull
+    public synchronized Executor queue(@NonNull String name) {
+        Queue queue = queues.get(name);
+        if (queue == null) {
+            queue = new Queue(name, parallelismOf(name));
+            queues.put(name, queue);
+        }
+        return queue;
+    }
+
+    /**
+     * @param name name of the queue
+     * @return maximum number of tasks the queue runs at the same time
+     */
+    static int parallelismOf(@NonNull String name) {
+        Integer parallelism = PARALLELISM.get(name);
+        return parallelism != null ? parallelism : 1;
+    }
+
+    /**
+     * Returns scheduler to use for delayed tasks.
+     * Scheduled tasks should only submit the actual work to one of the queues.
+     *
+     * @return scheduler
+     */
+    @NonNull
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Returns current depth and latency metrics of all queues
+     *
+     * @return snapshot of metrics per queue, in the order queues were created
+     */
+    @NonNull
+    public synchronized List<QueueMetrics> getMetrics() {
+        List<QueueMetrics> metrics = new ArrayList<>(queues.size());
+        for (Queue queue : queues.values()) {
+            metrics.add(queue.metrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * Snapshot of metrics of a single queue
+     */
+    public static class QueueMetrics {
+        private final String name;
+        private final int depth;
+        private final int maxDepth;
+        private final long completed;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long totalRunNanos;
+        private final long maxRunNanos;
+
+        QueueMetrics(String name, int depth, int maxDepth, long completed, long totalWaitNanos, long maxWaitNanos, long totalRunNanos, long maxRunNanos) {
+            this.name = name;
+            this.depth = depth;
+            this.maxDepth = maxDepth;
+            this.completed = completed;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.totalRunNanos = totalRunNanos;
+            this.maxRunNanos = maxRunNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return number of tasks which are waiting or running
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        /**
+         * @return number of finished tasks
+         */
+        public long getCompleted() {
+            return completed;
+        }
+
+        /**
+         * @return average time finished tasks spent in the queue before they started
+         */
+        public long getAverageWaitMillis() {
+            return completed > 0 ? TimeUnit.NANOSECONDS.toMillis(totalWaitNanos / completed) : 0;
+        }
+
+        public long getMaxWaitMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos);
+        }
+
+        /**
+         * @return average time finished tasks were running
+         */
+        public long getAverageRunMillis() {
+            return completed > 0 ? TimeUnit.NANOSECONDS.toMillis(totalRunNanos / completed) : 0;
+        }
+
+        public long getMaxRunMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxRunNanos);
+        }
+
+        @Override
+        public String toString() {
+            return "QueueMetrics{" +
+                    "name='" + name + '\'' +
+                    ", depth=" + depth +
+                    ", maxDepth=" + maxDepth +
+                    ", completed=" + completed +
+                    ", averageWaitMillis=" + getAverageWaitMillis() +
+                    ", maxWaitMillis=" + getMaxWaitMillis() +
+                    ", averageRunMillis=" + getAverageRunMillis() +
+                    ", maxRunMillis=" + getMaxRunMillis() +
+                    '}';
+        }
+    }
+
+    private class Queue implements Executor {
+        private final String name;
+        private final int parallelism;
+        private final ArrayDeque<QueuedTask> tasks = new ArrayDeque<>();
+        // workers taken by the queue and tasks actually running on them
+        private int running;
+        private int executing;
+        private int maxDepth;
+        private long completed;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+        private long totalRunNanos;
+        private long maxRunNanos;
+
+        Queue(String name, int parallelism) {
+            this.name = name;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            synchronized (this) {
+                tasks.addLast(new QueuedTask(command, System.nanoTime()));
+                maxDepth = Math.max(maxDepth, depth());
+                if (running >= parallelism) {
+                    return;
+                }
+                running++;
+            }
+            try {
+                scheduleNext();
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    tasks.clear();
+                    running--;
+                }
+                throw e;
+            }
+        }
+
+        private void scheduleNext() {
+            workers.execute(new Runnable() {
+                @Override
+                public void run() {
+                    drainOne();
+                }
+            });
+        }
+
+        private void drainOne() {
+            QueuedTask task;
+            synchronized (this) {
+                task = tasks.pollFirst();
+                if (task == null) {
+                    running--;
+                    return;
+                }
+                executing++;
+            }
+
+            long startNanos = System.nanoTime();
+            Thread thread = Thread.currentThread();
+            String threadName = thread.getName();
+            thread.setName(THREAD_NAME_PREFIX + name);
+            try {
+                task.command.run();
+            } catch (Throwable t) {
+                MobileMessagingLogger.e("Unhandled error in " + name + " queue", t);
+            } finally {
+                thread.setName(threadName);
+            }
+
+            long endNanos = System.nanoTime();
+            boolean hasMore;
+            synchronized (this) {
+                executing--;
+                long waitNanos = startNanos - task.queuedAtNanos;
+                long runNanos = endNanos - startNanos;
+                completed++;
+                totalWaitNanos += waitNanos;
+                totalRunNanos += runNanos;
+                maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+                maxRunNanos = Math.max(maxRunNanos, runNanos);
+                hasMore = !tasks.isEmpty();
+                if (!hasMore) {
+                    running--;
+                }
+            }
+            if (!hasMore) {
+                return;
+            }
+
+            try {
+                scheduleNext();
+            } catch (RejectedExecutionException e) {
+                int dropped;
+                synchronized (this) {
+                    dropped = tasks.size();
+                    tasks.clear();
+                    running--;
+                }
+                MobileMessagingLogger.e("Workers rejected " + name + " queue, dropped " + dropped + " tasks", e);
+            }
+        }
+
+        private int depth() {
+            return tasks.size() + executing;
+        }
+
+        synchronized QueueMetrics metrics() {
+            return new QueueMetrics(name, depth(), maxDepth, completed, totalWaitNanos, maxWaitNanos, totalRunNanos, maxRunNanos);
+        }
+    }
+
+    private static class QueuedTask {
+        final Runnable command;
+        final long queuedAtNanos;
+
+        QueuedTask(Runnable command, long queuedAtNanos) {
+            this.command = command;
+            this.queuedAtNanos = queuedAtNanos;
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
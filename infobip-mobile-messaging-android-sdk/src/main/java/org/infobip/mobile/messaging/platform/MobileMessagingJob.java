@@ -22,6 +22,7 @@ public class MobileMessagingJob {
     public static final int CLOUD_INTENT_JOB_ID = 2;
     public static final int GEO_TRANSITION_JOB_ID = 3;
     public static final int GEO_CONSISTENCY_JOB_ID = 4;
+    public static final int RETRY_QUEUE_JOB_ID = 5;
 
     /**
      * Gets schedule ID that's used as job ID for scheduling jobs with {@link JobScheduler}.
@@ -1,5 +1,6 @@
 package org.infobip.mobile.messaging.platform;
 
+import android.Manifest;
 import android.annotation.TargetApi;
 import android.app.job.JobInfo;
 import android.app.job.JobParameters;
@@ -7,15 +8,18 @@ import android.app.job.JobScheduler;
 import android.app.job.JobService;
 import android.content.ComponentName;
 import android.content.Context;
+import android.content.pm.PackageManager;
 import android.os.Build;
 import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
+import androidx.core.content.ContextCompat;
 import android.text.TextUtils;
 
 import org.infobip.mobile.messaging.MobileMessagingCore;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 
 import static org.infobip.mobile.messaging.platform.MobileMessagingJob.ON_NETWORK_AVAILABLE_JOB_ID;
+import static org.infobip.mobile.messaging.platform.MobileMessagingJob.RETRY_QUEUE_JOB_ID;
 import static org.infobip.mobile.messaging.platform.MobileMessagingJob.getScheduleId;
 
 /**
@@ -53,6 +57,20 @@ public class MobileMessagingJobService extends JobService {
             return false;
         }
 
+        if (params.getJobId() == getScheduleId(this, RETRY_QUEUE_JOB_ID)) {
+            if (TextUtils.isEmpty(mobileMessagingCore().getApplicationCode())) {
+                return false;
+            }
+            MobileMessagingLogger.d(TAG, "Retry queue is due");
+            Platform.executors().queue(MobileMessagingExecutors.QUEUE_BACKGROUND).execute(new Runnable() {
+                @Override
+                public void run() {
+                    mobileMessagingCore().getRetryQueue().dispatchDue();
+                }
+            });
+            return false;
+        }
+
         return false;
     }
 
@@ -71,6 +89,31 @@ public class MobileMessagingJobService extends JobService {
         registerForNetworkAvailability(context);
     }
 
+    /**
+     * Schedules job which dispatches due operations of the retry queue once the delay passes and network is available.
+     * Replaces previously scheduled job, if any. The job is kept across reboots if the application holds
+     * {@link Manifest.permission#RECEIVE_BOOT_COMPLETED}, which the library declares unless the application removes it.
+     *
+     * @param context     android context object
+     * @param delayMillis minimum delay before the job runs
+     */
+    public static void scheduleRetryQueue(Context context, long delayMillis) {
+        JobScheduler jobScheduler = (JobScheduler) context.getSystemService(JOB_SCHEDULER_SERVICE);
+        if (jobScheduler == null) {
+            return;
+        }
+
+        boolean persisted = ContextCompat.checkSelfPermission(context, Manifest.permission.RECEIVE_BOOT_COMPLETED) == PackageManager.PERMISSION_GRANTED;
+        int r = jobScheduler.schedule(new JobInfo.Builder(getScheduleId(context, RETRY_QUEUE_JOB_ID), new ComponentName(context, MobileMessagingJobService.class))
+                .setMinimumLatency(delayMillis)
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+                .setPersisted(persisted)
+                .build());
+        if (r != JobScheduler.RESULT_SUCCESS) {
+            MobileMessagingLogger.e(TAG, "Failed to schedule retry queue job");
+        }
+    }
+
     //region Private methods
     @NonNull
     private MobileMessagingCore mobileMessagingCore() {
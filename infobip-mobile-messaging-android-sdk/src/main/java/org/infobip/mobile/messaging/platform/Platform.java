@@ -26,7 +26,8 @@ public class Platform {
 
     public static final String os = "Android";
     public static volatile int sdkInt = Build.VERSION.SDK_INT;
-    private static volatile Executor backgroundExecutor = new AsyncTaskExecutor();
+    private static volatile MobileMessagingExecutors executors = MobileMessagingExecutors.create();
+    private static volatile Executor backgroundExecutor = executors.queue(MobileMessagingExecutors.QUEUE_BACKGROUND);
 
     public static volatile Lazy<MobileMessagingCore, Context> mobileMessagingCore = createForConstructorAcceptingContext(MobileMessagingCore.class);
     public static volatile Lazy<AndroidBroadcaster, Context> broadcaster = createForConstructorAcceptingContext(AndroidBroadcaster.class);
@@ -72,6 +73,10 @@ public class Platform {
         Platform.backgroundExecutor.execute(command);
     }
 
+    public static MobileMessagingExecutors executors() {
+        return Platform.executors;
+    }
+
     @VisibleForTesting
     protected static void reset(AndroidBroadcaster broadcaster) {
         Platform.broadcaster = Lazy.just(broadcaster);
@@ -96,6 +101,12 @@ public class Platform {
         Platform.backgroundExecutor = backgroundExecutor;
     }
 
+    @VisibleForTesting
+    public static void reset(MobileMessagingExecutors executors) {
+        Platform.executors = executors;
+        Platform.backgroundExecutor = executors.queue(MobileMessagingExecutors.QUEUE_BACKGROUND);
+    }
+
     protected static RegistrationTokenHandler initializeTokenHandler(Context context) {
         return new FirebaseRegistrationTokenHandler(
                 mobileMessagingCore.get(context),
@@ -109,7 +120,8 @@ public class Platform {
                 mobileMessagingCore,
                 broadcaster.get(context),
                 mobileMessagingCore.getNotificationHandler(),
-                mobileMessagingCore.getMessageStoreWrapper());
+                mobileMessagingCore.getMessageStoreWrapper(),
+                mobileMessagingCore.getNotificationScheduler());
     }
 
     public static MobileMessagingCloudHandler initializeMobileMessagingCloudHandler(Context context) {
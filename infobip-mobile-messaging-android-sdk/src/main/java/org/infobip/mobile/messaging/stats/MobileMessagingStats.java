@@ -1,19 +1,71 @@
 package org.infobip.mobile.messaging.stats;
 
 import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.annotation.NonNull;
 
+import org.infobip.mobile.messaging.api.support.http.client.metrics.HistogramMetricsListener;
+import org.infobip.mobile.messaging.api.support.http.client.metrics.MetricsListener;
+import org.infobip.mobile.messaging.platform.Platform;
 import org.infobip.mobile.messaging.util.PreferenceHelper;
 
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
+ * Statistics of SDK errors and Mobile API calls.
+ * <br>
+ * Counters are kept in memory. Error counts are persisted in batches, at most once per {@link #FLUSH_DELAY_MILLIS},
+ * so a burst of errors results in a single write to storage. Pending counts are also persisted with {@link #flushPending()}
+ * when the application goes to background, since the process may be killed afterwards.
+ *
  * @author mstipanov
  * @since 01.04.2016.
  */
 public class MobileMessagingStats {
     public static final String STATS_KEY_BASE = "org.infobip.mobile.messaging.stats.";
-    private final Context context;
+    static final long FLUSH_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * Storage of persisted error counts
+     */
+    interface Storage {
+        long load(String key);
+
+        void save(Map<String, Long> values);
+    }
+
+    private final Storage storage;
+    private final ScheduledExecutorService scheduler;
+    private final Map<MobileMessagingStatsError, AtomicLong> errorCounts = new EnumMap<>(MobileMessagingStatsError.class);
+    private final HistogramMetricsListener apiMetrics = new HistogramMetricsListener();
+    private final ConcurrentMap<String, AtomicLong> retryCounts = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile boolean loaded;
 
     public MobileMessagingStats(Context context) {
-        this.context = context;
+        this(context, Platform.executors().scheduler());
+    }
+
+    public MobileMessagingStats(Context context, ScheduledExecutorService scheduler) {
+        this(new PreferencesStorage(context), scheduler);
+    }
+
+    MobileMessagingStats(Storage storage, ScheduledExecutorService scheduler) {
+        this.storage = storage;
+        this.scheduler = scheduler;
+        for (MobileMessagingStatsError error : MobileMessagingStatsError.values()) {
+            errorCounts.put(error, new AtomicLong());
+        }
     }
 
     public static String getKey(MobileMessagingStatsError mobileMessagingStatsError) {
@@ -21,28 +73,156 @@ public class MobileMessagingStats {
     }
 
     public long getErrorCount(MobileMessagingStatsError mobileMessagingStatsError) {
-        return PreferenceHelper
-                .getDefaultMMSharedPreferences(context)
-                .getLong(getKey(mobileMessagingStatsError), 0);
+        return counter(mobileMessagingStatsError).get();
     }
 
-    public synchronized void reportError(MobileMessagingStatsError mobileMessagingStatsError) {
-        saveLong(mobileMessagingStatsError, getErrorCount(mobileMessagingStatsError) + 1);
+    public void reportError(MobileMessagingStatsError mobileMessagingStatsError) {
+        counter(mobileMessagingStatsError).incrementAndGet();
+        scheduleFlush();
     }
 
     public void resetErrors() {
         for (MobileMessagingStatsError e : MobileMessagingStatsError.values()) {
-            resetError(e);
+            counter(e).set(0);
+        }
+        scheduleFlush();
+    }
+
+    public void resetError(MobileMessagingStatsError mobileMessagingStatsError) {
+        counter(mobileMessagingStatsError).set(0);
+        scheduleFlush();
+    }
+
+    /**
+     * Returns listener which records calls to Mobile API, to be registered with the API client
+     *
+     * @return metrics listener which aggregates calls per endpoint
+     */
+    @NonNull
+    public MetricsListener getApiMetricsListener() {
+        return apiMetrics;
+    }
+
+    /**
+     * Records a retry of failed Mobile API operation
+     *
+     * @param operation name of the operation, such as "MobileApiMessages.sync"
+     * @param attempt   number of the attempt, 1 for the first retry
+     */
+    public void recordRetry(String operation, int attempt) {
+        if (attempt <= 0) {
+            return;
+        }
+
+        AtomicLong count = retryCounts.get(operation);
+        if (count == null) {
+            AtomicLong newCount = new AtomicLong();
+            count = retryCounts.putIfAbsent(operation, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * Returns current statistics, can be called from any thread
+     *
+     * @return snapshot of error counts and endpoint statistics
+     */
+    @NonNull
+    public StatsSnapshot getSnapshot() {
+        Map<MobileMessagingStatsError, Long> errors = new EnumMap<>(MobileMessagingStatsError.class);
+        for (MobileMessagingStatsError error : MobileMessagingStatsError.values()) {
+            errors.put(error, getErrorCount(error));
+        }
+
+        Map<String, Long> retries = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> entry : retryCounts.entrySet()) {
+            retries.put(entry.getKey(), entry.getValue().get());
+        }
+        return new StatsSnapshot(System.currentTimeMillis(), errors, apiMetrics.getSnapshot(), retries);
+    }
+
+    /**
+     * Writes error counts to storage immediately
+     */
+    public void flush() {
+        flushScheduled.set(false);
+        ensureLoaded();
+        Map<String, Long> values = new HashMap<>();
+        for (Map.Entry<MobileMessagingStatsError, AtomicLong> entry : errorCounts.entrySet()) {
+            values.put(getKey(entry.getKey()), entry.getValue().get());
+        }
+        storage.save(values);
+    }
+
+    /**
+     * Writes error counts to storage immediately if there are any changes which are not written yet
+     */
+    public void flushPending() {
+        if (flushScheduled.get()) {
+            flush();
         }
     }
 
-    public synchronized void resetError(MobileMessagingStatsError mobileMessagingStatsError) {
-        saveLong(mobileMessagingStatsError, getErrorCount(mobileMessagingStatsError));
+    private AtomicLong counter(MobileMessagingStatsError error) {
+        ensureLoaded();
+        return errorCounts.get(error);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+
+        synchronized (errorCounts) {
+            if (loaded) {
+                return;
+            }
+            for (Map.Entry<MobileMessagingStatsError, AtomicLong> entry : errorCounts.entrySet()) {
+                entry.getValue().addAndGet(storage.load(getKey(entry.getKey())));
+            }
+            loaded = true;
+        }
     }
 
-    private void saveLong(MobileMessagingStatsError mobileMessagingStatsError, long value) {
-        PreferenceHelper
-                .getDefaultMMSharedPreferences(context).edit()
-                .putLong(getKey(mobileMessagingStatsError), value).apply();
+    private void scheduleFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            }, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            flush();
+        }
+    }
+
+    private static class PreferencesStorage implements Storage {
+        private final Context context;
+
+        PreferencesStorage(Context context) {
+            this.context = context;
+        }
+
+        @Override
+        public long load(String key) {
+            return PreferenceHelper.getDefaultMMSharedPreferences(context).getLong(key, 0);
+        }
+
+        @Override
+        public void save(Map<String, Long> values) {
+            SharedPreferences.Editor editor = PreferenceHelper.getDefaultMMSharedPreferences(context).edit();
+            for (Map.Entry<String, Long> entry : values.entrySet()) {
+                editor.putLong(entry.getKey(), entry.getValue());
+            }
+            editor.apply();
+        }
     }
 }
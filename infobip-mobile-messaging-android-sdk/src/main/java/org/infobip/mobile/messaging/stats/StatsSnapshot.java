@@ -0,0 +1,77 @@
+package org.infobip.mobile.messaging.stats;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.infobip.mobile.messaging.api.support.http.client.metrics.HistogramMetricsListener.EndpointSnapshot;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable view of SDK statistics at a point in time, intended for export to application telemetry.
+ *
+ * @see MobileMessagingStats#getSnapshot()
+ */
+public class StatsSnapshot {
+
+    private final long timestampMillis;
+    private final Map<MobileMessagingStatsError, Long> errorCounts;
+    private final Map<String, EndpointSnapshot> endpoints;
+    private final Map<String, Long> retryCounts;
+
+    StatsSnapshot(long timestampMillis, Map<MobileMessagingStatsError, Long> errorCounts, Map<String, EndpointSnapshot> endpoints, Map<String, Long> retryCounts) {
+        this.timestampMillis = timestampMillis;
+        this.errorCounts = Collections.unmodifiableMap(errorCounts);
+        this.endpoints = Collections.unmodifiableMap(endpoints);
+        this.retryCounts = Collections.unmodifiableMap(retryCounts);
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * @return number of errors per type, including errors persisted by previous application runs
+     */
+    @NonNull
+    public Map<MobileMessagingStatsError, Long> getErrorCounts() {
+        return errorCounts;
+    }
+
+    /**
+     * @return statistics of Mobile API endpoints which were called since application start, such as "MobileApiMessages.sync"
+     */
+    @NonNull
+    public Map<String, EndpointSnapshot> getEndpoints() {
+        return endpoints;
+    }
+
+    @Nullable
+    public EndpointSnapshot getEndpoint(String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    /**
+     * @return number of retries of failed Mobile API operations since application start
+     */
+    @NonNull
+    public Map<String, Long> getRetryCounts() {
+        return retryCounts;
+    }
+
+    public long getRetryCount(String operation) {
+        Long count = retryCounts.get(operation);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "StatsSnapshot{" +
+                "timestampMillis=" + timestampMillis +
+                ", errorCounts=" + errorCounts +
+                ", endpoints=" + endpoints +
+                ", retryCounts=" + retryCounts +
+                '}';
+    }
+}
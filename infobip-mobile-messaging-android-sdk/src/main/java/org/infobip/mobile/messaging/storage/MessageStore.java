@@ -3,7 +3,9 @@ package org.infobip.mobile.messaging.storage;
 import android.content.Context;
 import org.infobip.mobile.messaging.Message;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * You can use the internal storage capabilities by implementing this interface.
@@ -35,6 +37,87 @@ public interface MessageStore {
      */
     List<Message> findAll(Context context);
 
+    /**
+     * Finds a page of stored messages ordered by received time, newest first.
+     * <br>
+     * Default implementation loads all messages with {@link #findAll(Context)}, stores should override it with an efficient query.
+     *
+     * @param context current context
+     * @param offset  number of messages to skip
+     * @param limit   maximum number of messages to return, 0 or less for no limit
+     * @return page of stored messages
+     */
+    default List<Message> findPage(Context context, int offset, int limit) {
+        return MessageStoreQueries.page(findAll(context), MessageStoreQueries.ANY, offset, limit);
+    }
+
+    /**
+     * Finds a page of stored messages which are already seen, ordered by received time, newest first.
+     *
+     * @param context current context
+     * @param offset  number of messages to skip
+     * @param limit   maximum number of messages to return, 0 or less for no limit
+     * @return page of seen messages
+     * @see #findPage(Context, int, int)
+     */
+    default List<Message> findSeen(Context context, int offset, int limit) {
+        return MessageStoreQueries.page(findAll(context), MessageStoreQueries.SEEN, offset, limit);
+    }
+
+    /**
+     * Finds a page of stored messages which are not seen yet, ordered by received time, newest first.
+     *
+     * @param context current context
+     * @param offset  number of messages to skip
+     * @param limit   maximum number of messages to return, 0 or less for no limit
+     * @return page of unseen messages
+     * @see #findPage(Context, int, int)
+     */
+    default List<Message> findUnseen(Context context, int offset, int limit) {
+        return MessageStoreQueries.page(findAll(context), MessageStoreQueries.UNSEEN, offset, limit);
+    }
+
+    /**
+     * Counts stored messages which are not seen yet
+     *
+     * @param context current context
+     * @return unseen messages count
+     */
+    default long countUnseen(Context context) {
+        return MessageStoreQueries.count(findAll(context), MessageStoreQueries.UNSEEN);
+    }
+
+    /**
+     * Finds stored messages by ids.
+     * <br>
+     * Default implementation loads all messages with {@link #findAll(Context)}, stores should override it with a keyed lookup.
+     *
+     * @param context    current context
+     * @param messageIds ids of messages to find
+     * @return found messages, in unspecified order
+     */
+    default List<Message> findByIds(Context context, Collection<String> messageIds) {
+        return MessageStoreQueries.byIds(findAll(context), messageIds);
+    }
+
+    /**
+     * Changes ids of stored messages, message which already has the new id is replaced.
+     * <br>
+     * Default implementation rewrites all messages with {@link #deleteAll(Context)} and {@link #save(Context, Message...)},
+     * stores should override it to update only affected messages.
+     *
+     * @param context    current context
+     * @param messageIds map of old message ids to new ones
+     */
+    default void updateMessageIds(Context context, Map<String, String> messageIds) {
+        List<Message> messages = findAll(context);
+        if (!MessageStoreQueries.updateIds(messages, messageIds)) {
+            return;
+        }
+        deleteAll(context);
+        save(context, messages.toArray(new Message[0]));
+    }
+
     /**
      * Counts all stored messages
      *
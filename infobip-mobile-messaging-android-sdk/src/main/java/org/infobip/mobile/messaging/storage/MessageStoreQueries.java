@@ -0,0 +1,88 @@
+package org.infobip.mobile.messaging.storage;
+
+import org.infobip.mobile.messaging.Message;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory implementation of {@link MessageStore} queries for stores which don't provide their own.
+ */
+final class MessageStoreQueries {
+
+    static final int ANY = 0;
+    static final int SEEN = 1;
+    static final int UNSEEN = 2;
+
+    private static final Comparator<Message> NEWEST_FIRST = new Comparator<Message>() {
+        @Override
+        public int compare(Message m1, Message m2) {
+            long t1 = m1.getReceivedTimestamp();
+            long t2 = m2.getReceivedTimestamp();
+            return t1 < t2 ? 1 : (t1 == t2 ? 0 : -1);
+        }
+    };
+
+    private MessageStoreQueries() {
+    }
+
+    static List<Message> page(List<Message> messages, int seenFilter, int offset, int limit) {
+        List<Message> filtered = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            if (matches(message, seenFilter)) {
+                filtered.add(message);
+            }
+        }
+        Collections.sort(filtered, NEWEST_FIRST);
+
+        int from = Math.min(Math.max(offset, 0), filtered.size());
+        int to = limit > 0 && limit < filtered.size() - from ? from + limit : filtered.size();
+        return new ArrayList<>(filtered.subList(from, to));
+    }
+
+    static long count(List<Message> messages, int seenFilter) {
+        long count = 0;
+        for (Message message : messages) {
+            if (matches(message, seenFilter)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static List<Message> byIds(List<Message> messages, Collection<String> messageIds) {
+        Set<String> ids = new HashSet<>(messageIds);
+        List<Message> found = new ArrayList<>(Math.min(messages.size(), ids.size()));
+        for (Message message : messages) {
+            if (ids.contains(message.getMessageId())) {
+                found.add(message);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return true if any message id was changed
+     */
+    static boolean updateIds(List<Message> messages, Map<String, String> messageIds) {
+        boolean updated = false;
+        for (Message message : messages) {
+            String newMessageId = messageIds.get(message.getMessageId());
+            if (newMessageId != null) {
+                message.setMessageId(newMessageId);
+                updated = true;
+            }
+        }
+        return updated;
+    }
+
+    private static boolean matches(Message message, int seenFilter) {
+        return seenFilter == ANY || (seenFilter == SEEN) == (message.getSeenTimestamp() != 0);
+    }
+}
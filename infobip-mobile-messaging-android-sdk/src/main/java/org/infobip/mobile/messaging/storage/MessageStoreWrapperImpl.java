@@ -5,6 +5,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import org.infobip.mobile.messaging.Message;
+import org.infobip.mobile.messaging.logging.Level;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 
 /**
@@ -44,8 +45,10 @@ public class MessageStoreWrapperImpl implements MessageStoreWrapper {
     @Override
     public void upsert(@NonNull Message[] messages) {
         if (messageStore == null) {
-            for (Message m : messages) {
-                MobileMessagingLogger.d("Skipping save message: " + m.getMessageId());
+            if (MobileMessagingLogger.isLoggable(Level.DEBUG)) {
+                for (Message m : messages) {
+                    MobileMessagingLogger.d("Skipping save message: " + m.getMessageId());
+                }
             }
             return;
         }
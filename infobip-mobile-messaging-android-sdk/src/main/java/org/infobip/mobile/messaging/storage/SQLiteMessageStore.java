@@ -4,11 +4,14 @@ import android.content.Context;
 
 import org.infobip.mobile.messaging.Message;
 import org.infobip.mobile.messaging.MobileMessagingCore;
+import org.infobip.mobile.messaging.dal.sqlite.DatabaseContract.MessageColumns;
 import org.infobip.mobile.messaging.dal.sqlite.DatabaseHelper;
 import org.infobip.mobile.messaging.dal.sqlite.SqliteMessage;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Stores messages in SQLite database
@@ -30,21 +33,62 @@ import java.util.List;
 
 public class SQLiteMessageStore implements MessageStore {
 
+    private static final String NEWEST_FIRST = MessageColumns.RECEIVED_TIMESTAMP + " DESC";
+    private static final String SEEN = MessageColumns.SEEN_TIMESTAMP + " > 0";
+    private static final String UNSEEN = MessageColumns.SEEN_TIMESTAMP + " = 0";
+
     public void save(Context context, Message... messages) {
         DatabaseHelper helper = MobileMessagingCore.getDatabaseHelper(context);
+        if (messages.length == 1) {
+            helper.save(new SqliteMessage(messages[0]));
+            return;
+        }
+
+        List<SqliteMessage> sqliteMessages = new ArrayList<>(messages.length);
         for (Message message : messages) {
-            helper.save(new SqliteMessage(message));
+            sqliteMessages.add(new SqliteMessage(message));
         }
+        helper.saveAll(sqliteMessages);
     }
 
     public List<Message> findAll(Context context) {
         return new ArrayList<Message>(MobileMessagingCore.getDatabaseHelper(context).findAll(SqliteMessage.class));
     }
 
+    @Override
+    public List<Message> findPage(Context context, int offset, int limit) {
+        return find(context, null, offset, limit);
+    }
+
+    @Override
+    public List<Message> findSeen(Context context, int offset, int limit) {
+        return find(context, SEEN, offset, limit);
+    }
+
+    @Override
+    public List<Message> findUnseen(Context context, int offset, int limit) {
+        return find(context, UNSEEN, offset, limit);
+    }
+
+    @Override
+    public long countUnseen(Context context) {
+        return MobileMessagingCore.getDatabaseHelper(context).countAll(SqliteMessage.class, UNSEEN);
+    }
+
     public Message findById(Context context, String messageId) {
         return MobileMessagingCore.getDatabaseHelper(context).find(SqliteMessage.class, messageId);
     }
 
+    @Override
+    public List<Message> findByIds(Context context, Collection<String> messageIds) {
+        return new ArrayList<Message>(MobileMessagingCore.getDatabaseHelper(context).find(SqliteMessage.class, messageIds));
+    }
+
+    @Override
+    public void updateMessageIds(Context context, Map<String, String> messageIds) {
+        MobileMessagingCore.getDatabaseHelper(context).updatePrimaryKeys(SqliteMessage.class, messageIds);
+    }
+
     public long countAll(Context context) {
         return MobileMessagingCore.getDatabaseHelper(context).countAll(SqliteMessage.class);
     }
@@ -56,4 +100,8 @@ public class SQLiteMessageStore implements MessageStore {
     public void deleteById(Context context, String messageId) {
         MobileMessagingCore.getDatabaseHelper(context).delete(SqliteMessage.class, messageId);
     }
+
+    private List<Message> find(Context context, String sqlWhereCondition, int offset, int limit) {
+        return new ArrayList<Message>(MobileMessagingCore.getDatabaseHelper(context).find(SqliteMessage.class, sqlWhereCondition, null, NEWEST_FIRST, offset, limit));
+    }
 }
\ No newline at end of file
@@ -34,20 +34,24 @@ public class StoredMessageMapper {
         JSONObject customPayload = getJSON(bundle, BundleField.CUSTOM_PAYLOAD.getKey());
 
         String internalDataJson = bundle.getString(BundleField.INTERNAL_DATA.getKey());
-        boolean vibrate = silent ? InternalDataMapper.getInternalDataVibrate(internalDataJson, true) : "true".equals(bundle.getString(BundleField.VIBRATE.getKey(), "true"));
-        String title = silent ? InternalDataMapper.getInternalDataTitle(internalDataJson) : bundle.getString(BundleField.TITLE.getKey());
-        String body = silent ? InternalDataMapper.getInternalDataBody(internalDataJson) : bundle.getString(BundleField.BODY.getKey());
-        String sound = silent ? InternalDataMapper.getInternalDataSound(internalDataJson) : bundle.getString(BundleField.SOUND2.getKey(), bundle.getString(BundleField.SOUND.getKey()));
-        String category = silent ? InternalDataMapper.getInternalDataCategory(internalDataJson) : bundle.getString(BundleField.CATEGORY.getKey());
-        String contentUrl = InternalDataMapper.getInternalDataContentUrl(internalDataJson);
-        long sentDateTime = InternalDataMapper.getInternalDataSendDateTime(internalDataJson);
-        long inAppExpiryDateTime = InternalDataMapper.getInternalDataInAppExpiryDateTime(internalDataJson);
-        String webViewUrl = InternalDataMapper.getInternalDataWebViewUrl(internalDataJson);
-        String browserUrl = InternalDataMapper.getInternalDataBrowserUrl(internalDataJson);
-        String deeplink = InternalDataMapper.getInternalDataDeeplinkUri(internalDataJson);
-        String messageType = InternalDataMapper.getInternalDataMessageType(internalDataJson);
-        String inAppOpenTitle = InternalDataMapper.getInternalDataInAppOpenTitle(internalDataJson);
-        String inAppDismissTitle = InternalDataMapper.getInternalDataInAppDismissTitle(internalDataJson);
+        InternalDataMapper.InternalData internalData = InternalDataMapper.parseInternalData(internalDataJson);
+        if (internalData == null) {
+            internalData = new InternalDataMapper.InternalData();
+        }
+        boolean vibrate = silent ? internalData.isVibrate(true) : "true".equals(bundle.getString(BundleField.VIBRATE.getKey(), "true"));
+        String title = silent ? internalData.getTitle() : bundle.getString(BundleField.TITLE.getKey());
+        String body = silent ? internalData.getBody() : bundle.getString(BundleField.BODY.getKey());
+        String sound = silent ? internalData.getSound() : bundle.getString(BundleField.SOUND2.getKey(), bundle.getString(BundleField.SOUND.getKey()));
+        String category = silent ? internalData.getCategory() : bundle.getString(BundleField.CATEGORY.getKey());
+        String contentUrl = internalData.getContentUrl();
+        long sentDateTime = internalData.getSendDateTime();
+        long inAppExpiryDateTime = internalData.getInAppExpiryDateTime();
+        String webViewUrl = internalData.getWebViewUrl();
+        String browserUrl = internalData.getBrowserUrl();
+        String deeplink = internalData.getDeeplink();
+        String messageType = internalData.getMessageType();
+        String inAppOpenTitle = internalData.getInAppOpenTitle();
+        String inAppDismissTitle = internalData.getInAppDismissTitle();
 
         String destination = bundle.getString(BundleField.DESTINATION.getKey());
         String statusMessage = bundle.getString(BundleField.STATUS_MESSAGE.getKey());
@@ -56,7 +60,7 @@ public class StoredMessageMapper {
             status = Message.Status.valueOf(bundle.getString(BundleField.STATUS.getKey()));
         } catch (Exception ignored) {
         }
-        Message.InAppStyle inAppStyle = InternalDataMapper.getInternalDataInAppStyle(internalDataJson);
+        Message.InAppStyle inAppStyle = internalData.getInAppStyle();
 
         return new Message(messageId, title, body, sound,
                 vibrate, icon, silent, category, from,
@@ -22,6 +22,9 @@ public class CryptorImpl extends Cryptor {
     private static final String AES_ALGO = "AES/CBC/PKCS7PADDING";
     private Key key = null;
     private IvParameterSpec ivSpec = null;
+    // ciphers are not thread safe, and doFinal() resets them to initialized state, so each thread reuses its own
+    private final ThreadLocal<Cipher> encryptCiphers = new ThreadLocal<>();
+    private final ThreadLocal<Cipher> decryptCiphers = new ThreadLocal<>();
 
     public CryptorImpl(@NonNull String keySecret) {
         byte[] keyBytes = keySecret.getBytes();
@@ -66,22 +69,25 @@ public class CryptorImpl extends Cryptor {
     }
 
     private byte[] encodeAES128(byte[] data) {
-        try {
-            Cipher cipher = Cipher.getInstance(AES_ALGO);
-            cipher.init(Cipher.ENCRYPT_MODE, key, ivSpec);
-            return cipher.doFinal(data);
-        } catch (Exception e) {
-            MobileMessagingLogger.d(Log.getStackTraceString(e));
-            return null;
-        }
+        return doFinal(encryptCiphers, Cipher.ENCRYPT_MODE, data);
     }
 
     private byte[] decodeAES128(byte[] data) {
+        return doFinal(decryptCiphers, Cipher.DECRYPT_MODE, data);
+    }
+
+    private byte[] doFinal(ThreadLocal<Cipher> ciphers, int mode, byte[] data) {
         try {
-            Cipher cipher = Cipher.getInstance(AES_ALGO);
-            cipher.init(Cipher.DECRYPT_MODE, key, ivSpec);
+            Cipher cipher = ciphers.get();
+            if (cipher == null) {
+                cipher = Cipher.getInstance(AES_ALGO);
+                cipher.init(mode, key, ivSpec);
+                ciphers.set(cipher);
+            }
             return cipher.doFinal(data);
         } catch (Exception e) {
+            // cipher state is undefined after failure
+            ciphers.remove();
             MobileMessagingLogger.d(Log.getStackTraceString(e));
             return null;
         }
@@ -4,16 +4,23 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.preference.PreferenceManager;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
+import org.infobip.mobile.messaging.MobileMessagingCore;
 import org.infobip.mobile.messaging.MobileMessagingProperty;
+import org.infobip.mobile.messaging.dal.sqlite.SqliteStringQueue;
 import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author mstipanov
@@ -25,9 +32,73 @@ public abstract class PreferenceHelper {
     protected static Cryptor cryptor = null;
     private static Boolean usePrivateSharedPrefs = null;
 
+    // held by weak references, same as shared preferences listeners
+    private static final Map<PropertyChangeListener, Boolean> propertyChangeListeners = new WeakHashMap<>();
+    private static final PropertyCache propertyCache = new PropertyCache(new PropertyCache.InvalidationListener() {
+        @Override
+        public void onInvalidated(@Nullable String key) {
+            notifyPropertyChanged(key);
+        }
+    });
+    private static final Map<String, String> encryptedKeys = new ConcurrentHashMap<>();
+    private static final Map<String, String> plainKeys = new ConcurrentHashMap<>();
+    private static Cryptor cachedCryptor = null;
+    private static boolean cacheListenerRegistered = false;
+    // kept as a field since shared preferences hold listeners by weak references
+    private static final SharedPreferences.OnSharedPreferenceChangeListener cacheInvalidator = new SharedPreferences.OnSharedPreferenceChangeListener() {
+        @Override
+        public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
+            if (key == null) {
+                propertyCache.invalidateAll();
+            } else {
+                invalidate(key);
+            }
+        }
+    };
+
+    /**
+     * Listener of property changes. Unlike {@link SharedPreferences.OnSharedPreferenceChangeListener} it is called synchronously
+     * on the thread which saves or removes the property via this class. Changes made to shared preferences by other means
+     * are delivered when shared preferences notify about them.
+     */
+    public interface PropertyChangeListener {
+        /**
+         * @param key key of the changed property or null if any property could have changed
+         */
+        void onPropertyChanged(@Nullable String key);
+    }
+
     protected PreferenceHelper() {
     }
 
+    /**
+     * Registers listener of property changes. Listener is held by weak reference, so caller needs to keep a reference to it.
+     */
+    public static void registerPropertyChangeListener(@NonNull PropertyChangeListener listener) {
+        synchronized (propertyChangeListeners) {
+            propertyChangeListeners.put(listener, Boolean.TRUE);
+        }
+    }
+
+    public static void unregisterPropertyChangeListener(@NonNull PropertyChangeListener listener) {
+        synchronized (propertyChangeListeners) {
+            propertyChangeListeners.remove(listener);
+        }
+    }
+
+    private static void notifyPropertyChanged(@Nullable String key) {
+        List<PropertyChangeListener> listeners;
+        synchronized (propertyChangeListeners) {
+            if (propertyChangeListeners.isEmpty()) {
+                return;
+            }
+            listeners = new ArrayList<>(propertyChangeListeners.keySet());
+        }
+        for (PropertyChangeListener listener : listeners) {
+            listener.onPropertyChanged(key);
+        }
+    }
+
     private static Cryptor getCryptor(Context context) {
         if (cryptor != null) {
             return cryptor;
@@ -41,6 +112,60 @@ public abstract class PreferenceHelper {
         return DeviceInformation.getDeviceID(context);
     }
 
+    /**
+     * Returns cache of decrypted and parsed property values, drops cached values if cryptor has changed since they were cached
+     */
+    private static PropertyCache cache(Context context) {
+        Cryptor current = getCryptor(context);
+        synchronized (propertyCache) {
+            if (current != cachedCryptor) {
+                propertyCache.invalidateAll();
+                encryptedKeys.clear();
+                plainKeys.clear();
+                cachedCryptor = current;
+            }
+            if (!cacheListenerRegistered) {
+                getPrivateMMSharedPreferences(context).registerOnSharedPreferenceChangeListener(cacheInvalidator);
+                getPublicSharedPreferences(context).registerOnSharedPreferenceChangeListener(cacheInvalidator);
+                cacheListenerRegistered = true;
+            }
+        }
+        return propertyCache;
+    }
+
+    private static String encryptKey(Context context, Cryptor cryptor, String key) {
+        cache(context);
+        if (cryptor != cachedCryptor) {
+            return cryptor.encrypt(key);
+        }
+
+        String encryptedKey = encryptedKeys.get(key);
+        if (encryptedKey == null) {
+            encryptedKey = cryptor.encrypt(key);
+            if (encryptedKey != null) {
+                encryptedKeys.put(key, encryptedKey);
+                plainKeys.put(encryptedKey, key);
+            }
+        }
+        return encryptedKey;
+    }
+
+    private static void invalidate(String key) {
+        propertyCache.invalidate(key);
+        String plainKey = plainKeys.get(key);
+        if (plainKey != null) {
+            propertyCache.invalidate(plainKey);
+        }
+    }
+
+    /**
+     * Drops all cached property values, needed only when shared preferences are modified bypassing this class
+     */
+    @VisibleForTesting
+    public static void resetCache() {
+        propertyCache.invalidateAll();
+    }
+
     public static SharedPreferences getDefaultMMSharedPreferences(Context context) {
         if (usePrivateSharedPrefs == null) {
             usePrivateSharedPrefs = shouldUsePrivateSharedPrefs(context);
@@ -68,8 +193,19 @@ public abstract class PreferenceHelper {
         return findString(context, key, defaultValue, false);
     }
 
-    public static String findString(Context context, String key, String defaultValue, boolean encrypted) {
-        return findString(context, key, defaultValue, encrypted, getCryptor(context));
+    public static String findString(final Context context, final String key, String defaultValue, final boolean encrypted) {
+        final Cryptor cryptor = getCryptor(context);
+        PropertyCache.Type type = encrypted ? PropertyCache.Type.ENCRYPTED_STRING : PropertyCache.Type.STRING;
+        String value = cache(context).get(type, key, new PropertyCache.Loader<String>() {
+            @Override
+            public String load() {
+                return findString(context, key, null, encrypted, cryptor);
+            }
+        });
+        if (value != null) {
+            return value;
+        }
+        return encrypted ? cryptor.decrypt(defaultValue) : defaultValue;
     }
 
     private static String findString(Context context, String key, String defaultValue, boolean encrypted, Cryptor cryptor) {
@@ -78,7 +214,7 @@ public abstract class PreferenceHelper {
             return sharedPreferences.getString(key, defaultValue);
         }
 
-        String encryptedKey = cryptor.encrypt(key);
+        String encryptedKey = encryptKey(context, cryptor, key);
         String encryptedValue = sharedPreferences.getString(encryptedKey, defaultValue);
         return cryptor.decrypt(encryptedValue);
     }
@@ -92,14 +228,21 @@ public abstract class PreferenceHelper {
     }
 
     private static void saveString(Context context, String key, String value, boolean encrypted, Cryptor cryptor) {
-        if (!encrypted) {
-            saveString(context, key, value);
-            return;
-        }
+        PropertyCache cache = cache(context);
+        synchronized (cache) {
+            if (!encrypted) {
+                saveString(context, key, value);
+                cache.put(PropertyCache.Type.STRING, key, value);
+                return;
+            }
 
-        String encryptedKey = cryptor.encrypt(key);
-        String encryptedValue = cryptor.encrypt(value);
-        saveString(context, encryptedKey, encryptedValue);
+            String encryptedKey = encryptKey(context, cryptor, key);
+            String encryptedValue = cryptor.encrypt(value);
+            saveString(context, encryptedKey, encryptedValue);
+            if (cryptor == cachedCryptor) {
+                cache.put(PropertyCache.Type.ENCRYPTED_STRING, key, value);
+            }
+        }
     }
 
     public static void saveString(Context context, String key, String value) {
@@ -108,7 +251,11 @@ public abstract class PreferenceHelper {
             remove(context, key);
             return;
         }
-        sharedPreferences.edit().putString(key, value).apply();
+        PropertyCache cache = cache(context);
+        synchronized (cache) {
+            sharedPreferences.edit().putString(key, value).apply();
+            invalidate(key);
+        }
     }
 
     public static long findLong(Context context, MobileMessagingProperty property) {
@@ -119,9 +266,16 @@ public abstract class PreferenceHelper {
         return findLong(context, property.getKey(), (Long) defaultValue);
     }
 
-    public static long findLong(Context context, String key, long defaultValue) {
-        SharedPreferences sharedPreferences = getDefaultMMSharedPreferences(context);
-        String string = sharedPreferences.getString(key, String.valueOf(defaultValue));
+    public static long findLong(final Context context, final String key, long defaultValue) {
+        String string = cache(context).get(PropertyCache.Type.LONG, key, new PropertyCache.Loader<String>() {
+            @Override
+            public String load() {
+                return getDefaultMMSharedPreferences(context).getString(key, null);
+            }
+        });
+        if (string == null) {
+            string = String.valueOf(defaultValue);
+        }
         if (StringUtils.isBlank(string)) {
             return 0;
         }
@@ -134,7 +288,11 @@ public abstract class PreferenceHelper {
 
     public static void saveLong(Context context, String key, long value) {
         SharedPreferences sharedPreferences = getDefaultMMSharedPreferences(context);
-        sharedPreferences.edit().putString(key, String.valueOf(value)).apply();
+        PropertyCache cache = cache(context);
+        synchronized (cache) {
+            sharedPreferences.edit().putString(key, String.valueOf(value)).apply();
+            cache.put(PropertyCache.Type.LONG, key, String.valueOf(value));
+        }
     }
 
     public static <T> Class<T> findClass(Context context, MobileMessagingProperty property) {
@@ -142,17 +300,21 @@ public abstract class PreferenceHelper {
     }
 
     public static <T> Class<T> findClass(Context context, String key, Class<T> defaultValue) {
-        String callbackActivityClassName = findString(context, key, null);
+        final String callbackActivityClassName = findString(context, key, null);
         if (StringUtils.isBlank(callbackActivityClassName)) {
             return defaultValue;
         }
-        //TODO cache
-        try {
-            return (Class<T>) Class.forName(callbackActivityClassName);
-        } catch (ClassNotFoundException e) {
-            //TODO log
-            return null;
-        }
+        return cache(context).get(PropertyCache.Type.CLASS, key, new PropertyCache.Loader<Class<T>>() {
+            @Override
+            public Class<T> load() {
+                try {
+                    return (Class<T>) Class.forName(callbackActivityClassName);
+                } catch (ClassNotFoundException e) {
+                    //TODO log
+                    return null;
+                }
+            }
+        });
     }
 
     public static void saveClass(Context context, MobileMessagingProperty property, Class<?> aClass) {
@@ -168,14 +330,21 @@ public abstract class PreferenceHelper {
         return findBoolean(context, property.getKey(), Boolean.TRUE.equals(property.getDefaultValue()));
     }
 
-    public static boolean findBoolean(Context context, String key, boolean defaultValue) {
-        return getDefaultMMSharedPreferences(context).getBoolean(key, defaultValue);
+    public static boolean findBoolean(final Context context, final String key, boolean defaultValue) {
+        Boolean value = cache(context).get(PropertyCache.Type.BOOLEAN, key, new PropertyCache.Loader<Boolean>() {
+            @Override
+            public Boolean load() {
+                SharedPreferences sharedPreferences = getDefaultMMSharedPreferences(context);
+                return sharedPreferences.contains(key) ? sharedPreferences.getBoolean(key, false) : null;
+            }
+        });
+        return value != null ? value : defaultValue;
     }
 
     public static boolean findBoolean(Context context, String key, boolean defaultValue, boolean privatePrefs) {
         if (privatePrefs) {
             return getPrivateMMSharedPreferences(context).getBoolean(key, defaultValue);
-        } else return getDefaultMMSharedPreferences(context).getBoolean(key, defaultValue);
+        } else return findBoolean(context, key, defaultValue);
     }
 
     public static void saveBoolean(Context context, MobileMessagingProperty property, boolean value) {
@@ -200,6 +369,7 @@ public abstract class PreferenceHelper {
     public static void saveUsePrivateSharedPrefs(Context context, boolean value) {
         usePrivateSharedPrefs = value;
         saveBoolean(context, MobileMessagingProperty.USE_PRIVATE_SHARED_PREFS.getKey(), value, true);
+        propertyCache.invalidateAll();
     }
 
     public static void saveBoolean(Context context, String key, boolean value) {
@@ -207,10 +377,15 @@ public abstract class PreferenceHelper {
     }
 
     public static void saveBoolean(Context context, String key, boolean value, boolean privatePrefs) {
-        if (privatePrefs) {
-            getPrivateMMSharedPreferences(context).edit().putBoolean(key, value).apply();
-        } else {
-            getDefaultMMSharedPreferences(context).edit().putBoolean(key, value).apply();
+        PropertyCache cache = cache(context);
+        synchronized (cache) {
+            if (privatePrefs) {
+                getPrivateMMSharedPreferences(context).edit().putBoolean(key, value).apply();
+                invalidate(key);
+            } else {
+                getDefaultMMSharedPreferences(context).edit().putBoolean(key, value).apply();
+                cache.put(PropertyCache.Type.BOOLEAN, key, value);
+            }
         }
     }
 
@@ -223,8 +398,15 @@ public abstract class PreferenceHelper {
         return findInt(context, property.getKey(), defaultInt);
     }
 
-    public static int findInt(Context context, String key, int defaultValue) {
-        return getDefaultMMSharedPreferences(context).getInt(key, defaultValue);
+    public static int findInt(final Context context, final String key, int defaultValue) {
+        Integer value = cache(context).get(PropertyCache.Type.INT, key, new PropertyCache.Loader<Integer>() {
+            @Override
+            public Integer load() {
+                SharedPreferences sharedPreferences = getDefaultMMSharedPreferences(context);
+                return sharedPreferences.contains(key) ? sharedPreferences.getInt(key, 0) : null;
+            }
+        });
+        return value != null ? value : defaultValue;
     }
 
     public static void saveInt(Context context, MobileMessagingProperty property, int value) {
@@ -232,17 +414,46 @@ public abstract class PreferenceHelper {
     }
 
     public static void saveInt(Context context, String key, int value) {
-        getDefaultMMSharedPreferences(context).edit().putInt(key, value).apply();
+        PropertyCache cache = cache(context);
+        synchronized (cache) {
+            getDefaultMMSharedPreferences(context).edit().putInt(key, value).apply();
+            cache.put(PropertyCache.Type.INT, key, value);
+        }
     }
 
     @NonNull
     public static String[] findAndRemoveStringArray(Context context, MobileMessagingProperty property) {
+        return findAndRemoveStringArray(context, property, 0);
+    }
+
+    /**
+     * Removes and returns at most {@code limit} strings saved for the property
+     *
+     * @param context  context
+     * @param property property to drain
+     * @param limit    maximum number of strings to return, zero for all
+     * @return removed strings, oldest first for properties kept in {@link SqliteStringQueue}
+     */
+    @NonNull
+    public static String[] findAndRemoveStringArray(Context context, MobileMessagingProperty property, final int limit) {
+        SqliteStringQueue queue = queue(context, property.getKey());
+        if (queue != null) {
+            synchronized (LOCK) {
+                return queue.drain(limit).toArray(new String[0]);
+            }
+        }
+
         final List<String> strings = new ArrayList<>();
         editSet(context, property.getKey(), new SetMutator() {
             @Override
             public void mutate(Set<String> set) {
-                strings.addAll(set);
-                set.clear();
+                for (String string : set) {
+                    if (limit > 0 && strings.size() >= limit) {
+                        break;
+                    }
+                    strings.add(string);
+                }
+                set.removeAll(strings);
             }
         });
         return strings.toArray(new String[0]);
@@ -262,6 +473,12 @@ public abstract class PreferenceHelper {
     }
 
     public static <T> T find(Context context, String key, T defaultValue, SetConverter<T> converter) {
+        SqliteStringQueue queue = queue(context, key);
+        if (queue != null) {
+            List<String> strings = queue.findAll();
+            return strings.isEmpty() ? defaultValue : converter.convert(new LinkedHashSet<>(strings));
+        }
+
         synchronized (LOCK) {
             Set<String> value = getDefaultMMSharedPreferences(context).getStringSet(key, null);
             if (null == value) {
@@ -276,6 +493,14 @@ public abstract class PreferenceHelper {
     }
 
     public static void appendToStringArray(Context context, String key, final String... strings) {
+        SqliteStringQueue queue = queue(context, key);
+        if (queue != null) {
+            synchronized (LOCK) {
+                queue.append(strings);
+            }
+            return;
+        }
+
         SetMutator mutator = new SetMutator() {
             @Override
             public void mutate(Set<String> set) {
@@ -290,6 +515,14 @@ public abstract class PreferenceHelper {
     }
 
     public static void deleteFromStringArray(Context context, String key, final String... strings) {
+        SqliteStringQueue queue = queue(context, key);
+        if (queue != null) {
+            synchronized (LOCK) {
+                queue.remove(strings);
+            }
+            return;
+        }
+
         SetMutator mutator = new SetMutator() {
             @Override
             public void mutate(Set<String> set) {
@@ -304,6 +537,14 @@ public abstract class PreferenceHelper {
     }
 
     public static void saveStringArray(Context context, String key, final String... strings) {
+        SqliteStringQueue queue = queue(context, key);
+        if (queue != null) {
+            synchronized (LOCK) {
+                queue.replaceAll(strings);
+            }
+            return;
+        }
+
         SharedPreferences sharedPreferences = getDefaultMMSharedPreferences(context);
         final HashSet<String> stringSet = new HashSet<String>() {{
             addAll(Arrays.asList(strings));
@@ -341,6 +582,14 @@ public abstract class PreferenceHelper {
 
     public static void editSet(Context context, String key, SetMutator mutator) {
         synchronized (LOCK) {
+            SqliteStringQueue queue = queue(context, key);
+            if (queue != null) {
+                Set<String> set = new LinkedHashSet<>(queue.findAll());
+                mutator.mutate(set);
+                queue.replaceAll(set.toArray(new String[0]));
+                return;
+            }
+
             SharedPreferences sharedPreferences = getDefaultMMSharedPreferences(context);
             final Set<String> set = new HashSet<>(sharedPreferences.getStringSet(key, new HashSet<String>()));
             mutator.mutate(set);
@@ -359,27 +608,42 @@ public abstract class PreferenceHelper {
     private static void remove(Context context, MobileMessagingProperty property, Cryptor cryptor) {
         String key = property.getKey();
         if (property.isEncrypted()) {
-            key = cryptor.encrypt(key);
+            key = encryptKey(context, cryptor, key);
         }
         remove(context, key);
     }
 
     public static void remove(Context context, String key) {
-        getDefaultMMSharedPreferences(context)
-                .edit()
-                .remove(key)
-                .apply();
+        SqliteStringQueue queue = queue(context, key);
+        if (queue != null) {
+            queue.clear();
+            return;
+        }
+
+        PropertyCache cache = cache(context);
+        synchronized (cache) {
+            getDefaultMMSharedPreferences(context)
+                    .edit()
+                    .remove(key)
+                    .apply();
+            invalidate(key);
+        }
     }
 
     public static boolean contains(Context context, MobileMessagingProperty property) {
         String key = property.getKey();
         if (property.isEncrypted()) {
-            key = getCryptor(context).encrypt(key);
+            key = encryptKey(context, getCryptor(context), key);
         }
         return contains(context, key);
     }
 
     public static boolean contains(Context context, String key) {
+        SqliteStringQueue queue = queue(context, key);
+        if (queue != null) {
+            return queue.count() > 0;
+        }
+
         return getDefaultMMSharedPreferences(context).contains(key);
     }
 
@@ -431,6 +695,7 @@ public abstract class PreferenceHelper {
         privatePrefsEditor.apply();
 
         migrateCryptedEntriesFromPublicToPrivatePrefs(context, cryptedProperties());
+        propertyCache.invalidateAll();
     }
 
     public static void migrateCryptorIfNeeded(Context context, Cryptor oldCryptor) {
@@ -460,6 +725,7 @@ public abstract class PreferenceHelper {
             remove(context, oldEncryptedKey);
             saveString(context, property.getKey(), value, property.isEncrypted(), toCryptor);
         }
+        propertyCache.invalidateAll();
     }
 
     private static MobileMessagingProperty[] cryptedProperties() {
@@ -480,6 +746,18 @@ public abstract class PreferenceHelper {
         }
     }
 
+    /**
+     * Returns queue for string arrays which are kept in database instead of shared preferences,
+     * since they change on every message and rewriting whole set in preferences doesn't scale
+     */
+    @Nullable
+    private static SqliteStringQueue queue(Context context, String key) {
+        if (!SqliteStringQueue.isQueued(key)) {
+            return null;
+        }
+        return new SqliteStringQueue(MobileMessagingCore.getDatabaseProvider(context), key);
+    }
+
     public static void registerOnSharedPreferenceChangeListener(Context context, SharedPreferences.OnSharedPreferenceChangeListener listener) {
         getDefaultMMSharedPreferences(context).registerOnSharedPreferenceChangeListener(listener);
     }
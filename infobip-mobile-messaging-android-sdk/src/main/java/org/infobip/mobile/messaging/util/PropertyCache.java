@@ -0,0 +1,104 @@
+package org.infobip.mobile.messaging.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-through cache of property values read from shared preferences, keyed by property key and value type.
+ * Each value type has its own map keyed by property key, so lookups don't build composite keys.
+ * <br>
+ * Values are loaded (and decrypted) once, then served from memory until the property is saved or invalidated.
+ * A value loaded concurrently with a save or an invalidation is not cached, so a stale value never overwrites a newer one.
+ */
+class PropertyCache {
+
+    enum Type {
+        STRING, ENCRYPTED_STRING, LONG, BOOLEAN, INT, CLASS
+    }
+
+    interface Loader<T> {
+        @Nullable
+        T load();
+    }
+
+    interface InvalidationListener {
+        /**
+         * Called when cached value is saved or invalidated
+         *
+         * @param key key of the property or null if all properties were invalidated
+         */
+        void onInvalidated(@Nullable String key);
+    }
+
+    private static final Object NULL = new Object();
+    private static final Type[] TYPES = Type.values();
+
+    private final ConcurrentHashMap<String, Object>[] values;
+    private final InvalidationListener listener;
+    private long generation;
+
+    PropertyCache() {
+        this(null);
+    }
+
+    PropertyCache(@Nullable InvalidationListener listener) {
+        this.listener = listener;
+        //noinspection unchecked
+        this.values = new ConcurrentHashMap[TYPES.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    @Nullable
+    <T> T get(@NonNull Type type, @NonNull String key, @NonNull Loader<T> loader) {
+        ConcurrentHashMap<String, Object> typeValues = values[type.ordinal()];
+        Object cached = typeValues.get(key);
+        if (cached != null) {
+            //noinspection unchecked
+            return cached == NULL ? null : (T) cached;
+        }
+
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        T value = loader.load();
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                typeValues.put(key, value == null ? NULL : value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Saves value of the property and invalidates values of other types for the same key
+     */
+    synchronized void put(@NonNull Type type, @NonNull String key, @Nullable Object value) {
+        invalidate(key);
+        values[type.ordinal()].put(key, value == null ? NULL : value);
+    }
+
+    synchronized void invalidate(@NonNull String key) {
+        generation++;
+        for (ConcurrentHashMap<String, Object> typeValues : values) {
+            typeValues.remove(key);
+        }
+        if (listener != null) {
+            listener.onInvalidated(key);
+        }
+    }
+
+    synchronized void invalidateAll() {
+        generation++;
+        for (ConcurrentHashMap<String, Object> typeValues : values) {
+            typeValues.clear();
+        }
+        if (listener != null) {
+            listener.onInvalidated(null);
+        }
+    }
+}
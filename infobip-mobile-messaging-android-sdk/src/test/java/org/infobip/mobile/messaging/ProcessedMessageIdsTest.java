@@ -0,0 +1,82 @@
+package org.infobip.mobile.messaging;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ProcessedMessageIdsTest {
+
+    private static final int LIMIT = 3;
+    private static final long EXPIRY = 1000;
+
+    private ProcessedMessageIds processedMessageIds;
+
+    @Before
+    public void setUp() {
+        processedMessageIds = new ProcessedMessageIds(LIMIT, EXPIRY);
+    }
+
+    @Test
+    public void should_find_added_message_ids() {
+        processedMessageIds.add("id1", 100);
+        processedMessageIds.add("id2", 200);
+
+        assertTrue(processedMessageIds.contains("id1", 300));
+        assertTrue(processedMessageIds.contains("id2", 300));
+        assertFalse(processedMessageIds.contains("id3", 300));
+        assertArrayEquals(new String[]{"id1", "id2"}, processedMessageIds.messageIds(300));
+        assertNull(processedMessageIds.takeReportsIfEvicted());
+    }
+
+    @Test
+    public void should_keep_only_newest_ids_within_limit() {
+        for (int i = 0; i < 5; i++) {
+            processedMessageIds.add("id" + i, 100 + i);
+        }
+
+        assertEquals(LIMIT, processedMessageIds.size());
+        assertFalse(processedMessageIds.contains("id1", 200));
+        assertArrayEquals(new String[]{"id2", "id3", "id4"}, processedMessageIds.messageIds(200));
+        assertArrayEquals(new String[]{"id2, 102", "id3, 103", "id4, 104"}, processedMessageIds.takeReportsIfEvicted());
+        assertNull(processedMessageIds.takeReportsIfEvicted());
+    }
+
+    @Test
+    public void should_expire_old_ids() {
+        processedMessageIds.add("id1", 100);
+        processedMessageIds.add("id2", 600);
+
+        assertTrue(processedMessageIds.contains("id1", 1100));
+        assertFalse(processedMessageIds.contains("id1", 1101));
+        assertTrue(processedMessageIds.contains("id2", 1101));
+        assertArrayEquals(new String[]{"id2, 600"}, processedMessageIds.takeReportsIfEvicted());
+    }
+
+    @Test
+    public void should_keep_single_entry_for_id_added_twice() {
+        processedMessageIds.add("id1", 100);
+        processedMessageIds.add("id2", 200);
+        processedMessageIds.add("id1", 300);
+
+        assertArrayEquals(new String[]{"id2", "id1"}, processedMessageIds.messageIds(400));
+        assertArrayEquals(new String[]{"id2, 200", "id1, 300"}, processedMessageIds.takeReportsIfEvicted());
+    }
+
+    @Test
+    public void should_load_persisted_entries_in_time_order() {
+        processedMessageIds.load(new String[]{"id3, 300", "id1, 100", "broken", "id4, 400", "id2, 200"}, 1000);
+
+        assertTrue(processedMessageIds.isLoaded());
+        assertArrayEquals(new String[]{"id2", "id3", "id4"}, processedMessageIds.messageIds(1000));
+        assertArrayEquals(new String[]{"id2, 200", "id3, 300", "id4, 400"}, processedMessageIds.takeReportsIfEvicted());
+
+        processedMessageIds.clear();
+        assertFalse(processedMessageIds.isLoaded());
+        assertFalse(processedMessageIds.contains("id4", 1000));
+    }
+}
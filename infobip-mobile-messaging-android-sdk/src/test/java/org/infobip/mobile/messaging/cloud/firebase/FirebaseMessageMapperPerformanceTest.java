@@ -0,0 +1,182 @@
+package org.infobip.mobile.messaging.cloud.firebase;
+
+import org.infobip.mobile.messaging.Message;
+import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.infobip.mobile.messaging.dal.json.JSONArrayAdapter;
+import org.infobip.mobile.messaging.dal.json.JSONObjectAdapter;
+import org.infobip.mobile.messaging.platform.Time;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FirebaseMessageMapperPerformanceTest {
+
+    private final FirebaseMessageMapper mapper = new FirebaseMessageMapper();
+    // same serializer as used for bundles
+    private final JsonSerializer serializer = new JsonSerializer(false, new JSONObjectAdapter(), new JSONArrayAdapter());
+
+    @Test
+    public void should_map_all_fields_from_push_data() {
+        Message message = mapper.createMessage(typicalPush(), "remoteId");
+
+        assertEquals("messageId", message.getMessageId());
+        assertEquals("text", message.getBody());
+        assertEquals("title", message.getTitle());
+        assertEquals("icon", message.getIcon());
+        assertEquals("sound", message.getSound());
+        assertEquals("category", message.getCategory());
+        assertFalse(message.isVibrate());
+        assertTrue(message.isSilent());
+        assertEquals("https://www.example.com/image.png", message.getContentUrl());
+        assertEquals(Message.InAppStyle.BANNER, message.getInAppStyle());
+        assertEquals("value", message.getCustomPayload().optString("key"));
+        assertEquals(1, message.getCustomPayload().optInt("key2"));
+        assertEquals(123L, message.getSentTimestamp());
+        assertEquals(456L, message.getInAppExpiryTimestamp());
+        assertEquals("https://www.example.com/webview", message.getWebViewUrl());
+        assertEquals("app://deeplink", message.getDeeplink());
+    }
+
+    @Test
+    public void should_use_defaults_when_notification_is_missing() {
+        Message message = mapper.createMessage(push("{\"messageId\":\"messageId\",\"text\":\"text\",\"internal\":{\"inApp\":true}}"), "remoteId");
+
+        assertEquals("messageId", message.getMessageId());
+        assertNull(message.getTitle());
+        assertTrue(message.isVibrate());
+        assertFalse(message.isSilent());
+        assertNull(message.getCustomPayload());
+        assertEquals(Message.InAppStyle.MODAL, message.getInAppStyle());
+    }
+
+    @Test
+    public void should_map_same_message_as_gson() {
+        Map<String, String> data = typicalPush();
+
+        Message message = mapper.createMessage(data, "remoteId");
+        Message legacy = legacyCreateMessage(data);
+        message.setReceivedTimestamp(0);
+        legacy.setReceivedTimestamp(0);
+
+        assertEquals(serializer.serialize(legacy), serializer.serialize(message));
+    }
+
+    @Test
+    public void should_parse_push_data_once() {
+        for (Map<String, String> data : Arrays.asList(typicalPush(), largePush())) {
+            CountingData push = new CountingData(data);
+
+            Message message = mapper.createMessage(push, "remoteId");
+
+            assertEquals("messageId", message.getMessageId());
+            assertEquals(1, push.reads);
+        }
+    }
+
+    private Message legacyCreateMessage(Map<String, String> data) {
+        LegacyIBData ibData = serializer.deserialize(data.get("org_ib_d"), LegacyIBData.class);
+        LegacyNotificationSettings notification = ibData.notification != null ? ibData.notification : new LegacyNotificationSettings();
+        JSONObject internal = ibData.internal;
+        return new Message(
+                ibData.messageId,
+                notification.title,
+                ibData.text,
+                notification.sound,
+                notification.vibrate != null ? notification.vibrate : true,
+                notification.icon,
+                notification.silent != null ? notification.silent : false,
+                notification.category,
+                "",
+                Time.now(),
+                0,
+                internal != null ? internal.optLong("sendDateTime", Time.now()) : Time.now(),
+                ibData.custom,
+                internal != null ? internal.toString() : null,
+                "",
+                Message.Status.UNKNOWN,
+                "",
+                notification.contentUrl,
+                notification.inAppStyle,
+                internal != null ? internal.optLong("inAppExpiryDateTime", 0) : 0,
+                internal != null ? internal.optString("webViewUrl") : null,
+                internal != null ? internal.optString("browserUrl") : null,
+                internal != null ? internal.optString("messageType") : null,
+                internal != null ? internal.optString("deeplink") : null,
+                internal != null ? internal.optString("inAppOpenTitle") : null,
+                internal != null ? internal.optString("inAppDismissTitle") : null);
+    }
+
+    private static Map<String, String> typicalPush() {
+        return push("{" +
+                "\"messageId\":\"messageId\"," +
+                "\"text\":\"text\"," +
+                "\"notification\":{\"icon\":\"icon\",\"title\":\"title\",\"sound\":\"sound\",\"category\":\"category\"," +
+                "\"vibrate\":false,\"silent\":true,\"contentUrl\":\"https://www.example.com/image.png\",\"inAppStyle\":1}," +
+                "\"custom\":{\"key\":\"value\",\"key2\":1,\"key3\":true}," +
+                "\"internal\":{\"sendDateTime\":123,\"inAppExpiryDateTime\":456,\"webViewUrl\":\"https://www.example.com/webview\"," +
+                "\"deeplink\":\"app://deeplink\",\"atts\":[{\"url\":\"https://www.example.com/image.png\"}]}" +
+                "}");
+    }
+
+    private static Map<String, String> largePush() {
+        StringBuilder custom = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            custom.append(i == 0 ? "" : ",").append("\"key").append(i).append("\":\"value of custom attribute number ").append(i).append("\"");
+        }
+        String typical = typicalPush().get("org_ib_d");
+        return push(typical.replace("\"custom\":{\"key\":\"value\",\"key2\":1,\"key3\":true}", "\"custom\":{" + custom + "}"));
+    }
+
+    private static Map<String, String> push(String ibData) {
+        Map<String, String> data = new HashMap<>();
+        data.put("org_ib_d", ibData);
+        return Collections.unmodifiableMap(data);
+    }
+
+    /**
+     * Push data which counts reads of the message payload, each read is followed by parsing it
+     */
+    private static class CountingData extends HashMap<String, String> {
+        int reads;
+
+        CountingData(Map<String, String> data) {
+            super(data);
+        }
+
+        @Override
+        public String get(Object key) {
+            if ("org_ib_d".equals(key)) {
+                reads++;
+            }
+            return super.get(key);
+        }
+    }
+
+    private static class LegacyIBData {
+        String messageId;
+        String text;
+        LegacyNotificationSettings notification;
+        JSONObject custom;
+        JSONObject internal;
+    }
+
+    private static class LegacyNotificationSettings {
+        String icon;
+        String title;
+        String sound;
+        String category;
+        Boolean vibrate;
+        Boolean silent;
+        String contentUrl;
+        Message.InAppStyle inAppStyle;
+    }
+}
@@ -3,6 +3,10 @@ package org.infobip.mobile.messaging.dal.json;
 import org.infobip.mobile.messaging.Message;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
 /**
  * @author sslavin
  * @since 05/07/2017.
@@ -20,4 +24,49 @@ public class InternalDataMapperTest {
         // When
         InternalDataMapper.updateMessageWithInternalData(givenMessage, givenInternalData);
     }
+
+    @Test
+    public void should_read_all_fields_from_single_parsed_internal_data() {
+
+        // Given
+        String givenInternalData = "{" +
+                "\"atts\": [{\"url\": \"https://www.example.com/image.png\"}]," +
+                "\"sendDateTime\": 1000," +
+                "\"silent\": {\"title\": \"title\", \"body\": \"body\", \"sound\": \"sound\", \"vibrate\": \"false\", \"category\": \"category\"}," +
+                "\"inApp\": true," +
+                "\"inAppExpiryDateTime\": 2000," +
+                "\"webViewUrl\": \"https://www.example.com/webview\"," +
+                "\"messageType\": \"chat\"," +
+                "\"deeplink\": \"app://deeplink\"" +
+                "}";
+
+        // When
+        InternalDataMapper.InternalData internalData = InternalDataMapper.parseInternalData(givenInternalData);
+
+        // Then
+        assertEquals("https://www.example.com/image.png", internalData.getContentUrl());
+        assertEquals(1000, internalData.getSendDateTime());
+        assertEquals("title", internalData.getTitle());
+        assertEquals("body", internalData.getBody());
+        assertEquals("sound", internalData.getSound());
+        assertFalse(internalData.isVibrate(true));
+        assertEquals("category", internalData.getCategory());
+        assertEquals(Message.InAppStyle.MODAL, internalData.getInAppStyle());
+        assertEquals(2000, internalData.getInAppExpiryDateTime());
+        assertEquals("https://www.example.com/webview", internalData.getWebViewUrl());
+        assertNull(internalData.getBrowserUrl());
+        assertEquals("chat", internalData.getMessageType());
+        assertEquals("app://deeplink", internalData.getDeeplink());
+    }
+
+    @Test
+    public void should_return_defaults_when_internal_data_is_missing_or_invalid() {
+        assertNull(InternalDataMapper.parseInternalData(null));
+        assertNull(InternalDataMapper.parseInternalData("not a json"));
+        assertNull(InternalDataMapper.getInternalDataContentUrl("{}"));
+        assertNull(InternalDataMapper.getInternalDataTitle("{}"));
+        assertNull(InternalDataMapper.getInternalDataInAppStyle("{}"));
+        assertEquals(0, InternalDataMapper.getInternalDataSendDateTime(null));
+        assertEquals(true, InternalDataMapper.getInternalDataVibrate("{\"silent\": {}}", true));
+    }
 }
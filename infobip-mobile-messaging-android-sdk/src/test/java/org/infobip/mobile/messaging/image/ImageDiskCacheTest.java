@@ -0,0 +1,201 @@
+package org.infobip.mobile.messaging.image;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ImageDiskCacheTest {
+
+    private static final String URL = "https://example.com/image.png";
+
+    private File directory;
+    private FakeDownloader downloader;
+    private CapturingExecutor trimExecutor;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile("images", "");
+        assertTrue(directory.delete());
+        downloader = new FakeDownloader();
+        trimExecutor = new CapturingExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        new ImageDiskCache(directory, 0, downloader, trimExecutor).clear();
+        //noinspection ResultOfMethodCallIgnored
+        directory.delete();
+    }
+
+    @Test
+    public void should_download_image_only_once() throws IOException {
+        ImageDiskCache cache = new ImageDiskCache(directory, 1024, downloader, trimExecutor);
+
+        File first = cache.get(URL);
+        File second = cache.get(URL);
+
+        assertEquals(first, second);
+        assertEquals(10, first.length());
+        assertEquals(1, downloader.downloads.get());
+    }
+
+    @Test
+    public void should_share_download_between_concurrent_requests() throws Exception {
+        downloader.release = new CountDownLatch(1);
+        final ImageDiskCache cache = new ImageDiskCache(directory, 1024, downloader, trimExecutor);
+        final List<File> results = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        File file = cache.get(URL);
+                        synchronized (results) {
+                            results.add(file);
+                        }
+                    } catch (IOException ignored) {
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        assertTrue(downloader.started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        downloader.release.countDown();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        assertEquals(1, downloader.downloads.get());
+        assertEquals(5, results.size());
+    }
+
+    @Test
+    public void should_not_cache_failed_downloads() {
+        downloader.fail = true;
+        ImageDiskCache cache = new ImageDiskCache(directory, 1024, downloader, trimExecutor);
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                cache.get(URL);
+                fail();
+            } catch (IOException ignored) {
+            }
+        }
+
+        assertEquals(3, downloader.downloads.get());
+        assertNull(cache.find(URL));
+        String[] files = directory.list();
+        assertTrue(files == null || files.length == 0);
+    }
+
+    @Test
+    public void should_remove_least_recently_used_images_over_max_size() throws IOException {
+        ImageDiskCache cache = new ImageDiskCache(directory, 25, downloader, trimExecutor);
+        File image1 = cache.get(URL + 1);
+        File image2 = cache.get(URL + 2);
+        assertTrue(image1.setLastModified(System.currentTimeMillis() - 20000));
+        assertTrue(image2.setLastModified(System.currentTimeMillis() - 10000));
+        cache.find(URL + 1);
+
+        cache.get(URL + 3);
+        trimExecutor.runAll();
+
+        assertNotNull(cache.find(URL + 1));
+        assertFalse(image2.exists());
+        assertNotNull(cache.find(URL + 3));
+    }
+
+    @Test
+    public void should_trim_in_background_once_for_several_downloads() throws IOException {
+        ImageDiskCache cache = new ImageDiskCache(directory, 15, downloader, trimExecutor);
+        File image1 = cache.get(URL + 1);
+        assertTrue(image1.setLastModified(System.currentTimeMillis() - 20000));
+        File image2 = cache.get(URL + 2);
+
+        assertTrue(image1.exists());
+        assertTrue(image2.exists());
+        assertEquals(1, trimExecutor.tasks.size());
+
+        trimExecutor.runAll();
+
+        assertFalse(image1.exists());
+        assertTrue(image2.exists());
+    }
+
+    @Test
+    public void should_not_remove_just_downloaded_image_over_max_size() throws IOException {
+        ImageDiskCache cache = new ImageDiskCache(directory, 5, downloader, trimExecutor);
+
+        File image = cache.get(URL);
+        trimExecutor.runAll();
+
+        assertTrue(image.exists());
+        assertEquals(1, downloader.downloads.get());
+    }
+
+    private static class CapturingExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            List<Runnable> toRun = new ArrayList<>(tasks);
+            tasks.clear();
+            for (Runnable task : toRun) {
+                task.run();
+            }
+        }
+    }
+
+    private static class FakeDownloader implements ImageDiskCache.Downloader {
+        final AtomicInteger downloads = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release;
+        boolean fail;
+
+        @Override
+        public void download(@NonNull String url, @NonNull File target) throws IOException {
+            downloads.incrementAndGet();
+            started.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            if (fail) {
+                throw new IOException("Not found");
+            }
+            FileOutputStream output = new FileOutputStream(target);
+            output.write(new byte[10]);
+            output.close();
+        }
+    }
+}
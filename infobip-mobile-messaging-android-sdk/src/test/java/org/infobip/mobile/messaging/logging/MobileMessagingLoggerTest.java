@@ -0,0 +1,188 @@
+package org.infobip.mobile.messaging.logging;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MobileMessagingLoggerTest {
+
+    private CapturingWriter writer;
+
+    @Before
+    public void setUp() {
+        MobileMessagingLogger.reset();
+        writer = new CapturingWriter();
+        MobileMessagingLogger.setWriter(writer);
+    }
+
+    @After
+    public void tearDown() {
+        MobileMessagingLogger.reset();
+    }
+
+    @Test
+    public void should_be_loggable_only_when_logging_enabled() {
+        assertFalse(MobileMessagingLogger.isLoggable(Level.DEBUG));
+
+        MobileMessagingLogger.enforce();
+
+        assertTrue(MobileMessagingLogger.isLoggable(Level.DEBUG));
+    }
+
+    @Test
+    public void should_build_lazy_message_only_when_it_is_written() {
+        final int[] built = {0};
+        MobileMessagingLogger.LazyMessage message = new MobileMessagingLogger.LazyMessage() {
+            @Override
+            public String get() {
+                built[0]++;
+                return "message";
+            }
+        };
+
+        MobileMessagingLogger.d("tag", message);
+        assertEquals(0, built[0]);
+        assertTrue(writer.messages.isEmpty());
+
+        MobileMessagingLogger.enforce();
+        MobileMessagingLogger.setMinLevel(Level.INFO);
+        MobileMessagingLogger.d("tag", message);
+        assertEquals(0, built[0]);
+
+        MobileMessagingLogger.w("tag", message);
+        assertEquals(1, built[0]);
+        assertEquals("message", writer.messages.get(0));
+    }
+
+    @Test
+    public void should_write_only_levels_above_minimum_and_errors() {
+        MobileMessagingLogger.e("error when disabled");
+        MobileMessagingLogger.w("warning when disabled");
+
+        MobileMessagingLogger.enforce();
+        MobileMessagingLogger.setMinLevel(Level.WARN);
+        MobileMessagingLogger.v("verbose");
+        MobileMessagingLogger.d("debug");
+        MobileMessagingLogger.w("warning");
+        MobileMessagingLogger.e("error");
+
+        assertEquals(3, writer.messages.size());
+        assertEquals("error when disabled", writer.messages.get(0));
+        assertEquals("warning", writer.messages.get(1));
+        assertEquals("error", writer.messages.get(2));
+        assertFalse(MobileMessagingLogger.isLoggable(Level.DEBUG));
+        assertTrue(MobileMessagingLogger.isLoggable(Level.ERROR));
+    }
+
+    @Test
+    public void should_not_serialize_objects_when_disabled() {
+        MobileMessagingLogger.v("SYNC >>>", new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("should not be serialized");
+            }
+        });
+
+        assertEquals("", MobileMessagingLogger.objectToPrettyString(largeObject()));
+        assertTrue(writer.messages.isEmpty());
+    }
+
+    @Test
+    public void should_truncate_large_serialized_objects() {
+        MobileMessagingLogger.enforce();
+        Map<String, String> small = new HashMap<>();
+        small.put("key", "value");
+
+        String serialized = MobileMessagingLogger.objectToPrettyString(largeObject());
+
+        assertEquals("{\n  \"key\": \"value\"\n}", MobileMessagingLogger.objectToPrettyString(small));
+        assertEquals(MobileMessagingLogger.MAX_OBJECT_LENGTH + MobileMessagingLogger.TRUNCATED_SUFFIX.length(), serialized.length());
+        assertTrue(serialized.endsWith(MobileMessagingLogger.TRUNCATED_SUFFIX));
+    }
+
+    @Test
+    public void asyncWriter_should_write_entries_in_order() throws Exception {
+        AsyncWriter asyncWriter = new AsyncWriter(writer, 16);
+
+        for (int i = 0; i < 100; i++) {
+            asyncWriter.write(Level.DEBUG, MobileMessagingLogger.TAG, "message" + i, null);
+        }
+
+        assertTrue(asyncWriter.flush(1000));
+        List<String> messages = writer.snapshot();
+        assertEquals(100 - asyncWriter.getDroppedCount(), messages.size());
+        assertEquals("message99", messages.get(messages.size() - 1));
+        for (int i = 1; i < messages.size(); i++) {
+            assertTrue(index(messages.get(i - 1)) < index(messages.get(i)));
+        }
+    }
+
+    @Test
+    public void asyncWriter_should_drop_oldest_entries_when_full() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch writing = new CountDownLatch(1);
+        AsyncWriter asyncWriter = new AsyncWriter(new Writer() {
+            @Override
+            public void write(Level level, String tag, String message, Throwable throwable) {
+                writing.countDown();
+                try {
+                    release.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+                writer.write(level, tag, message, throwable);
+            }
+        }, 2);
+
+        asyncWriter.write(Level.DEBUG, MobileMessagingLogger.TAG, "first", null);
+        assertTrue(writing.await(1, TimeUnit.SECONDS));
+        asyncWriter.write(Level.DEBUG, MobileMessagingLogger.TAG, "second", null);
+        asyncWriter.write(Level.DEBUG, MobileMessagingLogger.TAG, "third", null);
+        asyncWriter.write(Level.DEBUG, MobileMessagingLogger.TAG, "fourth", null);
+        release.countDown();
+
+        assertTrue(asyncWriter.flush(1000));
+        assertEquals(1, asyncWriter.getDroppedCount());
+        assertEquals(3, writer.snapshot().size());
+        assertEquals("first", writer.snapshot().get(0));
+        assertEquals("third", writer.snapshot().get(1));
+        assertEquals("fourth", writer.snapshot().get(2));
+    }
+
+    private static int index(String message) {
+        return Integer.parseInt(message.substring("message".length()));
+    }
+
+    private static Map<String, Object> largeObject() {
+        Map<String, Object> object = new HashMap<>();
+        List<String> messageIds = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            messageIds.add("messageId" + i);
+        }
+        object.put("mIDs", messageIds);
+        return object;
+    }
+
+    private static class CapturingWriter implements Writer {
+        final List<String> messages = new ArrayList<>();
+
+        @Override
+        public synchronized void write(Level level, String tag, String message, Throwable throwable) {
+            messages.add(message);
+        }
+
+        synchronized List<String> snapshot() {
+            return new ArrayList<>(messages);
+        }
+    }
+}
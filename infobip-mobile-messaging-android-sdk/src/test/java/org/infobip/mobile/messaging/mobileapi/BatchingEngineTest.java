@@ -0,0 +1,270 @@
+package org.infobip.mobile.messaging.mobileapi;
+
+import androidx.annotation.NonNull;
+
+import org.infobip.mobile.messaging.logging.Level;
+import org.infobip.mobile.messaging.logging.LogcatWriter;
+import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
+import org.infobip.mobile.messaging.logging.Writer;
+import org.infobip.mobile.messaging.platform.TimeProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchingEngineTest {
+
+    private static final long MAX_LATENCY_MILLIS = 5000;
+
+    private FakeTimeProvider time;
+    private CapturingScheduler scheduler;
+    private BatchingEngine engine;
+
+    @Before
+    public void setUp() {
+        time = new FakeTimeProvider();
+        scheduler = new CapturingScheduler();
+        engine = new BatchingEngine(scheduler, time);
+        MobileMessagingLogger.setWriter(new Writer() {
+            @Override
+            public void write(Level level, String tag, String message, Throwable throwable) {
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        MobileMessagingLogger.setWriter(new LogcatWriter());
+    }
+
+    @Test
+    public void should_flush_first_item_right_away() {
+        CapturingFlusher<String> flusher = new CapturingFlusher<>(true);
+        BatchingEngine.Sink<String> sink = engine.createSink("seen", 10, MAX_LATENCY_MILLIS, 10, flusher);
+
+        sink.offer("id1");
+
+        assertEquals(Collections.singletonList(Collections.singletonList("id1")), flusher.batches);
+        assertTrue(scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void should_flush_burst_when_latency_passes() {
+        CapturingFlusher<String> flusher = new CapturingFlusher<>(true);
+        BatchingEngine.Sink<String> sink = engine.createSink("seen", 10, MAX_LATENCY_MILLIS, 10, flusher);
+        sink.offer("id1");
+
+        time.forward(1000);
+        sink.offer("id2");
+        time.forward(1000);
+        sink.offer("id3");
+
+        assertEquals(1, flusher.batches.size());
+        assertEquals(1, scheduler.tasks.size());
+        assertEquals(MAX_LATENCY_MILLIS - 1000, scheduler.delays.get(0).longValue());
+
+        time.forward(3000);
+        scheduler.runAll();
+
+        assertEquals(Arrays.asList("id2", "id3"), flusher.batches.get(1));
+        assertEquals(0, sink.size());
+    }
+
+    @Test
+    public void should_flush_when_batch_size_is_reached() {
+        CapturingFlusher<Integer> flusher = new CapturingFlusher<>(true);
+        BatchingEngine.Sink<Integer> sink = engine.createSink("events", 3, MAX_LATENCY_MILLIS, 3, flusher);
+        sink.offer(0);
+
+        for (int i = 1; i <= 7; i++) {
+            sink.offer(i);
+        }
+
+        assertEquals(Arrays.asList(
+                Collections.singletonList(0),
+                Arrays.asList(1, 2, 3),
+                Arrays.asList(4, 5, 6)), flusher.batches);
+        assertEquals(1, sink.size());
+    }
+
+    @Test
+    public void should_reject_items_when_full_until_batch_in_flight_completes() {
+        CapturingFlusher<Integer> flusher = new CapturingFlusher<>(false);
+        BatchingEngine.Sink<Integer> sink = engine.createSink("geo", 2, MAX_LATENCY_MILLIS, 4, flusher);
+        sink.offer(0);
+
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(i <= 4, sink.offer(i));
+        }
+
+        assertEquals(1, flusher.batches.size());
+        assertEquals(4, sink.size());
+        assertEquals(1, sink.getRejectedCount());
+
+        flusher.completeNext();
+
+        assertEquals(Arrays.asList(1, 2), flusher.batches.get(1));
+        assertEquals(2, sink.size());
+        assertTrue(sink.offer(6));
+    }
+
+    @Test
+    public void should_flush_each_sink_by_its_own_latency_with_one_timer() {
+        CapturingFlusher<String> seenFlusher = new CapturingFlusher<>(true);
+        CapturingFlusher<String> eventsFlusher = new CapturingFlusher<>(true);
+        BatchingEngine.Sink<String> seen = engine.createSink("seen", 10, 1000, 10, seenFlusher);
+        BatchingEngine.Sink<String> events = engine.createSink("events", 10, 3000, 10, eventsFlusher);
+        seen.offer("s1");
+        events.offer("e1");
+
+        seen.offer("s2");
+        events.offer("e2");
+
+        assertEquals(1, scheduler.tasks.size());
+        assertEquals(1000, scheduler.delays.get(0).longValue());
+
+        time.forward(1000);
+        scheduler.runAll();
+
+        assertEquals(2, seenFlusher.batches.size());
+        assertEquals(1, eventsFlusher.batches.size());
+        assertEquals(1, scheduler.tasks.size());
+        assertEquals(2000, scheduler.delays.get(0).longValue());
+
+        time.forward(2000);
+        scheduler.runAll();
+
+        assertEquals(Collections.singletonList("e2"), eventsFlusher.batches.get(1));
+        assertTrue(scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void should_flush_pending_items_on_demand() {
+        CapturingFlusher<String> flusher = new CapturingFlusher<>(true);
+        BatchingEngine.Sink<String> sink = engine.createSink("seen", 10, MAX_LATENCY_MILLIS, 10, flusher);
+        sink.offer("id1");
+        sink.offer("id2");
+
+        sink.flush();
+
+        assertEquals(Collections.singletonList("id2"), flusher.batches.get(1));
+    }
+
+    @Test
+    public void should_keep_flushing_after_flusher_fails() {
+        final List<List<String>> batches = new ArrayList<>();
+        BatchingEngine.Sink<String> sink = engine.createSink("seen", 10, MAX_LATENCY_MILLIS, 10, new BatchingEngine.Flusher<String>() {
+            @Override
+            public void flush(@NonNull List<String> batch, @NonNull Runnable onComplete) {
+                batches.add(batch);
+                throw new RuntimeException("flush failed");
+            }
+        });
+
+        sink.offer("id1");
+        time.forward(MAX_LATENCY_MILLIS);
+        sink.offer("id2");
+
+        assertEquals(2, batches.size());
+        assertEquals(0, sink.size());
+    }
+
+    @Test
+    public void batchReporter_should_run_latest_task_once_per_delay() {
+        BatchReporter batchReporter = new BatchReporter(engine, MAX_LATENCY_MILLIS);
+        final List<String> runs = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            final String task = "task" + i;
+            batchReporter.put(new Runnable() {
+                @Override
+                public void run() {
+                    runs.add(task);
+                }
+            });
+        }
+
+        assertEquals(Collections.singletonList("task0"), runs);
+
+        time.forward(MAX_LATENCY_MILLIS);
+        scheduler.runAll();
+
+        assertEquals(Arrays.asList("task0", "task4"), runs);
+    }
+
+    private static class FakeTimeProvider implements TimeProvider {
+        long now = 1000000;
+
+        void forward(long millis) {
+            now += millis;
+        }
+
+        @Override
+        public long now() {
+            return now;
+        }
+    }
+
+    private static class CapturingFlusher<T> implements BatchingEngine.Flusher<T> {
+        final List<List<T>> batches = new ArrayList<>();
+        final List<Runnable> completions = new ArrayList<>();
+        final boolean completeImmediately;
+
+        CapturingFlusher(boolean completeImmediately) {
+            this.completeImmediately = completeImmediately;
+        }
+
+        @Override
+        public void flush(@NonNull List<T> batch, @NonNull Runnable onComplete) {
+            batches.add(batch);
+            if (completeImmediately) {
+                onComplete.run();
+            } else {
+                completions.add(onComplete);
+            }
+        }
+
+        void completeNext() {
+            completions.remove(0).run();
+        }
+    }
+
+    private static class CapturingScheduler extends ScheduledThreadPoolExecutor {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Long> delays = new ArrayList<>();
+
+        CapturingScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            tasks.add(command);
+            delays.add(unit.toMillis(delay));
+            return super.schedule(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }, 1, TimeUnit.DAYS);
+        }
+
+        void runAll() {
+            List<Runnable> toRun = new ArrayList<>(tasks);
+            tasks.clear();
+            delays.clear();
+            for (Runnable task : toRun) {
+                task.run();
+            }
+        }
+    }
+}
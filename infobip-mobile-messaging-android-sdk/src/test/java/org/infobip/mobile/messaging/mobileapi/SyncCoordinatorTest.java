@@ -0,0 +1,306 @@
+package org.infobip.mobile.messaging.mobileapi;
+
+import org.infobip.mobile.messaging.logging.Level;
+import org.infobip.mobile.messaging.logging.LogcatWriter;
+import org.infobip.mobile.messaging.logging.MobileMessagingLogger;
+import org.infobip.mobile.messaging.logging.Writer;
+import org.infobip.mobile.messaging.platform.SystemTimeProvider;
+import org.infobip.mobile.messaging.platform.Time;
+import org.infobip.mobile.messaging.platform.TimeProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SyncCoordinatorTest {
+
+    private static final String TYPE = "messages";
+    private static final long WINDOW_MILLIS = 20;
+    private static final long IN_FLIGHT_TIMEOUT_MILLIS = 1000;
+
+    private CapturingScheduler scheduler;
+    private StubTimeProvider timeProvider;
+    private SyncCoordinator syncCoordinator;
+
+    @Before
+    public void setUp() {
+        scheduler = new CapturingScheduler();
+        timeProvider = new StubTimeProvider();
+        Time.reset(timeProvider);
+        syncCoordinator = new SyncCoordinator(scheduler, WINDOW_MILLIS, IN_FLIGHT_TIMEOUT_MILLIS);
+        MobileMessagingLogger.setWriter(new Writer() {
+            @Override
+            public void write(Level level, String tag, String message, Throwable throwable) {
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+        Time.reset(new SystemTimeProvider());
+        MobileMessagingLogger.setWriter(new LogcatWriter());
+    }
+
+    @Test
+    public void should_run_once_for_burst_of_requests() {
+        FakeSynchronizer synchronizer = new FakeSynchronizer();
+        syncCoordinator.register(TYPE, synchronizer);
+
+        for (int i = 0; i < 1000; i++) {
+            synchronizer.addWork();
+            syncCoordinator.request(TYPE);
+        }
+
+        assertEquals(Collections.singletonList(WINDOW_MILLIS), scheduler.delays);
+        scheduler.runAll();
+        synchronizer.completeAll();
+
+        assertTrue(scheduler.tasks.isEmpty());
+        assertEquals(1, syncCoordinator.getRunCount(TYPE));
+        assertEquals(1, synchronizer.requests);
+        assertEquals(1000, synchronizer.reported);
+    }
+
+    @Test
+    public void should_run_once_more_for_requests_while_in_flight() {
+        FakeSynchronizer synchronizer = new FakeSynchronizer();
+        syncCoordinator.register(TYPE, synchronizer);
+
+        synchronizer.addWork();
+        syncCoordinator.request(TYPE);
+        scheduler.runAll();
+        for (int i = 0; i < 100; i++) {
+            synchronizer.addWork();
+            syncCoordinator.request(TYPE);
+        }
+
+        assertTrue(scheduler.tasks.isEmpty());
+        synchronizer.completeAll();
+        assertEquals(Collections.singletonList(WINDOW_MILLIS), scheduler.delays);
+        scheduler.runAll();
+        synchronizer.completeAll();
+
+        assertTrue(scheduler.tasks.isEmpty());
+        assertEquals(2, syncCoordinator.getRunCount(TYPE));
+        assertEquals(2, synchronizer.requests);
+        assertEquals(101, synchronizer.reported);
+    }
+
+    @Test
+    public void should_scale_requests_with_work_not_with_triggers() {
+        FakeSynchronizer synchronizer = new FakeSynchronizer();
+        syncCoordinator.register(TYPE, synchronizer);
+
+        for (int burst = 0; burst < 5; burst++) {
+            synchronizer.addWork();
+            for (int i = 0; i < 200; i++) {
+                syncCoordinator.request(TYPE);
+            }
+            scheduler.runAll();
+            synchronizer.completeAll();
+        }
+
+        assertEquals(5, syncCoordinator.getRunCount(TYPE));
+        assertEquals(5, synchronizer.requests);
+        assertEquals(5, synchronizer.reported);
+    }
+
+    @Test
+    public void should_keep_serving_requests_after_action_fails() {
+        final List<Runnable> completions = new ArrayList<>();
+        syncCoordinator.register(TYPE, new SyncCoordinator.Action() {
+            @Override
+            public void run(Runnable onComplete) {
+                if (completions.isEmpty()) {
+                    completions.add(onComplete);
+                    throw new IllegalStateException();
+                }
+                completions.add(onComplete);
+                onComplete.run();
+            }
+        });
+
+        syncCoordinator.request(TYPE);
+        scheduler.runAll();
+        syncCoordinator.request(TYPE);
+        scheduler.runAll();
+
+        assertEquals(2, completions.size());
+        assertEquals(2, syncCoordinator.getRunCount(TYPE));
+        assertTrue(scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void should_ignore_repeated_completion() {
+        final List<Runnable> completions = new ArrayList<>();
+        syncCoordinator.register(TYPE, new SyncCoordinator.Action() {
+            @Override
+            public void run(Runnable onComplete) {
+                completions.add(onComplete);
+            }
+        });
+
+        syncCoordinator.request(TYPE);
+        scheduler.runAll();
+        syncCoordinator.request(TYPE);
+        completions.get(0).run();
+        completions.get(0).run();
+
+        assertEquals(1, scheduler.tasks.size());
+        scheduler.runAll();
+        completions.get(0).run();
+
+        assertEquals(2, completions.size());
+        assertEquals(2, syncCoordinator.getRunCount(TYPE));
+        assertTrue(scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void should_run_again_after_timeout_when_result_handler_throws_before_completion() {
+        final List<Runnable> completions = new ArrayList<>();
+        final ExecutorService swallowingExecutor = Executors.newSingleThreadExecutor();
+        syncCoordinator.register(TYPE, new SyncCoordinator.Action() {
+            @Override
+            public void run(final Runnable onComplete) {
+                completions.add(onComplete);
+                if (completions.size() > 1) {
+                    onComplete.run();
+                    return;
+                }
+                // result handler which throws before it completes, error is swallowed by the executor
+                swallowingExecutor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        throw new IllegalStateException();
+                    }
+                });
+            }
+        });
+
+        syncCoordinator.request(TYPE);
+        scheduler.runAll();
+        syncCoordinator.request(TYPE);
+        assertTrue("should wait for run in flight", scheduler.tasks.isEmpty());
+
+        timeProvider.time += IN_FLIGHT_TIMEOUT_MILLIS;
+        syncCoordinator.request(TYPE);
+        scheduler.runAll();
+        syncCoordinator.request(TYPE);
+        scheduler.runAll();
+        swallowingExecutor.shutdownNow();
+
+        assertEquals(3, completions.size());
+        assertEquals(3, syncCoordinator.getRunCount(TYPE));
+        assertTrue(scheduler.tasks.isEmpty());
+    }
+
+    @Test
+    public void should_ignore_completion_of_run_which_timed_out() {
+        final List<Runnable> completions = new ArrayList<>();
+        syncCoordinator.register(TYPE, new SyncCoordinator.Action() {
+            @Override
+            public void run(Runnable onComplete) {
+                completions.add(onComplete);
+            }
+        });
+
+        syncCoordinator.request(TYPE);
+        scheduler.runAll();
+        timeProvider.time += IN_FLIGHT_TIMEOUT_MILLIS;
+        syncCoordinator.request(TYPE);
+        scheduler.runAll();
+        completions.get(0).run();
+        syncCoordinator.request(TYPE);
+
+        assertTrue("second run is still in flight", scheduler.tasks.isEmpty());
+        completions.get(1).run();
+        assertEquals(1, scheduler.tasks.size());
+        scheduler.runAll();
+
+        assertEquals(3, completions.size());
+        assertEquals(3, syncCoordinator.getRunCount(TYPE));
+    }
+
+    private static class StubTimeProvider implements TimeProvider {
+        long time = 1000000;
+
+        @Override
+        public long now() {
+            return time;
+        }
+    }
+
+    private static class FakeSynchronizer implements SyncCoordinator.Action {
+        final List<Runnable> inFlight = new ArrayList<>();
+        int pending;
+        int requests;
+        int reported;
+        int inFlightWork;
+
+        void addWork() {
+            pending++;
+        }
+
+        @Override
+        public void run(Runnable onComplete) {
+            assertTrue("runs must not overlap", inFlight.isEmpty());
+            inFlightWork = pending;
+            pending = 0;
+            if (inFlightWork > 0) {
+                requests++;
+            }
+            inFlight.add(onComplete);
+        }
+
+        void completeAll() {
+            List<Runnable> completions = new ArrayList<>(inFlight);
+            inFlight.clear();
+            reported += inFlightWork;
+            inFlightWork = 0;
+            for (Runnable completion : completions) {
+                completion.run();
+            }
+        }
+    }
+
+    private static class CapturingScheduler extends ScheduledThreadPoolExecutor {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Long> delays = new ArrayList<>();
+
+        CapturingScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            tasks.add(command);
+            delays.add(unit.toMillis(delay));
+            return super.schedule(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }, 1, TimeUnit.DAYS);
+        }
+
+        void runAll() {
+            List<Runnable> toRun = new ArrayList<>(tasks);
+            tasks.clear();
+            delays.clear();
+            for (Runnable task : toRun) {
+                task.run();
+            }
+        }
+    }
+}
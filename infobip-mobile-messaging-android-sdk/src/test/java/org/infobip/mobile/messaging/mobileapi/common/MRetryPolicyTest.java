@@ -0,0 +1,55 @@
+package org.infobip.mobile.messaging.mobileapi.common;
+
+import org.infobip.mobile.messaging.api.support.ApiIOException;
+import org.infobip.mobile.messaging.mobileapi.common.exceptions.BackendCommunicationException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MRetryPolicyTest {
+
+    @Test
+    public void should_double_backoff_with_each_attempt() {
+        assertEquals(2000, MRetryPolicy.backoffDelayMillis(2, 1, 1.0));
+        assertEquals(4000, MRetryPolicy.backoffDelayMillis(2, 2, 1.0));
+        assertEquals(8000, MRetryPolicy.backoffDelayMillis(2, 3, 1.0));
+        assertEquals(16000, MRetryPolicy.backoffDelayMillis(2, 4, 1.0));
+    }
+
+    @Test
+    public void should_randomize_backoff_between_half_and_full_delay() {
+        assertEquals(4000, MRetryPolicy.backoffDelayMillis(2, 3, 0.0));
+        assertEquals(6000, MRetryPolicy.backoffDelayMillis(2, 3, 0.5));
+
+        MRetryPolicy policy = new MRetryPolicy.Builder().withBackoffMultiplier(2).build();
+        for (int i = 0; i < 1000; i++) {
+            long delay = policy.getBackoffDelayMillis(3);
+            assertTrue(delay >= 4000 && delay <= 8000);
+        }
+    }
+
+    @Test
+    public void should_cap_backoff() {
+        assertEquals(MRetryPolicy.MAX_BACKOFF_MILLIS, MRetryPolicy.backoffDelayMillis(2, 20, 1.0));
+        assertEquals(MRetryPolicy.MAX_BACKOFF_MILLIS, MRetryPolicy.backoffDelayMillis(2, Integer.MAX_VALUE, 1.0));
+    }
+
+    @Test
+    public void should_not_delay_without_multiplier() {
+        assertEquals(0, MRetryPolicy.backoffDelayMillis(0, 5, 1.0));
+        assertEquals(0, new MRetryPolicy.Builder().build().getBackoffDelayMillis(5));
+    }
+
+    @Test
+    public void should_retry_only_configured_errors_until_max_retries() {
+        MRetryPolicy policy = new MRetryPolicy.Builder().withMaxRetries(2).build();
+        BackendCommunicationException error = new BackendCommunicationException("error", new ApiIOException("0", "error"));
+
+        assertTrue(policy.shouldRetry(error, 1));
+        assertFalse(policy.shouldRetry(error, 2));
+        assertTrue(policy.isRetryable(error));
+        assertFalse(policy.isRetryable(new IllegalStateException()));
+    }
+}
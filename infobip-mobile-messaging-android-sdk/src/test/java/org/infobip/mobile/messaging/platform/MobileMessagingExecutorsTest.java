@@ -0,0 +1,215 @@
+package org.infobip.mobile.messaging.platform;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MobileMessagingExecutorsTest {
+
+    private static final int NUMBER_OF_TASKS = 1000;
+
+    private ExecutorService workers;
+    private ScheduledExecutorService scheduler;
+    private MobileMessagingExecutors executors;
+
+    @Before
+    public void setUp() {
+        workers = Executors.newFixedThreadPool(2);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        executors = new MobileMessagingExecutors(workers, scheduler);
+    }
+
+    @After
+    public void tearDown() {
+        workers.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void should_run_queued_tasks_one_by_one_in_order() throws Exception {
+        final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+        final int[] running = {0};
+        final boolean[] overlapped = {false};
+        final CountDownLatch done = new CountDownLatch(NUMBER_OF_TASKS);
+        Executor queue = executors.queue(MobileMessagingExecutors.QUEUE_MESSAGES);
+
+        for (int i = 0; i < NUMBER_OF_TASKS; i++) {
+            final int task = i;
+            queue.execute(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (running) {
+                        overlapped[0] |= ++running[0] > 1;
+                    }
+                    executed.add(task);
+                    synchronized (running) {
+                        running[0]--;
+                    }
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(NUMBER_OF_TASKS, executed.size());
+        for (int i = 0; i < NUMBER_OF_TASKS; i++) {
+            assertEquals(i, (int) executed.get(i));
+        }
+        assertTrue(!overlapped[0]);
+    }
+
+    @Test
+    public void should_run_limited_number_of_tasks_at_a_time() throws Exception {
+        ExecutorService moreWorkers = Executors.newFixedThreadPool(4);
+        try {
+            final int[] running = {0, 0};
+            final CountDownLatch done = new CountDownLatch(20);
+            Executor queue = new MobileMessagingExecutors(moreWorkers, scheduler).queue(MobileMessagingExecutors.QUEUE_IMAGES);
+
+            for (int i = 0; i < 20; i++) {
+                queue.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        synchronized (running) {
+                            running[1] = Math.max(running[1], ++running[0]);
+                        }
+                        try {
+                            Thread.sleep(5);
+                        } catch (InterruptedException ignored) {
+                        }
+                        synchronized (running) {
+                            running[0]--;
+                        }
+                        done.countDown();
+                    }
+                });
+            }
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(MobileMessagingExecutors.parallelismOf(MobileMessagingExecutors.QUEUE_IMAGES), running[1]);
+        } finally {
+            moreWorkers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void should_not_block_other_queues_while_task_is_running() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch seenReported = new CountDownLatch(1);
+
+        executors.queue(MobileMessagingExecutors.QUEUE_MESSAGES).execute(awaiting(release));
+        executors.queue(MobileMessagingExecutors.QUEUE_MESSAGES).execute(awaiting(release));
+        executors.queue(MobileMessagingExecutors.QUEUE_SEEN).execute(new Runnable() {
+            @Override
+            public void run() {
+                seenReported.countDown();
+            }
+        });
+
+        assertTrue(seenReported.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    public void should_report_queue_depth_and_latency() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(3);
+        Executor queue = executors.queue(MobileMessagingExecutors.QUEUE_MESSAGES);
+        queue.execute(awaiting(release, done));
+        queue.execute(awaiting(release, done));
+        queue.execute(awaiting(release, done));
+
+        MobileMessagingExecutors.QueueMetrics blocked = executors.getMetrics().get(0);
+        assertEquals(MobileMessagingExecutors.QUEUE_MESSAGES, blocked.getName());
+        assertEquals(3, blocked.getDepth());
+        assertEquals(0, blocked.getCompleted());
+
+        Thread.sleep(50);
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        MobileMessagingExecutors.QueueMetrics metrics = awaitCompleted(3);
+        assertEquals(0, metrics.getDepth());
+        assertEquals(3, metrics.getMaxDepth());
+        assertTrue(metrics.getMaxRunMillis() >= 50);
+        assertTrue(metrics.getMaxWaitMillis() >= 50);
+    }
+
+    @Test
+    public void should_name_worker_thread_after_queue() throws Exception {
+        final String[] threadName = new String[1];
+        final CountDownLatch done = new CountDownLatch(1);
+
+        executors.queue(MobileMessagingExecutors.QUEUE_SEEN).execute(new Runnable() {
+            @Override
+            public void run() {
+                threadName[0] = Thread.currentThread().getName();
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("mm-seen", threadName[0]);
+    }
+
+    @Test
+    public void should_keep_running_queue_after_task_fails() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        Executor queue = executors.queue(MobileMessagingExecutors.QUEUE_MO);
+
+        queue.execute(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException();
+            }
+        });
+        queue.execute(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    private MobileMessagingExecutors.QueueMetrics awaitCompleted(int completed) throws InterruptedException {
+        MobileMessagingExecutors.QueueMetrics metrics = executors.getMetrics().get(0);
+        for (int i = 0; i < 100 && metrics.getCompleted() < completed; i++) {
+            Thread.sleep(10);
+            metrics = executors.getMetrics().get(0);
+        }
+        assertEquals(completed, metrics.getCompleted());
+        return metrics;
+    }
+
+    private static Runnable awaiting(final CountDownLatch release) {
+        return awaiting(release, new CountDownLatch(1));
+    }
+
+    private static Runnable awaiting(final CountDownLatch release, final CountDownLatch done) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+                done.countDown();
+            }
+        };
+    }
+}
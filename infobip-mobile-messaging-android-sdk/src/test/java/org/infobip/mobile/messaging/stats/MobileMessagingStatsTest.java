@@ -0,0 +1,203 @@
+package org.infobip.mobile.messaging.stats;
+
+import org.infobip.mobile.messaging.api.support.http.client.metrics.CallMetrics;
+import org.infobip.mobile.messaging.api.support.http.client.metrics.HistogramMetricsListener;
+import org.infobip.mobile.messaging.api.support.http.client.metrics.MetricsListener;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MobileMessagingStatsTest {
+
+    private FakeStorage storage;
+    private CapturingScheduler scheduler;
+    private MobileMessagingStats stats;
+
+    @Before
+    public void setUp() {
+        storage = new FakeStorage();
+        scheduler = new CapturingScheduler();
+        stats = new MobileMessagingStats(storage, scheduler);
+    }
+
+    @Test
+    public void should_load_persisted_counts_once() {
+        storage.values.put(MobileMessagingStats.getKey(MobileMessagingStatsError.SYNC_MESSAGES_ERROR), 3L);
+
+        stats.reportError(MobileMessagingStatsError.SYNC_MESSAGES_ERROR);
+        stats.reportError(MobileMessagingStatsError.SYNC_MESSAGES_ERROR);
+
+        assertEquals(5, stats.getErrorCount(MobileMessagingStatsError.SYNC_MESSAGES_ERROR));
+        assertEquals(MobileMessagingStatsError.values().length, storage.loads);
+    }
+
+    @Test
+    public void should_persist_burst_of_errors_with_single_write() {
+        for (int i = 0; i < 100; i++) {
+            stats.reportError(MobileMessagingStatsError.SEEN_REPORTING_ERROR);
+        }
+
+        assertEquals(0, storage.saves);
+        assertEquals(1, scheduler.tasks.size());
+        assertEquals(MobileMessagingStats.FLUSH_DELAY_MILLIS, scheduler.delays.get(0).longValue());
+
+        scheduler.runAll();
+
+        assertEquals(1, storage.saves);
+        assertEquals(100L, storage.values.get(MobileMessagingStats.getKey(MobileMessagingStatsError.SEEN_REPORTING_ERROR)).longValue());
+
+        stats.reportError(MobileMessagingStatsError.SEEN_REPORTING_ERROR);
+        assertEquals(1, scheduler.tasks.size());
+    }
+
+    @Test
+    public void should_reset_error_to_zero() {
+        stats.reportError(MobileMessagingStatsError.REGISTRATION_SYNC_ERROR);
+        stats.reportError(MobileMessagingStatsError.REGISTRATION_SYNC_ERROR);
+
+        stats.resetError(MobileMessagingStatsError.REGISTRATION_SYNC_ERROR);
+        stats.flush();
+
+        assertEquals(0, stats.getErrorCount(MobileMessagingStatsError.REGISTRATION_SYNC_ERROR));
+        assertEquals(0L, storage.values.get(MobileMessagingStats.getKey(MobileMessagingStatsError.REGISTRATION_SYNC_ERROR)).longValue());
+    }
+
+    @Test
+    public void should_persist_pending_errors_on_flush_pending() {
+        stats.flushPending();
+        assertEquals(0, storage.saves);
+
+        stats.reportError(MobileMessagingStatsError.SEEN_REPORTING_ERROR);
+        stats.flushPending();
+        stats.flushPending();
+
+        assertEquals(1, storage.saves);
+        assertEquals(1L, storage.values.get(MobileMessagingStats.getKey(MobileMessagingStatsError.SEEN_REPORTING_ERROR)).longValue());
+    }
+
+    @Test
+    public void should_include_api_calls_and_retries_in_snapshot() {
+        MetricsListener listener = stats.getApiMetricsListener();
+        listener.onCallCompleted(call("MobileApiMessages.sync", 5, 200, 100, 2000));
+        listener.onCallCompleted(call("MobileApiMessages.sync", 70, 500, 100, 0));
+        listener.onCallCompleted(call("MobileApiGeo.report", 30, 200, 50, 10));
+        stats.recordRetry("MobileApiMessages.sync", 1);
+        stats.recordRetry("MobileApiMessages.sync", 2);
+        stats.recordRetry("MobileApiGeo.report", 0);
+
+        StatsSnapshot snapshot = stats.getSnapshot();
+        HistogramMetricsListener.EndpointSnapshot messages = snapshot.getEndpoint("MobileApiMessages.sync");
+
+        assertEquals(2, snapshot.getEndpoints().size());
+        assertNull(snapshot.getEndpoint("MobileApiAppInstance.getInstance"));
+        assertNotNull(messages);
+        assertEquals(2, messages.getCallCount());
+        assertEquals(1, messages.getErrorCount());
+        assertEquals(200, messages.getRequestBytes());
+        assertEquals(2000, messages.getResponseBytes());
+        assertEquals(2, snapshot.getRetryCount("MobileApiMessages.sync"));
+        assertEquals(0, snapshot.getRetryCount("MobileApiGeo.report"));
+        assertEquals(1, snapshot.getRetryCounts().size());
+    }
+
+    @Test
+    public void should_not_lose_counts_under_concurrent_updates() throws Exception {
+        final int threads = 8;
+        final int callsPerThread = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < callsPerThread; i++) {
+                        stats.recordRetry("MobileApiAppInstance.patchInstance", 1);
+                        stats.reportError(MobileMessagingStatsError.USER_DATA_SYNC_ERROR);
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        StatsSnapshot snapshot = stats.getSnapshot();
+        assertEquals(threads * callsPerThread, snapshot.getRetryCount("MobileApiAppInstance.patchInstance"));
+        assertEquals(threads * callsPerThread, snapshot.getErrorCounts().get(MobileMessagingStatsError.USER_DATA_SYNC_ERROR).longValue());
+        assertTrue(scheduler.tasks.size() <= 1);
+    }
+
+    private static CallMetrics call(String apiMethod, long totalMillis, int statusCode, long requestBytes, long responseBytes) {
+        return new CallMetrics(apiMethod, "POST", statusCode, 0, 0, totalMillis, totalMillis, false, requestBytes, responseBytes,
+                statusCode < 400 ? null : new IllegalStateException());
+    }
+
+    private static class FakeStorage implements MobileMessagingStats.Storage {
+        final Map<String, Long> values = new HashMap<>();
+        int loads;
+        int saves;
+
+        @Override
+        public synchronized long load(String key) {
+            loads++;
+            Long value = values.get(key);
+            return value != null ? value : 0;
+        }
+
+        @Override
+        public synchronized void save(Map<String, Long> values) {
+            saves++;
+            this.values.putAll(values);
+        }
+    }
+
+    private static class CapturingScheduler extends ScheduledThreadPoolExecutor {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Long> delays = new ArrayList<>();
+
+        CapturingScheduler() {
+            super(1);
+        }
+
+        @Override
+        public synchronized ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            tasks.add(command);
+            delays.add(unit.toMillis(delay));
+            return null;
+        }
+
+        void runAll() {
+            List<Runnable> toRun;
+            synchronized (this) {
+                toRun = new ArrayList<>(tasks);
+                tasks.clear();
+                delays.clear();
+            }
+            for (Runnable task : toRun) {
+                task.run();
+            }
+        }
+    }
+}
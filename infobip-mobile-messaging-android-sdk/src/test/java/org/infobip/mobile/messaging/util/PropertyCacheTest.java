@@ -0,0 +1,99 @@
+package org.infobip.mobile.messaging.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+
+public class PropertyCacheTest {
+
+    private final PropertyCache cache = new PropertyCache();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void should_load_value_only_once() {
+        assertEquals("value", cache.get(PropertyCache.Type.STRING, "key", loader("value")));
+        assertEquals("value", cache.get(PropertyCache.Type.STRING, "key", loader("other")));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void should_cache_missing_value() {
+        assertNull(cache.get(PropertyCache.Type.STRING, "key", loader(null)));
+        assertNull(cache.get(PropertyCache.Type.STRING, "key", loader("value")));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void should_return_saved_value_and_drop_other_types_of_key() {
+        cache.get(PropertyCache.Type.STRING, "key", loader("1"));
+        cache.get(PropertyCache.Type.LONG, "key", loader("1"));
+
+        cache.put(PropertyCache.Type.STRING, "key", "2");
+
+        assertEquals("2", cache.get(PropertyCache.Type.STRING, "key", loader("3")));
+        assertEquals("3", cache.get(PropertyCache.Type.LONG, "key", loader("3")));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void should_not_cache_value_loaded_while_key_was_invalidated() {
+        String value = cache.get(PropertyCache.Type.STRING, "key", new PropertyCache.Loader<String>() {
+            @Override
+            public String load() {
+                cache.invalidate("key");
+                return "stale";
+            }
+        });
+
+        assertEquals("stale", value);
+        assertEquals("fresh", cache.get(PropertyCache.Type.STRING, "key", loader("fresh")));
+    }
+
+    @Test
+    public void should_load_again_after_invalidating_all() {
+        cache.get(PropertyCache.Type.BOOLEAN, "key1", loader(true));
+        cache.get(PropertyCache.Type.INT, "key2", loader(1));
+
+        cache.invalidateAll();
+
+        assertEquals(Boolean.FALSE, cache.get(PropertyCache.Type.BOOLEAN, "key1", loader(false)));
+        assertEquals(Integer.valueOf(2), cache.get(PropertyCache.Type.INT, "key2", loader(2)));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void should_notify_listener_about_saved_and_invalidated_keys() {
+        final List<String> keys = new ArrayList<>();
+        PropertyCache cache = new PropertyCache(new PropertyCache.InvalidationListener() {
+            @Override
+            public void onInvalidated(String key) {
+                keys.add(key);
+            }
+        });
+
+        cache.get(PropertyCache.Type.STRING, "key1", loader("value"));
+        cache.put(PropertyCache.Type.STRING, "key1", "value");
+        cache.invalidate("key2");
+        cache.invalidateAll();
+
+        assertEquals(Arrays.asList("key1", "key2", null), keys);
+    }
+
+    private <T> PropertyCache.Loader<T> loader(final T value) {
+        return new PropertyCache.Loader<T>() {
+            @Override
+            public T load() {
+                loads.incrementAndGet();
+                return value;
+            }
+        };
+    }
+}
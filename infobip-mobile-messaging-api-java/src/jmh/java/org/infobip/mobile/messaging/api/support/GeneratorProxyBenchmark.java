@@ -0,0 +1,77 @@
+package org.infobip.mobile.messaging.api.support;
+
+import org.infobip.mobile.messaging.api.appinstance.MobileApiAppInstance;
+import org.infobip.mobile.messaging.api.messages.MobileApiMessages;
+import org.infobip.mobile.messaging.api.messages.SyncMessagesBody;
+import org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient;
+import org.infobip.mobile.messaging.api.support.http.client.HttpMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures overhead of proxy dispatch in {@link Generator}, i.e. everything which happens
+ * before the request is handed over to the http client.
+ * <p>
+ * Run with {@code ./gradlew :infobip-mobile-messaging-api-java:jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeneratorProxyBenchmark {
+
+    private MobileApiMessages mobileApiMessages;
+    private MobileApiAppInstance mobileApiAppInstance;
+    private SyncMessagesBody syncMessagesBody;
+    private Map<String, Object> user;
+
+    @Setup
+    public void setUp() {
+        Properties properties = new Properties();
+        properties.put("api.key", "my_API_key");
+        Generator generator = new Generator.Builder()
+                .withBaseUrl("https://mobile.infobip.com/")
+                .withProperties(properties)
+                .build();
+        generator.setApiClient(new NoOpApiClient());
+
+        mobileApiMessages = generator.create(MobileApiMessages.class);
+        mobileApiAppInstance = generator.create(MobileApiAppInstance.class);
+        syncMessagesBody = SyncMessagesBody.make(new String[]{"messageId1", "messageId2"}, new String[]{"messageId3"});
+        user = Collections.<String, Object>singletonMap("firstName", "John");
+    }
+
+    @Benchmark
+    public Object sync() {
+        return mobileApiMessages.sync(syncMessagesBody);
+    }
+
+    @Benchmark
+    public void patchUser() {
+        mobileApiAppInstance.patchUser("pushRegistrationId", user);
+    }
+
+    /**
+     * Keeps the last request so that it's not optimized away, does not execute it.
+     */
+    private static class NoOpApiClient extends DefaultApiClient {
+
+        private volatile Object[] lastRequest;
+
+        @Override
+        public <B, R> R execute(String apiMethod, HttpMethod method, String uri, String apiKey, Tuple<String, String> credentials, Map<String, Collection<Object>> queryParams, Map<String, Collection<Object>> headers, B body, Class<R> responseType) {
+            lastRequest = new Object[]{method, uri, apiKey, credentials, queryParams, headers, body, responseType};
+            return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.infobip.mobile.messaging.api.support.http.client;
+
+import org.infobip.mobile.messaging.api.messages.MessageResponse;
+import org.infobip.mobile.messaging.api.messages.SyncMessagesResponse;
+import org.infobip.mobile.messaging.api.support.Tuple;
+import org.infobip.mobile.messaging.api.support.http.client.model.ApiResponse;
+import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares streaming and string-based decoding of {@link SyncMessagesResponse} bodies.
+ * <p>
+ * Run with {@code ./gradlew :infobip-mobile-messaging-api-java:jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseReaderBenchmark {
+
+    @Param({"1024", "102400", "5242880"})
+    public int responseSize;
+
+    @Param({"true", "false"})
+    public boolean streaming;
+
+    private final JsonSerializer serializer = new JsonSerializer();
+    private ResponseReader responseReader;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        responseReader = new ResponseReader(streaming);
+        body = syncResponseOfSize(responseSize);
+    }
+
+    @Benchmark
+    public Tuple<SyncMessagesResponse, ApiResponse> readSyncResponse() throws IOException {
+        return responseReader.read(new ByteArrayInputStream(body), body.length, serializer, SyncMessagesResponse.class);
+    }
+
+    private byte[] syncResponseOfSize(int size) {
+        List<MessageResponse> payloads = new ArrayList<>();
+        SyncMessagesResponse response = new SyncMessagesResponse(payloads);
+        payloads.add(message(0));
+        int messageSize = toBytes(response).length;
+        for (int i = 1; i < size / messageSize; i++) {
+            payloads.add(message(i));
+        }
+        return toBytes(response);
+    }
+
+    private byte[] toBytes(SyncMessagesResponse response) {
+        return serializer.serialize(response).getBytes(Charset.forName("UTF-8"));
+    }
+
+    private static MessageResponse message(int i) {
+        return new MessageResponse(
+                "message-id-" + i,
+                "Title " + i,
+                "Message body number " + i + " with some additional text to make it look realistic",
+                "default",
+                "true",
+                null,
+                "category",
+                "{\"key\":\"value" + i + "\",\"number\":" + i + "}",
+                "{\"sendDateTime\":1507109450000,\"inbox\":{\"topic\":\"news\",\"seen\":false}}");
+    }
+}
@@ -16,6 +16,9 @@ import org.infobip.mobile.messaging.api.support.http.client.HttpMethod;
 import org.infobip.mobile.messaging.api.support.http.client.Logger;
 import org.infobip.mobile.messaging.api.support.http.client.RequestInterceptor;
 import org.infobip.mobile.messaging.api.support.http.client.ResponsePreProcessor;
+import org.infobip.mobile.messaging.api.support.http.client.metrics.MetricsListener;
+import org.infobip.mobile.messaging.api.support.http.client.transport.KeepAliveTransport;
+import org.infobip.mobile.messaging.api.support.http.client.transport.Transport;
 import org.infobip.mobile.messaging.api.support.util.StringUtils;
 
 import java.lang.annotation.Annotation;
@@ -27,6 +30,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
@@ -60,13 +65,32 @@ public class Generator {
     private ResponsePreProcessor[] responsePreProcessors = new ResponsePreProcessor[0];
     private Logger logger = new Logger();
     private boolean allowUntrustedSSLOnError = false;
+    private boolean streamingResponseParsing = DefaultApiClient.DEFAULT_STREAMING_RESPONSE_PARSING;
+    private Transport transport;
+    private boolean gzipCompression = false;
+    private int gzipRequestThreshold = DefaultApiClient.DEFAULT_GZIP_REQUEST_THRESHOLD;
+    private MetricsListener[] metricsListeners = new MetricsListener[0];
 
     private DefaultApiClient getApiClient() {
         if (null != apiClient) {
             return apiClient;
         }
         String libraryVersion = properties.getProperty("library.version");
-        apiClient = new DefaultApiClient(connectTimeout, readTimeout, libraryVersion, requestInterceptors, responsePreProcessors, logger, allowUntrustedSSLOnError, userAgentAdditions);
+        apiClient = new DefaultApiClient.Builder()
+                .withConnectTimeout(connectTimeout)
+                .withReadTimeout(readTimeout)
+                .withLibraryVersion(libraryVersion)
+                .withRequestInterceptors(requestInterceptors)
+                .withResponsePreProcessors(responsePreProcessors)
+                .withLogger(logger)
+                .withAllowUntrustedSSLOnError(allowUntrustedSSLOnError)
+                .withStreamingResponseParsing(streamingResponseParsing)
+                .withTransport(transport)
+                .withGzipCompression(gzipCompression)
+                .withGzipRequestThreshold(gzipRequestThreshold)
+                .withMetricsListeners(metricsListeners)
+                .withUserAgentAdditions(userAgentAdditions)
+                .build();
         return apiClient;
     }
 
@@ -193,6 +217,10 @@ public class Generator {
      * @see Builder#withConnectTimeout(int)
      * @see Builder#withReadTimeout(int)
      * @see Builder#withUserAgentAdditions(String...)
+     * @see Builder#withStreamingResponseParsing(boolean)
+     * @see Builder#withTransport(Transport)
+     * @see Builder#withGzipCompression(boolean)
+     * @see Builder#withGzipRequestThreshold(int)
      */
     public static class Builder {
         private final Generator generator;
@@ -300,6 +328,59 @@ public class Generator {
             return this;
         }
 
+        /**
+         * Will decode response bodies directly from response stream if `true` supplied (default).
+         * Otherwise the whole body is first read into a string and then deserialized.
+         * @param streamingResponseParsing setting
+         * @return {@link Builder}
+         */
+        public Builder withStreamingResponseParsing(boolean streamingResponseParsing) {
+            generator.streamingResponseParsing = streamingResponseParsing;
+            return this;
+        }
+
+        /**
+         * Will set transport which executes http requests, by default new connection is opened for each request.
+         * Use {@link KeepAliveTransport} to reuse connections between requests.
+         * @param transport transport
+         * @return {@link Builder}
+         */
+        public Builder withTransport(@NonNull Transport transport) {
+            generator.transport = transport;
+            return this;
+        }
+
+        /**
+         * Will request gzip encoded responses and compress request bodies with gzip if `true` supplied. Disabled by default.
+         * @param gzipCompression setting
+         * @return {@link Builder}
+         */
+        public Builder withGzipCompression(boolean gzipCompression) {
+            generator.gzipCompression = gzipCompression;
+            return this;
+        }
+
+        /**
+         * Will set minimal size of request body in bytes which is compressed when gzip compression is enabled. Default is: 1024
+         * @param gzipRequestThreshold threshold in bytes
+         * @return {@link Builder}
+         */
+        public Builder withGzipRequestThreshold(int gzipRequestThreshold) {
+            generator.gzipRequestThreshold = gzipRequestThreshold;
+            return this;
+        }
+
+        /**
+         * Will set listeners which receive timings, payload sizes and status of every API call
+         *
+         * @param metricsListeners listeners, see {@link org.infobip.mobile.messaging.api.support.http.client.metrics.HistogramMetricsListener}
+         * @return {@link Builder}
+         */
+        public Builder withMetricsListeners(@NonNull MetricsListener... metricsListeners) {
+            generator.metricsListeners = metricsListeners;
+            return this;
+        }
+
         public Generator build() {
             if (StringUtils.isBlank(generator.getBaseUrl())) {
                 throw new IllegalArgumentException("baseUrl is mandatory");
@@ -322,58 +403,12 @@ public class Generator {
         @Override
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
             ProxyCache proxyCache = getProxyCache(method);
-            String uri = StringUtils.join("/", baseUrl, proxyCache.getUri());
-
-            Map<String, Collection<Object>> queryParams = new HashMap<>(proxyCache.getDefaultQueryParams());
-            Map<String, Collection<Object>> headerMap = new HashMap<>(proxyCache.getDefaultHeaderMap());
-            String apiKey = proxyCache.getApiKey();
-            Tuple<String, String> credentials = proxyCache.getCredentials();
-
-            Parameter[] parameters = proxyCache.getParameters();
-            Object body = null;
-            for (int i = 0, parametersLength = parameters.length; i < parametersLength; i++) {
-                Parameter parameter = parameters[i];
-                Object arg = args[i];
-                if (null != parameter.getBody()) {
-                    body = arg;
-                }
-
-                Version version = parameter.getVersion();
-                if (null != version) {
-                    uri = uri.replace("{version}", arg.toString());
-                }
-
-                Path p = parameter.getPath();
-                if (null != p) {
-                    uri = uri.replace("{" + p.name() + "}", arg.toString());
-                }
-
-                Query q = parameter.getQuery();
-                if (null != q) {
-                    String name = q.name();
-                    queryParams.put(name, toCollection(arg));
-                }
-
-                Header h = parameter.getHeader();
-                if (null != h) {
-                    String name = h.name();
-                    headerMap.put(name, toCollection(arg));
-                }
-            }
-
-            if (uri.endsWith("/")) {
-                uri = uri.substring(0, uri.length() - 1);
-            }
+            String uri = proxyCache.createUri(baseUrl, args);
+            Map<String, Collection<Object>> queryParams = proxyCache.createQueryParams(args);
+            Map<String, Collection<Object>> headerMap = proxyCache.createHeaderMap(args);
+            Object body = proxyCache.getBodyIndex() < 0 ? null : args[proxyCache.getBodyIndex()];
 
-            return getApiClient().execute(getHttpRequestMethod(proxyCache.httpRequests), uri, apiKey, credentials, queryParams, headerMap, body, method.getReturnType());
-        }
-
-        private HttpMethod getHttpRequestMethod(HttpRequest[] httpRequests) {
-            HttpMethod method = HttpMethod.GET;
-            for (HttpRequest httpRequest : httpRequests) {
-                method = httpRequest.method();
-            }
-            return method;
+            return getApiClient().execute(proxyCache.getApiMethod(), proxyCache.getHttpMethod(), uri, proxyCache.getApiKey(), proxyCache.getCredentials(), queryParams, headerMap, body, proxyCache.getReturnType());
         }
 
         private ProxyCache getProxyCache(Method method) {
@@ -397,24 +432,190 @@ public class Generator {
         private final Version version;
     }
 
+    /**
+     * Request template compiled once per API method, proxy invocation only fills in the argument slots.
+     */
     @Data
     private class ProxyCache {
+        private final String apiMethod;
         private final HttpRequest[] httpRequests;
-        private final String uri;
-        private final HashMap<String, Collection<Object>> defaultQueryParams;
-        private final HashMap<String, Collection<Object>> defaultHeaderMap;
-        private final Parameter[] parameters;
+        private final HttpMethod httpMethod;
+        private final Class<?> returnType;
         private final String apiKey;
         private final Tuple<String, String> credentials;
+        private final int bodyIndex;
+
+        /**
+         * Relative uri split around the argument placeholders, {@code uriSlots[i]} is the argument between {@code uriParts[i]} and {@code uriParts[i + 1]}.
+         */
+        private final String[] uriParts;
+        private final int[] uriSlots;
+
+        /**
+         * Static query parameters are kept in the query parameter map passed to the client,
+         * so that {@link RequestInterceptor}s see all of them.
+         */
+        private final Map<String, Collection<Object>> defaultQueryParams;
+        private final String[] queryNames;
+        private final int[] queryIndices;
+
+        private final Map<String, Collection<Object>> defaultHeaderMap;
+        private final String[] headerNames;
+        private final int[] headerIndices;
+
+        /**
+         * Base url and the first uri part joined with it, base url can be changed at runtime.
+         */
+        private volatile Tuple<String, String> uriPrefix;
 
         public ProxyCache(Method method) {
+            this.apiMethod = method.getDeclaringClass().getSimpleName() + "." + method.getName();
             this.httpRequests = createHttpRequest(method);
-            this.uri = createUri(method);
-            this.defaultQueryParams = createDefaultQueryParams(method);
-            this.defaultHeaderMap = createDefaultHeaderMap(method);
-            this.parameters = createParameters(method);
+            this.httpMethod = getHttpRequestMethod(httpRequests);
+            this.returnType = method.getReturnType();
             this.apiKey = findApiKey(method);
             this.credentials = findCredentials(method);
+
+            Parameter[] parameters = createParameters(method);
+            this.bodyIndex = findBodyIndex(parameters);
+
+            ArrayList<String> parts = new ArrayList<>();
+            ArrayList<Integer> slots = new ArrayList<>();
+            splitUri(createUri(method), parameters, parts, slots);
+            this.uriParts = parts.toArray(new String[parts.size()]);
+            this.uriSlots = toIntArray(slots);
+
+            ArrayList<String> names = new ArrayList<>();
+            ArrayList<Integer> indices = new ArrayList<>();
+            for (int i = 0; i < parameters.length; i++) {
+                if (null != parameters[i].getQuery()) {
+                    names.add(parameters[i].getQuery().name());
+                    indices.add(i);
+                }
+            }
+            this.queryNames = names.toArray(new String[names.size()]);
+            this.queryIndices = toIntArray(indices);
+
+            this.defaultQueryParams = Collections.unmodifiableMap(createDefaultQueryParams(method));
+
+            names.clear();
+            indices.clear();
+            for (int i = 0; i < parameters.length; i++) {
+                if (null != parameters[i].getHeader()) {
+                    names.add(parameters[i].getHeader().name());
+                    indices.add(i);
+                }
+            }
+            this.headerNames = names.toArray(new String[names.size()]);
+            this.headerIndices = toIntArray(indices);
+            this.defaultHeaderMap = Collections.unmodifiableMap(createDefaultHeaderMap(method));
+        }
+
+        String createUri(String baseUrl, Object[] args) {
+            String uri;
+            if (uriParts[0].isEmpty()) {
+                // uri starts with an argument, it's not known in advance how it joins with base url
+                uri = StringUtils.join("/", baseUrl, fillUri(new StringBuilder(), args).toString());
+            } else {
+                Tuple<String, String> prefix = uriPrefix;
+                if (null == prefix || !prefix.getLeft().equals(baseUrl)) {
+                    prefix = new Tuple<>(baseUrl, StringUtils.join("/", baseUrl, uriParts[0]));
+                    uriPrefix = prefix;
+                }
+                uri = fillUri(new StringBuilder(prefix.getRight()), args).toString();
+            }
+
+            if (uri.endsWith("/")) {
+                uri = uri.substring(0, uri.length() - 1);
+            }
+            return uri;
+        }
+
+        Map<String, Collection<Object>> createQueryParams(Object[] args) {
+            HashMap<String, Collection<Object>> queryParams = new HashMap<>(defaultQueryParams);
+            for (int i = 0; i < queryIndices.length; i++) {
+                queryParams.put(queryNames[i], toCollection(args[queryIndices[i]]));
+            }
+            return queryParams;
+        }
+
+        Map<String, Collection<Object>> createHeaderMap(Object[] args) {
+            // interceptors are allowed to modify headers, so each request gets its own map
+            HashMap<String, Collection<Object>> headerMap = new HashMap<>(defaultHeaderMap);
+            for (int i = 0; i < headerIndices.length; i++) {
+                headerMap.put(headerNames[i], toCollection(args[headerIndices[i]]));
+            }
+            return headerMap;
+        }
+
+        private StringBuilder fillUri(StringBuilder sb, Object[] args) {
+            for (int i = 0; i < uriSlots.length; i++) {
+                sb.append(args[uriSlots[i]].toString()).append(uriParts[i + 1]);
+            }
+            return sb;
+        }
+
+        private HttpMethod getHttpRequestMethod(HttpRequest[] httpRequests) {
+            HttpMethod method = HttpMethod.GET;
+            for (HttpRequest httpRequest : httpRequests) {
+                method = httpRequest.method();
+            }
+            return method;
+        }
+
+        private int findBodyIndex(Parameter[] parameters) {
+            int index = -1;
+            for (int i = 0; i < parameters.length; i++) {
+                if (null != parameters[i].getBody()) {
+                    index = i;
+                }
+            }
+            return index;
+        }
+
+        /**
+         * Splits uri at placeholders of {@link Version} and {@link Path} arguments,
+         * each placeholder is bound to the first argument which declares it.
+         */
+        private void splitUri(String uri, Parameter[] parameters, List<String> parts, List<Integer> slots) {
+            LinkedHashMap<String, Integer> placeholders = new LinkedHashMap<>();
+            for (int i = 0; i < parameters.length; i++) {
+                Parameter parameter = parameters[i];
+                if (null != parameter.getVersion() && !placeholders.containsKey("{version}")) {
+                    placeholders.put("{version}", i);
+                }
+                if (null != parameter.getPath() && !placeholders.containsKey("{" + parameter.getPath().name() + "}")) {
+                    placeholders.put("{" + parameter.getPath().name() + "}", i);
+                }
+            }
+
+            int from = 0;
+            while (true) {
+                int next = -1;
+                String placeholder = null;
+                for (String p : placeholders.keySet()) {
+                    int index = uri.indexOf(p, from);
+                    if (index != -1 && (next == -1 || index < next)) {
+                        next = index;
+                        placeholder = p;
+                    }
+                }
+                if (next == -1) {
+                    break;
+                }
+                parts.add(uri.substring(from, next));
+                slots.add(placeholders.get(placeholder));
+                from = next + placeholder.length();
+            }
+            parts.add(uri.substring(from));
+        }
+
+        private int[] toIntArray(List<Integer> list) {
+            int[] array = new int[list.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = list.get(i);
+            }
+            return array;
         }
 
         private String findApiKey(Method method) {
@@ -5,25 +5,33 @@ import org.infobip.mobile.messaging.api.support.ApiBackendExceptionWithContent;
 import org.infobip.mobile.messaging.api.support.ApiException;
 import org.infobip.mobile.messaging.api.support.ApiIOException;
 import org.infobip.mobile.messaging.api.support.Tuple;
+import org.infobip.mobile.messaging.api.support.http.client.metrics.CallMetrics;
+import org.infobip.mobile.messaging.api.support.http.client.metrics.MetricsListener;
 import org.infobip.mobile.messaging.api.support.http.client.model.ApiResponse;
+import org.infobip.mobile.messaging.api.support.http.client.transport.ExchangeTimings;
+import org.infobip.mobile.messaging.api.support.http.client.transport.Transport;
+import org.infobip.mobile.messaging.api.support.http.client.transport.TransportRequest;
+import org.infobip.mobile.messaging.api.support.http.client.transport.TransportResponse;
+import org.infobip.mobile.messaging.api.support.http.client.transport.UrlConnectionTransport;
 import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
 import org.infobip.mobile.messaging.api.support.util.Base64Encoder;
-import org.infobip.mobile.messaging.api.support.util.StreamUtils;
 import org.infobip.mobile.messaging.api.support.util.StringUtils;
 
-import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
-import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
-import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLHandshakeException;
 
 /**
@@ -35,8 +43,13 @@ public class DefaultApiClient implements ApiClient {
 
     public static final int DEFAULT_READ_TIMEOUT = 60000;
 
+    public static final boolean DEFAULT_STREAMING_RESPONSE_PARSING = true;
+
+    public static final int DEFAULT_GZIP_REQUEST_THRESHOLD = 1024;
+
     public static final JsonSerializer JSON_SERIALIZER = new JsonSerializer();
     private static final JsonSerializer JSON_SERIALIZER_WITH_NULLS = new JsonSerializer(true);
+    private static final String GZIP = "gzip";
 
     private final int connectTimeout;
     private final int readTimeout;
@@ -46,25 +59,58 @@ public class DefaultApiClient implements ApiClient {
     private final ResponsePreProcessor[] responsePreProcessors;
     private final Logger logger;
     private final boolean allowUntrustedSSLOnError;
+    private final ResponseReader responseReader;
+    private final Transport transport;
+    private final boolean gzipCompression;
+    private final int gzipRequestThreshold;
+    private final MetricsListener[] metricsListeners;
     private String userAgent;
 
+
     public DefaultApiClient() {
-        this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT, null, new RequestInterceptor[0], new ResponsePreProcessor[0], new Logger(), false);
+        this(new Builder());
     }
 
     public DefaultApiClient(int connectTimeout, int readTimeout, String libraryVersion, RequestInterceptor[] interceptors, ResponsePreProcessor[] responsePreProcessors, Logger logger, boolean allowUntrustedSSLOnError, String... userAgentAdditions) {
-        this.connectTimeout = connectTimeout;
-        this.readTimeout = readTimeout;
-        this.libraryVersion = libraryVersion;
-        this.requestInterceptors = interceptors;
-        this.responsePreProcessors = responsePreProcessors;
-        this.userAgentAdditions = userAgentAdditions;
-        this.logger = logger;
-        this.allowUntrustedSSLOnError = allowUntrustedSSLOnError;
+        this(new Builder()
+                .withConnectTimeout(connectTimeout)
+                .withReadTimeout(readTimeout)
+                .withLibraryVersion(libraryVersion)
+                .withRequestInterceptors(interceptors)
+                .withResponsePreProcessors(responsePreProcessors)
+                .withLogger(logger)
+                .withAllowUntrustedSSLOnError(allowUntrustedSSLOnError)
+                .withUserAgentAdditions(userAgentAdditions));
+    }
+
+    protected DefaultApiClient(Builder builder) {
+        this.connectTimeout = builder.connectTimeout;
+        this.readTimeout = builder.readTimeout;
+        this.libraryVersion = builder.libraryVersion;
+        this.requestInterceptors = builder.requestInterceptors;
+        this.responsePreProcessors = builder.responsePreProcessors;
+        this.userAgentAdditions = builder.userAgentAdditions;
+        this.logger = builder.logger;
+        this.allowUntrustedSSLOnError = builder.allowUntrustedSSLOnError;
+        this.responseReader = new ResponseReader(builder.streamingResponseParsing);
+        this.transport = builder.transport != null ? builder.transport : new UrlConnectionTransport();
+        this.gzipCompression = builder.gzipCompression;
+        this.gzipRequestThreshold = builder.gzipRequestThreshold;
+        this.metricsListeners = builder.metricsListeners;
     }
 
     @Override
     public <B, R> R execute(HttpMethod method, String uri, String apiKey, Tuple<String, String> credentials, Map<String, Collection<Object>> queryParams, Map<String, Collection<Object>> headers, B body, Class<R> responseType) {
+        return execute(null, method, uri, apiKey, credentials, queryParams, headers, body, responseType);
+    }
+
+    /**
+     * Executes the call on behalf of API interface method
+     *
+     * @param apiMethod name of the API method which is reported to {@link MetricsListener metrics listeners},
+     *                  if null, HTTP method and path are reported instead
+     */
+    public <B, R> R execute(String apiMethod, HttpMethod method, String uri, String apiKey, Tuple<String, String> credentials, Map<String, Collection<Object>> queryParams, Map<String, Collection<Object>> headers, B body, Class<R> responseType) {
         Request request = new Request(method, uri, apiKey, credentials, headers, queryParams, body);
         for (RequestInterceptor interceptor : requestInterceptors) {
             try {
@@ -76,19 +122,29 @@ public class DefaultApiClient implements ApiClient {
 
         logger.d("REQUEST: " + request);
 
+        CallState call = metricsListeners.length > 0 ? new CallState() : null;
+        RuntimeException error = null;
         try {
-            StringBuilder sb = new StringBuilder();
-            for (Map.Entry<String, Collection<Object>> entry : request.queryParams.entrySet()) {
-                appendValue(sb, entry);
+            return executeWithSSLFallback(request, responseType, call);
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            if (call != null) {
+                reportMetrics(apiMethod, request, call, error);
             }
+        }
+    }
 
+    private <R> R executeWithSSLFallback(Request request, Class<R> responseType, CallState call) {
+        try {
             try {
-                return executeHTTP(request, responseType, false);
+                return executeHTTP(request, responseType, false, call);
             } catch (SSLHandshakeException ex) {
                 logger.w("Got SSL handshake exception " + ex);
                 if (allowUntrustedSSLOnError) {
                     logger.w("Will re-try in untrusted mode");
-                    return executeHTTP(request, responseType, true);
+                    return executeHTTP(request, responseType, true, call);
                 } else {
                     throw ex;
                 }
@@ -102,34 +158,20 @@ public class DefaultApiClient implements ApiClient {
         }
     }
 
-    private <R> R executeHTTP(Request request, Class<R> responseType, boolean tryUntrustedSSL) throws IOException {
-        HttpURLConnection urlConnection = null;
+    private <R> R executeHTTP(Request request, Class<R> responseType, boolean tryUntrustedSSL, CallState call) throws IOException {
+        TransportResponse transportResponse = null;
         try {
-            StringBuilder sb = new StringBuilder();
+            StringBuilder sb = new StringBuilder(request.uri);
+            boolean hasQuery = request.uri.indexOf('?') != -1;
             for (Map.Entry<String, Collection<Object>> entry : request.queryParams.entrySet()) {
-                appendValue(sb, entry);
+                hasQuery = appendValue(sb, entry, hasQuery);
             }
 
-            urlConnection = (HttpURLConnection) new URL(request.uri + sb.toString()).openConnection();
-
+            Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            String method = request.httpMethod.name();
             if (request.httpMethod == HttpMethod.PATCH) {
-                urlConnection.setRequestProperty("X-HTTP-Method-Override", HttpMethod.PATCH.name());
-                urlConnection.setRequestMethod(HttpMethod.POST.name());
-            } else {
-                urlConnection.setRequestMethod(request.httpMethod.name());
-            }
-
-            if (request.httpMethod != HttpMethod.GET) {
-                urlConnection.setDoOutput(true);
-            }
-
-            urlConnection.setUseCaches(false);
-            urlConnection.setDoInput(true);
-            urlConnection.setConnectTimeout(connectTimeout);
-            urlConnection.setReadTimeout(readTimeout);
-
-            if (tryUntrustedSSL && urlConnection instanceof HttpsURLConnection) {
-                UntrustedSSLHelper.trustAllCerts(((HttpsURLConnection) urlConnection));
+                headers.put("X-HTTP-Method-Override", HttpMethod.PATCH.name());
+                method = HttpMethod.POST.name();
             }
 
             if (null != request.headers) {
@@ -145,45 +187,59 @@ public class DefaultApiClient implements ApiClient {
                     }
                     for (Object v : value) {
                         if (v == null) continue;
-                        urlConnection.setRequestProperty(key, v.toString());
+                        headers.put(key, v.toString());
                     }
                 }
             }
             if (StringUtils.isNotBlank(request.apiKey)) {
-                urlConnection.setRequestProperty("Authorization", "App " + request.apiKey);
+                headers.put("Authorization", "App " + request.apiKey);
             } else if (request.credentials != null && StringUtils.isNotBlank(request.credentials.getLeft()) && StringUtils.isNotBlank(request.credentials.getRight())) {
                 String basicApiKey = Base64Encoder.encode(request.credentials.getLeft() + ":" + request.credentials.getRight());
-                urlConnection.setRequestProperty("Authorization", "Basic " + basicApiKey);
+                headers.put("Authorization", "Basic " + basicApiKey);
+            }
+            headers.put("Accept", "application/json");
+            if (!headers.containsKey("User-Agent")) {
+                headers.put("User-Agent", getUserAgent());
             }
-            urlConnection.setRequestProperty("Accept", "application/json");
-            String userAgent = urlConnection.getRequestProperty("User-Agent");
-            if (null == userAgent) {
-                urlConnection.setRequestProperty("User-Agent", getUserAgent());
+            if (gzipCompression && !headers.containsKey("Accept-Encoding")) {
+                headers.put("Accept-Encoding", GZIP);
             }
 
+            byte[] bytes = null;
             if (null != request.body) {
-                byte[] bytes = jsonSerializer(request.httpMethod).serialize(request.body).getBytes("UTF-8");
-                urlConnection.setRequestProperty("Content-Length", "" + bytes.length);
-                urlConnection.setRequestProperty("Content-Type", "application/json");
-                OutputStream outputStream = null;
-                try {
-                    outputStream = new BufferedOutputStream(urlConnection.getOutputStream());
-                    outputStream.write(bytes);
-                    outputStream.flush();
-                } finally {
-                    StreamUtils.closeSafely(outputStream);
+                bytes = jsonSerializer(request.httpMethod).serialize(request.body).getBytes("UTF-8");
+                if (gzipCompression && bytes.length >= gzipRequestThreshold) {
+                    bytes = gzip(bytes);
+                    headers.put("Content-Encoding", GZIP);
                 }
+                headers.put("Content-Length", "" + bytes.length);
+                headers.put("Content-Type", "application/json");
             }
 
-            int responseCode = urlConnection.getResponseCode();
-            interceptResponse(responseCode, urlConnection.getHeaderFields());
-            int contentLength = urlConnection.getContentLength();
+            ExchangeTimings timings = new ExchangeTimings();
+            if (call != null) {
+                call.timings = timings;
+                call.requestBytes = bytes != null ? bytes.length : 0;
+            }
+
+            transportResponse = transport.execute(new TransportRequest(new URL(sb.toString()), method, headers, bytes, connectTimeout, readTimeout, tryUntrustedSSL, timings));
+
+            int responseCode = transportResponse.getResponseCode();
+            int contentLength = transportResponse.getContentLength();
+            if (call != null) {
+                call.responseReceived(responseCode, contentLength);
+            }
+            interceptResponse(responseCode, transportResponse.getHeaderFields());
+            boolean gzipResponse = isGzipEncoded(transportResponse.getHeaderFields());
             if (responseCode >= 400) {
                 ApiResponse apiResponse = new ApiResponse(ErrorCode.UNKNOWN_ERROR.value, ErrorCode.UNKNOWN_ERROR.description);
                 if (contentLength > 0) {
-                    InputStream inputStream = urlConnection.getErrorStream();
-                    String s = StreamUtils.readToString(inputStream, "UTF-8", contentLength);
-                    apiResponse = jsonSerializer(request.httpMethod).deserialize(s, ApiResponse.class);
+                    InputStream inputStream = countBytes(transportResponse.getErrorStream(), call);
+                    if (gzipResponse) {
+                        inputStream = new GZIPInputStream(inputStream);
+                        contentLength = -1;
+                    }
+                    apiResponse = responseReader.readError(inputStream, contentLength, jsonSerializer(request.httpMethod));
                 }
 
                 if (responseCode >= 500) {
@@ -199,17 +255,20 @@ public class DefaultApiClient implements ApiClient {
                 return null;
             }
 
-            InputStream inputStream = urlConnection.getInputStream();
-            String s = StreamUtils.readToString(inputStream, "UTF-8", contentLength);
-            inputStream.close();
-
-            R response = jsonSerializer(request.httpMethod).deserialize(s, responseType);
-            ApiResponse apiResponse = null;
+            InputStream inputStream = countBytes(transportResponse.getInputStream(), call);
+            if (gzipResponse && contentLength != 0) {
+                inputStream = new GZIPInputStream(inputStream);
+                contentLength = -1;
+            }
+            Tuple<R, ApiResponse> result;
             try {
-                apiResponse = jsonSerializer(request.httpMethod).deserialize(s, ApiResponse.class);
-            } catch (Exception ignored) {
+                result = responseReader.read(inputStream, contentLength, jsonSerializer(request.httpMethod), responseType);
+            } finally {
+                inputStream.close();
             }
 
+            R response = result.getLeft();
+            ApiResponse apiResponse = result.getRight();
             if (apiResponse != null && apiResponse.getRequestError() != null) {
                 Tuple<String, String> tuple = safeGetErrorInfo(apiResponse, ErrorCode.UNKNOWN_API_BACKEND_ERROR.value, ErrorCode.UNKNOWN_API_BACKEND_ERROR.description);
                 throw new ApiBackendExceptionWithContent(tuple.getLeft(), tuple.getRight(), response);
@@ -217,16 +276,54 @@ public class DefaultApiClient implements ApiClient {
 
             return response;
         } finally {
-            try {
-                if (urlConnection != null) {
-                    urlConnection.disconnect();
-                }
-            } catch (Exception ignored) {
+            if (transportResponse != null) {
+                transportResponse.close();
+            }
+        }
+    }
 
+    private void reportMetrics(String apiMethod, Request request, CallState call, Exception error) {
+        long totalMillis = (System.nanoTime() - call.startNanos) / 1000000;
+        long timeToFirstByteMillis = call.firstByteNanos != 0 ? (call.firstByteNanos - call.startNanos) / 1000000 : ExchangeTimings.NOT_MEASURED;
+        ExchangeTimings timings = call.timings != null ? call.timings : new ExchangeTimings();
+        CallMetrics metrics = new CallMetrics(
+                apiMethod != null ? apiMethod : request.httpMethod.name() + " " + path(request.uri),
+                request.httpMethod.name(),
+                call.statusCode,
+                timings.getDnsMillis(),
+                timings.getConnectMillis(),
+                timeToFirstByteMillis,
+                totalMillis,
+                timings.isConnectionReused(),
+                call.requestBytes,
+                call.responseBytes(),
+                error);
+
+        for (MetricsListener metricsListener : metricsListeners) {
+            try {
+                metricsListener.onCallCompleted(metrics);
+            } catch (Exception e) {
+                logger.e("Metrics listener " + metricsListener + " thrown an exception " + e);
             }
         }
     }
 
+    private static String path(String uri) {
+        try {
+            return new URL(uri).getPath();
+        } catch (MalformedURLException e) {
+            return uri;
+        }
+    }
+
+    private static InputStream countBytes(InputStream inputStream, CallState call) {
+        if (call == null || inputStream == null) {
+            return inputStream;
+        }
+        call.responseStream = new CountingInputStream(inputStream);
+        return call.responseStream;
+    }
+
     private void interceptErrorResponse(Exception error) {
         for (ResponsePreProcessor responsePreProcessor : responsePreProcessors) {
             try {
@@ -281,14 +378,17 @@ public class DefaultApiClient implements ApiClient {
         return new Tuple<>(apiResponse.getRequestError().getServiceException().getMessageId(), apiResponse.getRequestError().getServiceException().getText());
     }
 
-    private void appendValue(StringBuilder sb, Map.Entry<String, Collection<Object>> entry) throws UnsupportedEncodingException {
+    /**
+     * @return true if query string is started
+     */
+    private boolean appendValue(StringBuilder sb, Map.Entry<String, Collection<Object>> entry, boolean hasQuery) throws UnsupportedEncodingException {
         if (null == entry) {
-            return;
+            return hasQuery;
         }
 
         Collection<Object> value = entry.getValue();
         if (null == value || value.isEmpty()) {
-            return;
+            return hasQuery;
         }
 
         for (Object v : value) {
@@ -296,8 +396,39 @@ public class DefaultApiClient implements ApiClient {
             if (StringUtils.isBlank(s)) {
                 s = "";
             }
-            sb.append(sb.length() == 0 ? "?" : "&").append(URLEncoder.encode(entry.getKey(), "UTF-8")).append("=").append(URLEncoder.encode(s, "UTF-8"));
+            sb.append(hasQuery ? "&" : "?").append(URLEncoder.encode(entry.getKey(), "UTF-8")).append("=").append(URLEncoder.encode(s, "UTF-8"));
+            hasQuery = true;
+        }
+        return hasQuery;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 4 + 32);
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+        try {
+            gzipOutputStream.write(bytes);
+        } finally {
+            gzipOutputStream.close();
         }
+        return outputStream.toByteArray();
+    }
+
+    private static boolean isGzipEncoded(Map<String, List<String>> responseHeaders) {
+        if (null == responseHeaders) {
+            return false;
+        }
+
+        for (Map.Entry<String, List<String>> entry : responseHeaders.entrySet()) {
+            if (!"Content-Encoding".equalsIgnoreCase(entry.getKey()) || null == entry.getValue()) {
+                continue;
+            }
+            for (String value : entry.getValue()) {
+                if (GZIP.equalsIgnoreCase(value.trim())) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     private static JsonSerializer jsonSerializer(HttpMethod httpMethod) {
@@ -307,6 +438,64 @@ public class DefaultApiClient implements ApiClient {
         return JSON_SERIALIZER;
     }
 
+    /**
+     * Measurements of one call, collected only when there are metrics listeners
+     */
+    private static class CallState {
+        final long startNanos = System.nanoTime();
+        ExchangeTimings timings;
+        long firstByteNanos;
+        int statusCode = -1;
+        int contentLength = -1;
+        long requestBytes;
+        CountingInputStream responseStream;
+
+        void responseReceived(int statusCode, int contentLength) {
+            this.firstByteNanos = System.nanoTime();
+            this.statusCode = statusCode;
+            this.contentLength = contentLength;
+            this.responseStream = null;
+        }
+
+        long responseBytes() {
+            long read = responseStream != null ? responseStream.count : 0;
+            return Math.max(read, contentLength);
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
     public enum ErrorCode {
         UNKNOWN_ERROR("-1", "Unknown error"), // responseCode >= 400
         UNKNOWN_API_BACKEND_ERROR("-2", "Unknown API backend error"), // responseCode >= 500
@@ -329,4 +518,110 @@ public class DefaultApiClient implements ApiClient {
             return description;
         }
     }
+
+    /**
+     * Builds {@link DefaultApiClient}, options which are not set keep their defaults.
+     */
+    public static class Builder {
+        private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        private int readTimeout = DEFAULT_READ_TIMEOUT;
+        private String libraryVersion;
+        private RequestInterceptor[] requestInterceptors = new RequestInterceptor[0];
+        private ResponsePreProcessor[] responsePreProcessors = new ResponsePreProcessor[0];
+        private Logger logger = new Logger();
+        private boolean allowUntrustedSSLOnError = false;
+        private boolean streamingResponseParsing = DEFAULT_STREAMING_RESPONSE_PARSING;
+        private Transport transport;
+        private boolean gzipCompression = false;
+        private int gzipRequestThreshold = DEFAULT_GZIP_REQUEST_THRESHOLD;
+        private MetricsListener[] metricsListeners = new MetricsListener[0];
+        private String[] userAgentAdditions = new String[0];
+
+        public Builder withConnectTimeout(int connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public Builder withReadTimeout(int readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * @param libraryVersion version which is reported in User-Agent header
+         */
+        public Builder withLibraryVersion(String libraryVersion) {
+            this.libraryVersion = libraryVersion;
+            return this;
+        }
+
+        public Builder withRequestInterceptors(RequestInterceptor... requestInterceptors) {
+            this.requestInterceptors = requestInterceptors != null ? requestInterceptors : new RequestInterceptor[0];
+            return this;
+        }
+
+        public Builder withResponsePreProcessors(ResponsePreProcessor... responsePreProcessors) {
+            this.responsePreProcessors = responsePreProcessors != null ? responsePreProcessors : new ResponsePreProcessor[0];
+            return this;
+        }
+
+        public Builder withLogger(Logger logger) {
+            this.logger = logger;
+            return this;
+        }
+
+        public Builder withAllowUntrustedSSLOnError(boolean allowUntrustedSSLOnError) {
+            this.allowUntrustedSSLOnError = allowUntrustedSSLOnError;
+            return this;
+        }
+
+        /**
+         * @param streamingResponseParsing if true, response bodies are decoded directly from response stream
+         */
+        public Builder withStreamingResponseParsing(boolean streamingResponseParsing) {
+            this.streamingResponseParsing = streamingResponseParsing;
+            return this;
+        }
+
+        /**
+         * @param transport transport to execute requests with, {@link UrlConnectionTransport} if null
+         */
+        public Builder withTransport(Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * @param gzipCompression if true, gzip encoded responses are requested and request bodies are compressed
+         */
+        public Builder withGzipCompression(boolean gzipCompression) {
+            this.gzipCompression = gzipCompression;
+            return this;
+        }
+
+        /**
+         * @param gzipRequestThreshold minimal size in bytes of request body which is compressed
+         */
+        public Builder withGzipRequestThreshold(int gzipRequestThreshold) {
+            this.gzipRequestThreshold = gzipRequestThreshold;
+            return this;
+        }
+
+        /**
+         * @param metricsListeners listeners which receive timings, sizes and status of every call
+         */
+        public Builder withMetricsListeners(MetricsListener... metricsListeners) {
+            this.metricsListeners = metricsListeners != null ? metricsListeners : new MetricsListener[0];
+            return this;
+        }
+
+        public Builder withUserAgentAdditions(String... userAgentAdditions) {
+            this.userAgentAdditions = userAgentAdditions;
+            return this;
+        }
+
+        public DefaultApiClient build() {
+            return new DefaultApiClient(this);
+        }
+    }
 }
@@ -0,0 +1,162 @@
+package org.infobip.mobile.messaging.api.support.http.client;
+
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+
+import org.infobip.mobile.messaging.api.support.Tuple;
+import org.infobip.mobile.messaging.api.support.http.client.model.ApiError;
+import org.infobip.mobile.messaging.api.support.http.client.model.ApiResponse;
+import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.infobip.mobile.messaging.api.support.util.StreamUtils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Map;
+
+/**
+ * Reads response bodies and detects {@code requestError} sent by backend within successful responses.
+ * <p>
+ * In streaming mode the body is decoded directly from the buffered response stream in a single pass,
+ * top-level {@code requestError} is captured while the response type is being read.
+ * Otherwise the body is read into a string first, which is then deserialized once for the response type
+ * and once more for {@link ApiResponse}.
+ */
+public class ResponseReader {
+
+    private static final String CHARSET = "UTF-8";
+    private static final String REQUEST_ERROR = "requestError";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final boolean streaming;
+
+    public ResponseReader(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Reads successful response body.
+     *
+     * @return tuple with deserialized response on the left and {@link ApiResponse} on the right
+     * if the body contains {@code requestError}, right is null otherwise.
+     */
+    public <R> Tuple<R, ApiResponse> read(InputStream inputStream, long contentLength, JsonSerializer serializer, Class<R> responseType) throws IOException {
+        if (!streaming) {
+            String s = StreamUtils.readToString(inputStream, CHARSET, contentLength);
+            R response = serializer.deserialize(s, responseType);
+            ApiResponse apiResponse = null;
+            try {
+                apiResponse = serializer.deserialize(s, ApiResponse.class);
+            } catch (Exception ignored) {
+            }
+            return new Tuple<>(response, apiResponse);
+        }
+
+        Reader reader = reader(inputStream);
+        if (ApiResponse.class.isAssignableFrom(responseType)) {
+            R response = serializer.deserialize(reader, responseType);
+            return new Tuple<>(response, (ApiResponse) response);
+        }
+
+        if (Map.class.isAssignableFrom(responseType) || JsonElement.class.isAssignableFrom(responseType)) {
+            JsonElement element = serializer.parse(reader);
+            R response = serializer.deserialize(element, responseType);
+            ApiResponse apiResponse = null;
+            if (element.isJsonObject() && element.getAsJsonObject().has(REQUEST_ERROR)) {
+                try {
+                    apiResponse = serializer.deserialize(element, ApiResponse.class);
+                } catch (Exception ignored) {
+                }
+            }
+            return new Tuple<>(response, apiResponse);
+        }
+
+        RequestErrorDetectingJsonReader jsonReader = new RequestErrorDetectingJsonReader(reader, serializer);
+        R response = serializer.deserialize(jsonReader, responseType);
+        ApiError requestError = jsonReader.getRequestError();
+        return new Tuple<>(response, requestError != null ? new ApiResponse(requestError) : null);
+    }
+
+    /**
+     * Reads error response body.
+     */
+    public ApiResponse readError(InputStream inputStream, long contentLength, JsonSerializer serializer) throws IOException {
+        if (!streaming) {
+            String s = StreamUtils.readToString(inputStream, CHARSET, contentLength);
+            return serializer.deserialize(s, ApiResponse.class);
+        }
+        return serializer.deserialize(reader(inputStream), ApiResponse.class);
+    }
+
+    private static Reader reader(InputStream inputStream) throws IOException {
+        return new InputStreamReader(new BufferedInputStream(inputStream, BUFFER_SIZE), CHARSET);
+    }
+
+    /**
+     * Captures top-level {@code requestError} while response type adapter skips it as an unknown field.
+     */
+    private static class RequestErrorDetectingJsonReader extends JsonReader {
+
+        private final JsonSerializer serializer;
+        private int depth;
+        private boolean requestErrorIsNext;
+        private ApiError requestError;
+
+        RequestErrorDetectingJsonReader(Reader in, JsonSerializer serializer) {
+            super(in);
+            this.serializer = serializer;
+        }
+
+        ApiError getRequestError() {
+            return requestError;
+        }
+
+        @Override
+        public void beginObject() throws IOException {
+            super.beginObject();
+            depth++;
+        }
+
+        @Override
+        public void endObject() throws IOException {
+            super.endObject();
+            depth--;
+        }
+
+        @Override
+        public void beginArray() throws IOException {
+            super.beginArray();
+            depth++;
+        }
+
+        @Override
+        public void endArray() throws IOException {
+            super.endArray();
+            depth--;
+        }
+
+        @Override
+        public String nextName() throws IOException {
+            String name = super.nextName();
+            requestErrorIsNext = depth == 1 && REQUEST_ERROR.equals(name);
+            return name;
+        }
+
+        @Override
+        public void skipValue() throws IOException {
+            if (!requestErrorIsNext) {
+                super.skipValue();
+                return;
+            }
+
+            requestErrorIsNext = false;
+            requestError = serializer.deserialize(this, ApiError.class);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.infobip.mobile.messaging.api.support.http.client.metrics;
+
+import org.infobip.mobile.messaging.api.support.http.client.transport.ExchangeTimings;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Metrics of single API call. Timings which could not be measured are {@link ExchangeTimings#NOT_MEASURED}.
+ */
+@Data
+@AllArgsConstructor
+public class CallMetrics {
+
+    /**
+     * Name of the API interface method, such as "MobileApiMessages.sync",
+     * or HTTP method and path when client is called directly
+     */
+    private final String apiMethod;
+    private final String httpMethod;
+
+    /**
+     * HTTP status code or -1 if no response was received
+     */
+    private final int statusCode;
+    private final long dnsMillis;
+    private final long connectMillis;
+
+    /**
+     * Time from start of the call until response headers are received
+     */
+    private final long timeToFirstByteMillis;
+    private final long totalMillis;
+    private final boolean connectionReused;
+
+    /**
+     * Size of request body as sent, after compression
+     */
+    private final long requestBytes;
+
+    /**
+     * Size of response body as received, before decompression
+     */
+    private final long responseBytes;
+
+    /**
+     * Error which ended the call or null if call succeeded
+     */
+    private final Exception error;
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+}
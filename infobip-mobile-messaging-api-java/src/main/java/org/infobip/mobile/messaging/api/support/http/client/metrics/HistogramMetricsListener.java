@@ -0,0 +1,242 @@
+package org.infobip.mobile.messaging.api.support.http.client.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Default {@link MetricsListener} which aggregates calls in memory, per API method.
+ * <p>
+ * Keeps call, error and status code counts, byte totals and latency histograms of total time and time to first byte.
+ * <pre>{@code
+ * HistogramMetricsListener metrics = new HistogramMetricsListener();
+ * new Generator.Builder()
+ *     .withMetricsListeners(metrics)
+ *     .build();
+ * ...
+ * metrics.getSnapshot().get("MobileApiMessages.sync").getTotalPercentileMillis(95);
+ * }</pre>
+ */
+public class HistogramMetricsListener implements MetricsListener {
+
+    /**
+     * Upper bounds (inclusive) of histogram buckets in milliseconds, the last bucket of each histogram holds all slower calls
+     */
+    static final long[] BUCKETS_MILLIS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void onCallCompleted(CallMetrics metrics) {
+        Endpoint endpoint = endpoints.get(metrics.getApiMethod());
+        if (endpoint == null) {
+            Endpoint newEndpoint = new Endpoint();
+            endpoint = endpoints.putIfAbsent(metrics.getApiMethod(), newEndpoint);
+            if (endpoint == null) {
+                endpoint = newEndpoint;
+            }
+        }
+        endpoint.record(metrics);
+    }
+
+    /**
+     * @return statistics per API method, sorted by method name
+     */
+    public Map<String, EndpointSnapshot> getSnapshot() {
+        Map<String, EndpointSnapshot> snapshot = new TreeMap<>();
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    static int bucketOf(long millis) {
+        for (int i = 0; i < BUCKETS_MILLIS.length; i++) {
+            if (millis <= BUCKETS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return BUCKETS_MILLIS.length;
+    }
+
+    private static class Endpoint {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong requestBytes = new AtomicLong();
+        private final AtomicLong responseBytes = new AtomicLong();
+        private final AtomicLong reusedConnections = new AtomicLong();
+        private final AtomicLongArray totalHistogram = new AtomicLongArray(BUCKETS_MILLIS.length + 1);
+        private final AtomicLongArray timeToFirstByteHistogram = new AtomicLongArray(BUCKETS_MILLIS.length + 1);
+        private final ConcurrentMap<Integer, AtomicLong> statusCodes = new ConcurrentHashMap<>();
+
+        void record(CallMetrics metrics) {
+            calls.incrementAndGet();
+            if (!metrics.isSuccessful()) {
+                errors.incrementAndGet();
+            }
+            if (metrics.isConnectionReused()) {
+                reusedConnections.incrementAndGet();
+            }
+            requestBytes.addAndGet(Math.max(0, metrics.getRequestBytes()));
+            responseBytes.addAndGet(Math.max(0, metrics.getResponseBytes()));
+            totalHistogram.incrementAndGet(bucketOf(metrics.getTotalMillis()));
+            if (metrics.getTimeToFirstByteMillis() >= 0) {
+                timeToFirstByteHistogram.incrementAndGet(bucketOf(metrics.getTimeToFirstByteMillis()));
+            }
+
+            AtomicLong statusCount = statusCodes.get(metrics.getStatusCode());
+            if (statusCount == null) {
+                AtomicLong newCount = new AtomicLong();
+                statusCount = statusCodes.putIfAbsent(metrics.getStatusCode(), newCount);
+                if (statusCount == null) {
+                    statusCount = newCount;
+                }
+            }
+            statusCount.incrementAndGet();
+        }
+
+        EndpointSnapshot snapshot() {
+            Map<Integer, Long> statusCounts = new TreeMap<>();
+            for (Map.Entry<Integer, AtomicLong> entry : statusCodes.entrySet()) {
+                statusCounts.put(entry.getKey(), entry.getValue().get());
+            }
+            return new EndpointSnapshot(calls.get(), errors.get(), reusedConnections.get(), requestBytes.get(), responseBytes.get(),
+                    toArray(totalHistogram), toArray(timeToFirstByteHistogram), Collections.unmodifiableMap(statusCounts));
+        }
+
+        private static long[] toArray(AtomicLongArray array) {
+            long[] values = new long[array.length()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = array.get(i);
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Statistics of single API method at a point in time
+     */
+    public static class EndpointSnapshot {
+        private final long callCount;
+        private final long errorCount;
+        private final long reusedConnectionCount;
+        private final long requestBytes;
+        private final long responseBytes;
+        private final long[] totalHistogram;
+        private final long[] timeToFirstByteHistogram;
+        private final Map<Integer, Long> statusCodeCounts;
+
+        EndpointSnapshot(long callCount, long errorCount, long reusedConnectionCount, long requestBytes, long responseBytes,
+                         long[] totalHistogram, long[] timeToFirstByteHistogram, Map<Integer, Long> statusCodeCounts) {
+            this.callCount = callCount;
+            this.errorCount = errorCount;
+            this.reusedConnectionCount = reusedConnectionCount;
+            this.requestBytes = requestBytes;
+            this.responseBytes = responseBytes;
+            this.totalHistogram = totalHistogram;
+            this.timeToFirstByteHistogram = timeToFirstByteHistogram;
+            this.statusCodeCounts = statusCodeCounts;
+        }
+
+        public long getCallCount() {
+            return callCount;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        public long getReusedConnectionCount() {
+            return reusedConnectionCount;
+        }
+
+        public long getRequestBytes() {
+            return requestBytes;
+        }
+
+        public long getResponseBytes() {
+            return responseBytes;
+        }
+
+        /**
+         * @return number of calls per HTTP status code, -1 counts calls without response
+         */
+        public Map<Integer, Long> getStatusCodeCounts() {
+            return statusCodeCounts;
+        }
+
+        /**
+         * @return upper bounds of histogram buckets in milliseconds, the last bucket of each histogram holds all slower calls
+         */
+        public static long[] getBucketsMillis() {
+            return BUCKETS_MILLIS.clone();
+        }
+
+        public long[] getTotalHistogram() {
+            return totalHistogram.clone();
+        }
+
+        public long[] getTimeToFirstByteHistogram() {
+            return timeToFirstByteHistogram.clone();
+        }
+
+        /**
+         * @param percentile percentile in range (0, 100]
+         * @return upper bound of the bucket which contains the percentile of total call time, or -1 if it's the last unbounded bucket
+         */
+        public long getTotalPercentileMillis(double percentile) {
+            return percentile(totalHistogram, percentile);
+        }
+
+        /**
+         * @param percentile percentile in range (0, 100]
+         * @return upper bound of the bucket which contains the percentile of time to first byte, or -1 if it's the last unbounded bucket
+         */
+        public long getTimeToFirstBytePercentileMillis(double percentile) {
+            return percentile(timeToFirstByteHistogram, percentile);
+        }
+
+        private static long percentile(long[] histogram, double percentile) {
+            long count = 0;
+            for (long bucket : histogram) {
+                count += bucket;
+            }
+            if (count == 0) {
+                return 0;
+            }
+
+            long threshold = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS_MILLIS.length; i++) {
+                seen += histogram[i];
+                if (seen >= threshold) {
+                    return BUCKETS_MILLIS[i];
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public String toString() {
+            return "EndpointSnapshot{" +
+                    "callCount=" + callCount +
+                    ", errorCount=" + errorCount +
+                    ", reusedConnectionCount=" + reusedConnectionCount +
+                    ", requestBytes=" + requestBytes +
+                    ", responseBytes=" + responseBytes +
+                    ", totalHistogram=" + Arrays.toString(totalHistogram) +
+                    ", timeToFirstByteHistogram=" + Arrays.toString(timeToFirstByteHistogram) +
+                    ", statusCodeCounts=" + statusCodeCounts +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.infobip.mobile.messaging.api.support.http.client.metrics;
+
+/**
+ * Receives metrics of every API call made by {@link org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient}.
+ * <p>
+ * Called synchronously on the thread which made the call, after the response is processed.
+ * Implementations must be thread-safe and should return quickly.
+ *
+ * @see HistogramMetricsListener
+ */
+public interface MetricsListener {
+    void onCallCompleted(CallMetrics metrics);
+}
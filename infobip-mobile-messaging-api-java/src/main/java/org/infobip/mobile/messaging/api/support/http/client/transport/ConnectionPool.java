@@ -0,0 +1,170 @@
+package org.infobip.mobile.messaging.api.support.http.client.transport;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps idle connections per route (scheme, host and port) for reuse.
+ * <p>
+ * At most {@code maxIdleConnectionsPerRoute} connections are kept per route, the least recently used ones are closed first.
+ * Connections idle for longer than {@code keepAliveDurationMillis} are evicted by a daemon cleanup thread,
+ * which runs only while there are idle connections in the pool.
+ */
+class ConnectionPool {
+
+    private final int maxIdleConnectionsPerRoute;
+    private final long keepAliveDurationMillis;
+    private final Map<String, Deque<PooledConnection>> idleConnections = new HashMap<>();
+    private Thread cleanupThread;
+
+    ConnectionPool(int maxIdleConnectionsPerRoute, long keepAliveDurationMillis) {
+        this.maxIdleConnectionsPerRoute = maxIdleConnectionsPerRoute;
+        this.keepAliveDurationMillis = keepAliveDurationMillis;
+    }
+
+    /**
+     * @return most recently used idle connection for the route or null if there is none
+     */
+    synchronized PooledConnection acquire(String route) {
+        Deque<PooledConnection> connections = idleConnections.get(route);
+        if (connections == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        PooledConnection connection;
+        while ((connection = connections.pollFirst()) != null) {
+            if (connection.isOpen() && now - connection.getIdleSinceMillis() < keepAliveDurationMillis) {
+                break;
+            }
+            connection.close();
+        }
+        if (connections.isEmpty()) {
+            idleConnections.remove(route);
+        }
+        return connection;
+    }
+
+    void release(PooledConnection connection) {
+        List<PooledConnection> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (maxIdleConnectionsPerRoute <= 0 || keepAliveDurationMillis <= 0) {
+                evicted.add(connection);
+            } else {
+                Deque<PooledConnection> connections = idleConnections.get(connection.getRoute());
+                if (connections == null) {
+                    connections = new ArrayDeque<>();
+                    idleConnections.put(connection.getRoute(), connections);
+                }
+                connection.setIdleSinceMillis(System.currentTimeMillis());
+                connections.addFirst(connection);
+                while (connections.size() > maxIdleConnectionsPerRoute) {
+                    evicted.add(connections.pollLast());
+                }
+                startCleanupIfNeeded();
+            }
+        }
+        closeAll(evicted);
+    }
+
+    synchronized int idleConnectionCount(String route) {
+        Deque<PooledConnection> connections = idleConnections.get(route);
+        return connections != null ? connections.size() : 0;
+    }
+
+    synchronized int idleConnectionCount() {
+        int count = 0;
+        for (Deque<PooledConnection> connections : idleConnections.values()) {
+            count += connections.size();
+        }
+        return count;
+    }
+
+    void evictAll() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        synchronized (this) {
+            for (Deque<PooledConnection> connections : idleConnections.values()) {
+                evicted.addAll(connections);
+            }
+            idleConnections.clear();
+            notifyAll();
+        }
+        closeAll(evicted);
+    }
+
+    /**
+     * Closes connections idle for too long.
+     *
+     * @return milliseconds until the next connection expires or -1 if the pool is empty
+     */
+    long evictIdle(long now) {
+        List<PooledConnection> evicted = new ArrayList<>();
+        long nextExpiryMillis = -1;
+        synchronized (this) {
+            Iterator<Deque<PooledConnection>> routes = idleConnections.values().iterator();
+            while (routes.hasNext()) {
+                Deque<PooledConnection> connections = routes.next();
+                Iterator<PooledConnection> iterator = connections.iterator();
+                while (iterator.hasNext()) {
+                    PooledConnection connection = iterator.next();
+                    long expiresInMillis = connection.getIdleSinceMillis() + keepAliveDurationMillis - now;
+                    if (expiresInMillis <= 0 || !connection.isOpen()) {
+                        iterator.remove();
+                        evicted.add(connection);
+                    } else if (nextExpiryMillis == -1 || expiresInMillis < nextExpiryMillis) {
+                        nextExpiryMillis = expiresInMillis;
+                    }
+                }
+                if (connections.isEmpty()) {
+                    routes.remove();
+                }
+            }
+        }
+        closeAll(evicted);
+        return nextExpiryMillis;
+    }
+
+    private void startCleanupIfNeeded() {
+        if (cleanupThread != null) {
+            return;
+        }
+
+        cleanupThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                cleanup();
+            }
+        }, "mm-connection-pool-cleanup");
+        cleanupThread.setDaemon(true);
+        cleanupThread.start();
+    }
+
+    private void cleanup() {
+        while (true) {
+            long waitMillis = evictIdle(System.currentTimeMillis());
+            synchronized (this) {
+                if (waitMillis == -1 && idleConnections.isEmpty()) {
+                    cleanupThread = null;
+                    return;
+                }
+                try {
+                    wait(waitMillis > 0 ? waitMillis : keepAliveDurationMillis);
+                } catch (InterruptedException e) {
+                    cleanupThread = null;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void closeAll(List<PooledConnection> connections) {
+        for (PooledConnection connection : connections) {
+            connection.close();
+        }
+    }
+}
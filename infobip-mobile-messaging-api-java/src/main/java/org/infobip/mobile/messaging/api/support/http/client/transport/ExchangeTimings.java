@@ -0,0 +1,25 @@
+package org.infobip.mobile.messaging.api.support.http.client.transport;
+
+import lombok.Data;
+
+/**
+ * Connection phase timings of single HTTP exchange, filled in by {@link Transport} implementations.
+ * <p>
+ * Phases which transport cannot observe are left at -1.
+ */
+@Data
+public class ExchangeTimings {
+    public static final long NOT_MEASURED = -1;
+
+    /**
+     * Time spent resolving host name
+     */
+    private long dnsMillis = NOT_MEASURED;
+
+    /**
+     * Time spent establishing connection, including TLS handshake, 0 if pooled connection was reused
+     */
+    private long connectMillis = NOT_MEASURED;
+
+    private boolean connectionReused;
+}
@@ -0,0 +1,162 @@
+package org.infobip.mobile.messaging.api.support.http.client.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Minimal HTTP/1.1 message writing and parsing used by {@link KeepAliveTransport}.
+ */
+class HttpWire {
+
+    private static final String CRLF = "\r\n";
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private HttpWire() {
+    }
+
+    static void writeRequest(OutputStream out, TransportRequest request) throws IOException {
+        URL url = request.getUrl();
+        StringBuilder sb = new StringBuilder(256);
+        String path = url.getFile();
+        sb.append(request.getMethod()).append(' ').append(path.isEmpty() ? "/" : path).append(" HTTP/1.1").append(CRLF);
+        sb.append("Host: ").append(url.getHost());
+        if (url.getPort() != -1 && url.getPort() != url.getDefaultPort()) {
+            sb.append(':').append(url.getPort());
+        }
+        sb.append(CRLF);
+        sb.append("Connection: keep-alive").append(CRLF);
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            String name = header.getKey();
+            if (name.equalsIgnoreCase("Host") || name.equalsIgnoreCase("Connection") || name.equalsIgnoreCase("Content-Length")) {
+                continue;
+            }
+            String value = header.getValue();
+            checkHeader(name, value);
+            sb.append(name).append(": ").append(value).append(CRLF);
+        }
+        byte[] body = request.getBody();
+        if (body != null) {
+            sb.append("Content-Length: ").append(body.length).append(CRLF);
+        } else if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            sb.append("Content-Length: 0").append(CRLF);
+        }
+        sb.append(CRLF);
+
+        out.write(sb.toString().getBytes("ISO-8859-1"));
+        if (body != null) {
+            out.write(body);
+        }
+        out.flush();
+    }
+
+    /**
+     * Rejects header names and values which would end the header line early and let the rest be read
+     * as another header or request, the same way {@link java.net.HttpURLConnection#setRequestProperty} does.
+     *
+     * @throws IllegalArgumentException if name is empty or name or value contains CR, LF or NUL
+     */
+    static void checkHeader(String name, String value) {
+        if (name == null || name.isEmpty() || containsLineBreakOrNul(name)) {
+            throw new IllegalArgumentException("Illegal character(s) in message header field: " + name);
+        }
+        if (value != null && containsLineBreakOrNul(value)) {
+            throw new IllegalArgumentException("Illegal character(s) in message header value: " + value);
+        }
+    }
+
+    private static boolean containsLineBreakOrNul(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\r' || c == '\n' || c == '\0') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return status code from status line such as {@code HTTP/1.1 200 OK}
+     */
+    static int parseStatusCode(String statusLine) throws IOException {
+        if (!statusLine.startsWith("HTTP/") || statusLine.length() < 12) {
+            throw new IOException("Unexpected status line: " + statusLine);
+        }
+        try {
+            return Integer.parseInt(statusLine.substring(9, 12));
+        } catch (NumberFormatException e) {
+            throw new IOException("Unexpected status line: " + statusLine);
+        }
+    }
+
+    /**
+     * @return case-insensitive map of headers
+     */
+    static Map<String, List<String>> readHeaders(InputStream in) throws IOException {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            int separator = line.indexOf(':');
+            if (separator <= 0) {
+                continue;
+            }
+            String name = line.substring(0, separator).trim();
+            String value = line.substring(separator + 1).trim();
+            List<String> values = headers.get(name);
+            if (values == null) {
+                values = new ArrayList<>(1);
+                headers.put(name, values);
+            }
+            values.add(value);
+        }
+        return Collections.unmodifiableMap(headers);
+    }
+
+    static String firstHeader(Map<String, List<String>> headers, String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Waits for the first byte of the stream without consuming it, stream must support {@link InputStream#mark(int)}.
+     *
+     * @return true if stream ended before any byte was received
+     */
+    static boolean isEndOfStream(InputStream in) throws IOException {
+        in.mark(1);
+        if (in.read() == -1) {
+            return true;
+        }
+        in.reset();
+        return false;
+    }
+
+    /**
+     * Reads ISO-8859-1 line terminated by LF or CRLF, terminator is not included.
+     */
+    static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder(64);
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                int length = sb.length();
+                if (length > 0 && sb.charAt(length - 1) == '\r') {
+                    sb.setLength(length - 1);
+                }
+                return sb.toString();
+            }
+            if (sb.length() >= MAX_LINE_LENGTH) {
+                throw new IOException("HTTP line is too long");
+            }
+            sb.append((char) c);
+        }
+        throw new EOFException("Unexpected end of stream");
+    }
+}
@@ -0,0 +1,313 @@
+package org.infobip.mobile.messaging.api.support.http.client.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Transport which keeps connections alive and reuses them for subsequent requests to the same host,
+ * so that consecutive API calls don't pay for a new TCP and TLS handshake each time.
+ * <p>
+ * Speaks plain HTTP/1.1 over pooled sockets. Connections are not routed through system proxies.
+ * <pre>{@code
+ * new Generator.Builder()
+ *     .withTransport(new KeepAliveTransport(5, 5 * 60 * 1000))
+ *     .build();
+ * }</pre>
+ */
+public class KeepAliveTransport implements Transport {
+
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS_PER_HOST = 5;
+    public static final long DEFAULT_KEEP_ALIVE_DURATION_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * Leftover of response body which is not read by the client (e.g. for void API methods)
+     * is skipped if it is small enough, otherwise the connection is closed.
+     */
+    private static final long MAX_DRAIN_BYTES = 64 * 1024;
+
+    private final ConnectionPool connectionPool;
+
+    public KeepAliveTransport() {
+        this(DEFAULT_MAX_IDLE_CONNECTIONS_PER_HOST, DEFAULT_KEEP_ALIVE_DURATION_MILLIS);
+    }
+
+    /**
+     * @param maxIdleConnectionsPerHost maximum number of idle connections to keep per host
+     * @param keepAliveDurationMillis   time after which idle connection is evicted
+     */
+    public KeepAliveTransport(int maxIdleConnectionsPerHost, long keepAliveDurationMillis) {
+        this.connectionPool = new ConnectionPool(maxIdleConnectionsPerHost, keepAliveDurationMillis);
+    }
+
+    @Override
+    public TransportResponse execute(TransportRequest request) throws IOException {
+        String route = route(request);
+        PooledConnection connection = acquireHealthy(route);
+        if (connection != null) {
+            try {
+                connection.getSocket().setSoTimeout(request.getReadTimeout());
+                request.getTimings().setDnsMillis(0);
+                request.getTimings().setConnectMillis(0);
+                request.getTimings().setConnectionReused(true);
+                return exchange(connection, request, isIdempotent(request.getMethod()));
+            } catch (StaleConnectionException e) {
+                // server closed pooled connection without processing the request, retry once on a new connection
+            }
+        }
+
+        request.getTimings().setConnectionReused(false);
+        connection = connect(route, request);
+        return exchange(connection, request, false);
+    }
+
+    /**
+     * Closes all idle connections.
+     */
+    public void evictAll() {
+        connectionPool.evictAll();
+    }
+
+    public int idleConnectionCount() {
+        return connectionPool.idleConnectionCount();
+    }
+
+    /**
+     * Takes idle connection from the pool, closing the ones which were closed by the server in the meantime.
+     * Health check happens before any request byte is written, so the request is never sent twice because of it.
+     */
+    private PooledConnection acquireHealthy(String route) {
+        PooledConnection connection;
+        while ((connection = connectionPool.acquire(route)) != null) {
+            if (connection.isHealthy()) {
+                return connection;
+            }
+            connection.close();
+        }
+        return null;
+    }
+
+    /**
+     * @param retryable whether failure which happened before server could process the request should be reported as
+     *                  {@link StaleConnectionException}, it is never reported if server might have received the request
+     *                  and is still processing it (e.g. read timeout)
+     */
+    private TransportResponse exchange(PooledConnection connection, TransportRequest request, boolean retryable) throws IOException {
+        try {
+            HttpWire.writeRequest(connection.getOutputStream(), request);
+        } catch (IOException e) {
+            connection.close();
+            throw retryable ? new StaleConnectionException(e) : e;
+        } catch (RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+
+        String statusLine;
+        try {
+            if (HttpWire.isEndOfStream(connection.getInputStream())) {
+                EOFException e = new EOFException("Connection closed by server before response");
+                throw retryable ? new StaleConnectionException(e) : e;
+            }
+            statusLine = HttpWire.readLine(connection.getInputStream());
+        } catch (IOException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+
+        try {
+            int responseCode = HttpWire.parseStatusCode(statusLine);
+            Map<String, List<String>> headers = HttpWire.readHeaders(connection.getInputStream());
+            while (responseCode >= 100 && responseCode < 200) {
+                statusLine = HttpWire.readLine(connection.getInputStream());
+                responseCode = HttpWire.parseStatusCode(statusLine);
+                headers = HttpWire.readHeaders(connection.getInputStream());
+            }
+            return new KeepAliveResponse(connection, request, statusLine, responseCode, headers);
+        } catch (IOException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    private PooledConnection connect(String route, TransportRequest request) throws IOException {
+        URL url = request.getUrl();
+        String host = url.getHost();
+        int port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+
+        long dnsStart = System.nanoTime();
+        InetSocketAddress address = new InetSocketAddress(host, port);
+        long connectStart = System.nanoTime();
+        request.getTimings().setDnsMillis((connectStart - dnsStart) / 1000000);
+
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.connect(address, request.getConnectTimeout());
+            socket.setSoTimeout(request.getReadTimeout());
+            if ("https".equalsIgnoreCase(url.getProtocol())) {
+                socket = startTls(socket, host, port, request.isTrustAllCerts());
+            }
+            request.getTimings().setConnectMillis((System.nanoTime() - connectStart) / 1000000);
+            return new PooledConnection(route, socket);
+        } catch (IOException | RuntimeException e) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+            throw e;
+        }
+    }
+
+    private Socket startTls(Socket socket, String host, int port, boolean trustAllCerts) throws IOException {
+        SSLSocketFactory socketFactory = trustAllCerts ? UntrustedSSLHelper.trustAllSocketFactory() : null;
+        if (socketFactory == null) {
+            socketFactory = HttpsURLConnection.getDefaultSSLSocketFactory();
+        }
+
+        SSLSocket sslSocket = (SSLSocket) socketFactory.createSocket(socket, host, port, true);
+        boolean hostnameVerifiedInHandshake = enableEndpointIdentification(sslSocket);
+        sslSocket.startHandshake();
+        if (!hostnameVerifiedInHandshake && !HttpsURLConnection.getDefaultHostnameVerifier().verify(host, sslSocket.getSession())) {
+            sslSocket.close();
+            throw new SSLPeerUnverifiedException("Hostname " + host + " not verified");
+        }
+        return sslSocket;
+    }
+
+    private static boolean enableEndpointIdentification(SSLSocket sslSocket) {
+        try {
+            SSLParameters parameters = sslSocket.getSSLParameters();
+            parameters.setEndpointIdentificationAlgorithm("HTTPS");
+            sslSocket.setSSLParameters(parameters);
+            return true;
+        } catch (NoSuchMethodError | RuntimeException e) {
+            // not available on older Android versions, default hostname verifier is used instead
+            return false;
+        }
+    }
+
+    /**
+     * Methods which can be safely sent again when it is not known whether server received them, POST and PATCH are not.
+     */
+    private static boolean isIdempotent(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "PUT".equals(method) || "DELETE".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private static String route(TransportRequest request) {
+        URL url = request.getUrl();
+        return url.getProtocol() + "://" + url.getHost() + ":" + url.getPort() + (request.isTrustAllCerts() ? "#untrusted" : "");
+    }
+
+    private class KeepAliveResponse implements TransportResponse {
+
+        private final PooledConnection connection;
+        private final int responseCode;
+        private final Map<String, List<String>> headers;
+        private final int contentLength;
+        private final ResponseBodyInputStream body;
+        private final boolean reusable;
+        private boolean closed;
+
+        KeepAliveResponse(PooledConnection connection, TransportRequest request, String statusLine, int responseCode, Map<String, List<String>> headers) {
+            this.connection = connection;
+            this.responseCode = responseCode;
+            this.headers = headers;
+
+            InputStream in = connection.getInputStream();
+            String contentLengthHeader = HttpWire.firstHeader(headers, "Content-Length");
+            long contentLength = -1;
+            if (contentLengthHeader != null) {
+                try {
+                    contentLength = Long.parseLong(contentLengthHeader);
+                } catch (NumberFormatException ignored) {
+                }
+            }
+
+            boolean framed = true;
+            if ("HEAD".equals(request.getMethod()) || responseCode == 204 || responseCode == 304) {
+                this.body = ResponseBodyInputStream.empty(in);
+                contentLength = 0;
+            } else if ("chunked".equalsIgnoreCase(HttpWire.firstHeader(headers, "Transfer-Encoding"))) {
+                this.body = ResponseBodyInputStream.chunked(in);
+                contentLength = -1;
+            } else if (contentLength >= 0) {
+                this.body = ResponseBodyInputStream.fixedLength(in, contentLength);
+            } else {
+                this.body = ResponseBodyInputStream.untilClosed(in);
+                framed = false;
+            }
+            this.contentLength = contentLength > Integer.MAX_VALUE ? -1 : (int) contentLength;
+
+            String connectionHeader = HttpWire.firstHeader(headers, "Connection");
+            boolean keepAlive = statusLine.startsWith("HTTP/1.1") ? !"close".equalsIgnoreCase(connectionHeader) : "keep-alive".equalsIgnoreCase(connectionHeader);
+            this.reusable = framed && keepAlive;
+        }
+
+        @Override
+        public int getResponseCode() {
+            return responseCode;
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaderFields() {
+            return headers;
+        }
+
+        @Override
+        public int getContentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return body;
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            boolean consumed;
+            try {
+                consumed = reusable && body.drain(MAX_DRAIN_BYTES);
+            } catch (IOException e) {
+                consumed = false;
+            }
+
+            if (consumed) {
+                connectionPool.release(connection);
+            } else {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Idempotent request could not be sent or server closed connection without any response.
+     */
+    private static class StaleConnectionException extends IOException {
+        StaleConnectionException(IOException cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.infobip.mobile.messaging.api.support.http.client.transport;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+/**
+ * Socket connection to one host which can be reused for several sequential HTTP/1.1 exchanges.
+ */
+class PooledConnection {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String route;
+    private final Socket socket;
+    private final InputStream inputStream;
+    private final OutputStream outputStream;
+    private long idleSinceMillis;
+
+    PooledConnection(String route, Socket socket) throws IOException {
+        this.route = route;
+        this.socket = socket;
+        this.inputStream = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+        this.outputStream = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+    }
+
+    String getRoute() {
+        return route;
+    }
+
+    Socket getSocket() {
+        return socket;
+    }
+
+    InputStream getInputStream() {
+        return inputStream;
+    }
+
+    OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    long getIdleSinceMillis() {
+        return idleSinceMillis;
+    }
+
+    void setIdleSinceMillis(long idleSinceMillis) {
+        this.idleSinceMillis = idleSinceMillis;
+    }
+
+    boolean isOpen() {
+        return !socket.isClosed() && !socket.isInputShutdown() && !socket.isOutputShutdown();
+    }
+
+    /**
+     * Checks that idle connection was not closed by the server, waits for it no more than a millisecond.
+     * Idle connection which received any data is not healthy either, since the data can't belong to the next response.
+     */
+    boolean isHealthy() {
+        if (!isOpen()) {
+            return false;
+        }
+
+        try {
+            int soTimeout = socket.getSoTimeout();
+            try {
+                socket.setSoTimeout(1);
+                if (inputStream.available() > 0) {
+                    return false;
+                }
+                // either end of stream or unexpected data
+                inputStream.read();
+                return false;
+            } finally {
+                socket.setSoTimeout(soTimeout);
+            }
+        } catch (SocketTimeoutException e) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    void close() {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.infobip.mobile.messaging.api.support.http.client.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads exactly one response body from connection stream so that the connection can be reused afterwards.
+ * Closing the body does not close the connection.
+ */
+abstract class ResponseBodyInputStream extends InputStream {
+
+    protected final InputStream in;
+    private boolean exhausted;
+
+    ResponseBodyInputStream(InputStream in) {
+        this.in = in;
+    }
+
+    static ResponseBodyInputStream empty(InputStream in) {
+        return new FixedLength(in, 0);
+    }
+
+    static ResponseBodyInputStream fixedLength(InputStream in, long length) {
+        return new FixedLength(in, length);
+    }
+
+    static ResponseBodyInputStream chunked(InputStream in) {
+        return new Chunked(in);
+    }
+
+    static ResponseBodyInputStream untilClosed(InputStream in) {
+        return new UntilClosed(in);
+    }
+
+    boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * Reads the rest of the body if it is not longer than {@code limit} bytes.
+     *
+     * @return true if body is fully consumed
+     */
+    boolean drain(long limit) throws IOException {
+        byte[] buffer = new byte[1024];
+        long drained = 0;
+        while (!exhausted && drained <= limit) {
+            int read = read(buffer, 0, buffer.length);
+            if (read > 0) {
+                drained += read;
+            }
+        }
+        return exhausted;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int read = read(b, 0, 1);
+        return read == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (exhausted) {
+            return -1;
+        }
+        if (len == 0) {
+            return 0;
+        }
+        int read = readBody(b, off, len);
+        if (read == -1) {
+            exhausted = true;
+        }
+        return read;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * @return number of bytes read or -1 if the body is over
+     */
+    protected abstract int readBody(byte[] b, int off, int len) throws IOException;
+
+    private static class FixedLength extends ResponseBodyInputStream {
+
+        private long remaining;
+
+        FixedLength(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(remaining, in.available());
+        }
+
+        @Override
+        protected int readBody(byte[] b, int off, int len) throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int read = in.read(b, off, (int) Math.min(len, remaining));
+            if (read == -1) {
+                throw new EOFException("Unexpected end of response body, " + remaining + " bytes missing");
+            }
+            remaining -= read;
+            return read;
+        }
+    }
+
+    private static class Chunked extends ResponseBodyInputStream {
+
+        private long remainingInChunk = -1;
+        private boolean lastChunk;
+
+        Chunked(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        protected int readBody(byte[] b, int off, int len) throws IOException {
+            if (lastChunk) {
+                return -1;
+            }
+            if (remainingInChunk <= 0) {
+                if (remainingInChunk == 0) {
+                    HttpWire.readLine(in);
+                }
+                String sizeLine = HttpWire.readLine(in);
+                int extension = sizeLine.indexOf(';');
+                if (extension != -1) {
+                    sizeLine = sizeLine.substring(0, extension);
+                }
+                try {
+                    remainingInChunk = Long.parseLong(sizeLine.trim(), 16);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid chunk size: " + sizeLine);
+                }
+                if (remainingInChunk == 0) {
+                    lastChunk = true;
+                    // trailers are not used, skip them up to the empty line
+                    //noinspection StatementWithEmptyBody
+                    while (!HttpWire.readLine(in).isEmpty()) {
+                    }
+                    return -1;
+                }
+            }
+            int read = in.read(b, off, (int) Math.min(len, remainingInChunk));
+            if (read == -1) {
+                throw new EOFException("Unexpected end of chunked response body");
+            }
+            remainingInChunk -= read;
+            return read;
+        }
+    }
+
+    private static class UntilClosed extends ResponseBodyInputStream {
+
+        UntilClosed(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        protected int readBody(byte[] b, int off, int len) throws IOException {
+            return in.read(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.infobip.mobile.messaging.api.support.http.client.transport;
+
+import java.io.IOException;
+
+/**
+ * Executes single HTTP exchange for {@link org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient}.
+ * <p>
+ * Implementations must be thread-safe, the same transport is used for all API calls of one
+ * {@link org.infobip.mobile.messaging.api.support.Generator}.
+ *
+ * @see UrlConnectionTransport
+ * @see KeepAliveTransport
+ */
+public interface Transport {
+
+    /**
+     * Sends request and returns response as soon as status line and headers are received.
+     * Caller must {@link TransportResponse#close() close} the response when done with it.
+     */
+    TransportResponse execute(TransportRequest request) throws IOException;
+}
@@ -0,0 +1,38 @@
+package org.infobip.mobile.messaging.api.support.http.client.transport;
+
+import java.net.URL;
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * Request as it goes on the wire: full url with query string, resolved method and headers, serialized body.
+ * <p>
+ * Transport reports connection phases it observes to {@link #getTimings() timings}.
+ */
+@Data
+public class TransportRequest {
+    private final URL url;
+    private final String method;
+    private final Map<String, String> headers;
+    private final byte[] body;
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final boolean trustAllCerts;
+    private final ExchangeTimings timings;
+
+    public TransportRequest(URL url, String method, Map<String, String> headers, byte[] body, int connectTimeout, int readTimeout, boolean trustAllCerts) {
+        this(url, method, headers, body, connectTimeout, readTimeout, trustAllCerts, new ExchangeTimings());
+    }
+
+    public TransportRequest(URL url, String method, Map<String, String> headers, byte[] body, int connectTimeout, int readTimeout, boolean trustAllCerts, ExchangeTimings timings) {
+        this.url = url;
+        this.method = method;
+        this.headers = headers;
+        this.body = body;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.trustAllCerts = trustAllCerts;
+        this.timings = timings;
+    }
+}
@@ -0,0 +1,38 @@
+package org.infobip.mobile.messaging.api.support.http.client.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of {@link Transport}, mirrors the relevant part of {@link java.net.HttpURLConnection}.
+ */
+public interface TransportResponse extends Closeable {
+
+    int getResponseCode();
+
+    Map<String, List<String>> getHeaderFields();
+
+    /**
+     * @return content length or -1 if not known
+     */
+    int getContentLength();
+
+    /**
+     * @return body of successful response
+     */
+    InputStream getInputStream() throws IOException;
+
+    /**
+     * @return body of error response, may be null
+     */
+    InputStream getErrorStream();
+
+    /**
+     * Releases underlying connection, it is either kept for reuse or disconnected.
+     */
+    @Override
+    void close();
+}
@@ -1,10 +1,11 @@
-package org.infobip.mobile.messaging.api.support.http.client;
+package org.infobip.mobile.messaging.api.support.http.client.transport;
 
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
 
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 
@@ -25,12 +26,20 @@ class UntrustedSSLHelper {
     };
 
     static void trustAllCerts(HttpsURLConnection urlConnection) {
+        SSLSocketFactory socketFactory = trustAllSocketFactory();
+        if (socketFactory != null) {
+            urlConnection.setSSLSocketFactory(socketFactory);
+        }
+    }
+
+    static SSLSocketFactory trustAllSocketFactory() {
         try {
             SSLContext sc = SSLContext.getInstance("SSL");
             sc.init(null, trustAllCerts, new SecureRandom());
-            urlConnection.setSSLSocketFactory(sc.getSocketFactory());
+            return sc.getSocketFactory();
         } catch (Exception e) {
             System.err.println("Cannot instantiate trust-all ssl context: " + e);
+            return null;
         }
     }
 }
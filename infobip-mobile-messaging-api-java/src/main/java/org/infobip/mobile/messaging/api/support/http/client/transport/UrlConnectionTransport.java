@@ -0,0 +1,122 @@
+package org.infobip.mobile.messaging.api.support.http.client.transport;
+
+import org.infobip.mobile.messaging.api.support.util.StreamUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.Map;
+
+import javax.net.ssl.HttpsURLConnection;
+
+/**
+ * Default transport, opens new {@link HttpURLConnection} for each request and disconnects it afterwards.
+ * <p>
+ * Host name resolution is not observable separately, it is reported as part of connect time.
+ */
+public class UrlConnectionTransport implements Transport {
+
+    @Override
+    public TransportResponse execute(TransportRequest request) throws IOException {
+        HttpURLConnection urlConnection = (HttpURLConnection) request.getUrl().openConnection();
+        try {
+            urlConnection.setRequestMethod(request.getMethod());
+            if (!"GET".equals(request.getMethod())) {
+                urlConnection.setDoOutput(true);
+            }
+
+            urlConnection.setUseCaches(false);
+            urlConnection.setDoInput(true);
+            urlConnection.setConnectTimeout(request.getConnectTimeout());
+            urlConnection.setReadTimeout(request.getReadTimeout());
+
+            if (request.isTrustAllCerts() && urlConnection instanceof HttpsURLConnection) {
+                UntrustedSSLHelper.trustAllCerts(((HttpsURLConnection) urlConnection));
+            }
+
+            for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+                urlConnection.setRequestProperty(header.getKey(), header.getValue());
+            }
+
+            long connectStart = System.nanoTime();
+            urlConnection.connect();
+            request.getTimings().setConnectMillis(millisSince(connectStart));
+
+            if (null != request.getBody()) {
+                OutputStream outputStream = null;
+                try {
+                    outputStream = new BufferedOutputStream(urlConnection.getOutputStream());
+                    outputStream.write(request.getBody());
+                    outputStream.flush();
+                } finally {
+                    StreamUtils.closeSafely(outputStream);
+                }
+            }
+
+            urlConnection.getResponseCode();
+            return new UrlConnectionResponse(urlConnection);
+        } catch (IOException | RuntimeException e) {
+            disconnect(urlConnection);
+            throw e;
+        }
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1000000;
+    }
+
+    private static void disconnect(HttpURLConnection urlConnection) {
+        try {
+            urlConnection.disconnect();
+        } catch (Exception ignored) {
+
+        }
+    }
+
+    private static class UrlConnectionResponse implements TransportResponse {
+
+        private final HttpURLConnection urlConnection;
+
+        UrlConnectionResponse(HttpURLConnection urlConnection) {
+            this.urlConnection = urlConnection;
+        }
+
+        @Override
+        public int getResponseCode() {
+            try {
+                return urlConnection.getResponseCode();
+            } catch (IOException e) {
+                // response code is already cached by connection at this point
+                return -1;
+            }
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaderFields() {
+            return urlConnection.getHeaderFields();
+        }
+
+        @Override
+        public int getContentLength() {
+            return urlConnection.getContentLength();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return urlConnection.getInputStream();
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return urlConnection.getErrorStream();
+        }
+
+        @Override
+        public void close() {
+            disconnect(urlConnection);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Type;
 
 /**
@@ -71,6 +72,22 @@ public class JsonSerializer {
         return gson.fromJson(s, type);
     }
 
+    public <T> T deserialize(Reader reader, Class<T> type) {
+        return gson.fromJson(reader, type);
+    }
+
+    public <T> T deserialize(JsonReader reader, Class<T> type) {
+        return gson.fromJson(reader, type);
+    }
+
+    public <T> T deserialize(JsonElement element, Class<T> type) {
+        return gson.fromJson(element, type);
+    }
+
+    public JsonElement parse(Reader reader) {
+        return new JsonParser().parse(reader);
+    }
+
     public <T> String serialize(T t) {
         return gson.toJson(t);
     }
@@ -0,0 +1,172 @@
+package it.org.infobip.mobile.messaging.api;
+
+import org.infobip.mobile.messaging.api.messages.MobileApiMessages;
+import org.infobip.mobile.messaging.api.messages.SeenMessages;
+import org.infobip.mobile.messaging.api.messages.SyncMessagesBody;
+import org.infobip.mobile.messaging.api.messages.SyncMessagesResponse;
+import org.infobip.mobile.messaging.api.support.ApiException;
+import org.infobip.mobile.messaging.api.support.Generator;
+import org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient;
+import org.infobip.mobile.messaging.api.support.http.client.transport.KeepAliveTransport;
+import org.infobip.mobile.messaging.api.tools.DebugServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Properties;
+
+import fi.iki.elonen.NanoHTTPD;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class MobileApiGzipTest {
+    private static final int NUMBER_OF_MESSAGES = 500;
+
+    private DebugServer debugServer;
+    private Properties properties;
+
+    @Before
+    public void setUp() throws Exception {
+        debugServer = new DebugServer();
+        debugServer.start();
+
+        properties = new Properties();
+        properties.put("api.key", "my_API_key");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (null != debugServer) {
+            try {
+                debugServer.stop();
+            } catch (Exception e) {
+                //ignore
+            }
+        }
+    }
+
+    @Test
+    public void sync_withGzip_shouldCompressRequestBody() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, "{\"payloads\":[]}");
+        SyncMessagesBody body = syncMessagesBody();
+        int uncompressedLength = DefaultApiClient.JSON_SERIALIZER.serialize(body).getBytes("UTF-8").length;
+
+        mobileApiMessages(new Generator.Builder().withGzipCompression(true)).sync(body);
+
+        assertEquals("gzip", debugServer.getHeader("Content-Encoding"));
+        assertEquals("gzip", debugServer.getHeader("Accept-Encoding"));
+        assertEquals(DefaultApiClient.JSON_SERIALIZER.serialize(body), debugServer.getBody());
+        assertThat(debugServer.getBodyLength()).isLessThan(uncompressedLength / 3);
+    }
+
+    @Test
+    public void sync_withGzip_shouldNotCompressBodyBelowThreshold() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, "{\"payloads\":[]}");
+        SyncMessagesBody body = SyncMessagesBody.make(new String[]{"messageId"}, new String[0]);
+        String json = DefaultApiClient.JSON_SERIALIZER.serialize(body);
+
+        mobileApiMessages(new Generator.Builder().withGzipCompression(true)).sync(body);
+
+        assertEquals(null, debugServer.getHeader("Content-Encoding"));
+        assertEquals(json, debugServer.getBody());
+        assertEquals(json.getBytes("UTF-8").length, debugServer.getBodyLength());
+    }
+
+    @Test
+    public void sync_withGzipRequestThreshold_shouldCompressSmallBody() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, "{\"payloads\":[]}");
+        SyncMessagesBody body = SyncMessagesBody.make(new String[]{"messageId"}, new String[0]);
+
+        mobileApiMessages(new Generator.Builder().withGzipCompression(true).withGzipRequestThreshold(0)).sync(body);
+
+        assertEquals("gzip", debugServer.getHeader("Content-Encoding"));
+        assertEquals(DefaultApiClient.JSON_SERIALIZER.serialize(body), debugServer.getBody());
+    }
+
+    @Test
+    public void sync_withoutGzip_shouldSendPlainBody() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, "{\"payloads\":[]}");
+        SyncMessagesBody body = syncMessagesBody();
+        String json = DefaultApiClient.JSON_SERIALIZER.serialize(body);
+
+        mobileApiMessages(new Generator.Builder()).sync(body);
+
+        assertEquals(null, debugServer.getHeader("Content-Encoding"));
+        assertEquals(null, debugServer.getHeader("Accept-Encoding"));
+        assertEquals(json.getBytes("UTF-8").length, debugServer.getBodyLength());
+    }
+
+    @Test
+    public void sync_withGzip_shouldDecodeGzipResponse() throws Exception {
+        debugServer.respondWithGzip(NanoHTTPD.Response.Status.OK, syncMessagesResponse());
+
+        SyncMessagesResponse response = mobileApiMessages(new Generator.Builder().withGzipCompression(true)).sync(syncMessagesBody());
+
+        assertResponse(response);
+    }
+
+    @Test
+    public void sync_withGzipAndKeepAliveTransport_shouldRoundTrip() throws Exception {
+        debugServer.respondWithGzip(NanoHTTPD.Response.Status.OK, syncMessagesResponse());
+        KeepAliveTransport transport = new KeepAliveTransport();
+        MobileApiMessages mobileApiMessages = mobileApiMessages(new Generator.Builder().withGzipCompression(true).withTransport(transport));
+        SyncMessagesBody body = syncMessagesBody();
+
+        assertResponse(mobileApiMessages.sync(body));
+        assertResponse(mobileApiMessages.sync(body));
+
+        assertEquals(DefaultApiClient.JSON_SERIALIZER.serialize(body), debugServer.getBody());
+        assertEquals(1, debugServer.getConnectionCount());
+        transport.evictAll();
+    }
+
+    @Test
+    public void reportSeen_withGzip_shouldDecodeGzipErrorResponse() throws Exception {
+        debugServer.respondWithGzip(NanoHTTPD.Response.Status.BAD_REQUEST, "{\"requestError\":{\"serviceException\":{\"messageId\":\"INVALID\",\"text\":\"Invalid request\"}}}");
+
+        try {
+            mobileApiMessages(new Generator.Builder().withGzipCompression(true)).reportSeen(new SeenMessages());
+            fail();
+        } catch (ApiException e) {
+            assertEquals("INVALID", e.getCode());
+            assertEquals("Invalid request", e.getMessage());
+        }
+    }
+
+    private MobileApiMessages mobileApiMessages(Generator.Builder builder) {
+        return builder
+                .withBaseUrl("http://127.0.0.1:" + debugServer.getListeningPort() + "/")
+                .withProperties(properties)
+                .build()
+                .create(MobileApiMessages.class);
+    }
+
+    private static SyncMessagesBody syncMessagesBody() {
+        String[] messageIds = new String[NUMBER_OF_MESSAGES];
+        String[] deliveryReportIds = new String[NUMBER_OF_MESSAGES];
+        for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+            messageIds[i] = "mZ2ZWt0b3JzLmNvbS9pbWFnZXMvb-" + i;
+            deliveryReportIds[i] = "dR2ZWt0b3JzLmNvbS9pbWFnZXMvb-" + i;
+        }
+        return SyncMessagesBody.make(messageIds, deliveryReportIds);
+    }
+
+    private static String syncMessagesResponse() {
+        StringBuilder sb = new StringBuilder("{\"payloads\":[");
+        for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"gcm.notification.messageId\":\"messageId").append(i).append("\",\"gcm.notification.title\":\"Title\",\"gcm.notification.body\":\"Body ").append(i).append("\"}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static void assertResponse(SyncMessagesResponse response) {
+        assertEquals(NUMBER_OF_MESSAGES, response.getPayloads().size());
+        assertEquals("messageId0", response.getPayloads().get(0).getMessageId());
+        assertEquals("Body 499", response.getPayloads().get(NUMBER_OF_MESSAGES - 1).getBody());
+    }
+}
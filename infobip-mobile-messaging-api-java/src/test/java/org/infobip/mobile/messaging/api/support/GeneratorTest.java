@@ -1,10 +1,31 @@
 package org.infobip.mobile.messaging.api.support;
 
+import org.infobip.mobile.messaging.api.support.http.Body;
+import org.infobip.mobile.messaging.api.support.http.Header;
 import org.infobip.mobile.messaging.api.support.http.HttpRequest;
+import org.infobip.mobile.messaging.api.support.http.Path;
+import org.infobip.mobile.messaging.api.support.http.Query;
+import org.infobip.mobile.messaging.api.support.http.Version;
+import org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient;
+import org.infobip.mobile.messaging.api.support.http.client.HttpMethod;
+import org.infobip.mobile.messaging.api.support.http.client.Request;
+import org.infobip.mobile.messaging.api.support.http.client.RequestInterceptor;
+import org.infobip.mobile.messaging.api.tools.DebugServer;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fi.iki.elonen.NanoHTTPD;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * @author mstipanov
@@ -45,6 +66,127 @@ public class GeneratorTest {
         generator.create(WrongClass.class).bar();
     }
 
+    @Test
+    public void invoke_shouldFillUriSlots() throws Exception {
+        CapturingApiClient apiClient = new CapturingApiClient();
+        generator.setApiClient(apiClient);
+
+        generator.create(TemplateApi.class).get("id", "id");
+
+        assertEquals("X/v1/items/id/sub/id", apiClient.uri);
+        assertEquals(HttpMethod.GET, apiClient.method);
+        assertEquals(String.class, apiClient.responseType);
+    }
+
+    @Test
+    public void invoke_shouldPassStaticAndDynamicQueryInParams() throws Exception {
+        CapturingApiClient apiClient = new CapturingApiClient();
+        generator.setApiClient(apiClient);
+
+        generator.create(TemplateApi.class).post("n", "header", "body");
+
+        assertEquals("X/v2/items", apiClient.uri);
+        assertEquals(Collections.<Object>singleton("n"), apiClient.queryParams.get("dynamic"));
+        assertEquals(Collections.<Object>singletonList("a&b"), apiClient.queryParams.get("static q"));
+        assertEquals(Collections.<Object>singleton("header"), apiClient.headers.get("X-Dynamic"));
+        assertEquals(Collections.<Object>singletonList("static"), apiClient.headers.get("X-Static"));
+        assertEquals("body", apiClient.body);
+    }
+
+    @Test
+    public void invoke_shouldLetArgumentOverrideStaticQuery() throws Exception {
+        CapturingApiClient apiClient = new CapturingApiClient();
+        generator.setApiClient(apiClient);
+
+        generator.create(TemplateApi.class).override(new String[]{"a", "b"});
+
+        assertEquals("X/v2/items", apiClient.uri);
+        assertEquals(Arrays.<Object>asList("a", "b"), apiClient.queryParams.get("q"));
+    }
+
+    @Test
+    public void invoke_shouldExposeStaticQueryToRequestInterceptors() throws Exception {
+        final List<Map<String, Collection<Object>>> interceptedQueryParams = new ArrayList<>();
+        DebugServer debugServer = new DebugServer();
+        debugServer.start();
+        try {
+            debugServer.respondWith(NanoHTTPD.Response.Status.OK, null);
+            Generator generator = new Generator.Builder()
+                    .withBaseUrl("http://127.0.0.1:" + debugServer.getListeningPort() + "/")
+                    .withRequestInterceptors(new RequestInterceptor() {
+                        @Override
+                        public Request intercept(Request request) {
+                            interceptedQueryParams.add(new HashMap<>(request.getQueryParams()));
+                            request.getQueryParams().put("static q", Collections.<Object>singletonList("intercepted"));
+                            return request;
+                        }
+                    })
+                    .build();
+
+            generator.create(TemplateApi.class).post("n", "header", "body");
+
+            assertEquals(1, interceptedQueryParams.size());
+            assertEquals(Collections.<Object>singletonList("a&b"), interceptedQueryParams.get(0).get("static q"));
+            assertEquals(Collections.<Object>singleton("n"), interceptedQueryParams.get(0).get("dynamic"));
+            assertEquals("intercepted", debugServer.getQueryParameter("static q"));
+            assertEquals("n", debugServer.getQueryParameter("dynamic"));
+        } finally {
+            debugServer.stop();
+        }
+    }
+
+    @Test
+    public void invoke_shouldUseCurrentBaseUrl() throws Exception {
+        CapturingApiClient apiClient = new CapturingApiClient();
+        generator.setApiClient(apiClient);
+        TemplateApi api = generator.create(TemplateApi.class);
+
+        api.get("id", "id");
+        generator.setBaseUrl("https://other/");
+        api.get("id", "id");
+
+        assertEquals("https://other/v1/items/id/sub/id", apiClient.uri);
+        assertNull(apiClient.body);
+    }
+
+    @HttpRequest("/v{version}/items")
+    private interface TemplateApi {
+        @HttpRequest("{id}/sub/{id}/")
+        @Version("1")
+        String get(@Path(name = "id") String id, @Path(name = "id") String ignored);
+
+        @HttpRequest(method = HttpMethod.POST)
+        @Version("2")
+        @Query(name = "static q", value = "a&b")
+        @Header(name = "X-Static", value = "static")
+        void post(@Query(name = "dynamic") String dynamic, @Header(name = "X-Dynamic") String header, @Body String body);
+
+        @HttpRequest
+        @Version("2")
+        @Query(name = "q", value = "static")
+        void override(@Query(name = "q") String[] q);
+    }
+
+    private static class CapturingApiClient extends DefaultApiClient {
+        private HttpMethod method;
+        private String uri;
+        private Map<String, Collection<Object>> queryParams;
+        private Map<String, Collection<Object>> headers;
+        private Object body;
+        private Class<?> responseType;
+
+        @Override
+        public <B, R> R execute(String apiMethod, HttpMethod method, String uri, String apiKey, Tuple<String, String> credentials, Map<String, Collection<Object>> queryParams, Map<String, Collection<Object>> headers, B body, Class<R> responseType) {
+            this.method = method;
+            this.uri = uri;
+            this.queryParams = queryParams;
+            this.headers = headers;
+            this.body = body;
+            this.responseType = responseType;
+            return null;
+        }
+    }
+
     private interface WrongClass {
         @HttpRequest
         String foo();
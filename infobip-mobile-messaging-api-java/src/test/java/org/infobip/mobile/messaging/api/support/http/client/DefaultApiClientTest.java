@@ -211,6 +211,23 @@ public class DefaultApiClientTest {
         }
     }
 
+    @Test
+    public void execute_withoutStreamingResponseParsing_receivesOK_withRequestErrorAndResponseBody() throws Exception {
+        DefaultApiClient legacyApiClient = new DefaultApiClient.Builder()
+                .withStreamingResponseParsing(false)
+                .build();
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, DefaultApiClient.JSON_SERIALIZER.serialize(new SomeApiResponse("1", "Invalid Application ID", 123)));
+
+        try {
+            legacyApiClient.execute(HttpMethod.POST, "http://127.0.0.1:" + debugServer.getListeningPort(), null, null, MapUtils.map(), null, null, SomeApiResponse.class);
+            Assert.fail("Expected exception ApiBackendExceptionWithContent is not thrown");
+        } catch (ApiBackendExceptionWithContent error) {
+            Assert.assertEquals("1", error.getCode());
+            Assert.assertEquals("Invalid Application ID", error.getMessage());
+            Assert.assertEquals(123, ((SomeApiResponse) error.getContent()).getInternalRegistrationId());
+        }
+    }
+
     @Test
     public void execute_withRequestInterceptors_interceptorsShouldReceiveAllData() throws Exception {
         Map<String, Collection<Object>> givenQueryParams = new HashMap<String, Collection<Object>>() {{
@@ -0,0 +1,93 @@
+package org.infobip.mobile.messaging.api.support.http.client;
+
+import org.infobip.mobile.messaging.api.messages.MessageResponse;
+import org.infobip.mobile.messaging.api.messages.SyncMessagesResponse;
+import org.infobip.mobile.messaging.api.support.Tuple;
+import org.infobip.mobile.messaging.api.support.http.client.model.ApiResponse;
+import org.infobip.mobile.messaging.api.support.http.serialization.JsonSerializer;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseReaderTest {
+
+    private final JsonSerializer serializer = new JsonSerializer();
+    private final ResponseReader[] readers = {new ResponseReader(true), new ResponseReader(false)};
+
+    @Test
+    public void read_shouldDeserializeResponse_inBothModes() throws Exception {
+        String json = "{\"payloads\":[{\"gcm.notification.messageId\":\"id1\",\"gcm.notification.body\":\"body1\",\"internalData\":\"{\\\"key\\\":\\\"ž\\\"}\"}]}";
+
+        for (ResponseReader reader : readers) {
+            Tuple<SyncMessagesResponse, ApiResponse> result = reader.read(stream(json), bytes(json).length, serializer, SyncMessagesResponse.class);
+
+            MessageResponse message = result.getLeft().getPayloads().get(0);
+            assertEquals("id1", message.getMessageId());
+            assertEquals("body1", message.getBody());
+            assertEquals("{\"key\":\"ž\"}", message.getInternalData());
+            assertTrue(result.getRight() == null || result.getRight().getRequestError() == null);
+        }
+    }
+
+    @Test
+    public void read_shouldDetectRequestError_inBothModes() throws Exception {
+        String json = "{\"requestError\":{\"serviceException\":{\"messageId\":\"1\",\"text\":\"Error\"}},\"payloads\":[]}";
+
+        for (ResponseReader reader : readers) {
+            Tuple<SyncMessagesResponse, ApiResponse> result = reader.read(stream(json), bytes(json).length, serializer, SyncMessagesResponse.class);
+
+            assertNotNull(result.getLeft().getPayloads());
+            assertEquals("1", result.getRight().getRequestError().getServiceException().getMessageId());
+            assertEquals("Error", result.getRight().getRequestError().getServiceException().getText());
+        }
+    }
+
+    @Test
+    public void read_shouldDetectRequestError_forApiResponseSubtypes() throws Exception {
+        String json = "{\"requestError\":{\"serviceException\":{\"messageId\":\"2\",\"text\":\"Other error\"}}}";
+
+        for (ResponseReader reader : readers) {
+            Tuple<ApiResponse, ApiResponse> result = reader.read(stream(json), bytes(json).length, serializer, ApiResponse.class);
+
+            assertEquals("2", result.getLeft().getRequestError().getServiceException().getMessageId());
+            assertEquals("Other error", result.getRight().getRequestError().getServiceException().getText());
+        }
+    }
+
+    @Test
+    public void read_shouldReturnNull_forEmptyBody() throws Exception {
+        for (ResponseReader reader : readers) {
+            Tuple<SyncMessagesResponse, ApiResponse> result = reader.read(stream(""), -1, serializer, SyncMessagesResponse.class);
+
+            assertNull(result.getLeft());
+            assertNull(result.getRight());
+        }
+    }
+
+    @Test
+    public void readError_shouldDeserializeApiResponse_inBothModes() throws Exception {
+        String json = "{\"requestError\":{\"serviceException\":{\"messageId\":\"3\",\"text\":\"Invalid\"}}}";
+
+        for (ResponseReader reader : readers) {
+            ApiResponse apiResponse = reader.readError(stream(json), bytes(json).length, serializer);
+
+            assertEquals("3", apiResponse.getRequestError().getServiceException().getMessageId());
+            assertEquals("Invalid", apiResponse.getRequestError().getServiceException().getText());
+        }
+    }
+
+    private static InputStream stream(String s) {
+        return new ByteArrayInputStream(bytes(s));
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(Charset.forName("UTF-8"));
+    }
+}
@@ -0,0 +1,267 @@
+package org.infobip.mobile.messaging.api.support.http.client.metrics;
+
+import org.infobip.mobile.messaging.api.support.ApiIOException;
+import org.infobip.mobile.messaging.api.support.Generator;
+import org.infobip.mobile.messaging.api.support.http.Body;
+import org.infobip.mobile.messaging.api.support.http.HttpRequest;
+import org.infobip.mobile.messaging.api.support.http.Version;
+import org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient;
+import org.infobip.mobile.messaging.api.support.http.client.HttpMethod;
+import org.infobip.mobile.messaging.api.support.http.client.model.ApiResponse;
+import org.infobip.mobile.messaging.api.support.http.client.transport.ExchangeTimings;
+import org.infobip.mobile.messaging.api.support.http.client.transport.KeepAliveTransport;
+import org.infobip.mobile.messaging.api.support.http.client.transport.Transport;
+import org.infobip.mobile.messaging.api.support.http.client.transport.UrlConnectionTransport;
+import org.infobip.mobile.messaging.api.support.util.MapUtils;
+import org.infobip.mobile.messaging.api.tools.DebugServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import fi.iki.elonen.NanoHTTPD;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MetricsListenerTest {
+
+    private static final String RESPONSE = "{\"requestError\":null}";
+
+    private DebugServer debugServer;
+    private CapturingMetricsListener capturingListener;
+    private HistogramMetricsListener histogramListener;
+    private KeepAliveTransport keepAliveTransport;
+
+    @Before
+    public void setUp() throws Exception {
+        debugServer = new DebugServer();
+        debugServer.start();
+        capturingListener = new CapturingMetricsListener();
+        histogramListener = new HistogramMetricsListener();
+        keepAliveTransport = new KeepAliveTransport();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        keepAliveTransport.evictAll();
+        debugServer.stop();
+    }
+
+    @Test
+    public void shouldReportApiMethodStatusAndSizes() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, RESPONSE);
+
+        api(new UrlConnectionTransport()).send(Collections.singletonMap("key", "value"));
+
+        CallMetrics metrics = capturingListener.single();
+        assertEquals("MetricsTestApi.send", metrics.getApiMethod());
+        assertEquals("POST", metrics.getHttpMethod());
+        assertEquals(200, metrics.getStatusCode());
+        assertTrue(metrics.isSuccessful());
+        assertEquals("{\"key\":\"value\"}".length(), metrics.getRequestBytes());
+        assertEquals(RESPONSE.length(), metrics.getResponseBytes());
+        assertEquals(ExchangeTimings.NOT_MEASURED, metrics.getDnsMillis());
+        assertTrue(metrics.getConnectMillis() >= 0);
+        assertTrue(metrics.getTimeToFirstByteMillis() >= 0);
+        assertTrue(metrics.getTotalMillis() >= metrics.getTimeToFirstByteMillis());
+        assertFalse(metrics.isConnectionReused());
+    }
+
+    @Test
+    public void shouldReportConnectionPhases_andReuse_withKeepAliveTransport() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, RESPONSE);
+        MetricsTestApi api = api(keepAliveTransport);
+
+        api.get();
+        api.get();
+
+        assertEquals(2, capturingListener.metrics.size());
+        CallMetrics first = capturingListener.metrics.get(0);
+        CallMetrics second = capturingListener.metrics.get(1);
+        assertEquals("MetricsTestApi.get", first.getApiMethod());
+        assertTrue(first.getDnsMillis() >= 0);
+        assertTrue(first.getConnectMillis() >= 0);
+        assertFalse(first.isConnectionReused());
+        assertEquals(0, first.getRequestBytes());
+        assertTrue(second.isConnectionReused());
+        assertEquals(0, second.getConnectMillis());
+        assertEquals(RESPONSE.length(), second.getResponseBytes());
+    }
+
+    @Test
+    public void shouldReportCompressedSizes_whenGzipIsEnabled() throws Exception {
+        debugServer.respondWithGzip(NanoHTTPD.Response.Status.OK, RESPONSE);
+        MetricsTestApi api = new Generator.Builder()
+                .withBaseUrl(baseUrl())
+                .withTransport(keepAliveTransport)
+                .withGzipCompression(true)
+                .withGzipRequestThreshold(0)
+                .withMetricsListeners(capturingListener)
+                .build()
+                .create(MetricsTestApi.class);
+
+        api.send(Collections.singletonMap("key", "value"));
+
+        CallMetrics metrics = capturingListener.single();
+        assertEquals(debugServer.getBodyLength(), metrics.getRequestBytes());
+        assertTrue(metrics.getResponseBytes() > 0);
+    }
+
+    @Test
+    public void shouldReportErrorStatus() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.BAD_REQUEST, "{\"requestError\":{\"serviceException\":{\"messageId\":\"1\",\"text\":\"Error\"}}}");
+
+        try {
+            api(keepAliveTransport).get();
+            fail();
+        } catch (ApiIOException ignored) {
+        }
+
+        CallMetrics metrics = capturingListener.single();
+        assertEquals(400, metrics.getStatusCode());
+        assertFalse(metrics.isSuccessful());
+        assertNotNull(metrics.getError());
+        assertTrue(metrics.getResponseBytes() > 0);
+    }
+
+    @Test
+    public void shouldReportCall_withoutResponse() throws Exception {
+        int port = debugServer.getListeningPort();
+        debugServer.stop();
+
+        try {
+            new DefaultApiClient.Builder()
+                    .withConnectTimeout(1000)
+                    .withReadTimeout(1000)
+                    .withMetricsListeners(capturingListener)
+                    .build()
+                    .execute(HttpMethod.GET, "http://127.0.0.1:" + port + "/items", null, null, MapUtils.map(), null, null, ApiResponse.class);
+            fail();
+        } catch (ApiIOException ignored) {
+        }
+
+        CallMetrics metrics = capturingListener.single();
+        assertEquals("GET /items", metrics.getApiMethod());
+        assertEquals(-1, metrics.getStatusCode());
+        assertEquals(ExchangeTimings.NOT_MEASURED, metrics.getTimeToFirstByteMillis());
+        assertFalse(metrics.isSuccessful());
+    }
+
+    @Test
+    public void shouldNotFailCall_whenListenerThrows() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, RESPONSE);
+        MetricsTestApi api = new Generator.Builder()
+                .withBaseUrl(baseUrl())
+                .withMetricsListeners(new MetricsListener() {
+                    @Override
+                    public void onCallCompleted(CallMetrics metrics) {
+                        throw new RuntimeException("listener failure");
+                    }
+                }, capturingListener)
+                .build()
+                .create(MetricsTestApi.class);
+
+        assertNull(api.get().getRequestError());
+        assertEquals(1, capturingListener.metrics.size());
+    }
+
+    @Test
+    public void histogram_shouldAggregatePerApiMethod() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, RESPONSE);
+        MetricsTestApi api = api(keepAliveTransport);
+
+        for (int i = 0; i < 10; i++) {
+            api.get();
+        }
+        api.send(Collections.singletonMap("key", "value"));
+
+        Map<String, HistogramMetricsListener.EndpointSnapshot> snapshot = histogramListener.getSnapshot();
+        HistogramMetricsListener.EndpointSnapshot get = snapshot.get("MetricsTestApi.get");
+        assertEquals(2, snapshot.size());
+        assertEquals(10, get.getCallCount());
+        assertEquals(0, get.getErrorCount());
+        assertEquals(Long.valueOf(10), get.getStatusCodeCounts().get(200));
+        assertEquals(10L * RESPONSE.length(), get.getResponseBytes());
+        assertTrue(get.getReusedConnectionCount() >= 9);
+        assertEquals(10, sum(get.getTotalHistogram()));
+        assertEquals(10, sum(get.getTimeToFirstByteHistogram()));
+        assertTrue(get.getTotalPercentileMillis(50) > 0);
+        assertEquals(1, snapshot.get("MetricsTestApi.send").getCallCount());
+    }
+
+    @Test
+    public void histogram_shouldComputePercentilesFromBuckets() {
+        for (int i = 0; i < 90; i++) {
+            histogramListener.onCallCompleted(metrics(5));
+        }
+        for (int i = 0; i < 9; i++) {
+            histogramListener.onCallCompleted(metrics(400));
+        }
+        histogramListener.onCallCompleted(metrics(60000));
+
+        HistogramMetricsListener.EndpointSnapshot snapshot = histogramListener.getSnapshot().get("Api.call");
+        assertEquals(10, snapshot.getTotalPercentileMillis(50));
+        assertEquals(10, snapshot.getTotalPercentileMillis(90));
+        assertEquals(500, snapshot.getTotalPercentileMillis(99));
+        assertEquals(-1, snapshot.getTotalPercentileMillis(100));
+        assertEquals(HistogramMetricsListener.EndpointSnapshot.getBucketsMillis().length + 1, snapshot.getTotalHistogram().length);
+    }
+
+    private MetricsTestApi api(Transport transport) {
+        return new Generator.Builder()
+                .withBaseUrl(baseUrl())
+                .withTransport(transport)
+                .withMetricsListeners(capturingListener, histogramListener)
+                .build()
+                .create(MetricsTestApi.class);
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + debugServer.getListeningPort() + "/";
+    }
+
+    private static CallMetrics metrics(long totalMillis) {
+        return new CallMetrics("Api.call", "GET", 200, 0, 0, totalMillis, totalMillis, true, 0, 0, null);
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private interface MetricsTestApi {
+        @HttpRequest("items")
+        @Version("1")
+        ApiResponse get();
+
+        @HttpRequest(value = "items", method = HttpMethod.POST)
+        @Version("1")
+        ApiResponse send(@Body Map<String, String> body);
+    }
+
+    private static class CapturingMetricsListener implements MetricsListener {
+        final List<CallMetrics> metrics = new ArrayList<>();
+
+        @Override
+        public synchronized void onCallCompleted(CallMetrics metrics) {
+            this.metrics.add(metrics);
+        }
+
+        synchronized CallMetrics single() {
+            assertEquals(1, metrics.size());
+            return metrics.get(0);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package org.infobip.mobile.messaging.api.support.http.client.transport;
+
+import org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient;
+import org.infobip.mobile.messaging.api.support.http.client.HttpMethod;
+import org.infobip.mobile.messaging.api.support.http.client.model.ApiResponse;
+import org.infobip.mobile.messaging.api.support.util.MapUtils;
+import org.infobip.mobile.messaging.api.tools.DebugServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import fi.iki.elonen.NanoHTTPD;
+
+import static org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient.DEFAULT_CONNECT_TIMEOUT;
+import static org.infobip.mobile.messaging.api.support.http.client.DefaultApiClient.DEFAULT_READ_TIMEOUT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class KeepAliveTransportTest {
+
+    private static final int NUMBER_OF_REQUESTS = 50;
+
+    private DebugServer debugServer;
+    private KeepAliveTransport keepAliveTransport;
+
+    @Before
+    public void setUp() throws Exception {
+        debugServer = new DebugServer();
+        debugServer.start();
+        keepAliveTransport = new KeepAliveTransport();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        keepAliveTransport.evictAll();
+        debugServer.stop();
+    }
+
+    @Test
+    public void execute_shouldReuseConnection_forSequentialRequests() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, DefaultApiClient.JSON_SERIALIZER.serialize(new ApiResponse()));
+        DefaultApiClient apiClient = apiClient(keepAliveTransport);
+
+        for (int i = 0; i < NUMBER_OF_REQUESTS; i++) {
+            apiClient.execute(HttpMethod.POST, url(), null, null, MapUtils.map("i", String.valueOf(i)), null, Collections.singletonMap("key", "value"), ApiResponse.class);
+        }
+
+        assertEquals(NUMBER_OF_REQUESTS, debugServer.getRequestCount());
+        assertEquals(1, debugServer.getConnectionCount());
+        assertEquals(1, keepAliveTransport.idleConnectionCount());
+        assertEquals("{\"key\":\"value\"}", debugServer.getBody());
+    }
+
+    @Test
+    public void execute_shouldReuseConnection_whenResponseBodyIsNotRead() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, "{\"some\":\"content\"}");
+        DefaultApiClient apiClient = apiClient(keepAliveTransport);
+
+        apiClient.execute(HttpMethod.POST, url(), null, null, MapUtils.map(), null, null, null);
+        apiClient.execute(HttpMethod.POST, url(), null, null, MapUtils.map(), null, null, null);
+
+        assertEquals(2, debugServer.getRequestCount());
+        assertEquals(1, debugServer.getConnectionCount());
+    }
+
+    @Test
+    public void execute_shouldReuseConnection_afterErrorResponse() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.BAD_REQUEST, "{\"requestError\":{\"serviceException\":{\"messageId\":\"1\",\"text\":\"Error\"}}}");
+        DefaultApiClient apiClient = apiClient(keepAliveTransport);
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                apiClient.execute(HttpMethod.GET, url(), null, null, MapUtils.map(), null, null, ApiResponse.class);
+            } catch (Exception ignored) {
+            }
+        }
+
+        assertEquals(3, debugServer.getRequestCount());
+        assertEquals(1, debugServer.getConnectionCount());
+    }
+
+    @Test
+    public void execute_shouldRetryOnNewConnection_whenPooledConnectionIsClosedByServer() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, DefaultApiClient.JSON_SERIALIZER.serialize(new ApiResponse()));
+        DefaultApiClient apiClient = apiClient(keepAliveTransport);
+
+        apiClient.execute(HttpMethod.GET, url(), null, null, MapUtils.map(), null, null, ApiResponse.class);
+        debugServer.closeAllConnections();
+        Thread.sleep(100);
+        apiClient.execute(HttpMethod.GET, url(), null, null, MapUtils.map(), null, null, ApiResponse.class);
+
+        assertEquals(2, debugServer.getRequestCount());
+        assertEquals(2, debugServer.getConnectionCount());
+    }
+
+    @Test
+    public void execute_shouldKeepAtMostMaxIdleConnectionsPerHost() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, "{}");
+        KeepAliveTransport transport = new KeepAliveTransport(2, KeepAliveTransport.DEFAULT_KEEP_ALIVE_DURATION_MILLIS);
+
+        TransportResponse[] responses = new TransportResponse[4];
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = transport.execute(request());
+        }
+        for (TransportResponse response : responses) {
+            assertEquals(200, response.getResponseCode());
+            response.close();
+        }
+
+        assertEquals(4, debugServer.getConnectionCount());
+        assertEquals(2, transport.idleConnectionCount());
+        transport.evictAll();
+        assertEquals(0, transport.idleConnectionCount());
+    }
+
+    @Test
+    public void execute_shouldEvictIdleConnections() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, "{}");
+        KeepAliveTransport transport = new KeepAliveTransport(5, 100);
+
+        transport.execute(request()).close();
+        assertEquals(1, transport.idleConnectionCount());
+
+        Thread.sleep(500);
+
+        assertEquals(0, transport.idleConnectionCount());
+        transport.execute(request()).close();
+        assertEquals(2, debugServer.getConnectionCount());
+    }
+
+    @Test
+    public void execute_shouldPassHeadersAndReadResponseHeaders() throws Exception {
+        Map<String, String> responseHeaders = new HashMap<>();
+        responseHeaders.put("X-Response", "value");
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, "{}", responseHeaders);
+
+        TransportResponse response = keepAliveTransport.execute(request());
+
+        assertEquals(200, response.getResponseCode());
+        assertEquals("value", response.getHeaderFields().get("x-response").get(0));
+        assertEquals(2, response.getContentLength());
+        assertEquals("test", debugServer.getHeader("X-Test"));
+        response.close();
+    }
+
+    @Test
+    public void execute_shouldReportReusedConnection_forAllButFirstRequest() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, "{}");
+
+        int reused = 0;
+        for (int i = 0; i < NUMBER_OF_REQUESTS; i++) {
+            TransportRequest request = request();
+            keepAliveTransport.execute(request).close();
+            if (request.getTimings().isConnectionReused()) {
+                reused++;
+            }
+        }
+
+        assertEquals(NUMBER_OF_REQUESTS - 1, reused);
+        assertEquals(1, debugServer.getConnectionCount());
+    }
+
+    @Test
+    public void execute_shouldUseNewConnection_forPostAfterPooledConnectionIsClosedByServer() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, "{}");
+
+        keepAliveTransport.execute(request("POST", DEFAULT_READ_TIMEOUT)).close();
+        debugServer.closeAllConnections();
+        Thread.sleep(100);
+        TransportRequest request = request("POST", DEFAULT_READ_TIMEOUT);
+        keepAliveTransport.execute(request).close();
+
+        assertFalse(request.getTimings().isConnectionReused());
+        assertEquals(2, debugServer.getRequestCount());
+        assertEquals(2, debugServer.getConnectionCount());
+    }
+
+    @Test
+    public void execute_shouldNotResendPost_whenReadingResponseTimesOut() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, "{}");
+        keepAliveTransport.execute(request("POST", DEFAULT_READ_TIMEOUT)).close();
+        debugServer.setResponseDelayMillis(1000);
+
+        try {
+            keepAliveTransport.execute(request("POST", 100));
+            fail("Expected read timeout");
+        } catch (SocketTimeoutException ignored) {
+        }
+        Thread.sleep(1500);
+
+        assertEquals(2, debugServer.getRequestCount());
+        assertEquals(1, debugServer.getConnectionCount());
+    }
+
+    @Test
+    public void execute_shouldRejectHeadersWithLineBreaksOrNul_withoutSendingRequest() throws Exception {
+        debugServer.respondWith(NanoHTTPD.Response.Status.OK, "{}");
+        keepAliveTransport.execute(request()).close();
+
+        String[][] illegalHeaders = {
+                {"X-Test", "value\r\nX-Injected: injected"},
+                {"X-Test", "value\nGET /injected HTTP/1.1"},
+                {"X-Test", "value\0"},
+                {"X-Test\r\nX-Injected", "value"}
+        };
+        for (String[] header : illegalHeaders) {
+            TransportRequest request = new TransportRequest(new URL(url()), "GET", Collections.singletonMap(header[0], header[1]), null, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT, false);
+            try {
+                keepAliveTransport.execute(request);
+                fail("Expected illegal header to be rejected: " + header[0] + ": " + header[1]);
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        keepAliveTransport.execute(request()).close();
+
+        assertEquals(2, debugServer.getRequestCount());
+        assertNull(debugServer.getHeader("X-Injected"));
+    }
+
+    private TransportRequest request() throws Exception {
+        return request("GET", DEFAULT_READ_TIMEOUT);
+    }
+
+    private TransportRequest request(String method, int readTimeout) throws Exception {
+        return new TransportRequest(new URL(url()), method, Collections.singletonMap("X-Test", "test"), null, DEFAULT_CONNECT_TIMEOUT, readTimeout, false);
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + debugServer.getListeningPort();
+    }
+
+    private static DefaultApiClient apiClient(Transport transport) {
+        return new DefaultApiClient.Builder()
+                .withTransport(transport)
+                .build();
+    }
+}
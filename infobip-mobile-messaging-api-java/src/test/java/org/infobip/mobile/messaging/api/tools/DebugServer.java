@@ -2,10 +2,17 @@ package org.infobip.mobile.messaging.api.tools;
 
 import org.infobip.mobile.messaging.api.support.util.StreamUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.net.SocketException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import fi.iki.elonen.NanoHTTPD;
 
@@ -14,12 +21,16 @@ public class DebugServer extends NanoHTTPD {
     private Map<String, String> headers = new HashMap<>();
     private Map<String, String> responseHeaders = new HashMap<>();
     private AtomicInteger requestCount = new AtomicInteger(0);
+    private AtomicInteger connectionCount = new AtomicInteger(0);
     private Response.Status status;
     private String mimeType;
     private String txt;
     private Method requestMethod;
     private String uri;
     private String body;
+    private int bodyLength;
+    private boolean gzipResponse;
+    private long responseDelayMillis;
 
     public DebugServer() {
         super(0);
@@ -34,8 +45,9 @@ public class DebugServer extends NanoHTTPD {
         queryParameters = session.getParms();
         headers = session.getHeaders();
         body = readBody(session);
+        delayResponse();
 
-        Response response = new Response(status, mimeType, txt);
+        Response response = gzipResponse ? gzipResponse() : new Response(status, mimeType, txt);
         for (String key : responseHeaders.keySet()) {
             response.addHeader(key, responseHeaders.get(key));
         }
@@ -43,14 +55,67 @@ public class DebugServer extends NanoHTTPD {
         return response;
     }
 
+    @Override
+    public synchronized void registerConnection(Socket socket) {
+        super.registerConnection(socket);
+        connectionCount.incrementAndGet();
+        try {
+            // responses are written in several small chunks, don't let Nagle's algorithm delay them
+            socket.setTcpNoDelay(true);
+        } catch (SocketException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void delayResponse() {
+        if (responseDelayMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(responseDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Response gzipResponse() {
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+            gzipOutputStream.write(txt.getBytes("UTF-8"));
+            gzipOutputStream.close();
+            Response response = new Response(status, mimeType, new ByteArrayInputStream(outputStream.toByteArray()));
+            response.addHeader("Content-Encoding", "gzip");
+            return response;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private String readBody(IHTTPSession session) {
+        bodyLength = 0;
         if (null != headers) {
             String contentLength = headers.get("content-length");
             if (null != contentLength) {
-                long length = Long.parseLong(contentLength);
+                int length = Integer.parseInt(contentLength);
                 if (length > 0) {
                     try {
-                        return StreamUtils.readToString(session.getInputStream(), "UTF-8", length);
+                        byte[] bytes = new byte[length];
+                        InputStream inputStream = session.getInputStream();
+                        int read = 0;
+                        while (read < length) {
+                            int r = inputStream.read(bytes, read, length - read);
+                            if (r == -1) {
+                                break;
+                            }
+                            read += r;
+                        }
+                        bodyLength = read;
+                        InputStream bodyStream = new ByteArrayInputStream(bytes, 0, read);
+                        if ("gzip".equals(headers.get("content-encoding"))) {
+                            bodyStream = new GZIPInputStream(bodyStream);
+                        }
+                        return StreamUtils.readToString(bodyStream, "UTF-8", -1);
                     } catch (IOException e) {
                         e.printStackTrace();
                     }
@@ -72,18 +137,35 @@ public class DebugServer extends NanoHTTPD {
     }
 
     public void respondWith(Response.Status status, String mimeType, String txt) {
+        this.gzipResponse = false;
         this.status = status;
         this.mimeType = mimeType;
         this.txt = txt;
     }
 
     public void respondWith(Response.Status status, String body, Map<String, String> headers) {
+        this.gzipResponse = false;
         this.status = status;
         this.txt = body;
         this.mimeType = "application/json";
         this.responseHeaders = headers;
     }
 
+    /**
+     * Responds with gzip encoded json body.
+     */
+    public void respondWithGzip(Response.Status status, String json) {
+        this.respondWith(status, json);
+        this.gzipResponse = true;
+    }
+
+    /**
+     * Delays all following responses, e.g. to make client time out while reading them.
+     */
+    public void setResponseDelayMillis(long responseDelayMillis) {
+        this.responseDelayMillis = responseDelayMillis;
+    }
+
     public String getQueryParameter(String paramName) {
         return queryParameters.get(paramName);
     }
@@ -92,6 +174,10 @@ public class DebugServer extends NanoHTTPD {
         return requestCount.get();
     }
 
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
     public Method getRequestMethod() {
         return requestMethod;
     }
@@ -100,10 +186,20 @@ public class DebugServer extends NanoHTTPD {
         return uri;
     }
 
+    /**
+     * @return request body, decoded if it was gzip encoded
+     */
     public String getBody() {
         return body;
     }
 
+    /**
+     * @return number of request body bytes received over the wire
+     */
+    public int getBodyLength() {
+        return bodyLength;
+    }
+
     public String getHeader(String headerName) {
         return headers.get(headerName.toLowerCase());
     }